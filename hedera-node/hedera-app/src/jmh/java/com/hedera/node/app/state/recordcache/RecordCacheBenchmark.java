@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2023 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hedera.node.app.state.recordcache;
+
+import static com.hedera.hapi.node.base.ResponseCodeEnum.SUCCESS;
+
+import com.hedera.hapi.node.base.AccountID;
+import com.hedera.hapi.node.base.Timestamp;
+import com.hedera.hapi.node.base.TransactionID;
+import com.hedera.hapi.node.transaction.TransactionReceipt;
+import com.hedera.hapi.node.transaction.TransactionRecord;
+import com.hedera.node.app.AppTestBase;
+import com.swirlds.common.metrics.noop.NoOpMetrics;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.infra.Blackhole;
+
+/** Measures the throughput of receipt queries against a record cache holding the records of many payers */
+@State(Scope.Benchmark)
+@Fork(value = 1, warmups = 1)
+@Threads(4)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class RecordCacheBenchmark extends AppTestBase {
+    @Param({"100", "10000"})
+    public int numPayers;
+
+    @Param({"1", "50"})
+    public int recordsPerPayer;
+
+    private TransactionID[] transactionIDs;
+    private AccountID[] payers;
+    private RecordCacheImpl subject;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final var app = appBuilder().withService(new RecordCacheService()).build();
+        final var dedupeCache = new DeduplicationCacheImpl(app.configProvider(), new NoOpMetrics());
+        subject = new RecordCacheImpl(dedupeCache, app.workingStateAccessor(), app.configProvider());
+
+        payers = new AccountID[numPayers];
+        transactionIDs = new TransactionID[numPayers * recordsPerPayer];
+        final var now = Instant.now();
+        for (int i = 0; i < numPayers; i++) {
+            payers[i] = AccountID.newBuilder().accountNum(1001L + i).build();
+        }
+        // Records of different payers are interleaved, the way they come to consensus
+        for (int j = 0; j < recordsPerPayer; j++) {
+            for (int i = 0; i < numPayers; i++) {
+                final var n = j * numPayers + i;
+                final var txId = TransactionID.newBuilder()
+                        .transactionValidStart(Timestamp.newBuilder().seconds(now.getEpochSecond()).nanos(n))
+                        .accountID(payers[i])
+                        .build();
+                final var record = TransactionRecord.newBuilder()
+                        .transactionID(txId)
+                        .receipt(TransactionReceipt.newBuilder().status(SUCCESS))
+                        .build();
+                transactionIDs[n] = txId;
+                subject.add(0, payers[i], record, now.plusNanos(n));
+            }
+        }
+    }
+
+    @Benchmark
+    public void receiptsByTransactionID(final QueryState queryState, final Blackhole blackhole) {
+        final var txId = transactionIDs[queryState.next(transactionIDs.length)];
+        blackhole.consume(subject.getReceipts(txId));
+    }
+
+    @Benchmark
+    public void receiptsByPayer(final QueryState queryState, final Blackhole blackhole) {
+        final var payer = payers[queryState.next(payers.length)];
+        blackhole.consume(subject.getReceipts(payer));
+    }
+
+    /** Steps through the queried keys, separately for each benchmark thread */
+    @State(Scope.Thread)
+    public static class QueryState {
+        private int index;
+
+        int next(final int bound) {
+            index = (index + 7919) % bound;
+            return index;
+        }
+    }
+}
@@ -107,6 +107,9 @@ public class MonoServicesMain implements SwirldMain {
         exportAccountsIfDesired();
         log.info("Accounts exported (if requested)");
 
+        prewarmCodeCacheIfDesired();
+        log.info("Code cache prewarmed (if requested)");
+
         startNettyIfAppropriate();
         log.info("Netty started (if appropriate)");
     }
@@ -115,6 +118,14 @@ public class MonoServicesMain implements SwirldMain {
         app.accountsExporter().toFile(app.workingState().accounts());
     }
 
+    private void prewarmCodeCacheIfDesired() {
+        final var contracts = app.nodeLocalProperties().prefetchCodeCachePrewarmContracts();
+        if (!contracts.isEmpty()) {
+            final var numCached = app.codeCache().prewarm(contracts);
+            log.info("Loaded code of {}/{} contracts into the code cache", numCached, contracts.size());
+        }
+    }
+
     private void startNettyIfAppropriate() {
         app.grpcStarter().startIfAppropriate();
     }
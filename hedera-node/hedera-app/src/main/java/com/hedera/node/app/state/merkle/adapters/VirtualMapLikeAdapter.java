@@ -33,6 +33,10 @@ import com.swirlds.virtualmap.VirtualMap;
 import com.swirlds.virtualmap.VirtualMapMigration;
 import com.swirlds.virtualmap.VirtualValue;
 import com.swirlds.virtualmap.datasource.VirtualDataSource;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
 
 /**
  * Adapts a {@link VirtualMap} constructed by {@code MerkleHederaState#MerkleStates} by "unwrapping" its
@@ -97,6 +101,21 @@ public final class VirtualMapLikeAdapter {
                         threadCount);
             }
 
+            @Override
+            public <R> List<R> extractVirtualMapDataInRanges(
+                    final ForkJoinPool pool,
+                    final Supplier<R> resultSupplier,
+                    final BiConsumer<R, Pair<K, V>> handler,
+                    final int rangeCount) {
+                return VirtualMapMigration.extractVirtualMapDataInRanges(
+                        pool,
+                        real,
+                        resultSupplier,
+                        (result, pair) -> handler.accept(
+                                result, Pair.of(pair.left().getKey(), pair.right().getValue())),
+                        rangeCount);
+            }
+
             @Override
             public void registerMetrics(final Metrics metrics) {
                 real.registerMetrics(metrics);
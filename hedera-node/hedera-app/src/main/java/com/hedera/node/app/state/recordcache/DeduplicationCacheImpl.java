@@ -16,8 +16,6 @@
 
 package com.hedera.node.app.state.recordcache;
 
-import static com.hedera.node.app.spi.HapiUtils.ACCOUNT_ID_COMPARATOR;
-import static com.hedera.node.app.spi.HapiUtils.TIMESTAMP_COMPARATOR;
 import static com.hedera.node.app.spi.HapiUtils.asTimestamp;
 import static com.hedera.node.app.spi.HapiUtils.minus;
 import static java.util.Objects.requireNonNull;
@@ -26,64 +24,195 @@ import com.hedera.hapi.node.base.TransactionID;
 import com.hedera.node.app.state.DeduplicationCache;
 import com.hedera.node.config.ConfigProvider;
 import com.hedera.node.config.data.HederaConfig;
+import com.swirlds.common.metrics.FunctionGauge;
+import com.swirlds.common.metrics.Metrics;
 import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
 import java.time.Instant;
-import java.util.Comparator;
-import java.util.Set;
-import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
-/** An implementation of {@link DeduplicationCache}. */
+/**
+ * An implementation of {@link DeduplicationCache}.
+ *
+ * <p>The {@link TransactionID}s are grouped into {@link TransactionIdBucket}s by the second of their valid start. The
+ * buckets are kept in a ring with one slot per second, so finding the bucket of a transaction ID is a single array
+ * lookup, and expired transaction IDs are removed by dropping their whole bucket. Once a second, the first thread to
+ * notice that the earliest valid second has moved on drops all expired buckets.
+ *
+ * <p>If the slot of a second is still used by another second that hasn't expired, e.g. for a transaction far in the
+ * future, the bucket is kept in a sorted overflow map instead.
+ */
 @Singleton
 public final class DeduplicationCacheImpl implements DeduplicationCache {
-    /**
-     * The {@link TransactionID}s that this node has already submitted to the platform, sorted by transaction start
-     * time, such that earlier start times come first. We guard this data structure within a synchronized block.
-     */
-    private final Set<TransactionID> submittedTxns = new ConcurrentSkipListSet<>(
-            (t1, t2) -> Comparator.comparing(TransactionID::transactionValidStartOrThrow, TIMESTAMP_COMPARATOR)
-                    .thenComparing(TransactionID::accountID, ACCOUNT_ID_COMPARATOR)
-                    .compare(t1, t2));
+    /** The number of slots in the ring, a power of two larger than the max transaction duration */
+    static final int RING_SECONDS = 512;
+
+    private static final int RING_MASK = RING_SECONDS - 1;
+    private static final String METRIC_CATEGORY = "app";
+    private static final String SIZE_NAME = "dedupCacheSize";
+    private static final String SIZE_DESC = "number of transaction IDs in the deduplication cache";
+    private static final String PROBE_LENGTH_NAME = "dedupCacheProbeLength";
+    private static final String PROBE_LENGTH_DESC =
+            "average number of slots probed per deduplication cache lookup in the last second";
+
+    /** The bucket of each second in the max transaction duration window, at slot {@code second % RING_SECONDS} */
+    private final AtomicReferenceArray<TransactionIdBucket> ring = new AtomicReferenceArray<>(RING_SECONDS);
+    /** The buckets of seconds whose slot in the {@link #ring} is used by another second that hasn't expired */
+    private final ConcurrentSkipListMap<Long, TransactionIdBucket> overflow = new ConcurrentSkipListMap<>();
+    /** All buckets of seconds before this one have been dropped */
+    private final AtomicLong purgedBefore = new AtomicLong(Long.MIN_VALUE);
+
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder probes = new LongAdder();
+    private long lastLookups;
+    private long lastProbes;
+    private volatile double probeLength;
 
     /** Used for looking up the max transaction duration window. */
     private final ConfigProvider configProvider;
 
-    /** Constructs a new {@link DeduplicationCacheImpl}. */
+    /**
+     * Constructs a new {@link DeduplicationCacheImpl}.
+     *
+     * @param configProvider used for looking up the max transaction duration window
+     * @param metrics used to report the size of the cache and the length of its probe sequences
+     */
     @Inject
-    public DeduplicationCacheImpl(@NonNull final ConfigProvider configProvider) {
+    public DeduplicationCacheImpl(@NonNull final ConfigProvider configProvider, @NonNull final Metrics metrics) {
         this.configProvider = requireNonNull(configProvider);
+        requireNonNull(metrics);
+        metrics.getOrCreate(new FunctionGauge.Config<>(METRIC_CATEGORY, SIZE_NAME, Long.class, this::size)
+                .withDescription(SIZE_DESC));
+        metrics.getOrCreate(
+                new FunctionGauge.Config<>(METRIC_CATEGORY, PROBE_LENGTH_NAME, Double.class, () -> probeLength)
+                        .withDescription(PROBE_LENGTH_DESC)
+                        .withFormat("%,13.2f"));
     }
 
     /** {@inheritDoc} */
     @Override
     public void add(@NonNull final TransactionID transactionID) {
-        // We don't want to use another thread to prune the set, so we will take the opportunity here to do so.
-        // Remember that at this point we have passed through all the throttles, so this method is only called
-        // at most 10,000 / (Number of nodes) times per second, which is not a lot.
+        // We don't want to use another thread to drop expired buckets, so we will take the opportunity here to do so.
         final var epochSeconds = earliestEpicSecond();
         removeTransactionsOlderThan(epochSeconds);
 
-        // If the transaction is within the max transaction duration window, then add it to the set.
-        if (transactionID.transactionValidStartOrThrow().seconds() >= epochSeconds) {
-            submittedTxns.add(transactionID);
+        // If the transaction is within the max transaction duration window, then add it to its bucket.
+        final var second = transactionID.transactionValidStartOrThrow().seconds();
+        if (second >= epochSeconds) {
+            final var bucket = bucketFor(second, epochSeconds, true);
+            requireNonNull(bucket).add(transactionID);
         }
     }
 
     /** {@inheritDoc} */
     @Override
     public boolean contains(@NonNull final TransactionID transactionID) {
-        // We will prune the set here as well. By pruning before looking up, we are sure that we only return true
-        // if the transactionID is still valid
+        // An expired transaction ID may still be in a bucket that hasn't been dropped yet, so we check the valid start
+        // to be sure that we only return true if the transactionID is still valid
         final var epochSeconds = earliestEpicSecond();
         removeTransactionsOlderThan(epochSeconds);
-        return submittedTxns.contains(transactionID);
+        final var second = transactionID.transactionValidStartOrThrow().seconds();
+        if (second < epochSeconds) {
+            return false;
+        }
+        final var bucket = bucketFor(second, epochSeconds, false);
+        return bucket != null && bucket.contains(transactionID);
     }
 
     /** {@inheritDoc} */
     @Override
     public void clear() {
-        submittedTxns.clear();
+        for (int slot = 0; slot < RING_SECONDS; slot++) {
+            ring.set(slot, null);
+        }
+        overflow.clear();
+    }
+
+    /**
+     * Gets the number of transaction IDs in the cache, including expired IDs whose bucket hasn't been dropped yet.
+     *
+     * @return the number of transaction IDs
+     */
+    long size() {
+        long size = 0;
+        for (int slot = 0; slot < RING_SECONDS; slot++) {
+            final var bucket = ring.get(slot);
+            if (bucket != null) {
+                size += bucket.size();
+            }
+        }
+        for (final var bucket : overflow.values()) {
+            size += bucket.size();
+        }
+        return size;
+    }
+
+    /**
+     * Gets the bucket of the given second, which must not be before the earliest valid second.
+     *
+     * @param second the epoch second of the valid start of a transaction ID
+     * @param earliestSecond the earliest epoch second that should be kept in the cache
+     * @param create whether to create the bucket if it doesn't exist
+     * @return the bucket, or null if it doesn't exist and {@code create} is false
+     */
+    @Nullable
+    private TransactionIdBucket bucketFor(final long second, final long earliestSecond, final boolean create) {
+        final var slot = (int) (second & RING_MASK);
+        final var bucket = ring.get(slot);
+        if (bucket != null && bucket.second() == second) {
+            return bucket;
+        }
+        final var overflowBucket = overflow.get(second);
+        if (overflowBucket != null || !create) {
+            return overflowBucket;
+        }
+        return createBucket(second, earliestSecond);
+    }
+
+    /**
+     * Gets the bucket of the given second, creating it if it doesn't exist yet. Buckets are only created by this
+     * method, and while holding the lock the ring and the overflow map are checked and the new bucket installed in one
+     * step. Otherwise two threads could create buckets of the same second, one in the ring and one in the overflow
+     * map, and transaction IDs added to one of them would not be found by a lookup that finds the other. A bucket
+     * never moves once it's installed, so lookups don't need the lock. Buckets are only created about once per second,
+     * so the lock is not contended.
+     *
+     * @param second the epoch second of the valid start of a transaction ID
+     * @param earliestSecond the earliest epoch second that should be kept in the cache
+     * @return the bucket
+     */
+    @NonNull
+    private synchronized TransactionIdBucket createBucket(final long second, final long earliestSecond) {
+        final var slot = (int) (second & RING_MASK);
+        while (true) {
+            final var bucket = ring.get(slot);
+            if (bucket != null && bucket.second() == second) {
+                return bucket;
+            }
+            final var overflowBucket = overflow.get(second);
+            if (overflowBucket != null) {
+                return overflowBucket;
+            }
+            final var newBucket = newBucket(second);
+            if (bucket != null && bucket.second() >= earliestSecond) {
+                overflow.put(second, newBucket);
+                return newBucket;
+            }
+            // The slot is empty or its bucket has expired, so the bucket of this second takes its place. The CAS only
+            // fails if the slot's expired bucket was dropped in the meantime, then the slot is checked again
+            if (ring.compareAndSet(slot, bucket, newBucket)) {
+                return newBucket;
+            }
+        }
+    }
+
+    private TransactionIdBucket newBucket(final long second) {
+        return new TransactionIdBucket(second, lookups, probes);
     }
 
     /**
@@ -99,20 +228,33 @@ public final class DeduplicationCacheImpl implements DeduplicationCache {
     }
 
     /**
-     * Removes all expired {@link TransactionID}s from the cache. This method is not threadsafe and should only be
-     * called from within a block synchronized on {@link #submittedTxns}.
+     * Drops the buckets of all expired {@link TransactionID}s from the cache. This only does work once per second, in
+     * the first thread that calls it with a new earliest epoch second.
      *
      * @param earliestEpochSecond The earliest epoch second that should be kept in the cache.
      */
     private void removeTransactionsOlderThan(final long earliestEpochSecond) {
-        final var itr = submittedTxns.iterator();
-        while (itr.hasNext()) {
-            final var txId = itr.next();
-            if (txId.transactionValidStartOrThrow().seconds() < earliestEpochSecond) {
-                itr.remove();
-            } else {
-                return;
+        final var purged = purgedBefore.get();
+        if (earliestEpochSecond <= purged || !purgedBefore.compareAndSet(purged, earliestEpochSecond)) {
+            return;
+        }
+        for (int slot = 0; slot < RING_SECONDS; slot++) {
+            final var bucket = ring.get(slot);
+            if (bucket != null && bucket.second() < earliestEpochSecond) {
+                ring.compareAndSet(slot, bucket, null);
             }
         }
+        overflow.headMap(earliestEpochSecond).clear();
+        updateProbeLength();
+    }
+
+    private synchronized void updateProbeLength() {
+        final var numLookups = lookups.sum();
+        final var numProbes = probes.sum();
+        if (numLookups > lastLookups) {
+            probeLength = (double) (numProbes - lastProbes) / (numLookups - lastLookups);
+        }
+        lastLookups = numLookups;
+        lastProbes = numProbes;
     }
 }
@@ -0,0 +1,158 @@
+/*
+ * Copyright (C) 2023 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hedera.node.app.state.recordcache;
+
+import static java.util.Collections.emptyList;
+
+import com.hedera.hapi.node.transaction.TransactionReceipt;
+import com.hedera.hapi.node.transaction.TransactionRecord;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * The {@link TransactionRecord}s paid for by a single payer account, in consensus order, used by
+ * {@link RecordCacheImpl}.
+ *
+ * <p>The records are kept in a ring buffer. New records are added at the tail when they are handled, and records
+ * expire from the head in the same order they were added, so both are constant time. Queries copy the most recent
+ * records straight from the ring into the array backing the returned list.
+ *
+ * <p>Records are added and removed on the handle thread, and queried from any thread, so all methods are synchronized.
+ */
+final class PayerRecords {
+    private static final int INITIAL_CAPACITY = 4;
+
+    /** The records, oldest first starting at {@link #head}. The capacity is always a power of two. */
+    private TransactionRecord[] records = new TransactionRecord[INITIAL_CAPACITY];
+    /** The index of the oldest record */
+    private int head;
+    /** The number of records */
+    private int size;
+
+    /**
+     * Adds a record that came to consensus after all records already in the ring.
+     *
+     * @param transactionRecord the record to add
+     */
+    synchronized void add(@NonNull final TransactionRecord transactionRecord) {
+        if (size == records.length) {
+            grow();
+        }
+        records[(head + size) & (records.length - 1)] = transactionRecord;
+        size++;
+    }
+
+    /**
+     * Removes an expired record. Records expire in consensus order, so this is normally the oldest record.
+     *
+     * @param transactionRecord the record to remove
+     */
+    synchronized void remove(@NonNull final TransactionRecord transactionRecord) {
+        if (size == 0) {
+            return;
+        }
+        final var mask = records.length - 1;
+        if (!isSame(records[head], transactionRecord)) {
+            // Should never happen, but if it does, keep the ring consistent with the queue in state
+            removeOutOfOrder(transactionRecord);
+            return;
+        }
+        records[head] = null;
+        head = (head + 1) & mask;
+        size--;
+    }
+
+    /**
+     * Gets whether there are no records.
+     *
+     * @return {@code true} if there are no records
+     */
+    synchronized boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Gets the most recent records, oldest first.
+     *
+     * @param max the maximum number of records to return
+     * @return up to {@code max} of the most recent records
+     */
+    @NonNull
+    synchronized List<TransactionRecord> mostRecent(final int max) {
+        return mostRecent(max, Function.identity());
+    }
+
+    /**
+     * Gets the receipts of the most recent records, oldest first.
+     *
+     * @param max the maximum number of receipts to return
+     * @return the receipts of up to {@code max} of the most recent records
+     */
+    @NonNull
+    synchronized List<TransactionReceipt> mostRecentReceipts(final int max) {
+        return mostRecent(max, TransactionRecord::receipt);
+    }
+
+    private <T> List<T> mostRecent(final int max, @NonNull final Function<TransactionRecord, T> mapper) {
+        final var n = Math.min(size, max);
+        if (n <= 0) {
+            return emptyList();
+        }
+        final var mask = records.length - 1;
+        final var start = head + size - n;
+        @SuppressWarnings("unchecked")
+        final var result = (T[]) new Object[n];
+        for (int i = 0; i < n; i++) {
+            result[i] = mapper.apply(records[(start + i) & mask]);
+        }
+        return Collections.unmodifiableList(Arrays.asList(result));
+    }
+
+    private void removeOutOfOrder(@NonNull final TransactionRecord transactionRecord) {
+        final var mask = records.length - 1;
+        for (int i = 0; i < size; i++) {
+            if (isSame(records[(head + i) & mask], transactionRecord)) {
+                // Shift the newer records one slot towards the head
+                for (int j = i; j < size - 1; j++) {
+                    records[(head + j) & mask] = records[(head + j + 1) & mask];
+                }
+                records[(head + size - 1) & mask] = null;
+                size--;
+                return;
+            }
+        }
+    }
+
+    private void grow() {
+        final var grown = new TransactionRecord[records.length * 2];
+        final var mask = records.length - 1;
+        for (int i = 0; i < size; i++) {
+            grown[i] = records[(head + i) & mask];
+        }
+        records = grown;
+        head = 0;
+    }
+
+    private static boolean isSame(@NonNull final TransactionRecord a, @NonNull final TransactionRecord b) {
+        // The record in the queue is usually the same instance that was added here
+        return a == b || Objects.equals(a, b);
+    }
+}
@@ -23,6 +23,9 @@ import static com.hedera.node.app.spi.HapiUtils.minus;
 import static com.hedera.node.app.state.recordcache.RecordCacheService.NAME;
 import static com.hedera.node.app.state.recordcache.RecordCacheService.TXN_RECORD_QUEUE;
 import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.unmodifiableList;
+import static java.util.Collections.unmodifiableSet;
 import static java.util.Objects.requireNonNull;
 
 import com.hedera.hapi.node.base.AccountID;
@@ -46,6 +49,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
@@ -61,23 +65,51 @@ import javax.inject.Singleton;
  *
  * <p>However, storing them in a queue of this nature does not provide efficient access to the data itself. For this
  * reason, in-memory data structures are used to provide efficient access to the data. These data structures are rebuilt
- * after reconnect or restart, and kept in sync with the data in state.
+ * after reconnect or restart, and kept in sync with the data in state. The records of each transaction ID, and their
+ * receipts, are kept in immutable lists, and the records of each payer are kept in consensus order in a
+ * {@link PayerRecords} ring. So queries can be answered without collecting, sorting, or copying records.
  *
  * <p>Mutation methods must be called during startup, reconnect, or on the "handle" thread. Getters may be called from
  * any thread.
  */
 @Singleton
 public class RecordCacheImpl implements HederaRecordCache {
+    /** The receipts returned for a transaction that is known, but has not been handled yet */
+    private static final List<TransactionReceipt> UNHANDLED_RECEIPTS =
+            List.of(TransactionReceipt.newBuilder().status(UNKNOWN).build());
+
     /**
      * An item stored in the {@link #histories} cache. These histories are stored in a map keyed by transaction ID.
      *
      * @param nodeIds The IDs of every node that submitted a transaction with the txId that came to consensus and was
      *                handled.
      * @param records Every {@link TransactionRecord} handled for every transaction that came to consensus with the txId
+     * @param receipts The receipts of the records, in the same order
      */
-    private record History(@NonNull Set<Long> nodeIds, @NonNull List<TransactionRecord> records) {
-        History() {
-            this(new HashSet<>(), new ArrayList<>());
+    private record History(
+            @NonNull Set<Long> nodeIds,
+            @NonNull List<TransactionRecord> records,
+            @NonNull List<TransactionReceipt> receipts) {
+        /**
+         * Creates the history of a transaction ID with its first record.
+         */
+        static History of(final long nodeId, @NonNull final TransactionRecord transactionRecord) {
+            return new History(Set.of(nodeId), List.of(transactionRecord), singletonList(transactionRecord.receipt()));
+        }
+
+        /**
+         * Creates a copy of this history with one more record. Histories are immutable, so that queries on other
+         * threads can return their lists without copying them. Almost all histories only have a single record.
+         */
+        History with(final long nodeId, @NonNull final TransactionRecord transactionRecord) {
+            final var newNodeIds = new HashSet<>(nodeIds);
+            newNodeIds.add(nodeId);
+            final var newRecords = new ArrayList<>(records);
+            newRecords.add(transactionRecord);
+            final var newReceipts = new ArrayList<>(receipts);
+            newReceipts.add(transactionRecord.receipt());
+            return new History(
+                    unmodifiableSet(newNodeIds), unmodifiableList(newRecords), unmodifiableList(newReceipts));
         }
     }
 
@@ -93,11 +125,11 @@ public class RecordCacheImpl implements HederaRecordCache {
      */
     private final Map<TransactionID, History> histories;
     /**
-     * A secondary index that maps from an AccountID of the payer account to a set of transaction IDs that were
-     * submitted by this payer. This is only needed for answering such queries. Ideally such queries would exist on the
-     * mirror node instead.
+     * A secondary index that maps from an AccountID of the payer account to the records of the transactions paid for by
+     * this payer, in consensus order. This is only needed for answering such queries. Ideally such queries would exist
+     * on the mirror node instead.
      */
-    private final Map<AccountID, Set<TransactionID>> payerToTransactionIndex = new ConcurrentHashMap<>();
+    private final Map<AccountID, PayerRecords> payerToRecordsIndex = new ConcurrentHashMap<>();
 
     @Inject
     public RecordCacheImpl(
@@ -118,7 +150,7 @@ public class RecordCacheImpl implements HederaRecordCache {
      */
     public void rebuild() {
         histories.clear();
-        payerToTransactionIndex.clear();
+        payerToRecordsIndex.clear();
         deduplicationCache.clear();
 
         final var queue = getReadableQueue();
@@ -144,10 +176,10 @@ public class RecordCacheImpl implements HederaRecordCache {
         requireNonNull(payerAccountId);
         requireNonNull(transactionRecord);
         requireNonNull(consensusTimestamp);
-        addToInMemoryCache(nodeId, payerAccountId, transactionRecord);
-
         final var queue = getQueue();
         removeExpiredTransactions(queue, consensusTimestamp);
+
+        addToInMemoryCache(nodeId, payerAccountId, transactionRecord);
         queue.add(new TransactionRecordEntry(nodeId, payerAccountId, transactionRecord));
     }
 
@@ -164,16 +196,18 @@ public class RecordCacheImpl implements HederaRecordCache {
             @NonNull final TransactionRecord transactionRecord) {
         // Add to the main histories cache
         final var txId = transactionRecord.transactionIDOrThrow();
-        final var cacheItem = histories.computeIfAbsent(txId, ignored -> new History());
-        cacheItem.nodeIds().add(nodeId);
-        cacheItem.records().add(transactionRecord);
-        // Add to the payer to transaction index
-        final var transactionIDs = payerToTransactionIndex.computeIfAbsent(payerAccountId, ignored -> new HashSet<>());
-        transactionIDs.add(txId);
+        histories.compute(txId, (ignored, history) -> history == null
+                ? History.of(nodeId, transactionRecord)
+                : history.with(nodeId, transactionRecord));
+        // Add to the payer to records index
+        payerToRecordsIndex
+                .computeIfAbsent(payerAccountId, ignored -> new PayerRecords())
+                .add(transactionRecord);
     }
 
     /**
-     * Removes all expired {@link TransactionID}s from the cache.
+     * Removes all expired {@link TransactionID}s from the cache. Entries are removed from the head of the queue, which
+     * is in consensus order, and each removal from the in memory data structures is constant time.
      */
     private void removeExpiredTransactions(
             @NonNull final WritableQueueState<TransactionRecordEntry> queue,
@@ -183,27 +217,24 @@ public class RecordCacheImpl implements HederaRecordCache {
         final var config = configProvider.getConfiguration().getConfigData(HederaConfig.class);
         final var earliestValidState = minus(now, config.transactionMaxValidDuration());
 
-        // Loop in order and expunge every entry where the timestamp is before the current time. Also remove from the
-        // in memory data structures.
-        final var itr = queue.iterator();
-        while (itr.hasNext()) {
-            final var entry = itr.next();
+        // Expunge every entry at the head of the queue where the timestamp is before the current time. Also remove
+        // from the in memory data structures.
+        final Predicate<TransactionRecordEntry> isExpired = e -> isBefore(
+                e.transactionRecordOrThrow().transactionIDOrThrow().transactionValidStartOrThrow(), earliestValidState);
+        TransactionRecordEntry entry;
+        while ((entry = queue.removeIf(isExpired)) != null) {
             final var rec = entry.transactionRecordOrThrow();
-            final var txId = rec.transactionIDOrThrow();
-            // If the timestamp is before the current time, then it has expired
-            if (isBefore(txId.transactionValidStartOrThrow(), earliestValidState)) {
-                // Remove from the histories
-                itr.remove();
-                // Remove from the payer to transaction index
-                final var payerAccountId = txId.accountIDOrThrow(); // NOTE: Not accurate if the payer was the node
-                final var transactionIDs =
-                        payerToTransactionIndex.computeIfAbsent(payerAccountId, ignored -> new HashSet<>());
-                transactionIDs.remove(txId);
-                if (transactionIDs.isEmpty()) {
-                    payerToTransactionIndex.remove(payerAccountId);
+            // Remove from the histories. All records with this transaction ID have the same valid start, so they have
+            // all expired.
+            histories.remove(rec.transactionIDOrThrow());
+            // Remove from the payer to records index, using the same payer the record was added with
+            final var payerAccountId = entry.payerAccountIdOrThrow();
+            final var payerRecords = payerToRecordsIndex.get(payerAccountId);
+            if (payerRecords != null) {
+                payerRecords.remove(rec);
+                if (payerRecords.isEmpty()) {
+                    payerToRecordsIndex.remove(payerAccountId);
                 }
-            } else {
-                return;
             }
         }
     }
@@ -222,40 +253,32 @@ public class RecordCacheImpl implements HederaRecordCache {
     @NonNull
     @Override
     public List<TransactionRecord> getRecords(@NonNull final AccountID accountID) {
-        final var transactionIDs = payerToTransactionIndex.get(accountID);
-        if (transactionIDs == null) {
-            return emptyList();
-        }
-
+        final var payerRecords = payerToRecordsIndex.get(accountID);
         // Note that at **most** LedgerConfig#recordsMaxQueryableByAccount() records will be available, even if the
-        // given account has paid for more than this number of transactions in the last 180 seconds.
-        var maxRemaining = configProvider
-                .getConfiguration()
-                .getConfigData(LedgerConfig.class)
-                .recordsMaxQueryableByAccount();
+        // given account has paid for more than this number of transactions in the last 180 seconds. These are the most
+        // recent records, oldest first.
+        return payerRecords == null ? emptyList() : payerRecords.mostRecent(maxQueryableByAccount());
+    }
 
-        // While we still need to gather more records, collect them from the different histories.
-        final var records = new ArrayList<TransactionRecord>(maxRemaining);
-        for (final var transactionID : transactionIDs) {
-            final var history = histories.get(transactionID);
-            if (history != null) {
-                final var recs = history.records();
-                records.addAll(recs.size() > maxRemaining ? recs.subList(0, maxRemaining) : recs);
-                maxRemaining -= recs.size();
-                if (maxRemaining <= 0) break;
-            }
+    @NonNull
+    @Override
+    public List<TransactionReceipt> getReceipts(@NonNull final TransactionID transactionID) {
+        final var history = histories.get(transactionID);
+        if (history != null) {
+            return history.receipts();
         }
-
-        return records;
+        return deduplicationCache.contains(transactionID) ? UNHANDLED_RECEIPTS : emptyList();
     }
 
     @NonNull
     @Override
-    public List<TransactionReceipt> getReceipts(@NonNull final TransactionID transactionID) {
-        final var records = getRecords(transactionID);
-        return records.isEmpty() && deduplicationCache.contains(transactionID)
-                ? List.of(TransactionReceipt.newBuilder().status(UNKNOWN).build())
-                : records.stream().map(TransactionRecord::receipt).toList();
+    public List<TransactionReceipt> getReceipts(@NonNull final AccountID accountID) {
+        final var payerRecords = payerToRecordsIndex.get(accountID);
+        return payerRecords == null ? emptyList() : payerRecords.mostRecentReceipts(maxQueryableByAccount());
+    }
+
+    private int maxQueryableByAccount() {
+        return configProvider.getConfiguration().getConfigData(LedgerConfig.class).recordsMaxQueryableByAccount();
     }
 
     /** Utility method that get the writable queue from the working state */
@@ -0,0 +1,203 @@
+/*
+ * Copyright (C) 2023 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hedera.node.app.state.recordcache;
+
+import static java.util.Objects.requireNonNull;
+
+import com.hedera.hapi.node.base.TransactionID;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The {@link TransactionID}s with a valid start in a single second, used by {@link DeduplicationCacheImpl}.
+ *
+ * <p>Almost all transaction IDs have a payer in shard 0 and realm 0 given by its account number, and are not for a
+ * scheduled transaction. Such an ID is packed into two longs, the account number of the payer, and the nanos of the
+ * valid start together with the nonce. The seconds of the valid start are the same for all IDs in the bucket. Packed
+ * IDs are stored in an open-addressed hash set with linear probing, so adding and looking up an ID doesn't allocate.
+ * All other IDs are stored as they are in a regular {@link Set}.
+ *
+ * <p>All methods are synchronized. Each bucket only holds the IDs of a single second, so there is little contention.
+ */
+final class TransactionIdBucket {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int NANOS_PER_SECOND = 1_000_000_000;
+    /** Marks an empty slot. The account number of a packed ID is never negative. */
+    private static final long EMPTY = -1L;
+
+    /** The epoch second of the valid start of all IDs in this bucket */
+    private final long second;
+    /** Counts the lookups of packed IDs, shared by all buckets */
+    private final LongAdder lookups;
+    /** Counts the slots probed by lookups of packed IDs, shared by all buckets */
+    private final LongAdder probes;
+
+    /** The payer account numbers of the packed IDs, or {@link #EMPTY} */
+    private long[] payers;
+    /** The valid start nanos (upper 32 bits) and nonce (lower 32 bits) of the packed IDs */
+    private long[] nanosAndNonces;
+    /** The number of packed IDs */
+    private int numPacked;
+    /** The IDs that can't be packed, created when the first one is added */
+    private Set<TransactionID> unpacked;
+
+    TransactionIdBucket(final long second, @NonNull final LongAdder lookups, @NonNull final LongAdder probes) {
+        this.second = second;
+        this.lookups = requireNonNull(lookups);
+        this.probes = requireNonNull(probes);
+        this.payers = emptySlots(INITIAL_CAPACITY);
+        this.nanosAndNonces = new long[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Gets the epoch second of the valid start of all IDs in this bucket.
+     *
+     * @return the epoch second
+     */
+    long second() {
+        return second;
+    }
+
+    /**
+     * Adds an ID to this bucket, if it isn't in the bucket yet. The ID must have a valid start in the second of this
+     * bucket.
+     *
+     * @param txId the ID to add
+     */
+    synchronized void add(@NonNull final TransactionID txId) {
+        if (!isPackable(txId)) {
+            if (unpacked == null) {
+                unpacked = new HashSet<>();
+            }
+            unpacked.add(txId);
+            return;
+        }
+        final var payer = txId.accountIDOrThrow().accountNumOrThrow();
+        final var nanosAndNonce = nanosAndNonceOf(txId);
+        final var slot = find(payer, nanosAndNonce);
+        if (slot < 0) {
+            final var emptySlot = -slot - 1;
+            payers[emptySlot] = payer;
+            nanosAndNonces[emptySlot] = nanosAndNonce;
+            // Keep the load factor at or below 1/2, so probe sequences stay short
+            if (++numPacked * 2 > payers.length) {
+                grow();
+            }
+        }
+    }
+
+    /**
+     * Gets whether this bucket contains the given ID.
+     *
+     * @param txId the ID to look up
+     * @return {@code true} if the ID is in this bucket
+     */
+    synchronized boolean contains(@NonNull final TransactionID txId) {
+        if (!isPackable(txId)) {
+            return unpacked != null && unpacked.contains(txId);
+        }
+        return find(txId.accountIDOrThrow().accountNumOrThrow(), nanosAndNonceOf(txId)) >= 0;
+    }
+
+    /**
+     * Gets the number of IDs in this bucket.
+     *
+     * @return the number of IDs
+     */
+    synchronized int size() {
+        return numPacked + (unpacked == null ? 0 : unpacked.size());
+    }
+
+    /**
+     * Finds the slot of a packed ID.
+     *
+     * @return the slot of the ID if it is present, or {@code -(empty slot) - 1} where it would be stored otherwise
+     */
+    private int find(final long payer, final long nanosAndNonce) {
+        final var mask = payers.length - 1;
+        var slot = slotOf(payer, nanosAndNonce, mask);
+        var numProbes = 1;
+        try {
+            while (payers[slot] != EMPTY) {
+                if (payers[slot] == payer && nanosAndNonces[slot] == nanosAndNonce) {
+                    return slot;
+                }
+                slot = (slot + 1) & mask;
+                numProbes++;
+            }
+            return -slot - 1;
+        } finally {
+            lookups.increment();
+            probes.add(numProbes);
+        }
+    }
+
+    private void grow() {
+        final var oldPayers = payers;
+        final var oldNanosAndNonces = nanosAndNonces;
+        payers = emptySlots(oldPayers.length * 2);
+        nanosAndNonces = new long[oldPayers.length * 2];
+        final var mask = payers.length - 1;
+        for (int i = 0; i < oldPayers.length; i++) {
+            if (oldPayers[i] != EMPTY) {
+                var slot = slotOf(oldPayers[i], oldNanosAndNonces[i], mask);
+                while (payers[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                payers[slot] = oldPayers[i];
+                nanosAndNonces[slot] = oldNanosAndNonces[i];
+            }
+        }
+    }
+
+    private static boolean isPackable(@NonNull final TransactionID txId) {
+        final var payer = txId.accountID();
+        if (payer == null || payer.shardNum() != 0 || payer.realmNum() != 0 || !payer.hasAccountNum()) {
+            return false;
+        }
+        final var nanos = txId.transactionValidStartOrThrow().nanos();
+        return payer.accountNumOrThrow() >= 0
+                && nanos >= 0
+                && nanos < NANOS_PER_SECOND
+                && txId.nonce() >= 0
+                && !txId.scheduled();
+    }
+
+    private static long nanosAndNonceOf(@NonNull final TransactionID txId) {
+        return ((long) txId.transactionValidStartOrThrow().nanos() << 32) | txId.nonce();
+    }
+
+    private static int slotOf(final long payer, final long nanosAndNonce, final int mask) {
+        // Mix all bits, since payers and nanos are often close to each other (murmur3 finalizer)
+        long hash = payer * 0x9E3779B97F4A7C15L + nanosAndNonce;
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+        return (int) hash & mask;
+    }
+
+    private static long[] emptySlots(final int capacity) {
+        final var slots = new long[capacity];
+        Arrays.fill(slots, EMPTY);
+        return slots;
+    }
+}
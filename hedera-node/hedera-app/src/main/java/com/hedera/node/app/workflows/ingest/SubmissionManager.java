@@ -41,7 +41,7 @@ import javax.inject.Singleton;
  * attempt to <strong>avoid</strong> submitting duplicate transactions to the platform.
  *
  * <p>An honest node does not want to submit duplicate transactions (since it will be charged for it). We use an
- * in-memory cache to keep track of transactions that have been submitted, sorted by transaction start time. This cache
+ * in-memory cache to keep track of transactions that have been submitted, grouped by transaction start time. This cache
  * is not part of state, because it will be different for different nodes.
  *
  * <p>Because this cache is not in state, if this node is restarted, it will forget about transactions it has already
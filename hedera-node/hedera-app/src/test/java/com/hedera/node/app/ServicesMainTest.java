@@ -31,6 +31,7 @@ import com.hedera.node.app.service.mono.ServicesState;
 import com.hedera.node.app.service.mono.context.CurrentPlatformStatus;
 import com.hedera.node.app.service.mono.context.MutableStateChildren;
 import com.hedera.node.app.service.mono.context.NodeInfo;
+import com.hedera.node.app.service.mono.context.properties.NodeLocalProperties;
 import com.hedera.node.app.service.mono.context.properties.SerializableSemVers;
 import com.hedera.node.app.service.mono.grpc.GrpcStarter;
 import com.hedera.node.app.service.mono.state.exports.AccountsExporter;
@@ -38,6 +39,7 @@ import com.hedera.node.app.service.mono.state.logic.StatusChangeListener;
 import com.hedera.node.app.service.mono.state.migration.AccountStorageAdapter;
 import com.hedera.node.app.service.mono.state.validation.LedgerValidator;
 import com.hedera.node.app.service.mono.stats.ServicesStatsManager;
+import com.hedera.node.app.service.mono.store.contracts.CodeCache;
 import com.hedera.node.app.service.mono.stream.RecordStreamManager;
 import com.hedera.node.app.service.mono.utils.NamedDigestFactory;
 import com.hedera.node.app.service.mono.utils.SystemExits;
@@ -55,7 +57,9 @@ import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.security.NoSuchAlgorithmException;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Supplier;
+import org.hyperledger.besu.datatypes.Address;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -121,6 +125,12 @@ final class ServicesMainTest {
     @Mock
     private AccountsExporter accountsExporter;
 
+    @Mock
+    private NodeLocalProperties nodeLocalProperties;
+
+    @Mock
+    private CodeCache codeCache;
+
     @Mock
     private GrpcStarter grpcStarter;
 
@@ -188,6 +198,7 @@ final class ServicesMainTest {
         verify(notificationEngine).register(NewSignedStateListener.class, newSignedStateListener);
         verify(statsManager).initializeFor(platform);
         verify(accountsExporter).toFile(accounts);
+        verify(codeCache).prewarm(Set.of(Address.ZERO));
         verify(notificationEngine).register(ReconnectCompleteListener.class, reconnectListener);
         verify(notificationEngine).register(StateWriteToDiskCompleteListener.class, stateToDiskListener);
         verify(grpcStarter).startIfAppropriate();
@@ -292,6 +303,9 @@ final class ServicesMainTest {
         given(app.stateWriteToDiskListener()).willReturn(stateToDiskListener);
         given(app.statsManager()).willReturn(statsManager);
         given(app.accountsExporter()).willReturn(accountsExporter);
+        given(app.nodeLocalProperties()).willReturn(nodeLocalProperties);
+        given(nodeLocalProperties.prefetchCodeCachePrewarmContracts()).willReturn(Set.of(Address.ZERO));
+        given(app.codeCache()).willReturn(codeCache);
         given(app.grpcStarter()).willReturn(grpcStarter);
     }
 
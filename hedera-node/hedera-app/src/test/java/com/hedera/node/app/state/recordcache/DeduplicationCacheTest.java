@@ -16,19 +16,27 @@
 
 package com.hedera.node.app.state.recordcache;
 
+import static com.hedera.node.app.state.recordcache.DeduplicationCacheImpl.RING_SECONDS;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
+import com.hedera.hapi.node.base.AccountID;
 import com.hedera.hapi.node.base.Timestamp;
 import com.hedera.hapi.node.base.TransactionID;
-import com.hedera.node.app.state.DeduplicationCache;
 import com.hedera.node.config.ConfigProvider;
 import com.hedera.node.config.VersionedConfiguration;
 import com.hedera.node.config.data.HederaConfig;
+import com.hedera.pbj.runtime.io.buffer.Bytes;
+import com.swirlds.common.metrics.Metrics;
+import com.swirlds.common.metrics.noop.NoOpMetrics;
 import java.time.Instant;
-import java.util.Set;
-import java.util.stream.Stream;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -40,14 +48,17 @@ import org.mockito.junit.jupiter.MockitoExtension;
 final class DeduplicationCacheTest {
     private static final long MAX_TXN_DURATION = 180;
 
-    private DeduplicationCache cache;
+    private DeduplicationCacheImpl cache;
 
     @Mock
     private ConfigProvider props;
 
+    @Mock
+    private HederaConfig hederaConfig;
+
     @BeforeEach
-    void setUp(@Mock final VersionedConfiguration versionedConfig, @Mock final HederaConfig hederaConfig) {
-        cache = new DeduplicationCacheImpl(props);
+    void setUp(@Mock final VersionedConfiguration versionedConfig) {
+        cache = new DeduplicationCacheImpl(props, new NoOpMetrics());
         lenient().when(props.getConfiguration()).thenReturn(versionedConfig);
         lenient().when(versionedConfig.getConfigData(HederaConfig.class)).thenReturn(hederaConfig);
         lenient().when(hederaConfig.transactionMaxValidDuration()).thenReturn(MAX_TXN_DURATION);
@@ -56,8 +67,19 @@ final class DeduplicationCacheTest {
     @Test
     @DisplayName("Constructor args cannot be null")
     void constructorArgsCannotBeNull() {
+        final var metrics = new NoOpMetrics();
+        //noinspection DataFlowIssue
+        assertThatThrownBy(() -> new DeduplicationCacheImpl(null, metrics)).isInstanceOf(NullPointerException.class);
         //noinspection DataFlowIssue
-        assertThatThrownBy(() -> new DeduplicationCacheImpl(null)).isInstanceOf(NullPointerException.class);
+        assertThatThrownBy(() -> new DeduplicationCacheImpl(props, null)).isInstanceOf(NullPointerException.class);
+    }
+
+    @Test
+    @DisplayName("Size and probe length metrics are registered")
+    void metricsAreRegistered(@Mock final Metrics metrics) {
+        new DeduplicationCacheImpl(props, metrics);
+
+        verify(metrics, times(2)).getOrCreate(any());
     }
 
     // Add a transaction ID that has expired
@@ -66,17 +88,13 @@ final class DeduplicationCacheTest {
     void addTransactionIDThatHasExpired() {
         // Given a transaction ID that has expired
         final var now = Instant.now();
-        final var txId = TransactionID.newBuilder()
-                .transactionValidStart(Timestamp.newBuilder()
-                        .seconds(now.getEpochSecond() - MAX_TXN_DURATION - 1)
-                        .build())
-                .build();
+        final var txId = txIdAt(now.getEpochSecond() - MAX_TXN_DURATION - 1);
 
         // When we add it to the cache
         cache.add(txId);
 
         // Then it is not added!
-        assertThat(internalSet()).isEmpty();
+        assertThat(cache.size()).isZero();
         assertThat(cache.contains(txId)).isFalse();
     }
 
@@ -85,18 +103,14 @@ final class DeduplicationCacheTest {
     void addTransactionIDInTheFuture() {
         // Given a transaction ID that is far in the future
         final var now = Instant.now();
-        final var txId = TransactionID.newBuilder()
-                .transactionValidStart(Timestamp.newBuilder()
-                        .seconds(now.getEpochSecond() + MAX_TXN_DURATION + 1)
-                        .build())
-                .build();
+        final var txId = txIdAt(now.getEpochSecond() + MAX_TXN_DURATION + 1);
 
         // When we add it to the cache
         cache.add(txId);
 
         // We allow it to be added. The TransactionChecker is responsible for filtering out future transactions,
         // not this cache.
-        assertThat(internalSet()).containsExactly(txId);
+        assertThat(cache.size()).isEqualTo(1);
         assertThat(cache.contains(txId)).isTrue();
     }
 
@@ -105,93 +119,168 @@ final class DeduplicationCacheTest {
     void addTransactionIDInTheRightTimeWindow() {
         // Given a transaction ID that is in the right time window
         final var now = Instant.now();
-        final var txId = TransactionID.newBuilder()
-                .transactionValidStart(Timestamp.newBuilder()
-                        .seconds(now.getEpochSecond() + MAX_TXN_DURATION / 2)
-                        .build())
-                .build();
+        final var txId = txIdAt(now.getEpochSecond() + MAX_TXN_DURATION / 2);
 
         // When we add it to the cache
         cache.add(txId);
 
         // Then it is added
-        assertThat(internalSet()).containsExactly(txId);
+        assertThat(cache.size()).isEqualTo(1);
         assertThat(cache.contains(txId)).isTrue();
     }
 
     @Test
-    @DisplayName("TransactionIDs are sorted by earliest date first")
-    void transactionIDsAreSortedByEarliestDateFirst() {
+    @DisplayName("TransactionIDs in many different seconds are all found")
+    void transactionIDsInManySecondsAreFound() {
         // Given some transaction IDs with different valid start times
         final var now = Instant.now();
-        final var txIds = Stream.of(17, 16, 10, 13, 19, 14, 11, 18, 12, 15)
-                .map(i -> TransactionID.newBuilder()
-                        .transactionValidStart(Timestamp.newBuilder()
-                                .seconds(now.getEpochSecond() + i)
-                                .build())
-                        .build())
+        final var txIds = IntStream.range(0, 100)
+                .mapToObj(i -> txIdAt(now.getEpochSecond() - MAX_TXN_DURATION / 2 + i))
                 .toList();
 
         // When we add them to the cache
         txIds.forEach(cache::add);
 
-        // Then they are added in order
-        assertThat(internalSet())
-                .containsExactly(
-                        txIds.get(2),
-                        txIds.get(6),
-                        txIds.get(8),
-                        txIds.get(3),
-                        txIds.get(5),
-                        txIds.get(9),
-                        txIds.get(1),
-                        txIds.get(0),
-                        txIds.get(7),
-                        txIds.get(4));
+        // Then they are all found
+        assertThat(cache.size()).isEqualTo(txIds.size());
+        assertThat(txIds).allMatch(cache::contains);
     }
 
     @Test
-    @DisplayName("TransactionIDs that expire are removed during add")
-    void expungeDuringAdd() {
-        // Given a transaction ID that has expired but is still in the cache
+    @DisplayName("TransactionIDs whose slot is taken by another unexpired second are found")
+    void transactionIDsSharingASlotAreFound() {
+        // Given a max transaction duration longer than the ring
         final var now = Instant.now();
-        final var txId = TransactionID.newBuilder()
+        lenient().when(hederaConfig.transactionMaxValidDuration()).thenReturn(2L * RING_SECONDS);
+        final var earlier = txIdAt(now.getEpochSecond() - RING_SECONDS);
+        final var later = txIdAt(now.getEpochSecond());
+
+        // When we add transaction IDs whose seconds are a full ring apart
+        cache.add(earlier);
+        cache.add(later);
+
+        // Then both are found
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.contains(earlier)).isTrue();
+        assertThat(cache.contains(later)).isTrue();
+    }
+
+    @Test
+    @DisplayName("TransactionIDs added concurrently to new buckets are all found")
+    void concurrentlyAddedTransactionIDsAreFound() throws Exception {
+        // Given a max transaction duration longer than the ring, and a slot that is taken by an unexpired second
+        final var now = Instant.now();
+        lenient().when(hederaConfig.transactionMaxValidDuration()).thenReturn(2L * RING_SECONDS);
+        cache.add(txIdAt(now.getEpochSecond() - RING_SECONDS));
+        final var threads = 8;
+        final var idsPerThread = 1_000;
+        final var pool = Executors.newFixedThreadPool(threads);
+        try {
+            // When many threads add transaction IDs of new seconds at the same time, both to empty and taken slots
+            final var start = new CountDownLatch(1);
+            final var futures = IntStream.range(0, threads)
+                    .mapToObj(thread -> pool.submit(() -> {
+                        start.await();
+                        for (int i = 0; i < idsPerThread; i++) {
+                            cache.add(txIdAt(now.getEpochSecond() - i % 4, 1_000_000L * thread + i));
+                        }
+                        return null;
+                    }))
+                    .toList();
+            start.countDown();
+            for (final var future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        // Then all of them are found, as every second has a single bucket
+        assertThat(cache.size()).isEqualTo(1L + threads * idsPerThread);
+        for (int thread = 0; thread < threads; thread++) {
+            for (int i = 0; i < idsPerThread; i++) {
+                assertThat(cache.contains(txIdAt(now.getEpochSecond() - i % 4, 1_000_000L * thread + i)))
+                        .isTrue();
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("TransactionIDs that differ in any field are distinct")
+    void transactionIDsThatDifferAreDistinct() {
+        // Given transaction IDs that only differ in a single field
+        final var now = Instant.now();
+        final var txId = txIdAt(now.getEpochSecond());
+        final var otherNanos = txId.copyBuilder()
                 .transactionValidStart(Timestamp.newBuilder()
-                        .seconds(now.getEpochSecond() - MAX_TXN_DURATION - 1)
+                        .seconds(now.getEpochSecond())
+                        .nanos(1)
                         .build())
                 .build();
-        internalSet().add(txId);
+        final var otherPayer = txId.copyBuilder()
+                .accountID(AccountID.newBuilder().accountNum(1002L).build())
+                .build();
+        final var otherNonce = txId.copyBuilder().nonce(1).build();
+        final var scheduled = txId.copyBuilder().scheduled(true).build();
+        final var aliasPayer = txId.copyBuilder()
+                .accountID(AccountID.newBuilder().alias(Bytes.wrap(new byte[] {1, 2, 3})).build())
+                .build();
+
+        // When we add only the first one
+        cache.add(txId);
+
+        // Then none of the others are found
+        assertThat(cache.contains(txId)).isTrue();
+        assertThat(cache.contains(otherNanos)).isFalse();
+        assertThat(cache.contains(otherPayer)).isFalse();
+        assertThat(cache.contains(otherNonce)).isFalse();
+        assertThat(cache.contains(scheduled)).isFalse();
+        assertThat(cache.contains(aliasPayer)).isFalse();
+
+        // And when we add the others, they are all found
+        cache.add(otherNanos);
+        cache.add(otherPayer);
+        cache.add(otherNonce);
+        cache.add(scheduled);
+        cache.add(aliasPayer);
+        assertThat(cache.size()).isEqualTo(6);
+        assertThat(cache.contains(scheduled)).isTrue();
+        assertThat(cache.contains(aliasPayer)).isTrue();
+    }
+
+    @Test
+    @DisplayName("TransactionIDs that expire are removed during add")
+    void expungeDuringAdd() {
+        // Given a transaction ID in the cache that expires once the max transaction duration is shortened
+        final var now = Instant.now();
+        final var txId = txIdAt(now.getEpochSecond() - MAX_TXN_DURATION / 2);
+        cache.add(txId);
+        lenient().when(hederaConfig.transactionMaxValidDuration()).thenReturn(MAX_TXN_DURATION / 4);
 
         // When we add a new transaction ID that is in the right time window
-        final var txId2 = TransactionID.newBuilder()
-                .transactionValidStart(Timestamp.newBuilder()
-                        .seconds(now.getEpochSecond() + MAX_TXN_DURATION / 2)
-                        .build())
-                .build();
+        final var txId2 = txIdAt(now.getEpochSecond());
         cache.add(txId2);
 
         // Then we find that the expired transaction ID is gone
-        assertThat(internalSet()).containsExactly(txId2);
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.contains(txId2)).isTrue();
     }
 
     @Test
     @DisplayName("TransactionIDs that expire are not returned by `contains`")
     void expiredNotContained() {
-        // Given a transaction ID that has expired but is still in the cache
+        // Given a transaction ID in the cache that expires once the max transaction duration is shortened
         final var now = Instant.now();
-        final var txId = TransactionID.newBuilder()
-                .transactionValidStart(Timestamp.newBuilder()
-                        .seconds(now.getEpochSecond() - MAX_TXN_DURATION - 1)
-                        .build())
-                .build();
-        internalSet().add(txId);
+        final var txId = txIdAt(now.getEpochSecond() - MAX_TXN_DURATION / 2);
+        cache.add(txId);
+        lenient().when(hederaConfig.transactionMaxValidDuration()).thenReturn(MAX_TXN_DURATION / 4);
 
         // When we check to see if it is in the cache
         final var result = cache.contains(txId);
 
         // Then we find that the expired transaction ID is gone
         assertThat(result).isFalse();
-        assertThat(internalSet()).isEmpty();
+        assertThat(cache.size()).isZero();
     }
 
     @Test
@@ -199,35 +288,41 @@ final class DeduplicationCacheTest {
     void duplicatesAreIgnored() {
         // Given a transaction ID that is in the right time window
         final var now = Instant.now();
-        final var txId = TransactionID.newBuilder()
-                .transactionValidStart(Timestamp.newBuilder()
-                        .seconds(now.getEpochSecond() + MAX_TXN_DURATION / 2)
-                        .build())
-                .build();
+        final var txId = txIdAt(now.getEpochSecond() + MAX_TXN_DURATION / 2);
 
         // When we add it to the cache twice
         cache.add(txId);
         cache.add(txId);
 
         // Then it is added only once
-        assertThat(internalSet()).containsExactly(txId);
+        assertThat(cache.size()).isEqualTo(1);
         assertThat(cache.contains(txId)).isTrue();
     }
 
-    /**
-     * Utility method for testing purposes that gets at the internal Set used by the cache. This makes it possible to
-     * test more completely without having to open the access permissions on the cache itself.
-     *
-     * @return The internal Set of the cache.
-     */
-    private Set<TransactionID> internalSet() {
-        try {
-            final var field = DeduplicationCacheImpl.class.getDeclaredField("submittedTxns");
-            field.setAccessible(true);
-            //noinspection unchecked
-            return (Set<TransactionID>) field.get(cache);
-        } catch (NoSuchFieldException | IllegalAccessException e) {
-            throw new RuntimeException(e);
-        }
+    @Test
+    @DisplayName("Clear removes all TransactionIDs")
+    void clearRemovesEverything() {
+        // Given a transaction ID in the cache
+        final var now = Instant.now();
+        final var txId = txIdAt(now.getEpochSecond());
+        cache.add(txId);
+
+        // When we clear the cache
+        cache.clear();
+
+        // Then it is gone
+        assertThat(cache.size()).isZero();
+        assertThat(cache.contains(txId)).isFalse();
+    }
+
+    private static TransactionID txIdAt(final long seconds) {
+        return txIdAt(seconds, 1001L);
+    }
+
+    private static TransactionID txIdAt(final long seconds, final long accountNum) {
+        return TransactionID.newBuilder()
+                .accountID(AccountID.newBuilder().accountNum(accountNum).build())
+                .transactionValidStart(Timestamp.newBuilder().seconds(seconds).build())
+                .build();
     }
 }
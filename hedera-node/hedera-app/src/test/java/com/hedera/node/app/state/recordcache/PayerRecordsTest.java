@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2023 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hedera.node.app.state.recordcache;
+
+import static com.hedera.hapi.node.base.ResponseCodeEnum.SUCCESS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.hedera.hapi.node.base.AccountID;
+import com.hedera.hapi.node.base.Timestamp;
+import com.hedera.hapi.node.base.TransactionID;
+import com.hedera.hapi.node.transaction.TransactionReceipt;
+import com.hedera.hapi.node.transaction.TransactionRecord;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+final class PayerRecordsTest {
+    private static final AccountID PAYER_ACCOUNT_ID =
+            AccountID.newBuilder().accountNum(1001).build();
+
+    private final PayerRecords subject = new PayerRecords();
+    private int nextNanos;
+
+    @Test
+    @DisplayName("A new instance has no records")
+    void newInstanceIsEmpty() {
+        assertThat(subject.isEmpty()).isTrue();
+        assertThat(subject.mostRecent(10)).isEmpty();
+        assertThat(subject.mostRecentReceipts(10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("The most recent records are returned oldest first")
+    void mostRecentRecordsAreReturnedOldestFirst() {
+        // Given more records than will be queried
+        final var records = addRecords(20);
+
+        // When we query for the most recent records
+        final var found = subject.mostRecent(10);
+
+        // Then the last 10 records are returned in the order they were added
+        assertThat(found).containsExactlyElementsOf(records.subList(10, 20));
+        assertThat(subject.mostRecent(30)).containsExactlyElementsOf(records);
+        assertThat(subject.mostRecentReceipts(3))
+                .containsExactly(
+                        records.get(17).receipt(),
+                        records.get(18).receipt(),
+                        records.get(19).receipt());
+    }
+
+    @Test
+    @DisplayName("Records removed from the head are no longer returned, even after the ring wraps around")
+    void removedRecordsAreNotReturned() {
+        // Given some records, of which the oldest have been removed
+        final var records = addRecords(3);
+        subject.remove(records.get(0));
+        subject.remove(records.get(1));
+
+        // When more records are added, so the ring wraps around and grows
+        records.addAll(addRecords(6));
+
+        // Then only the records that were not removed are returned, in order
+        assertThat(subject.mostRecent(100)).containsExactlyElementsOf(records.subList(2, records.size()));
+    }
+
+    @Test
+    @DisplayName("A record that is not the oldest can still be removed")
+    void removeOutOfOrder() {
+        // Given some records
+        final var records = addRecords(5);
+
+        // When a record in the middle is removed
+        subject.remove(records.get(2));
+
+        // Then all other records are still returned in order
+        assertThat(subject.mostRecent(5))
+                .containsExactly(records.get(0), records.get(1), records.get(3), records.get(4));
+    }
+
+    @Test
+    @DisplayName("Removing all records leaves an empty instance")
+    void removeAll() {
+        // Given some records
+        final var records = addRecords(5);
+
+        // When all of them are removed in the order they were added
+        records.forEach(subject::remove);
+
+        // Then there are no records left
+        assertThat(subject.isEmpty()).isTrue();
+        assertThat(subject.mostRecent(5)).isEmpty();
+    }
+
+    private List<TransactionRecord> addRecords(final int numRecords) {
+        final var records = new ArrayList<TransactionRecord>();
+        for (int i = 0; i < numRecords; i++) {
+            final var txId = TransactionID.newBuilder()
+                    .transactionValidStart(Timestamp.newBuilder().seconds(1_234_567L).nanos(nextNanos++))
+                    .accountID(PAYER_ACCOUNT_ID)
+                    .build();
+            final var record = TransactionRecord.newBuilder()
+                    .transactionID(txId)
+                    .receipt(TransactionReceipt.newBuilder().status(SUCCESS))
+                    .build();
+            subject.add(record);
+            records.add(record);
+        }
+        return records;
+    }
+}
@@ -43,9 +43,11 @@ import com.hedera.node.config.ConfigProvider;
 import com.hedera.node.config.VersionedConfiguration;
 import com.hedera.node.config.data.HederaConfig;
 import com.hedera.node.config.data.LedgerConfig;
+import com.swirlds.common.metrics.noop.NoOpMetrics;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
@@ -84,7 +86,7 @@ final class RecordCacheImplTest {
             @Mock final HederaConfig hederaConfig,
             @Mock final LedgerConfig ledgerConfig,
             @Mock final NetworkInfo networkInfo) {
-        dedupeCache = new DeduplicationCacheImpl(props);
+        dedupeCache = new DeduplicationCacheImpl(props, new NoOpMetrics());
         final var registry = new FakeSchemaRegistry();
         final var state = new FakeHederaState();
         final var svc = new RecordCacheService();
@@ -286,6 +288,75 @@ final class RecordCacheImplTest {
         }
     }
 
+    @Nested
+    @DisplayName("Expiration of records")
+    final class ExpirationTests {
+        @Test
+        @DisplayName("Records with an expired transaction ID are removed from the cache")
+        void expiredRecordsAreRemoved() {
+            // Given a cache with a record for a transaction ID in state
+            final var oldTxId = transactionID();
+            final var oldRecord = transactionRecord(oldTxId);
+            addToState(new TransactionRecordEntry(0, PAYER_ACCOUNT_ID, oldRecord));
+            final var cache = new RecordCacheImpl(dedupeCache, wsa, props);
+            assertThat(cache.getRecords(PAYER_ACCOUNT_ID)).containsExactly(oldRecord);
+
+            // When a record for a newer transaction is added after the max valid duration has passed
+            final var newConsensusTime = Instant.now().plusSeconds(200);
+            final var newTxId = oldTxId.copyBuilder()
+                    .transactionValidStart(Timestamp.newBuilder().seconds(newConsensusTime.getEpochSecond()))
+                    .build();
+            final var newRecord = transactionRecord(newTxId);
+            cache.add(0, PAYER_ACCOUNT_ID, newRecord, newConsensusTime);
+
+            // Then the old record is gone, and only the new record is left for the payer
+            assertThat(cache.getRecord(oldTxId)).isNull();
+            assertThat(cache.getRecords(oldTxId)).isEmpty();
+            assertThat(cache.getRecord(newTxId)).isEqualTo(newRecord);
+            assertThat(cache.getRecords(PAYER_ACCOUNT_ID)).containsExactly(newRecord);
+            assertThat(cache.getReceipts(PAYER_ACCOUNT_ID)).containsExactly(newRecord.receipt());
+        }
+
+        @Test
+        @DisplayName("The payer index is removed once all records of the payer have expired")
+        void payerWithOnlyExpiredRecordsIsRemoved() {
+            // Given a cache with a record for one payer in state
+            final var otherPayer = AccountID.newBuilder().accountNum(1002).build();
+            addToState(new TransactionRecordEntry(0, PAYER_ACCOUNT_ID, transactionRecord(transactionID())));
+            final var cache = new RecordCacheImpl(dedupeCache, wsa, props);
+
+            // When a record for another payer is added after the max valid duration has passed
+            final var newConsensusTime = Instant.now().plusSeconds(200);
+            final var newTxId = TransactionID.newBuilder()
+                    .transactionValidStart(Timestamp.newBuilder().seconds(newConsensusTime.getEpochSecond()))
+                    .accountID(otherPayer)
+                    .build();
+            cache.add(0, otherPayer, transactionRecord(newTxId), newConsensusTime);
+
+            // Then there are no records left for the first payer
+            assertThat(cache.getRecords(PAYER_ACCOUNT_ID)).isEmpty();
+            assertThat(cache.getReceipts(PAYER_ACCOUNT_ID)).isEmpty();
+            assertThat(cache.getRecords(otherPayer)).hasSize(1);
+        }
+
+        private void addToState(@NonNull final TransactionRecordEntry entry) {
+            final var state = wsa.getHederaState();
+            assertThat(state).isNotNull();
+            final var services = state.createWritableStates(RecordCacheService.NAME);
+            final WritableQueueState<TransactionRecordEntry> queue =
+                    services.getQueue(RecordCacheService.TXN_RECORD_QUEUE);
+            queue.add(entry);
+            ((ListWritableQueueState<?>) queue).commit();
+        }
+
+        private TransactionRecord transactionRecord(@NonNull final TransactionID txId) {
+            return TransactionRecord.newBuilder()
+                    .transactionID(txId)
+                    .receipt(TransactionReceipt.newBuilder().status(SUCCESS))
+                    .build();
+        }
+    }
+
     @Nested
     @DisplayName("Queries for receipts")
     final class ReceiptQueryTests {
@@ -577,6 +648,30 @@ final class RecordCacheImplTest {
             assertThat(cache.getRecords(PAYER_ACCOUNT_ID)).containsExactly(record);
         }
 
+        @Test
+        @DisplayName("The most recent records for an account ID are returned in consensus order")
+        void queryForMostRecentRecordsForAccountID() {
+            // Given more records for the same payer than can be queried
+            final var cache = new RecordCacheImpl(dedupeCache, wsa, props);
+            final var records = new ArrayList<TransactionRecord>();
+            var consensusTime = Instant.now().plusSeconds(2);
+            for (int i = 0; i < MAX_QUERYABLE_PER_ACCOUNT + 5; i++) {
+                consensusTime = consensusTime.plus(1, ChronoUnit.NANOS);
+                final var record = TransactionRecord.newBuilder()
+                        .transactionID(transactionID(i))
+                        .receipt(TransactionReceipt.newBuilder().status(SUCCESS))
+                        .build();
+                records.add(record);
+                cache.add(0, PAYER_ACCOUNT_ID, record, consensusTime);
+            }
+
+            // When we query for the records for the payer account ID
+            final var found = cache.getRecords(PAYER_ACCOUNT_ID);
+
+            // Then we get back the most recent records, oldest first
+            assertThat(found).containsExactlyElementsOf(records.subList(5, records.size()));
+        }
+
         static Stream<Arguments> receiptStatusCodes() {
             final var allValues = new HashSet<>(Arrays.asList(ResponseCodeEnum.values()));
             allValues.remove(UNKNOWN);
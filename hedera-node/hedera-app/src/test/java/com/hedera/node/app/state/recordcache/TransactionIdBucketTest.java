@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2023 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hedera.node.app.state.recordcache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.hedera.hapi.node.base.AccountID;
+import com.hedera.hapi.node.base.Timestamp;
+import com.hedera.hapi.node.base.TransactionID;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+final class TransactionIdBucketTest {
+    private static final long SECOND = 1_234_567L;
+
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder probes = new LongAdder();
+
+    private TransactionIdBucket subject;
+
+    @BeforeEach
+    void setUp() {
+        subject = new TransactionIdBucket(SECOND, lookups, probes);
+    }
+
+    @Test
+    @DisplayName("The bucket grows to hold many packed TransactionIDs")
+    void growsToHoldManyIds() {
+        // Given many transaction IDs with different payers and nanos
+        final List<TransactionID> txIds = IntStream.range(0, 10_000)
+                .mapToObj(i -> txId(1_000L + i % 100, i * 997))
+                .toList();
+
+        // When we add them all, twice
+        txIds.forEach(subject::add);
+        txIds.forEach(subject::add);
+
+        // Then each is held once and found
+        assertThat(subject.second()).isEqualTo(SECOND);
+        assertThat(subject.size()).isEqualTo(txIds.size());
+        assertThat(txIds).allMatch(subject::contains);
+        assertThat(subject.contains(txId(999L, 0))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Lookups of packed TransactionIDs are counted with the slots they probe")
+    void countsLookupsAndProbes() {
+        // When we add a transaction ID and look it up
+        subject.add(txId(1001L, 1));
+        subject.contains(txId(1001L, 1));
+
+        // Then both lookups probed at least one slot
+        assertThat(lookups.sum()).isEqualTo(2);
+        assertThat(probes.sum()).isGreaterThanOrEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("TransactionIDs that can't be packed are held as they are")
+    void unpackableIdsAreHeld() {
+        // Given transaction IDs that can't be packed
+        final var noPayer = TransactionID.newBuilder()
+                .transactionValidStart(Timestamp.newBuilder().seconds(SECOND).build())
+                .build();
+        final var otherRealm = txId(1001L, 0)
+                .copyBuilder()
+                .accountID(AccountID.newBuilder().realmNum(1L).accountNum(1001L).build())
+                .build();
+
+        // When we add them
+        subject.add(noPayer);
+        subject.add(otherRealm);
+
+        // Then they are found, without any probing
+        assertThat(subject.size()).isEqualTo(2);
+        assertThat(subject.contains(noPayer)).isTrue();
+        assertThat(subject.contains(otherRealm)).isTrue();
+        assertThat(subject.contains(txId(1001L, 0))).isFalse();
+        assertThat(lookups.sum()).isEqualTo(1);
+    }
+
+    private static TransactionID txId(final long payer, final int nanos) {
+        return TransactionID.newBuilder()
+                .accountID(AccountID.newBuilder().accountNum(payer).build())
+                .transactionValidStart(
+                        Timestamp.newBuilder().seconds(SECOND).nanos(nanos).build())
+                .build();
+    }
+}
@@ -65,6 +65,7 @@ import com.hedera.node.app.throttle.ThrottleAccumulator;
 import com.hedera.node.app.workflows.TransactionChecker;
 import com.hedera.node.app.workflows.TransactionInfo;
 import com.hedera.node.config.testfixtures.HederaTestConfigBuilder;
+import com.swirlds.common.metrics.noop.NoOpMetrics;
 import com.swirlds.common.system.status.PlatformStatus;
 import java.time.Instant;
 import java.util.Map;
@@ -136,7 +137,7 @@ class IngestCheckerTest extends AppTestBase {
         when(transactionChecker.check(tx)).thenReturn(transactionInfo);
 
         final var configProvider = HederaTestConfigBuilder.createConfigProvider();
-        this.deduplicationCache = new DeduplicationCacheImpl(configProvider);
+        this.deduplicationCache = new DeduplicationCacheImpl(configProvider, new NoOpMetrics());
 
         subject = new IngestChecker(
                 currentPlatformStatus,
@@ -28,4 +28,5 @@ public record BalancesConfig(
         @ConfigProperty(defaultValue = "900") @NodeProperty int exportPeriodSecs,
         @ConfigProperty(defaultValue = "true") @NodeProperty boolean exportTokenBalances,
         @ConfigProperty(defaultValue = "0") @NodeProperty long nodeBalanceWarningThreshold,
-        @ConfigProperty(defaultValue = "true") @NodeProperty boolean compressOnCreation) {}
+        @ConfigProperty(defaultValue = "true") @NodeProperty boolean compressOnCreation,
+        @ConfigProperty(defaultValue = "32") @NodeProperty int summaryThreadPoolSize) {}
@@ -51,6 +51,10 @@ public record HederaConfig(
         @ConfigProperty(value = "prefetch.threadPoolSize", defaultValue = "4") @NodeProperty int prefetchThreadPoolSize,
         @ConfigProperty(value = "prefetch.codeCacheTtlSecs", defaultValue = "600") @NodeProperty
                 int prefetchCodeCacheTtlSecs,
+        @ConfigProperty(value = "prefetch.codeCacheMaxBytes", defaultValue = "268435456") @NodeProperty
+                long prefetchCodeCacheMaxBytes,
+        // @ConfigProperty(value = "prefetch.codeCachePrewarmContracts", defaultValue = "") Set<Address>
+        // prefetchCodeCachePrewarmContracts,
         // @ConfigProperty(value = "profiles.active", defaultValue = "PROD") Profile profilesActive,
         @ConfigProperty(value = "profiles.active", defaultValue = "PROD") @NodeProperty String activeProfile,
         @ConfigProperty(value = "workflow.verificationTimeoutMS", defaultValue = "20000") @NetworkProperty
@@ -23,48 +23,130 @@ import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import com.google.common.annotations.VisibleForTesting;
 import com.hedera.node.app.service.evm.store.contracts.utils.BytesKey;
+import com.swirlds.common.metrics.FunctionGauge;
+import com.swirlds.common.metrics.Metrics;
 import edu.umd.cs.findbugs.annotations.NonNull;
+import java.util.Collection;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 import org.apache.tuweni.bytes.Bytes;
 import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.Hash;
 import org.hyperledger.besu.evm.Code;
 import org.hyperledger.besu.evm.code.CodeFactory;
 
+/**
+ * Cache for EVM bytecode, with two levels. The first level maps a contract address to the hash of its
+ * bytecode; the second level maps a bytecode hash to the analyzed {@link Code}. So contracts deployed
+ * many times with the same bytecode share a single {@link Code}, including its jump destination
+ * analysis, which is done lazily the first time the code is executed.
+ *
+ * <p>The second level is bounded by the (estimated) number of bytes its entries hold, and not by the
+ * number of entries; so a few large contracts can't push out many small ones, and the memory used by
+ * the cache doesn't depend on the size of the contracts that happen to be called. The first level
+ * only holds small entries, and is bounded by their number.
+ */
 public class AbstractCodeCache {
+    public static final long DEFAULT_MAX_CODE_BYTES = 256L * 1024 * 1024;
+    /* About 200 bytes per entry, for the address key, the code hash and the cache's own node */
+    public static final long DEFAULT_MAX_ADDRESSES = 100_000;
+
+    private static final String METRIC_CATEGORY = "app";
+    /* Estimated size of a Code besides its bytecode, i.e. the object headers, the code hash and the
+    jump destination bitmap (one bit per byte of bytecode) */
+    private static final int CODE_OVERHEAD_BYTES = 256;
+
     protected final HederaEvmEntityAccess entityAccess;
-    protected final Cache<BytesKey, Code> cache;
+    protected final Cache<BytesKey, Hash> cache;
+    protected final Cache<Hash, Code> codeByHash;
+
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder hits = new LongAdder();
 
     public AbstractCodeCache(final int expirationCacheTime, final HederaEvmEntityAccess entityAccess) {
+        this(expirationCacheTime, DEFAULT_MAX_CODE_BYTES, entityAccess);
+    }
+
+    public AbstractCodeCache(
+            final int expirationCacheTime, final long maxCodeBytes, final HederaEvmEntityAccess entityAccess) {
+        this(expirationCacheTime, maxCodeBytes, DEFAULT_MAX_ADDRESSES, entityAccess);
+    }
+
+    public AbstractCodeCache(
+            final int expirationCacheTime,
+            final long maxCodeBytes,
+            final long maxAddresses,
+            final HederaEvmEntityAccess entityAccess) {
         this.entityAccess = entityAccess;
         this.cache = Caffeine.newBuilder()
                 .expireAfterAccess(expirationCacheTime, TimeUnit.SECONDS)
-                .softValues()
+                .maximumSize(maxAddresses)
+                .build();
+        this.codeByHash = Caffeine.newBuilder()
+                .expireAfterAccess(expirationCacheTime, TimeUnit.SECONDS)
+                .maximumWeight(maxCodeBytes)
+                .weigher((Hash hash, Code code) -> weightOf(code))
                 .build();
     }
 
     public Code getIfPresent(final Address address) {
-        final var cacheKey = new BytesKey(address.toArray());
+        return lookup(address, true);
+    }
 
-        var code = cache.getIfPresent(cacheKey);
+    /**
+     * Gets the code of the given contract from the cache, or loads and caches it.
+     *
+     * @param address the address of the contract
+     * @param countStats whether to count the lookup in the hit rate, which should only reflect calls
+     * @return the code, or null if the contract has no code
+     */
+    private Code lookup(final Address address, final boolean countStats) {
+        if (countStats) {
+            lookups.increment();
+        }
+        final var cacheKey = new BytesKey(address.toArray());
 
-        if (code != null) {
-            return code;
+        final var codeHash = cache.getIfPresent(cacheKey);
+        if (codeHash != null) {
+            final var code = codeByHash.getIfPresent(codeHash);
+            if (code != null) {
+                if (countStats) {
+                    hits.increment();
+                }
+                return code;
+            }
         }
 
         if (entityAccess.isTokenAccount(address)) {
             final var interpolatedBytecode = proxyBytecodeFor(address);
-            code = CodeFactory.createCode(interpolatedBytecode, 0, false);
-            cache.put(cacheKey, code);
-            return code;
+            return cacheCode(cacheKey, CodeFactory.createCode(interpolatedBytecode, 0, false));
         }
 
         final var bytecode = entityAccess.fetchCodeIfPresent(address);
         if (bytecode != null) {
-            code = CodeFactory.createCode(bytecode, 0, false);
-            cache.put(cacheKey, code);
+            return cacheCode(cacheKey, CodeFactory.createCode(bytecode, 0, false));
         }
 
-        return code;
+        return null;
+    }
+
+    /**
+     * Loads the code of the given contracts into the cache, so the first calls to these contracts
+     * don't have to read and analyze their bytecode. These lookups are not counted in the hit rate.
+     *
+     * @param addresses the addresses of the contracts to load
+     * @return the number of contracts with non-empty code that are now cached
+     */
+    public int prewarm(@NonNull final Collection<Address> addresses) {
+        requireNonNull(addresses);
+        var numCached = 0;
+        for (final var address : addresses) {
+            final var code = lookup(address, false);
+            if (code != null && code.getSize() > 0) {
+                numCached++;
+            }
+        }
+        return numCached;
     }
 
     public void invalidate(Address address) {
@@ -81,8 +163,12 @@ public class AbstractCodeCache {
         requireNonNull(bytes);
         requireNonNull(address);
         final var key = new BytesKey(address.toArray());
-        final var code = cache.getIfPresent(key);
-        if (code != null && !code.getBytes().equals(bytes)) {
+        final var codeHash = cache.getIfPresent(key);
+        if (codeHash == null) {
+            return;
+        }
+        final var code = codeByHash.getIfPresent(codeHash);
+        if (code == null || !code.getBytes().equals(bytes)) {
             cache.invalidate(key);
         }
     }
@@ -91,8 +177,60 @@ public class AbstractCodeCache {
         return cache.estimatedSize();
     }
 
+    /**
+     * Returns the estimated number of bytes held by the cached code.
+     *
+     * @return the weighted size of the cached code
+     */
+    public long codeBytes() {
+        return codeByHash.policy().eviction().map(e -> e.weightedSize().orElse(0L)).orElse(0L);
+    }
+
+    /**
+     * Returns the percentage of lookups since startup that were served from the cache.
+     *
+     * @return the hit rate in percent, or 0 if there were no lookups yet
+     */
+    public double hitPercent() {
+        final var numLookups = lookups.sum();
+        return numLookups == 0 ? 0.0 : 100.0 * hits.sum() / numLookups;
+    }
+
+    public void registerMetrics(@NonNull final Metrics metrics) {
+        metrics.getOrCreate(new FunctionGauge.Config<>(
+                        METRIC_CATEGORY, "codeCacheHitPercent", Double.class, this::hitPercent)
+                .withDescription("percent of EVM code lookups served from the code cache since startup")
+                .withFormat("%,13.2f"));
+        metrics.getOrCreate(new FunctionGauge.Config<>(METRIC_CATEGORY, "codeCacheBytes", Long.class, this::codeBytes)
+                .withDescription("estimated number of bytes of EVM code held by the code cache")
+                .withFormat("%,d"));
+    }
+
+    /**
+     * Caches the given code for the given address. If code with the same hash is already cached, the
+     * cached instance is used and returned instead, so its analysis is shared.
+     *
+     * @param key the address of the contract
+     * @param code the code of the contract
+     * @return the cached code
+     */
+    protected Code cacheCode(final BytesKey key, final Code code) {
+        final var cachedCode = codeByHash.get(code.getCodeHash(), ignore -> code);
+        cache.put(key, cachedCode.getCodeHash());
+        return cachedCode;
+    }
+
+    private static int weightOf(final Code code) {
+        return CODE_OVERHEAD_BYTES + code.getSize() + code.getSize() / Byte.SIZE;
+    }
+
     @VisibleForTesting
-    public Cache<BytesKey, Code> getCache() {
+    public Cache<BytesKey, Hash> getCache() {
         return cache;
     }
+
+    @VisibleForTesting
+    public Cache<Hash, Code> getCodeByHash() {
+        return codeByHash;
+    }
 }
@@ -19,12 +19,19 @@ package com.hedera.node.app.service.evm.store.contracts;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 
 import com.hedera.node.app.service.evm.store.contracts.utils.BytesKey;
+import com.swirlds.common.metrics.Metrics;
+import java.util.List;
 import org.apache.tuweni.bytes.Bytes;
 import org.hyperledger.besu.datatypes.Address;
 import org.hyperledger.besu.datatypes.Hash;
@@ -107,6 +114,110 @@ class AbstractCodeCacheTest {
         assertEquals(1, codeCache.size());
     }
 
+    @Test
+    void sharesCodeBetweenAddressesWithSameBytecode() {
+        final var aAddress = Address.fromHexString("0xabc");
+        final var bAddress = Address.fromHexString("0xabd");
+        given(entityAccess.fetchCodeIfPresent(any())).willReturn(Bytes.fromHexString("0x6080"));
+
+        final var aCode = codeCache.getIfPresent(aAddress);
+        final var bCode = codeCache.getIfPresent(bAddress);
+
+        assertSame(aCode, bCode);
+        assertEquals(2, codeCache.size());
+        assertEquals(1, codeCache.getCodeByHash().estimatedSize());
+    }
+
+    @Test
+    void codeIsBoundedByWeight() {
+        codeCache = new MockAbstractCodeCache(100, 1_000, entityAccess);
+        final var bytecode = Bytes.wrap(new byte[600]);
+        given(entityAccess.fetchCodeIfPresent(Address.fromHexString("0xabc"))).willReturn(bytecode);
+        given(entityAccess.fetchCodeIfPresent(Address.fromHexString("0xabd")))
+                .willReturn(Bytes.concatenate(bytecode, Bytes.of(1)));
+
+        codeCache.getIfPresent(Address.fromHexString("0xabc"));
+        codeCache.getIfPresent(Address.fromHexString("0xabd"));
+        codeCache.getCodeByHash().cleanUp();
+
+        assertEquals(1, codeCache.getCodeByHash().estimatedSize());
+        assertTrue(codeCache.codeBytes() <= 1_000);
+    }
+
+    @Test
+    void addressesAreBoundedByCount() {
+        codeCache = new MockAbstractCodeCache(100, 1_000, 2, entityAccess);
+        given(entityAccess.fetchCodeIfPresent(any())).willReturn(Bytes.fromHexString("0x6080"));
+
+        codeCache.getIfPresent(Address.fromHexString("0xabc"));
+        codeCache.getIfPresent(Address.fromHexString("0xabd"));
+        codeCache.getIfPresent(Address.fromHexString("0xabe"));
+        codeCache.getCache().cleanUp();
+
+        assertEquals(2, codeCache.size());
+    }
+
+    @Test
+    void reloadsCodeEvictedFromSecondLevel() {
+        final var address = Address.fromHexString("0xabc");
+        given(entityAccess.fetchCodeIfPresent(address)).willReturn(Bytes.fromHexString("0x6080"));
+
+        final var code = codeCache.getIfPresent(address);
+        codeCache.getCodeByHash().invalidateAll();
+
+        assertEquals(code.getCodeHash(), codeCache.getIfPresent(address).getCodeHash());
+        verify(entityAccess, times(2)).fetchCodeIfPresent(address);
+    }
+
+    @Test
+    void tracksHitPercent() {
+        final var address = Address.fromHexString("0xabc");
+        given(entityAccess.fetchCodeIfPresent(address)).willReturn(Bytes.fromHexString("0x6080"));
+        assertEquals(0.0, codeCache.hitPercent());
+
+        codeCache.getIfPresent(address);
+        codeCache.getIfPresent(address);
+        codeCache.getIfPresent(address);
+        codeCache.getIfPresent(address);
+
+        assertEquals(75.0, codeCache.hitPercent());
+    }
+
+    @Test
+    void prewarmLoadsExtantContracts() {
+        final var extant = Address.fromHexString("0xabc");
+        final var missing = Address.fromHexString("0xabd");
+        final var bytecode = Bytes.fromHexString("0x6080");
+        given(entityAccess.fetchCodeIfPresent(any()))
+                .willAnswer(invocation -> extant.equals(invocation.getArgument(0)) ? bytecode : null);
+
+        assertEquals(1, codeCache.prewarm(List.of(extant, missing)));
+        assertEquals(1, codeCache.size());
+        assertNull(codeCache.getCache().getIfPresent(new BytesKey(missing.toArray())));
+    }
+
+    @Test
+    void prewarmIsNotCountedInHitPercent() {
+        final var address = Address.fromHexString("0xabc");
+        given(entityAccess.fetchCodeIfPresent(address)).willReturn(Bytes.fromHexString("0x6080"));
+
+        codeCache.prewarm(List.of(address));
+        codeCache.prewarm(List.of(address));
+        assertEquals(0.0, codeCache.hitPercent());
+
+        codeCache.getIfPresent(address);
+        assertEquals(100.0, codeCache.hitPercent());
+    }
+
+    @Test
+    void registersMetrics() {
+        final var metrics = mock(Metrics.class);
+
+        codeCache.registerMetrics(metrics);
+
+        verify(metrics, times(2)).getOrCreate(any());
+    }
+
     @Test
     void cacheSize() {
         Address demoAddress = Address.fromHexString("0xabc");
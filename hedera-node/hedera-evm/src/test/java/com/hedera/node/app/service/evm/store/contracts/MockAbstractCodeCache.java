@@ -24,8 +24,17 @@ public class MockAbstractCodeCache extends AbstractCodeCache {
         super(expirationCacheTime, entityAccess);
     }
 
+    public MockAbstractCodeCache(int expirationCacheTime, long maxCodeBytes, HederaEvmEntityAccess entityAccess) {
+        super(expirationCacheTime, maxCodeBytes, entityAccess);
+    }
+
+    public MockAbstractCodeCache(
+            int expirationCacheTime, long maxCodeBytes, long maxAddresses, HederaEvmEntityAccess entityAccess) {
+        super(expirationCacheTime, maxCodeBytes, maxAddresses, entityAccess);
+    }
+
     /* --- Only used by unit tests --- */
     void cacheValue(BytesKey key, Code value) {
-        cache.put(key, value);
+        cacheCode(key, value);
     }
 }
@@ -65,6 +65,7 @@ import com.hedera.node.app.service.mono.state.virtual.VirtualMapFactory;
 import com.hedera.node.app.service.mono.stats.ServicesStatsManager;
 import com.hedera.node.app.service.mono.stats.StatsModule;
 import com.hedera.node.app.service.mono.store.StoresModule;
+import com.hedera.node.app.service.mono.store.contracts.CodeCache;
 import com.hedera.node.app.service.mono.stream.RecordStreamManager;
 import com.hedera.node.app.service.mono.throttling.ThrottlingModule;
 import com.hedera.node.app.service.mono.txns.ProcessLogic;
@@ -177,6 +178,8 @@ public interface ServicesApp {
 
     BalancesExporter balancesExporter();
 
+    CodeCache codeCache();
+
     Supplier<Charset> nativeCharset();
 
     NetworkCtxManager networkCtxManager();
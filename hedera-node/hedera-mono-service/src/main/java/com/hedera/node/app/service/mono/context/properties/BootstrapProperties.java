@@ -44,6 +44,7 @@ import static com.hedera.node.app.service.mono.context.properties.PropertyNames.
 import static com.hedera.node.app.service.mono.context.properties.PropertyNames.BALANCES_EXPORT_PERIOD_SECS;
 import static com.hedera.node.app.service.mono.context.properties.PropertyNames.BALANCES_EXPORT_TOKEN_BALANCES;
 import static com.hedera.node.app.service.mono.context.properties.PropertyNames.BALANCES_NODE_BALANCE_WARN_THRESHOLD;
+import static com.hedera.node.app.service.mono.context.properties.PropertyNames.BALANCES_SUMMARY_THREAD_POOL_SIZE;
 import static com.hedera.node.app.service.mono.context.properties.PropertyNames.BOOTSTRAP_FEE_SCHEDULE_JSON_RESOURCE;
 import static com.hedera.node.app.service.mono.context.properties.PropertyNames.BOOTSTRAP_GENESIS_PUBLIC_KEY;
 import static com.hedera.node.app.service.mono.context.properties.PropertyNames.BOOTSTRAP_HAPI_PERMISSIONS_PATH;
@@ -130,6 +131,8 @@ import static com.hedera.node.app.service.mono.context.properties.PropertyNames.
 import static com.hedera.node.app.service.mono.context.properties.PropertyNames.HEDERA_ALLOWANCES_MAX_TXN_LIMIT;
 import static com.hedera.node.app.service.mono.context.properties.PropertyNames.HEDERA_EXPORT_ACCOUNTS_ON_STARTUP;
 import static com.hedera.node.app.service.mono.context.properties.PropertyNames.HEDERA_FIRST_USER_ENTITY;
+import static com.hedera.node.app.service.mono.context.properties.PropertyNames.HEDERA_PREFETCH_CODE_CACHE_MAX_BYTES;
+import static com.hedera.node.app.service.mono.context.properties.PropertyNames.HEDERA_PREFETCH_CODE_CACHE_PREWARM_CONTRACTS;
 import static com.hedera.node.app.service.mono.context.properties.PropertyNames.HEDERA_PREFETCH_CODE_CACHE_TTL_SECS;
 import static com.hedera.node.app.service.mono.context.properties.PropertyNames.HEDERA_PREFETCH_QUEUE_CAPACITY;
 import static com.hedera.node.app.service.mono.context.properties.PropertyNames.HEDERA_PREFETCH_THREAD_POOL_SIZE;
@@ -572,6 +575,7 @@ public final class BootstrapProperties implements PropertySource {
             CACHE_CRYPTO_TRANSFER_WARM_THREADS);
 
     static final Set<String> NODE_PROPS = Set.of(
+            BALANCES_SUMMARY_THREAD_POOL_SIZE,
             DEV_ONLY_DEFAULT_NODE_LISTENS,
             DEV_DEFAULT_LISTENING_NODE_ACCOUNT,
             GRPC_PORT,
@@ -583,6 +587,8 @@ public final class BootstrapProperties implements PropertySource {
             HEDERA_PREFETCH_QUEUE_CAPACITY,
             HEDERA_PREFETCH_THREAD_POOL_SIZE,
             HEDERA_PREFETCH_CODE_CACHE_TTL_SECS,
+            HEDERA_PREFETCH_CODE_CACHE_MAX_BYTES,
+            HEDERA_PREFETCH_CODE_CACHE_PREWARM_CONTRACTS,
             HEDERA_PROFILES_ACTIVE,
             HEDERA_RECORD_STREAM_IS_ENABLED, // possibly network property
             HEDERA_RECORD_STREAM_LOG_DIR,
@@ -640,6 +646,7 @@ public final class BootstrapProperties implements PropertySource {
             entry(BALANCES_EXPORT_PERIOD_SECS, AS_INT),
             entry(BALANCES_NODE_BALANCE_WARN_THRESHOLD, AS_LONG),
             entry(BALANCES_COMPRESS_ON_CREATION, AS_BOOLEAN),
+            entry(BALANCES_SUMMARY_THREAD_POOL_SIZE, AS_INT),
             entry(CACHE_RECORDS_TTL, AS_INT),
             entry(DEV_ONLY_DEFAULT_NODE_LISTENS, AS_BOOLEAN),
             entry(BALANCES_EXPORT_TOKEN_BALANCES, AS_BOOLEAN),
@@ -665,6 +672,8 @@ public final class BootstrapProperties implements PropertySource {
             entry(HEDERA_PREFETCH_QUEUE_CAPACITY, AS_INT),
             entry(HEDERA_PREFETCH_THREAD_POOL_SIZE, AS_INT),
             entry(HEDERA_PREFETCH_CODE_CACHE_TTL_SECS, AS_INT),
+            entry(HEDERA_PREFETCH_CODE_CACHE_MAX_BYTES, AS_LONG),
+            entry(HEDERA_PREFETCH_CODE_CACHE_PREWARM_CONTRACTS, AS_EVM_ADDRESSES),
             entry(HEDERA_PROFILES_ACTIVE, AS_PROFILE),
             entry(HEDERA_REALM, AS_LONG),
             entry(HEDERA_RECORD_STREAM_LOG_PERIOD, AS_LONG),
@@ -24,6 +24,8 @@ import static com.hedera.node.app.service.mono.context.properties.PropertyNames.
 import static com.hedera.node.app.service.mono.context.properties.PropertyNames.GRPC_WORKFLOWS_TLS_PORT;
 import static com.hedera.node.app.service.mono.context.properties.PropertyNames.HEDERA_ACCOUNTS_EXPORT_PATH;
 import static com.hedera.node.app.service.mono.context.properties.PropertyNames.HEDERA_EXPORT_ACCOUNTS_ON_STARTUP;
+import static com.hedera.node.app.service.mono.context.properties.PropertyNames.HEDERA_PREFETCH_CODE_CACHE_MAX_BYTES;
+import static com.hedera.node.app.service.mono.context.properties.PropertyNames.HEDERA_PREFETCH_CODE_CACHE_PREWARM_CONTRACTS;
 import static com.hedera.node.app.service.mono.context.properties.PropertyNames.HEDERA_PREFETCH_CODE_CACHE_TTL_SECS;
 import static com.hedera.node.app.service.mono.context.properties.PropertyNames.HEDERA_PREFETCH_QUEUE_CAPACITY;
 import static com.hedera.node.app.service.mono.context.properties.PropertyNames.HEDERA_PREFETCH_THREAD_POOL_SIZE;
@@ -59,8 +61,10 @@ import static com.hedera.node.app.service.mono.context.properties.PropertyNames.
 
 import com.hedera.node.app.service.mono.context.annotations.CompositeProps;
 import java.util.List;
+import java.util.Set;
 import javax.inject.Inject;
 import javax.inject.Singleton;
+import org.hyperledger.besu.datatypes.Address;
 
 @Singleton
 public class NodeLocalProperties {
@@ -104,6 +108,8 @@ public class NodeLocalProperties {
     private int prefetchQueueCapacity;
     private int prefetchThreadPoolSize;
     private int prefetchCodeCacheTtlSecs;
+    private long prefetchCodeCacheMaxBytes;
+    private Set<Address> prefetchCodeCachePrewarmContracts;
     private List<String> consThrottlesToSample;
     private List<String> hapiThrottlesToSample;
     private String sidecarDir;
@@ -152,6 +158,8 @@ public class NodeLocalProperties {
         prefetchQueueCapacity = properties.getIntProperty(HEDERA_PREFETCH_QUEUE_CAPACITY);
         prefetchThreadPoolSize = properties.getIntProperty(HEDERA_PREFETCH_THREAD_POOL_SIZE);
         prefetchCodeCacheTtlSecs = properties.getIntProperty(HEDERA_PREFETCH_CODE_CACHE_TTL_SECS);
+        prefetchCodeCacheMaxBytes = properties.getLongProperty(HEDERA_PREFETCH_CODE_CACHE_MAX_BYTES);
+        prefetchCodeCachePrewarmContracts = properties.getEvmAddresses(HEDERA_PREFETCH_CODE_CACHE_PREWARM_CONTRACTS);
         consThrottlesToSample = properties.getStringsProperty(STATS_CONS_THROTTLES_TO_SAMPLE);
         hapiThrottlesToSample = properties.getStringsProperty(STATS_HAPI_THROTTLES_TO_SAMPLE);
         entityUtilStatsUpdateIntervalMs = properties.getLongProperty(STATS_ENTITY_UTILS_GAUGE_UPDATE_INTERVAL_MS);
@@ -302,6 +310,14 @@ public class NodeLocalProperties {
         return prefetchCodeCacheTtlSecs;
     }
 
+    public long prefetchCodeCacheMaxBytes() {
+        return prefetchCodeCacheMaxBytes;
+    }
+
+    public Set<Address> prefetchCodeCachePrewarmContracts() {
+        return prefetchCodeCachePrewarmContracts;
+    }
+
     public List<String> consThrottlesToSample() {
         return consThrottlesToSample;
     }
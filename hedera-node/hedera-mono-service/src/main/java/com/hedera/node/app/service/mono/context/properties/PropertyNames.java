@@ -84,6 +84,7 @@ public class PropertyNames {
     public static final String BALANCES_EXPORT_TOKEN_BALANCES = "balances.exportTokenBalances";
     public static final String BALANCES_NODE_BALANCE_WARN_THRESHOLD = "balances.nodeBalanceWarningThreshold";
     public static final String BALANCES_COMPRESS_ON_CREATION = "balances.compressOnCreation";
+    public static final String BALANCES_SUMMARY_THREAD_POOL_SIZE = "balances.summaryThreadPoolSize";
     public static final String CACHE_RECORDS_TTL = "cache.records.ttl";
     public static final String CACHE_CRYPTO_TRANSFER_WARM_THREADS = "cache.cryptoTransfer.warmThreads";
 
@@ -228,6 +229,9 @@ public class PropertyNames {
     public static final String HEDERA_PREFETCH_QUEUE_CAPACITY = "hedera.prefetch.queueCapacity";
     public static final String HEDERA_PREFETCH_THREAD_POOL_SIZE = "hedera.prefetch.threadPoolSize";
     public static final String HEDERA_PREFETCH_CODE_CACHE_TTL_SECS = "hedera.prefetch.codeCacheTtlSecs";
+    public static final String HEDERA_PREFETCH_CODE_CACHE_MAX_BYTES = "hedera.prefetch.codeCacheMaxBytes";
+    public static final String HEDERA_PREFETCH_CODE_CACHE_PREWARM_CONTRACTS =
+            "hedera.prefetch.codeCachePrewarmContracts";
     public static final String HEDERA_PROFILES_ACTIVE = "hedera.profiles.active";
     public static final String HEDERA_RECORD_STREAM_IS_ENABLED = "hedera.recordStream.isEnabled";
     public static final String HEDERA_RECORD_STREAM_LOG_DIR = "hedera.recordStream.logDir";
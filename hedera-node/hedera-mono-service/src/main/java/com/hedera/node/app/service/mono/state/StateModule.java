@@ -67,6 +67,7 @@ import com.hedera.node.app.service.mono.state.virtual.IterableContractValue;
 import com.hedera.node.app.service.mono.state.virtual.VirtualBlobKey;
 import com.hedera.node.app.service.mono.state.virtual.VirtualBlobValue;
 import com.hedera.node.app.service.mono.state.virtual.VirtualMapFactory;
+import com.hedera.node.app.service.mono.stats.MiscRunningAvgs;
 import com.hedera.node.app.service.mono.store.schedule.ScheduleStore;
 import com.hedera.node.app.service.mono.stream.RecordStreamManager;
 import com.hedera.node.app.service.mono.stream.RecordsRunningHashLeaf;
@@ -152,9 +153,10 @@ public interface StateModule {
             final SystemExits systemExits,
             final @CompositeProps PropertySource properties,
             final Function<byte[], Signature> signer,
-            final GlobalDynamicProperties dynamicProperties) {
+            final GlobalDynamicProperties dynamicProperties,
+            final MiscRunningAvgs runningAvgs) {
         try {
-            return new SignedStateBalancesExporter(systemExits, properties, signer, dynamicProperties);
+            return new SignedStateBalancesExporter(systemExits, properties, signer, dynamicProperties, runningAvgs);
         } catch (final NoSuchAlgorithmException fatal) {
             throw new IllegalStateException("Could not construct signed state balances exporter", fatal);
         }
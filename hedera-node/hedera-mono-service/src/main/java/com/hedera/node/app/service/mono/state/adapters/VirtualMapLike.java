@@ -26,6 +26,10 @@ import com.swirlds.virtualmap.VirtualMap;
 import com.swirlds.virtualmap.VirtualMapMigration;
 import com.swirlds.virtualmap.VirtualValue;
 import com.swirlds.virtualmap.datasource.VirtualDataSource;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
 
 public interface VirtualMapLike<K extends VirtualKey, V extends VirtualValue> {
     void registerMetrics(Metrics metrics);
@@ -59,6 +63,9 @@ public interface VirtualMapLike<K extends VirtualKey, V extends VirtualValue> {
     void extractVirtualMapDataC(ThreadManager threadManager, InterruptableConsumer<Pair<K, V>> handler, int threadCount)
             throws InterruptedException;
 
+    <R> List<R> extractVirtualMapDataInRanges(
+            ForkJoinPool pool, Supplier<R> resultSupplier, BiConsumer<R, Pair<K, V>> handler, int rangeCount);
+
     static <K extends VirtualKey, V extends VirtualValue> VirtualMapLike<K, V> from(final VirtualMap<K, V> real) {
         return new VirtualMapLike<>() {
             @Override
@@ -84,6 +91,16 @@ public interface VirtualMapLike<K extends VirtualKey, V extends VirtualValue> {
                 VirtualMapMigration.extractVirtualMapDataC(threadManager, real, handler, threadCount);
             }
 
+            @Override
+            public <R> List<R> extractVirtualMapDataInRanges(
+                    final ForkJoinPool pool,
+                    final Supplier<R> resultSupplier,
+                    final BiConsumer<R, Pair<K, V>> handler,
+                    final int rangeCount) {
+                return VirtualMapMigration.extractVirtualMapDataInRanges(
+                        pool, real, resultSupplier, handler, rangeCount);
+            }
+
             @Override
             public void registerMetrics(final Metrics metrics) {
                 real.registerMetrics(metrics);
@@ -16,8 +16,6 @@
 
 package com.hedera.node.app.service.mono.state.exports;
 
-import com.hedera.services.stream.proto.SingleAccountBalances;
 import java.math.BigInteger;
-import java.util.List;
 
-public record BalancesSummary(BigInteger totalFloat, List<SingleAccountBalances> orderedBalances) {}
+public record BalancesSummary(BigInteger totalFloat, long[] orderedAccountNums) {}
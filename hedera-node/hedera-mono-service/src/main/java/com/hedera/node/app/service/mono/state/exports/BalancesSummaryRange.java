@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2023 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hedera.node.app.service.mono.state.exports;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * The part of a {@link BalancesSummary} computed from one range of accounts, that is the numbers of the non-deleted
+ * accounts in the range and their total balance. Ranges are summarized in parallel, each by a single thread, and then
+ * combined by {@link #merge(List, Executor)}.
+ */
+final class BalancesSummaryRange {
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private long[] accountNums = new long[INITIAL_CAPACITY];
+    private int size;
+    // The index of the next account number to merge, once the range is sorted
+    private int next;
+    // Balances are summed as a long, and only carried into the BigInteger in the unlikely event of an overflow
+    private long partialFloat;
+    private BigInteger carriedFloat = BigInteger.ZERO;
+
+    void add(final long accountNum, final long balance) {
+        if (size == accountNums.length) {
+            accountNums = Arrays.copyOf(accountNums, size * 2);
+        }
+        accountNums[size++] = accountNum;
+        try {
+            partialFloat = Math.addExact(partialFloat, balance);
+        } catch (final ArithmeticException overflow) {
+            carriedFloat = carriedFloat.add(BigInteger.valueOf(partialFloat));
+            partialFloat = balance;
+        }
+    }
+
+    BigInteger totalFloat() {
+        return carriedFloat.add(BigInteger.valueOf(partialFloat));
+    }
+
+    /**
+     * Sorts the account numbers of each range on the given executor, and merges the sorted runs into the summary of all
+     * ranges.
+     *
+     * @param ranges the summarized ranges
+     * @param sortExecutor the executor sorting the ranges in parallel
+     * @return the summary of all accounts in the ranges
+     */
+    static BalancesSummary merge(final List<BalancesSummaryRange> ranges, final Executor sortExecutor) {
+        final var sorts = ranges.stream()
+                .map(range -> CompletableFuture.runAsync(
+                        () -> Arrays.sort(range.accountNums, 0, range.size), sortExecutor))
+                .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(sorts).join();
+
+        var totalFloat = BigInteger.ZERO;
+        int totalSize = 0;
+        final var heads = new PriorityQueue<BalancesSummaryRange>(
+                Math.max(1, ranges.size()), Comparator.comparingLong(range -> range.accountNums[range.next]));
+        for (final var range : ranges) {
+            totalFloat = totalFloat.add(range.totalFloat());
+            totalSize += range.size;
+            if (range.size > 0) {
+                range.next = 0;
+                heads.add(range);
+            }
+        }
+
+        final long[] orderedAccountNums = new long[totalSize];
+        int i = 0;
+        while (!heads.isEmpty()) {
+            final var range = heads.poll();
+            orderedAccountNums[i++] = range.accountNums[range.next++];
+            if (range.next < range.size) {
+                heads.add(range);
+            }
+        }
+        return new BalancesSummary(totalFloat, orderedAccountNums);
+    }
+}
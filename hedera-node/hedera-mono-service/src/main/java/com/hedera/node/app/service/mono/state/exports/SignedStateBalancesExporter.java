@@ -18,10 +18,11 @@ package com.hedera.node.app.service.mono.state.exports;
 
 import static com.hedera.node.app.hapi.utils.exports.FileCompressionUtils.COMPRESSION_ALGORITHM_EXTENSION;
 import static com.hedera.node.app.service.mono.context.primitives.StateView.doBoundedIteration;
+import static com.hedera.node.app.service.mono.context.properties.PropertyNames.BALANCES_SUMMARY_THREAD_POOL_SIZE;
 import static com.hedera.node.app.service.mono.context.properties.PropertyNames.LEDGER_TOTAL_TINY_BAR_FLOAT;
-import static com.hedera.node.app.service.mono.ledger.HederaLedger.ACCOUNT_ID_COMPARATOR;
 import static com.hedera.node.app.service.mono.utils.EntityIdUtils.readableId;
 
+import com.google.protobuf.CodedOutputStream;
 import com.hedera.node.app.service.mono.ServicesState;
 import com.hedera.node.app.service.mono.context.annotations.CompositeProps;
 import com.hedera.node.app.service.mono.context.primitives.StateView;
@@ -31,6 +32,7 @@ import com.hedera.node.app.service.mono.state.adapters.MerkleMapLike;
 import com.hedera.node.app.service.mono.state.merkle.MerkleToken;
 import com.hedera.node.app.service.mono.state.migration.HederaAccount;
 import com.hedera.node.app.service.mono.state.migration.TokenRelStorageAdapter;
+import com.hedera.node.app.service.mono.stats.MiscRunningAvgs;
 import com.hedera.node.app.service.mono.utils.EntityNum;
 import com.hedera.node.app.service.mono.utils.MiscUtils;
 import com.hedera.node.app.service.mono.utils.SystemExits;
@@ -44,6 +46,7 @@ import com.swirlds.common.crypto.Cryptography;
 import com.swirlds.common.crypto.HashingOutputStream;
 import com.swirlds.common.crypto.Signature;
 import com.swirlds.common.system.NodeId;
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
@@ -54,13 +57,11 @@ import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
 import java.time.Instant;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
+import java.util.function.IntFunction;
 import java.util.zip.GZIPOutputStream;
 import javax.inject.Singleton;
 import org.apache.commons.lang3.time.StopWatch;
@@ -80,6 +81,9 @@ public class SignedStateBalancesExporter implements BalancesExporter {
     private static final String GOOD_SIGNING_ATTEMPT_DEBUG_MSG_TPL = "Created balance signature file '{}'.";
 
     private static final String PROTO_FILE_EXTENSION = ".pb";
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+    // More ranges than threads, so a thread that finishes its range early can take another one
+    private static final int SUMMARY_RANGES_PER_THREAD = 4;
 
     private Instant nextExportTime = null;
 
@@ -87,29 +91,32 @@ public class SignedStateBalancesExporter implements BalancesExporter {
     private final SystemExits systemExits;
     private final Function<byte[], Signature> signer;
     private final GlobalDynamicProperties dynamicProperties;
+    private final MiscRunningAvgs runningAvgs;
 
     SigFileWriter sigFileWriter = new StandardSigFileWriter();
     FileHashReader hashReader = new Sha384HashReader();
     DirectoryAssurance directories = loc -> Files.createDirectories(Paths.get(loc));
+    IntFunction<ForkJoinPool> summaryPoolFactory = ForkJoinPool::new;
 
     private String lastUsedExportDir = UNKNOWN_EXPORT_DIR;
     private BalancesSummary summary;
 
     private final int exportPeriod;
+    private final int summaryThreadPoolSize;
     private final MessageDigest accountBalanceDigest;
 
-    static final Comparator<SingleAccountBalances> SINGLE_ACCOUNT_BALANCES_COMPARATOR =
-            Comparator.comparing(SingleAccountBalances::getAccountID, ACCOUNT_ID_COMPARATOR);
-
     public SignedStateBalancesExporter(
             final SystemExits systemExits,
             final @CompositeProps PropertySource properties,
             final Function<byte[], Signature> signer,
-            final GlobalDynamicProperties dynamicProperties)
+            final GlobalDynamicProperties dynamicProperties,
+            final MiscRunningAvgs runningAvgs)
             throws NoSuchAlgorithmException {
         this.signer = signer;
+        this.runningAvgs = runningAvgs;
         this.systemExits = systemExits;
         this.expectedFloat = properties.getLongProperty(LEDGER_TOTAL_TINY_BAR_FLOAT);
+        this.summaryThreadPoolSize = properties.getIntProperty(BALANCES_SUMMARY_THREAD_POOL_SIZE);
         this.dynamicProperties = dynamicProperties;
         this.exportPeriod = dynamicProperties.balancesExportPeriodSecs();
         this.accountBalanceDigest = MessageDigest.getInstance(Cryptography.DEFAULT_DIGEST_TYPE.algorithmName());
@@ -156,7 +163,7 @@ public class SignedStateBalancesExporter implements BalancesExporter {
         final var expected = BigInteger.valueOf(expectedFloat);
         if (expected.equals(summary.totalFloat())) {
             log.info("Took {}ms to summarize signed state balances", watch.getTime(TimeUnit.MILLISECONDS));
-            toProtoFile(consensusTime);
+            toProtoFile(signedState, consensusTime);
         } else {
             log.error(
                     "Signed state @ {} had total balance {} not {}; exiting",
@@ -167,19 +174,18 @@ public class SignedStateBalancesExporter implements BalancesExporter {
         }
     }
 
-    private void toProtoFile(final Instant exportTimeStamp) {
+    private void toProtoFile(final ServicesState signedState, final Instant exportTimeStamp) {
         final var watch = StopWatch.createStarted();
 
-        final var builder = AllAccountBalances.newBuilder();
-        summarizeAsProto(exportTimeStamp, builder);
         final var protoLoc = lastUsedExportDir
                 + exportTimeStamp.toString().replace(":", "_")
                 + "_Balances"
                 + (dynamicProperties.shouldCompressAccountBalanceFilesOnCreation()
                         ? PROTO_FILE_EXTENSION + COMPRESSION_ALGORITHM_EXTENSION
                         : PROTO_FILE_EXTENSION);
-        final boolean exportSucceeded = exportBalancesProtoFile(builder, protoLoc);
-        if (exportSucceeded) {
+        final long bytesWritten = exportBalancesProtoFile(signedState, exportTimeStamp, protoLoc);
+        if (bytesWritten >= 0) {
+            runningAvgs.recordBalancesExport(watch.getTime(TimeUnit.MILLISECONDS), bytesWritten);
             tryToSign(protoLoc);
         }
 
@@ -202,56 +208,88 @@ public class SignedStateBalancesExporter implements BalancesExporter {
         }
     }
 
-    private void summarizeAsProto(final Instant exportTimeStamp, final AllAccountBalances.Builder builder) {
-        builder.setConsensusTimestamp(Timestamp.newBuilder()
-                .setSeconds(exportTimeStamp.getEpochSecond())
-                .setNanos(exportTimeStamp.getNano()));
-        builder.addAllAllAccounts(summary.orderedBalances());
-    }
-
-    private boolean exportBalancesProtoFile(
-            final AllAccountBalances.Builder allAccountsBuilder, final String protoLoc) {
+    /**
+     * Streams the balances of all accounts in the summary to the given location, without ever holding more than one
+     * account's balances in memory. The file is written as a sequence of {@link AllAccountBalances} messages that each
+     * set a single field; since protobuf merges concatenated messages (appending to repeated fields), the result is
+     * byte-for-byte the serialization of one {@link AllAccountBalances} with all accounts in order.
+     *
+     * @param signedState the signed state to export balances from
+     * @param exportTimeStamp the consensus time of the export
+     * @param protoLoc the location of the balances file
+     * @return the number of (uncompressed) bytes written, or -1 if the export failed
+     */
+    private long exportBalancesProtoFile(
+            final ServicesState signedState, final Instant exportTimeStamp, final String protoLoc) {
         accountBalanceDigest.reset();
         try (final var outputStream = dynamicProperties.shouldCompressAccountBalanceFilesOnCreation()
-                        ? new GZIPOutputStream(new FileOutputStream(protoLoc))
-                        : new FileOutputStream(protoLoc);
+                        ? new GZIPOutputStream(new FileOutputStream(protoLoc), EXPORT_BUFFER_SIZE)
+                        : new BufferedOutputStream(new FileOutputStream(protoLoc), EXPORT_BUFFER_SIZE);
                 final var hashingOutputStream = new HashingOutputStream(accountBalanceDigest, outputStream)) {
-            allAccountsBuilder.build().writeTo(hashingOutputStream);
+            final var codedOutput = CodedOutputStream.newInstance(hashingOutputStream, EXPORT_BUFFER_SIZE);
+            AllAccountBalances.newBuilder()
+                    .setConsensusTimestamp(Timestamp.newBuilder()
+                            .setSeconds(exportTimeStamp.getEpochSecond())
+                            .setNanos(exportTimeStamp.getNano()))
+                    .build()
+                    .writeTo(codedOutput);
+
+            final var tokens = signedState.tokens();
+            final var accounts = signedState.accounts();
+            final var tokenAssociations = signedState.tokenAssociations();
+            final var exportTokenBalances = dynamicProperties.shouldExportTokenBalances();
+            for (final long accountNum : summary.orderedAccountNums()) {
+                final var id = EntityNum.fromLong(accountNum);
+                final var account = accounts.get(id);
+                final var sabBuilder = SingleAccountBalances.newBuilder()
+                        .setAccountID(id.toGrpcAccountId())
+                        .setHbarBalance(account.getBalance());
+                if (exportTokenBalances) {
+                    addTokenBalances(account, sabBuilder, tokens, tokenAssociations);
+                }
+                AllAccountBalances.newBuilder()
+                        .addAllAccounts(sabBuilder)
+                        .build()
+                        .writeTo(codedOutput);
+            }
+            codedOutput.flush();
             outputStream.flush();
+            return codedOutput.getTotalBytesWritten();
         } catch (final IOException e) {
             log.error(BAD_EXPORT_ATTEMPT_ERROR_MSG_TPL, protoLoc, e);
-            return false;
+            return -1;
         }
-        return true;
     }
 
     BalancesSummary summarized(final ServicesState signedState) {
         final long nodeBalanceWarnThreshold = dynamicProperties.nodeBalanceWarningThreshold();
-        final var totalFloat = new AtomicReference<>(BigInteger.ZERO);
-        final List<SingleAccountBalances> accountBalances = Collections.synchronizedList(new ArrayList<>());
 
         final var nodeIds = MiscUtils.getNodeAccounts(signedState.addressBook());
-        final var tokens = signedState.tokens();
-        final var accounts = signedState.accounts();
-        final var tokenAssociations = signedState.tokenAssociations();
-        accounts.forEachParallel((id, account) -> {
-            if (!account.isDeleted()) {
-                final var accountId = id.toGrpcAccountId();
-                final var balance = account.getBalance();
-                if (nodeIds.contains(accountId) && balance < nodeBalanceWarnThreshold) {
-                    log.warn(LOW_NODE_BALANCE_WARN_MSG_TPL, readableId(accountId), balance);
-                }
-                totalFloat.accumulateAndGet(BigInteger.valueOf(account.getBalance()), BigInteger::add);
-                final SingleAccountBalances.Builder sabBuilder = SingleAccountBalances.newBuilder();
-                sabBuilder.setHbarBalance(balance).setAccountID(accountId);
-                if (dynamicProperties.shouldExportTokenBalances()) {
-                    addTokenBalances(account, sabBuilder, tokens, tokenAssociations);
-                }
-                accountBalances.add(sabBuilder.build());
-            }
-        });
-        accountBalances.sort(SINGLE_ACCOUNT_BALANCES_COMPARATOR);
-        return new BalancesSummary(totalFloat.get(), accountBalances);
+        // Ranges block on MerkleDb reads, so they run on a pool of their own, not the common pool
+        final var summaryPool = summaryPoolFactory.apply(summaryThreadPoolSize);
+        try {
+            // Only the account numbers are kept, the balances are read again from the state while streaming the export
+            final List<BalancesSummaryRange> ranges = signedState
+                    .accounts()
+                    .forEachInRanges(
+                            summaryPool,
+                            BalancesSummaryRange::new,
+                            (range, id, account) -> {
+                                if (!account.isDeleted()) {
+                                    final var accountId = id.toGrpcAccountId();
+                                    final var balance = account.getBalance();
+                                    if (nodeIds.contains(accountId) && balance < nodeBalanceWarnThreshold) {
+                                        log.warn(LOW_NODE_BALANCE_WARN_MSG_TPL, readableId(accountId), balance);
+                                    }
+                                    range.add(id.longValue(), balance);
+                                }
+                            },
+                            summaryThreadPoolSize * SUMMARY_RANGES_PER_THREAD);
+            // All accounts share the same shard and realm, so numeric order is the order of ACCOUNT_ID_COMPARATOR
+            return BalancesSummaryRange.merge(ranges, summaryPool);
+        } finally {
+            summaryPool.shutdown();
+        }
     }
 
     private void addTokenBalances(
@@ -27,8 +27,11 @@ import com.hedera.node.app.service.mono.utils.EntityNum;
 import com.swirlds.common.crypto.Hash;
 import edu.umd.cs.findbugs.annotations.Nullable;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.BiConsumer;
+import java.util.function.Supplier;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -150,6 +153,41 @@ public class AccountStorageAdapter {
         }
     }
 
+    /**
+     * Visits all accounts, split into ranges that are visited in parallel by the given pool. Each range adds its
+     * accounts to its own result object, so the visitor doesn't need to synchronize. In-memory accounts are visited
+     * as a single range on the calling thread.
+     *
+     * @param pool the pool that visits the ranges of on-disk accounts
+     * @param resultSupplier creates the result object of a range
+     * @param visitor adds an account to the result object of its range
+     * @param rangeCount the number of ranges to split on-disk accounts into
+     * @return the results of all ranges
+     * @param <R> the type of the result of a range
+     */
+    public <R> List<R> forEachInRanges(
+            final ForkJoinPool pool,
+            final Supplier<R> resultSupplier,
+            final RangeVisitor<R> visitor,
+            final int rangeCount) {
+        if (accountsOnDisk) {
+            return onDiskAccounts.extractVirtualMapDataInRanges(
+                    pool,
+                    resultSupplier,
+                    (result, entry) -> visitor.visit(result, entry.left().asEntityNum(), entry.right()),
+                    rangeCount);
+        } else {
+            final var result = resultSupplier.get();
+            inMemoryAccounts.forEach((num, account) -> visitor.visit(result, num, account));
+            return List.of(result);
+        }
+    }
+
+    @FunctionalInterface
+    public interface RangeVisitor<R> {
+        void visit(R result, EntityNum num, HederaAccount account);
+    }
+
     public boolean areOnDisk() {
         return accountsOnDisk;
     }
@@ -29,6 +29,8 @@ public class MiscRunningAvgs {
     private RunningAverageMetric handledSubmitMessageSize;
     private RunningAverageMetric writeQueueSizeRecordStream;
     private RunningAverageMetric hashQueueSizeRecordStream;
+    private RunningAverageMetric balancesExportMs;
+    private RunningAverageMetric balancesExportBytes;
 
     public MiscRunningAvgs(final double halfLife) {
         this.halfLife = halfLife;
@@ -59,6 +61,18 @@ public class MiscRunningAvgs {
                         .withDescription(Descriptions.HASH_QUEUE_SIZE_RECORD_STREAM)
                         .withFormat(RUNNING_AVG_FORMAT)
                         .withHalfLife(halfLife));
+        balancesExportMs = platform.getContext()
+                .getMetrics()
+                .getOrCreate(new RunningAverageMetric.Config(STAT_CATEGORY, Names.BALANCES_EXPORT_MS)
+                        .withDescription(Descriptions.BALANCES_EXPORT_MS)
+                        .withFormat(RUNNING_AVG_FORMAT)
+                        .withHalfLife(halfLife));
+        balancesExportBytes = platform.getContext()
+                .getMetrics()
+                .getOrCreate(new RunningAverageMetric.Config(STAT_CATEGORY, Names.BALANCES_EXPORT_BYTES)
+                        .withDescription(Descriptions.BALANCES_EXPORT_BYTES)
+                        .withFormat(RUNNING_AVG_FORMAT)
+                        .withHalfLife(halfLife));
     }
 
     public void recordHandledSubmitMessageSize(final int bytes) {
@@ -77,12 +91,22 @@ public class MiscRunningAvgs {
         gasPerConsSec.update(gas);
     }
 
+    public void recordBalancesExport(final long millis, final long bytes) {
+        // Balances can be exported from a recovered state before the stats are registered
+        if (balancesExportMs != null) {
+            balancesExportMs.update(millis);
+            balancesExportBytes.update(bytes);
+        }
+    }
+
     public static final class Names {
         static final String GAS_PER_CONSENSUS_SEC = "gasPerConsSec";
         static final String HANDLED_SUBMIT_MESSAGE_SIZE = "avgHdlSubMsgSize";
 
         static final String WRITE_QUEUE_SIZE_RECORD_STREAM = "writeQueueSizeRecordStream";
         static final String HASH_QUEUE_SIZE_RECORD_STREAM = "hashQueueSizeRecordStream";
+        static final String BALANCES_EXPORT_MS = "balancesExportMs";
+        static final String BALANCES_EXPORT_BYTES = "balancesExportBytes";
 
         private Names() {
             throw new UnsupportedOperationException("Utility Class");
@@ -96,6 +120,8 @@ public class MiscRunningAvgs {
                 "size of the queue from which we take records and write to RecordStream file";
         static final String HASH_QUEUE_SIZE_RECORD_STREAM =
                 "size of working queue for calculating hash and runningHash";
+        static final String BALANCES_EXPORT_MS = "average time taken to stream a balances file to disk, in ms";
+        static final String BALANCES_EXPORT_BYTES = "average size of an exported balances file before compression";
 
         private Descriptions() {
             throw new UnsupportedOperationException("Utility Class");
@@ -121,4 +147,14 @@ public class MiscRunningAvgs {
     void setHashQueueSizeRecordStream(RunningAverageMetric hashQueueSizeRecordStream) {
         this.hashQueueSizeRecordStream = hashQueueSizeRecordStream;
     }
+
+    @VisibleForTesting
+    void setBalancesExportMs(RunningAverageMetric balancesExportMs) {
+        this.balancesExportMs = balancesExportMs;
+    }
+
+    @VisibleForTesting
+    void setBalancesExportBytes(RunningAverageMetric balancesExportBytes) {
+        this.balancesExportBytes = balancesExportBytes;
+    }
 }
@@ -24,6 +24,7 @@ import com.hedera.node.app.service.mono.state.virtual.ContractKey;
 import com.hedera.node.app.service.mono.state.virtual.IterableContractValue;
 import com.hedera.node.app.service.mono.state.virtual.VirtualBlobKey;
 import com.hedera.node.app.service.mono.state.virtual.VirtualBlobValue;
+import com.hedera.node.app.service.mono.store.contracts.CodeCache;
 import com.hedera.node.app.service.mono.utils.Pause;
 import com.swirlds.common.system.Platform;
 import java.util.concurrent.atomic.AtomicLong;
@@ -56,6 +57,7 @@ public class ServicesStatsManager {
     private final NodeLocalProperties localProperties;
     private final ThrottleGauges throttleGauges;
     private final EntityUtilGauges entityUtilGauges;
+    private final CodeCache codeCache;
     private final Supplier<VirtualMapLike<ContractKey, IterableContractValue>> storage;
     private final Supplier<VirtualMapLike<VirtualBlobKey, VirtualBlobValue>> bytecode;
 
@@ -69,6 +71,7 @@ public class ServicesStatsManager {
             final MiscSpeedometers speedometers,
             final HapiOpSpeedometers opSpeedometers,
             final NodeLocalProperties localProperties,
+            final CodeCache codeCache,
             final Supplier<VirtualMapLike<ContractKey, IterableContractValue>> storage,
             final Supplier<VirtualMapLike<VirtualBlobKey, VirtualBlobValue>> bytecode) {
         this.storage = storage;
@@ -81,6 +84,7 @@ public class ServicesStatsManager {
         this.opSpeedometers = opSpeedometers;
         this.throttleGauges = throttleGauges;
         this.entityUtilGauges = entityUtilGauges;
+        this.codeCache = codeCache;
     }
 
     public void initializeFor(final Platform platform) {
@@ -93,6 +97,7 @@ public class ServicesStatsManager {
         entityUtilGauges.registerWith(platform);
         storage.get().registerMetrics(platform.getContext().getMetrics());
         bytecode.get().registerMetrics(platform.getContext().getMetrics());
+        codeCache.registerMetrics(platform.getContext().getMetrics());
 
         final var hapiOpsUpdateIntervalMs =
                 Math.max(MIN_STAT_INTERVAL_UPDATE_MS, localProperties.hapiOpsStatsUpdateIntervalMs());
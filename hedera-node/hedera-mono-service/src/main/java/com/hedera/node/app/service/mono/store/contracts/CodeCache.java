@@ -22,11 +22,11 @@ import javax.inject.Inject;
 import javax.inject.Singleton;
 
 /**
- * Weak reference cache with expiration TTL for EVM bytecode. This cache is primarily used to store
+ * Size-bounded cache with expiration TTL for EVM bytecode. This cache is primarily used to store
  * bytecode pre-fetched during prepare phase (aka expand signatures) to be used later on during the
  * handle phase (aka handle transaction). The cache also has the side effect of eliminating bytecode
  * reads from the underlying store if the contract is called repeatedly during a short period of
- * time.
+ * time. Contracts with the same bytecode share a single analyzed {@link org.hyperledger.besu.evm.Code}.
  *
  * <p>This cache assumes that the bytecode values are immutable, hence no logic to determine whether
  * a value is stale is present.
@@ -36,6 +36,6 @@ public class CodeCache extends AbstractCodeCache {
 
     @Inject
     public CodeCache(final NodeLocalProperties properties, final EntityAccess entityAccess) {
-        super(properties.prefetchCodeCacheTtlSecs(), entityAccess);
+        super(properties.prefetchCodeCacheTtlSecs(), properties.prefetchCodeCacheMaxBytes(), entityAccess);
     }
 }
@@ -44,6 +44,7 @@ import static com.hedera.node.app.service.mono.context.properties.PropertyNames.
 import static com.hedera.node.app.service.mono.context.properties.PropertyNames.BALANCES_EXPORT_PERIOD_SECS;
 import static com.hedera.node.app.service.mono.context.properties.PropertyNames.BALANCES_EXPORT_TOKEN_BALANCES;
 import static com.hedera.node.app.service.mono.context.properties.PropertyNames.BALANCES_NODE_BALANCE_WARN_THRESHOLD;
+import static com.hedera.node.app.service.mono.context.properties.PropertyNames.BALANCES_SUMMARY_THREAD_POOL_SIZE;
 import static com.hedera.node.app.service.mono.context.properties.PropertyNames.BOOTSTRAP_FEE_SCHEDULE_JSON_RESOURCE;
 import static com.hedera.node.app.service.mono.context.properties.PropertyNames.BOOTSTRAP_GENESIS_PUBLIC_KEY;
 import static com.hedera.node.app.service.mono.context.properties.PropertyNames.BOOTSTRAP_HAPI_PERMISSIONS_PATH;
@@ -130,6 +131,8 @@ import static com.hedera.node.app.service.mono.context.properties.PropertyNames.
 import static com.hedera.node.app.service.mono.context.properties.PropertyNames.HEDERA_ALLOWANCES_MAX_TXN_LIMIT;
 import static com.hedera.node.app.service.mono.context.properties.PropertyNames.HEDERA_EXPORT_ACCOUNTS_ON_STARTUP;
 import static com.hedera.node.app.service.mono.context.properties.PropertyNames.HEDERA_FIRST_USER_ENTITY;
+import static com.hedera.node.app.service.mono.context.properties.PropertyNames.HEDERA_PREFETCH_CODE_CACHE_MAX_BYTES;
+import static com.hedera.node.app.service.mono.context.properties.PropertyNames.HEDERA_PREFETCH_CODE_CACHE_PREWARM_CONTRACTS;
 import static com.hedera.node.app.service.mono.context.properties.PropertyNames.HEDERA_PREFETCH_CODE_CACHE_TTL_SECS;
 import static com.hedera.node.app.service.mono.context.properties.PropertyNames.HEDERA_PREFETCH_QUEUE_CAPACITY;
 import static com.hedera.node.app.service.mono.context.properties.PropertyNames.HEDERA_PREFETCH_THREAD_POOL_SIZE;
@@ -328,6 +331,7 @@ class BootstrapPropertiesTest {
             entry(BALANCES_EXPORT_TOKEN_BALANCES, true),
             entry(BALANCES_NODE_BALANCE_WARN_THRESHOLD, 0L),
             entry(BALANCES_COMPRESS_ON_CREATION, true),
+            entry(BALANCES_SUMMARY_THREAD_POOL_SIZE, 32),
             entry(ACCOUNTS_EXCHANGE_RATES_ADMIN, 57L),
             entry(ACCOUNTS_FEE_SCHEDULE_ADMIN, 56L),
             entry(ACCOUNTS_NODE_REWARD_ACCOUNT, 801L),
@@ -424,6 +428,8 @@ class BootstrapPropertiesTest {
             entry(HEDERA_PREFETCH_QUEUE_CAPACITY, 10000),
             entry(HEDERA_PREFETCH_THREAD_POOL_SIZE, 2),
             entry(HEDERA_PREFETCH_CODE_CACHE_TTL_SECS, 120),
+            entry(HEDERA_PREFETCH_CODE_CACHE_MAX_BYTES, 268435456L),
+            entry(HEDERA_PREFETCH_CODE_CACHE_PREWARM_CONTRACTS, Set.<Address>of()),
             entry(HEDERA_PROFILES_ACTIVE, Profile.PROD),
             entry(HEDERA_REALM, 0L),
             entry(HEDERA_RECORD_STREAM_LOG_DIR, "/opt/hgcapp/recordStreams"),
@@ -27,6 +27,8 @@ import static com.hedera.node.app.service.mono.context.properties.PropertyNames.
 import static com.hedera.node.app.service.mono.context.properties.PropertyNames.GRPC_WORKFLOWS_TLS_PORT;
 import static com.hedera.node.app.service.mono.context.properties.PropertyNames.HEDERA_ACCOUNTS_EXPORT_PATH;
 import static com.hedera.node.app.service.mono.context.properties.PropertyNames.HEDERA_EXPORT_ACCOUNTS_ON_STARTUP;
+import static com.hedera.node.app.service.mono.context.properties.PropertyNames.HEDERA_PREFETCH_CODE_CACHE_MAX_BYTES;
+import static com.hedera.node.app.service.mono.context.properties.PropertyNames.HEDERA_PREFETCH_CODE_CACHE_PREWARM_CONTRACTS;
 import static com.hedera.node.app.service.mono.context.properties.PropertyNames.HEDERA_PREFETCH_CODE_CACHE_TTL_SECS;
 import static com.hedera.node.app.service.mono.context.properties.PropertyNames.HEDERA_PREFETCH_QUEUE_CAPACITY;
 import static com.hedera.node.app.service.mono.context.properties.PropertyNames.HEDERA_PREFETCH_THREAD_POOL_SIZE;
@@ -66,6 +68,8 @@ import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
 
 import java.util.List;
+import java.util.Set;
+import org.hyperledger.besu.datatypes.Address;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -133,6 +137,8 @@ class NodeLocalPropertiesTest {
         assertFalse(subject.exportAccountsOnStartup());
         assertEquals(PROD, subject.nettyMode());
         assertEquals(24L, subject.nettyStartRetryIntervalMs());
+        assertEquals(84L, subject.prefetchCodeCacheMaxBytes());
+        assertEquals(Set.of(Address.fromHexString("0x85")), subject.prefetchCodeCachePrewarmContracts());
     }
 
     @Test
@@ -243,6 +249,9 @@ class NodeLocalPropertiesTest {
         given(properties.getStringProperty(HEDERA_RECORD_STREAM_SIDE_CAR_DIR)).willReturn(logDir(i + 30));
         given(properties.getIntProperty(GRPC_WORKFLOWS_PORT)).willReturn(i + 31);
         given(properties.getIntProperty(GRPC_WORKFLOWS_TLS_PORT)).willReturn(i + 32);
+        given(properties.getLongProperty(HEDERA_PREFETCH_CODE_CACHE_MAX_BYTES)).willReturn(i + 83L);
+        given(properties.getEvmAddresses(HEDERA_PREFETCH_CODE_CACHE_PREWARM_CONTRACTS))
+                .willReturn(Set.of(Address.fromHexString("0x" + (i + 84))));
     }
 
     static String logDir(final int num) {
@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2023 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hedera.node.app.service.mono.state.exports;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.Test;
+
+class BalancesSummaryRangeTest {
+    @Test
+    void mergesRangesInAccountOrder() {
+        final var random = new Random(42);
+        final var ranges = List.of(new BalancesSummaryRange(), new BalancesSummaryRange(), new BalancesSummaryRange());
+        final long[] shuffled = LongStream.rangeClosed(1, 5_000).toArray();
+        for (int i = shuffled.length - 1; i > 0; i--) {
+            final int j = random.nextInt(i + 1);
+            final long tmp = shuffled[i];
+            shuffled[i] = shuffled[j];
+            shuffled[j] = tmp;
+        }
+        for (final long num : shuffled) {
+            ranges.get(random.nextInt(ranges.size())).add(num, num);
+        }
+
+        final var summary = BalancesSummaryRange.merge(ranges, ForkJoinPool.commonPool());
+
+        assertArrayEquals(LongStream.rangeClosed(1, 5_000).toArray(), summary.orderedAccountNums());
+        assertEquals(BigInteger.valueOf(5_000L * 5_001L / 2), summary.totalFloat());
+    }
+
+    @Test
+    void mergesEmptyRanges() {
+        final var range = new BalancesSummaryRange();
+        range.add(3, 100);
+
+        final var summary = BalancesSummaryRange.merge(List.of(new BalancesSummaryRange(), range), Runnable::run);
+
+        assertArrayEquals(new long[] {3}, summary.orderedAccountNums());
+        assertEquals(BigInteger.valueOf(100), summary.totalFloat());
+        assertEquals(0, BalancesSummaryRange.merge(List.of(), Runnable::run).orderedAccountNums().length);
+    }
+
+    @Test
+    void carriesFloatBeyondLongRange() {
+        final var range = new BalancesSummaryRange();
+        range.add(1, Long.MAX_VALUE);
+        range.add(2, Long.MAX_VALUE);
+        range.add(3, 2);
+
+        final var summary = BalancesSummaryRange.merge(List.of(range), Runnable::run);
+
+        assertEquals(
+                BigInteger.valueOf(Long.MAX_VALUE).multiply(BigInteger.TWO).add(BigInteger.TWO),
+                summary.totalFloat());
+    }
+}
@@ -18,8 +18,8 @@ package com.hedera.node.app.service.mono.state.exports;
 
 import static com.hedera.node.app.hapi.utils.exports.FileCompressionUtils.COMPRESSION_ALGORITHM_EXTENSION;
 import static com.hedera.node.app.hapi.utils.exports.FileCompressionUtils.readUncompressedFileBytes;
+import static com.hedera.node.app.service.mono.context.properties.PropertyNames.BALANCES_SUMMARY_THREAD_POOL_SIZE;
 import static com.hedera.node.app.service.mono.context.properties.PropertyNames.LEDGER_TOTAL_TINY_BAR_FLOAT;
-import static com.hedera.node.app.service.mono.state.exports.SignedStateBalancesExporter.SINGLE_ACCOUNT_BALANCES_COMPARATOR;
 import static com.hedera.node.app.service.mono.utils.EntityNum.fromAccountId;
 import static com.hedera.node.app.service.mono.utils.EntityNum.fromTokenId;
 import static com.hedera.node.app.service.mono.utils.EntityNumPair.fromAccountTokenRel;
@@ -27,14 +27,17 @@ import static com.hedera.test.utils.IdUtils.asAccount;
 import static com.hedera.test.utils.IdUtils.asToken;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.collection.IsIterableContainingInOrder.contains;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
-import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.willThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
 import com.hedera.node.app.service.mono.ServicesState;
@@ -47,6 +50,7 @@ import com.hedera.node.app.service.mono.state.merkle.MerkleToken;
 import com.hedera.node.app.service.mono.state.merkle.MerkleTokenRelStatus;
 import com.hedera.node.app.service.mono.state.migration.AccountStorageAdapter;
 import com.hedera.node.app.service.mono.state.migration.TokenRelStorageAdapter;
+import com.hedera.node.app.service.mono.stats.MiscRunningAvgs;
 import com.hedera.node.app.service.mono.utils.EntityNum;
 import com.hedera.node.app.service.mono.utils.SystemExits;
 import com.hedera.services.stream.proto.AllAccountBalances;
@@ -77,9 +81,10 @@ import java.io.UncheckedIOException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 import java.util.function.UnaryOperator;
 import org.hamcrest.Matchers;
@@ -102,6 +107,7 @@ class SignedStateBalancesExporterTest {
     private MerkleToken deletedToken;
 
     private static final long ledgerFloat = 1_000;
+    private static final int summaryThreadPoolSize = 4;
     private static final long thisNodeBalance = 400;
     private static final AccountID thisNode = asAccount("0.0.3");
     private static final long anotherNodeBalance = 100;
@@ -137,6 +143,7 @@ class SignedStateBalancesExporterTest {
     private FileHashReader hashReader;
     private DirectoryAssurance assurance;
     private SystemExits systemExits;
+    private MiscRunningAvgs runningAvgs;
 
     @LoggingTarget
     private LogCaptor logCaptor;
@@ -208,6 +215,7 @@ class SignedStateBalancesExporterTest {
 
         properties = mock(PropertySource.class);
         given(properties.getLongProperty(LEDGER_TOTAL_TINY_BAR_FLOAT)).willReturn(ledgerFloat);
+        given(properties.getIntProperty(BALANCES_SUMMARY_THREAD_POOL_SIZE)).willReturn(summaryThreadPoolSize);
 
         final var firstNodeAddress = mock(Address.class);
         given(firstNodeAddress.getMemo()).willReturn("0.0.3");
@@ -232,8 +240,9 @@ class SignedStateBalancesExporterTest {
         given(signer.apply(fileHash)).willReturn(new Signature(SignatureType.RSA, sig));
 
         systemExits = mock(SystemExits.class);
+        runningAvgs = mock(MiscRunningAvgs.class);
 
-        subject = new SignedStateBalancesExporter(systemExits, properties, signer, dynamicProperties);
+        subject = new SignedStateBalancesExporter(systemExits, properties, signer, dynamicProperties, runningAvgs);
 
         sigFileWriter = mock(SigFileWriter.class);
         hashReader = mock(FileHashReader.class);
@@ -249,12 +258,13 @@ class SignedStateBalancesExporterTest {
                 return "not/a/real/location";
             }
         };
-        subject = new SignedStateBalancesExporter(systemExits, properties, signer, otherDynamicProperties);
+        subject = new SignedStateBalancesExporter(systemExits, properties, signer, otherDynamicProperties, runningAvgs);
         subject.directories = assurance;
 
         subject.exportBalancesFrom(state, now, nodeId);
 
         assertThat(logCaptor.errorLogs(), contains(Matchers.startsWith("Could not export to")));
+        verify(runningAvgs, never()).recordBalancesExport(anyLong(), anyLong());
     }
 
     @Test
@@ -283,7 +293,7 @@ class SignedStateBalancesExporterTest {
         given(hashReader.readHash(loc)).willReturn(fileHash);
         given(sigFileWriter.writeSigFile(captor.capture(), any(), any())).willReturn(loc + "_sig");
         final var expectedAccountBalances = AllAccountBalances.newBuilder()
-                .addAllAllAccounts((subject.summarized(state).orderedBalances()))
+                .addAllAllAccounts(theExpectedBalances())
                 .setConsensusTimestamp(Timestamp.newBuilder()
                         .setSeconds(now.getEpochSecond())
                         .setNanos(now.getNano())
@@ -318,6 +328,8 @@ class SignedStateBalancesExporterTest {
         }
 
         verify(sigFileWriter).writeSigFile(loc, sig, expectedHash);
+        verify(runningAvgs)
+                .recordBalancesExport(anyLong(), eq((long) expectedAccountBalances.build().getSerializedSize()));
         assertThat(logCaptor.debugLogs(), contains(desiredDebugMsg));
         assertTrue(new File(loc).delete());
     }
@@ -330,7 +342,7 @@ class SignedStateBalancesExporterTest {
                 return "not/a/real/location";
             }
         };
-        subject = new SignedStateBalancesExporter(systemExits, properties, signer, otherDynamicProperties);
+        subject = new SignedStateBalancesExporter(systemExits, properties, signer, otherDynamicProperties, runningAvgs);
         subject.directories = assurance;
 
         subject.exportBalancesFrom(state, now, nodeId);
@@ -367,33 +379,38 @@ class SignedStateBalancesExporterTest {
         assertThat(logCaptor.errorLogs(), contains(desiredMsg));
     }
 
-    @Test
-    void testSingleAccountBalancingSort() {
-        final var expectedBalances = theExpectedBalances();
-        final List<SingleAccountBalances> sorted = new ArrayList<>();
-        sorted.addAll(expectedBalances);
-
-        final var singleAccountBalances = sorted.remove(0);
-        sorted.add(singleAccountBalances);
-        assertNotEquals(expectedBalances, sorted);
-
-        sorted.sort(SINGLE_ACCOUNT_BALANCES_COMPARATOR);
-
-        assertEquals(expectedBalances, sorted);
-    }
-
     @Test
     void summarizesAsExpected() {
-        final var expectedBalances = theExpectedBalances();
         final var desiredWarning = "Node '0.0.4' has unacceptably low balance " + anotherNodeBalance + "!";
 
         final var summary = subject.summarized(state);
 
         assertEquals(ledgerFloat, summary.totalFloat().longValue());
-        assertEquals(expectedBalances, summary.orderedBalances());
+        assertArrayEquals(
+                new long[] {
+                    thisNode.getAccountNum(),
+                    anotherNode.getAccountNum(),
+                    firstNonNode.getAccountNum(),
+                    secondNonNode.getAccountNum()
+                },
+                summary.orderedAccountNums());
         assertThat(logCaptor.warnLogs(), contains(desiredWarning));
     }
 
+    @Test
+    void summarizesOnDedicatedPoolThatIsShutDownAfterwards() {
+        final var summaryPool = new AtomicReference<ForkJoinPool>();
+        subject.summaryPoolFactory = parallelism -> {
+            summaryPool.set(new ForkJoinPool(parallelism));
+            return summaryPool.get();
+        };
+
+        subject.summarized(state);
+
+        assertEquals(summaryThreadPoolSize, summaryPool.get().getParallelism());
+        assertTrue(summaryPool.get().isShutdown());
+    }
+
     private List<SingleAccountBalances> theExpectedBalances() {
         final var singleAcctBuilder = SingleAccountBalances.newBuilder();
         final var thisNode = singleAcctBuilder
@@ -481,7 +498,7 @@ class SignedStateBalancesExporterTest {
     void exportsWhenPeriodSecsHaveElapsed() throws NoSuchAlgorithmException {
         final int exportPeriodInSecs = dynamicProperties.balancesExportPeriodSecs();
         final var startTime = Instant.parse("2021-07-07T08:10:00.000Z");
-        subject = new SignedStateBalancesExporter(systemExits, properties, signer, dynamicProperties);
+        subject = new SignedStateBalancesExporter(systemExits, properties, signer, dynamicProperties, runningAvgs);
 
         // start from a time within 1 second of boundary time
         var now = startTime.plusNanos(12340);
@@ -497,7 +514,7 @@ class SignedStateBalancesExporterTest {
         assertEquals(startTime.plusSeconds(exportPeriodInSecs * 2), subject.getNextExportTime());
 
         // start from a random time
-        subject = new SignedStateBalancesExporter(systemExits, properties, signer, dynamicProperties);
+        subject = new SignedStateBalancesExporter(systemExits, properties, signer, dynamicProperties, runningAvgs);
         now = Instant.parse("2021-07-07T08:12:38.123Z");
         assertFalse(subject.isTimeToExport(now));
         assertEquals(startTime.plusSeconds(exportPeriodInSecs), subject.getNextExportTime());
@@ -41,9 +41,13 @@ import com.swirlds.base.utility.Pair;
 import com.swirlds.common.crypto.Hash;
 import com.swirlds.common.threading.interrupt.InterruptableConsumer;
 import com.swirlds.merkle.map.MerkleMap;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.BiConsumer;
+import java.util.function.Supplier;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
@@ -246,6 +250,49 @@ class AccountStorageAdapterTest {
         assertThrows(IllegalStateException.class, () -> subject.forEachParallel(visitor));
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void onDiskForEachInRanges() {
+        withOnDiskSubject();
+        final var pool = ForkJoinPool.commonPool();
+        given(onDiskAccounts.extractVirtualMapDataInRanges(
+                        eq(pool), any(Supplier.class), any(BiConsumer.class), eq(4)))
+                .willAnswer(invocation -> {
+                    final var supplier = invocation.getArgument(1, Supplier.class);
+                    final var handler = invocation.getArgument(2, BiConsumer.class);
+                    final var first = supplier.get();
+                    handler.accept(first, Pair.of(SOME_KEY, onDiskStandIn));
+                    final var second = supplier.get();
+                    handler.accept(second, Pair.of(EntityNumVirtualKey.from(SOME_OTHER_NUM), onDiskStandIn));
+                    handler.accept(second, Pair.of(EntityNumVirtualKey.from(YET_ANOTHER_NUM), onDiskStandIn));
+                    return List.of(first, second);
+                });
+
+        final List<List<EntityNum>> actual =
+                subject.forEachInRanges(pool, ArrayList::new, (range, num, account) -> range.add(num), 4);
+
+        assertEquals(List.of(List.of(SOME_NUM), List.of(SOME_OTHER_NUM, YET_ANOTHER_NUM)), actual);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void inMemoryForEachInRangesUsesSingleRange() {
+        withInMemorySubject();
+        willAnswer(invocation -> {
+                    final var action = invocation.getArgument(0, BiConsumer.class);
+                    action.accept(SOME_NUM, IN_MEMORY_STAND_IN);
+                    action.accept(SOME_OTHER_NUM, IN_MEMORY_STAND_IN);
+                    return null;
+                })
+                .given(inMemoryAccounts)
+                .forEach(any(BiConsumer.class));
+
+        final List<Set<EntityNum>> actual = subject.forEachInRanges(
+                ForkJoinPool.commonPool(), HashSet::new, (range, num, account) -> range.add(num), 4);
+
+        assertEquals(List.of(Set.of(SOME_NUM, SOME_OTHER_NUM)), actual);
+    }
+
     private void withInMemorySubject() {
         subject = AccountStorageAdapter.fromInMemory(MerkleMapLike.from(inMemoryAccounts));
     }
@@ -16,6 +16,7 @@
 
 package com.hedera.node.app.service.mono.stats;
 
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.verify;
@@ -51,6 +52,12 @@ class MiscRunningAvgsTest {
     @Mock
     private RunningAverageMetric hashS;
 
+    @Mock
+    private RunningAverageMetric exportMs;
+
+    @Mock
+    private RunningAverageMetric exportBytes;
+
     @Mock
     private Metrics metrics;
 
@@ -70,7 +77,7 @@ class MiscRunningAvgsTest {
 
         subject.registerWith(platform);
 
-        verify(metrics, times(4)).getOrCreate(any());
+        verify(metrics, times(6)).getOrCreate(any());
     }
 
     @Test
@@ -81,11 +88,19 @@ class MiscRunningAvgsTest {
         subject.writeQueueSizeRecordStream(4);
         subject.hashQueueSizeRecordStream(5);
         subject.recordGasPerConsSec(6L);
+        subject.recordBalancesExport(7L, 8L);
 
         verify(submitSizes).update(3.0);
         verify(queueSize).update(4.0);
         verify(hashS).update(5);
         verify(gasPerSec).update(6L);
+        verify(exportMs).update(7L);
+        verify(exportBytes).update(8L);
+    }
+
+    @Test
+    void ignoresBalancesExportBeforeRegistration() {
+        assertDoesNotThrow(() -> subject.recordBalancesExport(7L, 8L));
     }
 
     private void setMocks() {
@@ -93,5 +108,7 @@ class MiscRunningAvgsTest {
         subject.setWriteQueueSizeRecordStream(queueSize);
         subject.setHashQueueSizeRecordStream(hashS);
         subject.setGasPerConsSec(gasPerSec);
+        subject.setBalancesExportMs(exportMs);
+        subject.setBalancesExportBytes(exportBytes);
     }
 }
@@ -29,6 +29,7 @@ import com.hedera.node.app.service.mono.state.virtual.ContractKey;
 import com.hedera.node.app.service.mono.state.virtual.IterableContractValue;
 import com.hedera.node.app.service.mono.state.virtual.VirtualBlobKey;
 import com.hedera.node.app.service.mono.state.virtual.VirtualBlobValue;
+import com.hedera.node.app.service.mono.store.contracts.CodeCache;
 import com.hedera.node.app.service.mono.utils.Pause;
 import com.hedera.node.app.service.mono.utils.SleepingPause;
 import com.swirlds.common.context.PlatformContext;
@@ -90,6 +91,9 @@ class ServicesStatsManagerTest {
     @Mock
     private ExpiryStats expiryStats;
 
+    @Mock
+    private CodeCache codeCache;
+
     ServicesStatsManager subject;
 
     @BeforeEach
@@ -111,6 +115,7 @@ class ServicesStatsManagerTest {
                 miscSpeedometers,
                 speedometers,
                 properties,
+                codeCache,
                 () -> VirtualMapLike.from(storage),
                 () -> VirtualMapLike.from(bytecode));
     }
@@ -149,6 +154,7 @@ class ServicesStatsManagerTest {
         verify(entityUtilGauges).registerWith(platform);
         verify(storage).registerMetrics(any());
         verify(bytecode).registerMetrics(any());
+        verify(codeCache).registerMetrics(any());
         // and:
         verify(thread).start();
         verify(thread).setName(String.format(ServicesStatsManager.STATS_UPDATE_THREAD_NAME_TPL, 123L));
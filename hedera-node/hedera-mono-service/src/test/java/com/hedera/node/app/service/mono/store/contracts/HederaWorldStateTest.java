@@ -42,6 +42,7 @@ import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.internal.verification.VerificationModeFactory.times;
 
+import com.hedera.node.app.service.evm.store.contracts.AbstractCodeCache;
 import com.hedera.node.app.service.evm.store.contracts.HederaEvmWorldStateTokenAccount;
 import com.hedera.node.app.service.evm.store.contracts.WorldStateAccount;
 import com.hedera.node.app.service.evm.store.contracts.utils.BytesKey;
@@ -141,6 +142,7 @@ class HederaWorldStateTest {
     @BeforeEach
     void setUp() {
         given(properties.prefetchCodeCacheTtlSecs()).willReturn(1);
+        given(properties.prefetchCodeCacheMaxBytes()).willReturn(AbstractCodeCache.DEFAULT_MAX_CODE_BYTES);
         codeCache = new CodeCache(properties, entityAccess);
         subject = new HederaWorldState(
                 usageLimits,
@@ -844,7 +846,7 @@ class HederaWorldStateTest {
         given(entityAccess.isExtant(contract.asEvmAddress())).willReturn(false);
         final var backingCache = codeCache.getCache();
         final var cacheKey = new BytesKey(newAddress.toArray());
-        backingCache.put(cacheKey, CodeFactory.createCode(Bytes.fromHexString("0xabcd"), 0, false));
+        backingCache.put(cacheKey, CodeFactory.createCode(Bytes.fromHexString("0xabcd"), 0, false).getCodeHash());
 
         actualSubject.commit();
         assertNull(backingCache.getIfPresent(cacheKey));
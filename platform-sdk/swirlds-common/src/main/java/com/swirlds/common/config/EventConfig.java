@@ -19,6 +19,7 @@ package com.swirlds.common.config;
 import com.swirlds.common.threading.framework.config.QueueThreadConfiguration;
 import com.swirlds.config.api.ConfigData;
 import com.swirlds.config.api.ConfigProperty;
+import com.swirlds.config.api.validation.annotation.Min;
 
 /**
  * Configuration for event handling inside the platform.
@@ -60,6 +61,12 @@ import com.swirlds.config.api.ConfigProperty;
  *                                          false then prehandle happens on the intake thread
  * @param prehandlePoolSize                 the size of the thread pool used for prehandling transactions, if enabled
  * @param forceUseOfOrphanBuffer            if true then orphan buffer is used even if chatter is not enabled
+ * @param batchSignatureVerification        if true then signatures of events taken from the intake queue are verified
+ *                                          in parallel batches in a thread pool, if false then every signature is
+ *                                          verified on the intake thread
+ * @param signatureVerificationPoolSize     the size of the thread pool used for batch signature verification, if
+ *                                          enabled
+ * @param signatureVerificationBatchSize    the max number of events verified in a single batch
  */
 @ConfigData("event")
 public record EventConfig(
@@ -75,4 +82,7 @@ public record EventConfig(
         @ConfigProperty(defaultValue = "true") boolean enableEventStreaming,
         @ConfigProperty(defaultValue = "true") boolean asyncPrehandle,
         @ConfigProperty(defaultValue = "8") int prehandlePoolSize,
-        @ConfigProperty(defaultValue = "true") boolean forceUseOfOrphanBuffer) {}
+        @ConfigProperty(defaultValue = "true") boolean forceUseOfOrphanBuffer,
+        @ConfigProperty(defaultValue = "true") boolean batchSignatureVerification,
+        @Min(1) @ConfigProperty(defaultValue = "8") int signatureVerificationPoolSize,
+        @Min(1) @ConfigProperty(defaultValue = "256") int signatureVerificationBatchSize) {}
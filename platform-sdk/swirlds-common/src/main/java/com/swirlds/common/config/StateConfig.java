@@ -97,6 +97,16 @@ import java.time.Duration;
  * @param signedStateFreq                       hash and sign a state every signedStateFreq rounds. 1 means that a state
  *                                              will be signed every round, 2 means every other round, and so on. If the
  *                                              value is 0 or less, no states will be signed
+ * @param stateWriterThreads                    The number of threads used to write a signed state to disk. Subtrees
+ *                                              that are serialized to their own files (e.g. virtual maps) are written
+ *                                              in parallel, and the small auxiliary files are written while the state
+ *                                              file is being written. If 1 or less, everything is written on the
+ *                                              calling thread.
+ * @param stateFileWriteBufferSize              The size of the buffer used when writing the signed state file, in
+ *                                              bytes.
+ * @param stateLoaderThreads                    The number of threads used to load subtrees of a signed state that
+ *                                              are stored in their own files (e.g. virtual maps) when a state is read
+ *                                              from disk. If 1 or less, the whole state is read on the calling thread.
  */
 @ConfigData("state")
 public record StateConfig(
@@ -124,7 +134,10 @@ public record StateConfig(
         @ConfigProperty(defaultValue = "false") boolean requireStateLoad,
         @ConfigProperty(defaultValue = "emergencyRecovery.yaml") String emergencyStateFileName,
         @ConfigProperty(defaultValue = "true") boolean checkSignedStateFromDisk,
-        @ConfigProperty(defaultValue = "1") int signedStateFreq) {
+        @ConfigProperty(defaultValue = "1") int signedStateFreq,
+        @ConfigProperty(defaultValue = "4") int stateWriterThreads,
+        @ConfigProperty(defaultValue = "4194304") int stateFileWriteBufferSize,
+        @ConfigProperty(defaultValue = "4") int stateLoaderThreads) {
 
     /**
      * Get the main class name that should be used for signed states.
@@ -38,6 +38,9 @@ import com.swirlds.config.api.validation.annotation.ConstraintMethod;
  * @param throttleTransactionQueueSize
  * 		Stop accepting new non-system transactions into the 4 transaction queues if any of them have more than this
  * 		many.
+ * @param throttleTransactionQueueBytes
+ * 		Stop accepting new non-system transactions into the transaction pool if the transactions waiting to be put
+ * 		into events have more than this many bytes.
  */
 @ConfigData("transaction")
 public record TransactionConfig(
@@ -45,7 +48,8 @@ public record TransactionConfig(
         @ConfigProperty(defaultValue = "1024") int maxAddressSizeAllowed,
         @ConfigProperty(defaultValue = "245760") int maxTransactionBytesPerEvent,
         @ConfigProperty(defaultValue = "245760") int maxTransactionCountPerEvent,
-        @ConfigProperty(defaultValue = "100000") int throttleTransactionQueueSize) {
+        @ConfigProperty(defaultValue = "100000") int throttleTransactionQueueSize,
+        @ConfigProperty(defaultValue = "67108864") long throttleTransactionQueueBytes) {
     public ConfigViolation validateTransactionBytes(final Configuration configuration) {
         final TransactionConfig transactionConfig = configuration.getConfigData(TransactionConfig.class);
         final int transactionMaxBytes = transactionConfig.transactionMaxBytes();
@@ -18,6 +18,7 @@ package com.swirlds.common.io;
 
 import com.swirlds.common.io.streams.SerializableDataInputStream;
 import com.swirlds.common.io.streams.SerializableDataOutputStream;
+import com.swirlds.common.io.utility.IORunnable;
 import java.io.IOException;
 import java.nio.file.Path;
 
@@ -61,4 +62,31 @@ public interface ExternalSelfSerializable extends SerializableDet {
      * 		thrown in case of an IO exception
      */
     void deserialize(SerializableDataInputStream in, Path inputDirectory, int version) throws IOException;
+
+    /**
+     * Reconstruct this object in two steps: read the data serialized to the stream now, and return a task that loads
+     * the data serialized to the directory later. This allows a reader to continue reading the stream, and to load
+     * the data of multiple objects from their directories in parallel.
+     * <p>
+     * The returned task may be run on a different thread, after the rest of the stream has been read and after this
+     * object has been added to its parent, but before the tree is initialized. Objects that need all of their data
+     * before they can be added to a parent must not override this method. The default implementation reads all data
+     * immediately.
+     *
+     * @param in
+     * 		The input stream.
+     * @param inputDirectory
+     * 		a location on disk where data can be read, the same as for
+     *        {@link #deserialize(SerializableDataInputStream, Path, int)}
+     * @param version
+     * 		The version at which this object was serialized.
+     * @return a task that loads the rest of the object from the directory
+     * @throws IOException
+     * 		thrown in case of an IO exception
+     */
+    default IORunnable deserializeDeferred(
+            final SerializableDataInputStream in, final Path inputDirectory, final int version) throws IOException {
+        deserialize(in, inputDirectory, version);
+        return () -> {};
+    }
 }
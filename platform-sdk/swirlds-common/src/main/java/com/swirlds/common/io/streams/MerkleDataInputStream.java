@@ -19,6 +19,8 @@ package com.swirlds.common.io.streams;
 import static com.swirlds.common.constructable.ClassIdFormatter.classIdString;
 import static com.swirlds.common.io.streams.SerializableStreamConstants.NULL_CLASS_ID;
 import static com.swirlds.common.merkle.copy.MerkleInitialize.initializeAndMigrateTreeAfterDeserialization;
+import static com.swirlds.common.units.UnitConstants.NANOSECONDS_TO_MILLISECONDS;
+import static com.swirlds.logging.LogMarker.STARTUP;
 
 import com.swirlds.common.constructable.ConstructableRegistry;
 import com.swirlds.common.io.ExternalSelfSerializable;
@@ -27,29 +29,56 @@ import com.swirlds.common.io.exceptions.MerkleSerializationException;
 import com.swirlds.common.io.streams.internal.MerkleSerializationProtocol;
 import com.swirlds.common.io.streams.internal.MerkleTreeSerializationOptions;
 import com.swirlds.common.io.streams.internal.PartiallyConstructedMerkleInternal;
+import com.swirlds.common.io.utility.IORunnable;
 import com.swirlds.common.merkle.MerkleInternal;
 import com.swirlds.common.merkle.MerkleLeaf;
 import com.swirlds.common.merkle.MerkleNode;
 import com.swirlds.common.merkle.exceptions.IllegalChildCountException;
+import com.swirlds.common.utility.Labeled;
 import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Queue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
 /**
  * A SerializableDataInputStream that can also handle merkle tree.
  */
 public class MerkleDataInputStream extends SerializableDataInputStream {
 
+    private static final Logger logger = LogManager.getLogger(MerkleDataInputStream.class);
+
     private final Queue<PartiallyConstructedMerkleInternal> internalNodes;
     private MerkleNode root;
 
+    /**
+     * Subtrees whose data is loaded from the directory after the stream is read, or null if all data is loaded while
+     * the stream is read.
+     */
+    private List<DeferredSubtree> deferredSubtrees;
+
+    /**
+     * A subtree that was added to the tree, but whose data has not been loaded yet.
+     *
+     * @param node the root of the subtree
+     * @param load loads the data of the subtree
+     */
+    private record DeferredSubtree(MerkleNode node, IORunnable load) {}
+
     /**
      * Create a stream capable of reading merkle trees.
      *
@@ -109,9 +138,15 @@ public class MerkleDataInputStream extends SerializableDataInputStream {
     private void finishReadingInternal(final Path directory, final MerkleInternal node, final int version)
             throws IOException {
 
-        if (node instanceof ExternalSelfSerializable) {
-            ((ExternalSelfSerializable) node).deserialize(this, directory, version);
-            addToParent(node);
+        if (node instanceof final ExternalSelfSerializable externalSelfSerializable) {
+            if (deferredSubtrees == null) {
+                externalSelfSerializable.deserialize(this, directory, version);
+                addToParent(node);
+            } else {
+                final IORunnable load = externalSelfSerializable.deserializeDeferred(this, directory, version);
+                addToParent(node);
+                deferredSubtrees.add(new DeferredSubtree(node, load));
+            }
         } else {
             final int childCount = readInt();
 
@@ -203,8 +238,34 @@ public class MerkleDataInputStream extends SerializableDataInputStream {
      */
     public <T extends MerkleNode> T readMerkleTree(final Path directory, final int maxNumberOfNodes)
             throws IOException {
+        return readMerkleTree(directory, maxNumberOfNodes, null);
+    }
+
+    /**
+     * Read a merkle tree from a stream. If an executor is provided, internal nodes that implement
+     * {@link ExternalSelfSerializable} (e.g. virtual maps) only read their part of the stream while the stream is
+     * read, and load the data stored in their own files in parallel once the whole stream has been read (see
+     * {@link ExternalSelfSerializable#deserializeDeferred(SerializableDataInputStream, Path, int)}). The time spent
+     * loading each of these subtrees is logged.
+     *
+     * @param directory
+     * 		the directory from which data is being read
+     * @param maxNumberOfNodes
+     * 		maximum number of nodes to read
+     * @param executor
+     * 		the executor used to load subtrees in parallel, or null to read the whole tree on the calling thread
+     * @param <T>
+     * 		Type of the node
+     * @return the merkle tree read from the stream
+     * @throws IOException
+     * 		thrown when version or the options or nodes count are invalid
+     */
+    public <T extends MerkleNode> T readMerkleTree(
+            final Path directory, final int maxNumberOfNodes, @Nullable final ExecutorService executor)
+            throws IOException {
 
         validateDirectory(directory);
+        deferredSubtrees = executor == null ? null : new ArrayList<>();
 
         final int merkleVersion = readInt();
 
@@ -230,6 +291,10 @@ public class MerkleDataInputStream extends SerializableDataInputStream {
             readNextNode(directory, deserializedVersions);
         }
 
+        if (deferredSubtrees != null) {
+            loadDeferredSubtrees(executor);
+        }
+
         final MerkleNode migratedRoot = initializeAndMigrateTreeAfterDeserialization(root, deserializedVersions);
 
         if (migratedRoot == null) {
@@ -237,4 +302,81 @@ public class MerkleDataInputStream extends SerializableDataInputStream {
         }
         return migratedRoot.cast();
     }
+
+    /**
+     * Load the data of all deferred subtrees in parallel, and log how long it took to load each of them. The tree is
+     * fully constructed at this point, so loading a subtree doesn't change any other part of the tree.
+     */
+    private void loadDeferredSubtrees(@NonNull final ExecutorService executor) throws IOException {
+        final List<DeferredSubtree> subtrees = deferredSubtrees;
+        deferredSubtrees = null;
+        if (subtrees.isEmpty()) {
+            return;
+        }
+
+        final long start = System.nanoTime();
+        final List<Future<Long>> futures = new ArrayList<>(subtrees.size());
+        for (final DeferredSubtree subtree : subtrees) {
+            futures.add(executor.submit(() -> {
+                final long loadStart = System.nanoTime();
+                subtree.load().run();
+                return System.nanoTime() - loadStart;
+            }));
+        }
+
+        // wait for all subtrees, even if one fails, so nothing is still loading when this method returns
+        final long[] loadTimes = new long[subtrees.size()];
+        IOException exception = null;
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                loadTimes[i] = futures.get(i).get();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("interrupted while loading subtrees", e);
+            } catch (final ExecutionException e) {
+                if (exception == null) {
+                    exception = e.getCause() instanceof final IOException ioException
+                            ? ioException
+                            : new IOException("unable to load subtree", e.getCause());
+                }
+            }
+        }
+        if (exception != null) {
+            throw exception;
+        }
+
+        logSubtreeLoadTimes(subtrees, loadTimes, System.nanoTime() - start);
+    }
+
+    /**
+     * Log how long it took to load each subtree, slowest first.
+     */
+    private static void logSubtreeLoadTimes(
+            @NonNull final List<DeferredSubtree> subtrees, @NonNull final long[] loadTimes, final long totalTime) {
+        final List<Integer> order = new ArrayList<>(subtrees.size());
+        for (int i = 0; i < subtrees.size(); i++) {
+            order.add(i);
+        }
+        order.sort(Comparator.comparingLong((final Integer i) -> loadTimes[i]).reversed());
+
+        final StringBuilder sb = new StringBuilder();
+        sb.append("Loaded ")
+                .append(subtrees.size())
+                .append(" subtrees in parallel in ")
+                .append(Math.round(totalTime * NANOSECONDS_TO_MILLISECONDS))
+                .append(" ms:");
+        for (final int i : order) {
+            final MerkleNode node = subtrees.get(i).node();
+            sb.append("\n   ").append(node.getClass().getSimpleName());
+            if (node instanceof final Labeled labeled) {
+                sb.append(" '").append(labeled.getLabel()).append("'");
+            }
+            sb.append(" at ")
+                    .append(node.getRoute())
+                    .append(": ")
+                    .append(Math.round(loadTimes[i] * NANOSECONDS_TO_MILLISECONDS))
+                    .append(" ms");
+        }
+        logger.info(STARTUP.getMarker(), sb);
+    }
 }
@@ -24,12 +24,20 @@ import com.swirlds.common.io.streams.internal.MerkleSerializationProtocol;
 import com.swirlds.common.merkle.MerkleInternal;
 import com.swirlds.common.merkle.MerkleLeaf;
 import com.swirlds.common.merkle.MerkleNode;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
 import org.apache.logging.log4j.LogManager;
@@ -150,6 +158,27 @@ public class MerkleDataOutputStream extends SerializableDataOutputStream {
      * 		thrown if any IO problems occur
      */
     public void writeMerkleTree(final Path directory, final MerkleNode root) throws IOException {
+        writeMerkleTree(directory, root, null);
+    }
+
+    /**
+     * Writes a merkle tree to a stream. If an executor is provided, internal nodes that implement
+     * {@link ExternalSelfSerializable} (e.g. virtual maps, which write most of their data to their own files in the
+     * directory) are serialized in parallel. The bytes they write to this stream are buffered and written in the
+     * same position as they would be if the tree was written sequentially, so the stream is identical either way.
+     *
+     * @param directory
+     * 		a directory where additional data will be written
+     * @param root
+     * 		the root of the tree
+     * @param executor
+     * 		the executor used to serialize subtrees in parallel, or null to write the whole tree on the calling
+     * 		thread. Nodes serialized in parallel must not write to the same files in the directory.
+     * @throws IOException
+     * 		thrown if any IO problems occur
+     */
+    public void writeMerkleTree(final Path directory, final MerkleNode root, @Nullable final ExecutorService executor)
+            throws IOException {
         writeInt(MerkleSerializationProtocol.CURRENT);
         writeBoolean(root == null);
 
@@ -159,18 +188,94 @@ public class MerkleDataOutputStream extends SerializableDataOutputStream {
             return;
         }
 
+        final Map<MerkleNode, Future<byte[]>> subtrees =
+                executor == null ? Map.of() : serializeSubtrees(directory, root, executor);
+
+        try {
+            root.treeIterator()
+                    .setOrder(BREADTH_FIRST)
+                    .setDescendantFilter(DESCENDANT_FILTER)
+                    .ignoreNull(false)
+                    .forEachRemainingWithIO((final MerkleNode node) -> {
+                        if (node == null) {
+                            writeNull();
+                        } else if (node.isLeaf()) {
+                            writeLeaf(directory, node.asLeaf());
+                        } else if (subtrees.containsKey(node)) {
+                            write(getSerializedSubtree(subtrees.get(node)));
+                        } else {
+                            writeInternal(directory, node.asInternal());
+                        }
+                    });
+        } finally {
+            // don't let any subtree write to the directory after this method returns
+            awaitSubtrees(subtrees);
+        }
+    }
+
+    /**
+     * Start serializing all internal nodes that serialize themselves in parallel. Nothing is started if there is only
+     * one such node, since there is nothing for it to run in parallel with.
+     *
+     * @return the future serialized bytes of each node
+     */
+    private static Map<MerkleNode, Future<byte[]>> serializeSubtrees(
+            final Path directory, final MerkleNode root, final ExecutorService executor) {
+
+        final List<ExternalSelfSerializable> nodes = new ArrayList<>();
         root.treeIterator()
                 .setOrder(BREADTH_FIRST)
                 .setDescendantFilter(DESCENDANT_FILTER)
-                .ignoreNull(false)
-                .forEachRemainingWithIO((final MerkleNode node) -> {
-                    if (node == null) {
-                        writeNull();
-                    } else if (node.isLeaf()) {
-                        writeLeaf(directory, node.asLeaf());
-                    } else {
-                        writeInternal(directory, node.asInternal());
-                    }
-                });
+                .setFilter(node -> !node.isLeaf() && node instanceof ExternalSelfSerializable)
+                .forEachRemaining(node -> nodes.add((ExternalSelfSerializable) node));
+        if (nodes.size() < 2) {
+            return Map.of();
+        }
+
+        final Map<MerkleNode, Future<byte[]>> subtrees = new IdentityHashMap<>();
+        for (final ExternalSelfSerializable node : nodes) {
+            subtrees.put((MerkleNode) node, executor.submit(() -> {
+                final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                try (final MerkleDataOutputStream out = new MerkleDataOutputStream(bytes)) {
+                    out.writeSerializableNode(directory, node);
+                }
+                return bytes.toByteArray();
+            }));
+        }
+        return subtrees;
+    }
+
+    /**
+     * Wait for a subtree to be serialized, and get the bytes it wrote to the stream.
+     */
+    private static byte[] getSerializedSubtree(final Future<byte[]> future) throws IOException {
+        try {
+            return future.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted while waiting for a subtree to be serialized", e);
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof final IOException ioException) {
+                throw ioException;
+            }
+            throw new IOException("unable to serialize subtree", e.getCause());
+        }
+    }
+
+    /**
+     * Wait for all subtrees to finish serializing, ignoring any failures. Failures are reported when the bytes of a
+     * subtree are written to the stream.
+     */
+    private static void awaitSubtrees(final Map<MerkleNode, Future<byte[]>> subtrees) {
+        for (final Future<byte[]> future : subtrees.values()) {
+            try {
+                future.get();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (final ExecutionException ignored) {
+                // reported by getSerializedSubtree(), or by the exception that ended the write
+            }
+        }
     }
 }
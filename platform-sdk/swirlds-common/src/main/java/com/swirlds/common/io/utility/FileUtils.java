@@ -46,6 +46,12 @@ public final class FileUtils {
 
     private static final Logger logger = LogManager.getLogger(FileUtils.class);
 
+    /**
+     * The size of the write buffer used by {@link #writeAndFlush(Path, IOConsumer)}, the same as the default size of a
+     * {@link BufferedOutputStream}.
+     */
+    private static final int DEFAULT_WRITE_BUFFER_SIZE = 8192;
+
     private FileUtils() {}
 
     /**
@@ -271,11 +277,27 @@ public final class FileUtils {
     public static void writeAndFlush(
             @NonNull final Path file, @NonNull final IOConsumer<MerkleDataOutputStream> writeMethod)
             throws IOException {
+        writeAndFlush(file, DEFAULT_WRITE_BUFFER_SIZE, writeMethod);
+    }
+
+    /**
+     * Write to a new file through a buffer of the given size, and make sure it's flushed to disk before returning. A
+     * large buffer reduces the number of write calls when writing large files, e.g. signed states.
+     *
+     * @param file        the file to be written to, should not exist prior to this method being called
+     * @param bufferSize  the size of the write buffer, in bytes
+     * @param writeMethod the method that writes
+     */
+    public static void writeAndFlush(
+            @NonNull final Path file,
+            final int bufferSize,
+            @NonNull final IOConsumer<MerkleDataOutputStream> writeMethod)
+            throws IOException {
 
         throwIfFileExists(file);
 
         try (final FileOutputStream fileOut = new FileOutputStream(file.toFile());
-                final BufferedOutputStream bufOut = new BufferedOutputStream(fileOut);
+                final BufferedOutputStream bufOut = new BufferedOutputStream(fileOut, bufferSize);
                 final MerkleDataOutputStream out = new MerkleDataOutputStream(bufOut)) {
 
             writeMethod.accept(out);
@@ -330,6 +330,8 @@ public class QueueThreadImpl<T> extends AbstractBlockingQueue<T> implements Queu
                 handler.accept(item);
             }
             buffer.clear();
+            // handlers may hold on to items until the batch is complete, so they must be told here as well
+            batchHandled();
         }
     }
 
@@ -532,6 +532,9 @@ public final class MerkleDb {
      * folder otherwise.
      *
      * This method must be called before the database instance is created in the target folder.
+     * It's synchronized, since all data sources of a saved state are restored from the same
+     * snapshot, and they may be restored in parallel. Only the first call copies the snapshot to
+     * the target folder, the other calls just get the database instance.
      *
      * @param source Source folder
      * @param target Target folder, optional. If {@code null}, the default MerkleDb folder is used
@@ -539,7 +542,7 @@ public final class MerkleDb {
      * @throws IOException If an I/O error occurs
      * @throws IllegalStateException If the default database instance is already created
      */
-    public static MerkleDb restore(final Path source, final Path target) throws IOException {
+    public static synchronized MerkleDb restore(final Path source, final Path target) throws IOException {
         final Path defaultInstancePath = (target != null) ? target : getDefaultPath();
         if (!Files.exists(defaultInstancePath.resolve(METADATA_FILENAME))) {
             Files.createDirectories(defaultInstancePath);
@@ -564,7 +567,9 @@ public final class MerkleDb {
         return getInstance(defaultInstancePath);
     }
 
-    private void storeMetadata() {
+    private synchronized void storeMetadata() {
+        // Synchronized, since multiple tables may be snapshotted to the same database in parallel. The
+        // list of tables is collected under the lock, so the last write always contains all tables
         storeMetadata(storageDir, getPrimaryTables());
     }
 
@@ -19,11 +19,14 @@ package com.swirlds.merkledb;
 import static com.swirlds.common.threading.manager.AdHocThreadManager.getStaticThreadManager;
 import static com.swirlds.common.units.UnitConstants.BYTES_TO_BITS;
 import static com.swirlds.common.units.UnitConstants.BYTES_TO_MEBIBYTES;
+import static com.swirlds.common.units.UnitConstants.MEBIBYTES_TO_BYTES;
+import static com.swirlds.common.units.UnitConstants.MICROSECONDS_TO_NANOSECONDS;
 import static com.swirlds.logging.LogMarker.ERROR;
 import static com.swirlds.logging.LogMarker.EXCEPTION;
 import static com.swirlds.logging.LogMarker.MERKLE_DB;
 import static com.swirlds.merkledb.KeyRange.INVALID_KEY_RANGE;
 import static com.swirlds.merkledb.MerkleDb.MERKLEDB_COMPONENT;
+import static com.swirlds.merkledb.collections.AbstractLongList.DEFAULT_RESERVED_BUFFER_LENGTH;
 
 import com.swirlds.base.utility.ToStringBuilder;
 import com.swirlds.common.config.singleton.ConfigurationHolder;
@@ -38,17 +41,23 @@ import com.swirlds.merkledb.collections.HashListByteBuffer;
 import com.swirlds.merkledb.collections.LongList;
 import com.swirlds.merkledb.collections.LongListDisk;
 import com.swirlds.merkledb.collections.LongListOffHeap;
+import com.swirlds.merkledb.collections.LongListTiered;
 import com.swirlds.merkledb.config.MerkleDbConfig;
+import com.swirlds.merkledb.files.CompactionStrategy;
 import com.swirlds.merkledb.files.DataFileCollection;
 import com.swirlds.merkledb.files.DataFileCommon;
 import com.swirlds.merkledb.files.DataFileReader;
+import com.swirlds.merkledb.files.DataItemCache;
+import com.swirlds.merkledb.files.LeveledCompactionStrategy;
 import com.swirlds.merkledb.files.MemoryIndexDiskKeyValueStore;
+import com.swirlds.merkledb.files.SizeTieredCompactionStrategy;
 import com.swirlds.merkledb.files.VirtualHashRecordSerializer;
 import com.swirlds.merkledb.files.VirtualLeafRecordSerializer;
 import com.swirlds.merkledb.files.hashmap.Bucket;
 import com.swirlds.merkledb.files.hashmap.HalfDiskHashMap;
 import com.swirlds.merkledb.files.hashmap.HalfDiskVirtualKeySet;
 import com.swirlds.merkledb.files.hashmap.VirtualKeySetSerializer;
+import com.swirlds.merkledb.serialize.DataItemSerializer;
 import com.swirlds.merkledb.serialize.KeyIndexType;
 import com.swirlds.merkledb.serialize.KeySerializer;
 import com.swirlds.virtualmap.VirtualKey;
@@ -67,21 +76,30 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
 import java.util.LongSummaryStatistics;
 import java.util.Objects;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.atomic.LongAdder;
 import java.util.function.IntConsumer;
+import java.util.function.ToLongFunction;
 import java.util.function.UnaryOperator;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -203,6 +221,18 @@ public final class MerkleDbDataSource<K extends VirtualKey, V extends VirtualVal
     /** Thread pool storing key-to-path mappings */
     private final ExecutorService storeKeyToPathExecutor;
 
+    /**
+     * Thread pool writing flush partitions in parallel, it has {@link
+     * MerkleDbConfig#numFlushPartitions()} threads. Not used, if flushes aren't partitioned
+     */
+    private final ExecutorService flushPartitionsExecutor;
+
+    /**
+     * Thread pool loading leaf records in background, it has {@link MerkleDbConfig#numWarmupThreads()}
+     * threads. See {@link #warmLeafRecords(Collection)}
+     */
+    private final ExecutorService warmupExecutor;
+
     /** Thread pool creating snapshots, it is unbounded in threads, but we use at most 7 */
     private final ExecutorService snapshotExecutor;
 
@@ -228,6 +258,12 @@ public final class MerkleDbDataSource<K extends VirtualKey, V extends VirtualVal
     /** When was the last full merge, only touched from single merge thread. */
     private Instant lastFullMerge;
 
+    /**
+     * Strategy to select files to compact, or null if files are selected by size only, based on
+     * the compaction type. See {@link MerkleDbConfig#compactionStrategy()}.
+     */
+    private final CompactionStrategy compactionStrategy;
+
     /** Paths to all database files and directories */
     private final MerkleDbPaths dbPaths;
 
@@ -278,6 +314,26 @@ public final class MerkleDbDataSource<K extends VirtualKey, V extends VirtualVal
                 .setExceptionHandler((t, ex) -> logger.error(
                         EXCEPTION.getMarker(), "[{}] Uncaught exception during storing" + " keys", tableName, ex))
                 .buildFactory());
+        // create thread pool writing flush partitions, threads are only started if flushes are partitioned
+        flushPartitionsExecutor = Executors.newFixedThreadPool(
+                config.numFlushPartitions(),
+                new ThreadConfiguration(getStaticThreadManager())
+                        .setComponent(MERKLEDB_COMPONENT)
+                        .setThreadGroup(threadGroup)
+                        .setThreadName("Flush Partition")
+                        .setExceptionHandler((t, ex) -> logger.error(
+                                EXCEPTION.getMarker(), "[{}] Uncaught exception during flush", tableName, ex))
+                        .buildFactory());
+        // create thread pool loading leaf records in background, threads are only started on warmup requests
+        warmupExecutor = Executors.newFixedThreadPool(
+                config.numWarmupThreads(),
+                new ThreadConfiguration(getStaticThreadManager())
+                        .setComponent(MERKLEDB_COMPONENT)
+                        .setThreadGroup(threadGroup)
+                        .setThreadName("Warmup")
+                        .setExceptionHandler((t, ex) -> logger.error(
+                                EXCEPTION.getMarker(), "[{}] Uncaught exception during warmup", tableName, ex))
+                        .buildFactory());
         // thread pool creating snapshots, it is unbounded in threads, but we use at most 7
         snapshotExecutor = Executors.newCachedThreadPool(new ThreadConfiguration(getStaticThreadManager())
                 .setComponent(MERKLEDB_COMPONENT)
@@ -315,8 +371,16 @@ public final class MerkleDbDataSource<K extends VirtualKey, V extends VirtualVal
 
         // create path to disk location index
         final boolean forceIndexRebuilding = config.indexRebuildingEnforced();
+        final int pathIndexMaxHotChunks = config.pathIndexMaxHotChunks();
         if (tableConfig.isPreferDiskBasedIndices()) {
             pathToDiskLocationInternalNodes = new LongListDisk(dbPaths.pathToDiskLocationInternalNodesFile);
+        } else if (pathIndexMaxHotChunks > 0) {
+            pathToDiskLocationInternalNodes = forceIndexRebuilding
+                    ? new LongListTiered(DEFAULT_RESERVED_BUFFER_LENGTH, pathIndexMaxHotChunks)
+                    : new LongListTiered(
+                            dbPaths.pathToDiskLocationInternalNodesFile,
+                            DEFAULT_RESERVED_BUFFER_LENGTH,
+                            pathIndexMaxHotChunks);
         } else if (Files.exists(dbPaths.pathToDiskLocationInternalNodesFile) && !forceIndexRebuilding) {
             pathToDiskLocationInternalNodes = new LongListOffHeap(dbPaths.pathToDiskLocationInternalNodesFile);
         } else {
@@ -325,6 +389,13 @@ public final class MerkleDbDataSource<K extends VirtualKey, V extends VirtualVal
         // path to disk location index, leaf nodes
         if (tableConfig.isPreferDiskBasedIndices()) {
             pathToDiskLocationLeafNodes = new LongListDisk(dbPaths.pathToDiskLocationLeafNodesFile);
+        } else if (pathIndexMaxHotChunks > 0) {
+            pathToDiskLocationLeafNodes = forceIndexRebuilding
+                    ? new LongListTiered(config.reservedBufferLengthForLeafList(), pathIndexMaxHotChunks)
+                    : new LongListTiered(
+                            dbPaths.pathToDiskLocationLeafNodesFile,
+                            config.reservedBufferLengthForLeafList(),
+                            pathIndexMaxHotChunks);
         } else if (Files.exists(dbPaths.pathToDiskLocationLeafNodesFile) && !forceIndexRebuilding) {
             pathToDiskLocationLeafNodes = new LongListOffHeap(dbPaths.pathToDiskLocationLeafNodesFile);
         } else {
@@ -350,7 +421,9 @@ public final class MerkleDbDataSource<K extends VirtualKey, V extends VirtualVal
                         tableName + ":internalHashes",
                         virtualHashRecordSerializer,
                         null,
-                        pathToDiskLocationInternalNodes)
+                        pathToDiskLocationInternalNodes,
+                        createDataItemCache(config.hashesStoreCacheSize(), virtualHashRecordSerializer),
+                        config.memoryMappedReads())
                 : null;
 
         // key to path store
@@ -382,7 +455,9 @@ public final class MerkleDbDataSource<K extends VirtualKey, V extends VirtualVal
                     dbPaths.objectKeyToPathDirectory,
                     tableName + "_objectkeytopath",
                     tableName + ":objectKeyToPath",
-                    tableConfig.isPreferDiskBasedIndices());
+                    tableConfig.isPreferDiskBasedIndices(),
+                    config.memoryMappedReads(),
+                    config.keyToPathBloomFilterBitsPerKey());
             objectKeyToPath.printStats();
             // we do not need callback as HalfDiskHashMap loads its own data from disk
             loadedDataCallback = null;
@@ -395,7 +470,21 @@ public final class MerkleDbDataSource<K extends VirtualKey, V extends VirtualVal
                 tableName + ":pathToHashKeyValue",
                 leafRecordSerializer,
                 loadedDataCallback,
-                pathToDiskLocationLeafNodes);
+                pathToDiskLocationLeafNodes,
+                createDataItemCache(config.leavesStoreCacheSize(), leafRecordSerializer),
+                config.memoryMappedReads());
+
+        // Compaction strategy and rate limit
+        compactionStrategy = createCompactionStrategy();
+        if (hashStoreDisk != null) {
+            hashStoreDisk.setCompactionRateLimit(config.compactionMaxBytesPerSecond());
+        }
+        if (objectKeyToPath != null) {
+            objectKeyToPath.setCompactionRateLimit(config.compactionMaxBytesPerSecond());
+        }
+        pathToKeyValue.setCompactionRateLimit(config.compactionMaxBytesPerSecond());
+        pathToKeyValue.setCompression(config.leavesStoreCompression(), config.compressionBlockSize());
+        updateReadListeners();
 
         // Leaf records cache
         leafRecordCacheSize = config.leafRecordCacheSize();
@@ -545,6 +634,7 @@ public final class MerkleDbDataSource<K extends VirtualKey, V extends VirtualVal
             final Stream<VirtualLeafRecord<K, V>> leafRecordsToDelete)
             throws IOException {
         final AtomicInteger totalDataSourceFileSizeMb = new AtomicInteger(0);
+        final long flushStart = System.currentTimeMillis();
         try {
             validLeafPathRange = new KeyRange(firstLeafPath, lastLeafPath);
             final CountDownLatch countDownLatch = new CountDownLatch(lastLeafPath > 0 ? 1 : 0);
@@ -590,8 +680,11 @@ public final class MerkleDbDataSource<K extends VirtualKey, V extends VirtualVal
             // are considered small enough to be ignored. If/when we decide to use on-disk long lists
             // for indices, they should be added here
             statistics.setTotalFileSizeMb(totalDataSourceFileSizeMb.get());
+            statistics.recordFlushTimeMs(System.currentTimeMillis() - flushStart);
             // update off-heap stats
             updateOffHeapStats();
+            // update data item cache stats
+            updateCacheStats();
         }
     }
 
@@ -632,9 +725,11 @@ public final class MerkleDbDataSource<K extends VirtualKey, V extends VirtualVal
             // Cache miss
             cached = null;
             statistics.countLeafKeyReads();
+            final long start = System.nanoTime();
             path = isLongKeyMode
                     ? longKeyToPath.get(((VirtualLongKey) key).getKeyAsLong(), INVALID_PATH)
                     : objectKeyToPath.get(key, INVALID_PATH);
+            statistics.recordLeafKeyReadTimeUs((System.nanoTime() - start) / MICROSECONDS_TO_NANOSECONDS);
         }
 
         // If the key didn't map to anything, we just return null
@@ -655,7 +750,9 @@ public final class MerkleDbDataSource<K extends VirtualKey, V extends VirtualVal
 
         statistics.countLeafReads();
         // Go ahead and lookup the value.
+        final long start = System.nanoTime();
         VirtualLeafRecord<K, V> leafRecord = pathToKeyValue.get(path);
+        statistics.recordLeafReadTimeUs((System.nanoTime() - start) / MICROSECONDS_TO_NANOSECONDS);
 
         // FUTURE WORK: once the reconnect key leak bug is fixed, this block should be removed
         if (!leafRecord.getKey().equals(key)) {
@@ -694,7 +791,10 @@ public final class MerkleDbDataSource<K extends VirtualKey, V extends VirtualVal
             throw new IllegalArgumentException("path (" + path + ") is not valid; must be in range " + leafPathRange);
         }
         statistics.countLeafReads();
-        return pathToKeyValue.get(path);
+        final long start = System.nanoTime();
+        final VirtualLeafRecord<K, V> leafRecord = pathToKeyValue.get(path);
+        statistics.recordLeafReadTimeUs((System.nanoTime() - start) / MICROSECONDS_TO_NANOSECONDS);
+        return leafRecord;
     }
 
     /**
@@ -722,9 +822,11 @@ public final class MerkleDbDataSource<K extends VirtualKey, V extends VirtualVal
         }
 
         statistics.countLeafKeyReads();
+        final long start = System.nanoTime();
         final long path = isLongKeyMode
                 ? longKeyToPath.get(((VirtualLongKey) key).getKeyAsLong(), INVALID_PATH)
                 : objectKeyToPath.get(key, INVALID_PATH);
+        statistics.recordLeafKeyReadTimeUs((System.nanoTime() - start) / MICROSECONDS_TO_NANOSECONDS);
 
         if (leafRecordCache != null) {
             // Path may be INVALID_PATH here. Still needs to be cached (negative result)
@@ -734,6 +836,94 @@ public final class MerkleDbDataSource<K extends VirtualKey, V extends VirtualVal
         return path;
     }
 
+    /**
+     * Load leaf records for the given keys in background, so data file reads in subsequent calls to
+     * {@link #loadLeafRecord(VirtualKey)} for these keys are served from data item caches or OS file
+     * cache. Loaded records are not put to the leaf record cache: a record read in background may be
+     * stale by the time it would be cached, if a flush updates the leaf in the meantime, and it must
+     * not replace the record stored by the flush.
+     *
+     * <p>Keys are processed in two phases. First, all keys are resolved to paths. Then leaf records
+     * are read in order of their locations in data files, which makes disk reads as sequential as
+     * possible. Both phases are split into chunks of about the same size, which are run in parallel
+     * on the warmup thread pool.
+     *
+     * @param keys the keys to load leaf records for
+     * @return a future, which is completed when all leaf records are loaded
+     */
+    @Override
+    public CompletableFuture<Void> warmLeafRecords(final Collection<K> keys) {
+        final List<K> keyList = List.copyOf(keys);
+        final int count = keyList.size();
+        final long[] paths = new long[count];
+        return runWarmupChunks(count, i -> paths[i] = findKey(keyList.get(i))).thenCompose(v -> {
+            final KeyRange leafPathRange = validLeafPathRange;
+            final long[] dataLocations = new long[count];
+            for (int i = 0; i < count; i++) {
+                if (leafPathRange.withinRange(paths[i])) {
+                    dataLocations[i] = pathToDiskLocationLeafNodes.get(paths[i], 0);
+                }
+            }
+            // Data locations are file index in the high bits and file offset in the low bits
+            final int[] order = IntStream.range(0, count)
+                    .filter(i -> dataLocations[i] != 0)
+                    .boxed()
+                    .sorted(Comparator.comparingLong(i -> dataLocations[i]))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+            return runWarmupChunks(order.length, i -> warmLeafRecord(paths[order[i]]));
+        });
+    }
+
+    /** A task to run for every item in a warmup chunk. */
+    @FunctionalInterface
+    private interface WarmupTask {
+        void run(int index) throws IOException;
+    }
+
+    /**
+     * Splits indices from 0 to count - 1 into {@link MerkleDbConfig#numWarmupThreads()} contiguous
+     * chunks and runs the task for all indices in every chunk on the warmup thread pool.
+     *
+     * @param count the number of indices
+     * @param task the task to run for every index
+     * @return a future, which is completed when all chunks are processed
+     */
+    private CompletableFuture<Void> runWarmupChunks(final int count, final WarmupTask task) {
+        final int chunkSize = Math.max(1, (count + config.numWarmupThreads() - 1) / config.numWarmupThreads());
+        final List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int start = 0; start < count; start += chunkSize) {
+            final int chunkStart = start;
+            final int chunkEnd = Math.min(count, start + chunkSize);
+            futures.add(CompletableFuture.runAsync(
+                    () -> {
+                        try {
+                            for (int i = chunkStart; (i < chunkEnd) && !closed.get(); i++) {
+                                task.run(i);
+                            }
+                        } catch (final IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    },
+                    warmupExecutor));
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
+    }
+
+    /**
+     * Reads a leaf record with the given path from disk, so the data file caches are populated. The
+     * record itself is discarded, see {@link #warmLeafRecords(Collection)}.
+     *
+     * @param path the leaf path, as returned by {@link #findKey(VirtualKey)}
+     * @throws IOException If there was a problem reading record from db
+     */
+    private void warmLeafRecord(final long path) throws IOException {
+        statistics.countLeafReads();
+        final long start = System.nanoTime();
+        pathToKeyValue.get(path);
+        statistics.recordLeafReadTimeUs((System.nanoTime() - start) / MICROSECONDS_TO_NANOSECONDS);
+    }
+
     /**
      * Load hash for a leaf node with given path
      *
@@ -761,7 +951,9 @@ public final class MerkleDbDataSource<K extends VirtualKey, V extends VirtualVal
             hash = hashStoreRam.get(path);
             // Should count hash reads here, too?
         } else {
+            final long start = System.nanoTime();
             final VirtualHashRecord rec = hashStoreDisk.get(path);
+            statistics.recordHashReadTimeUs((System.nanoTime() - start) / MICROSECONDS_TO_NANOSECONDS);
             hash = (rec != null) ? rec.hash() : null;
             statistics.countHashReads();
         }
@@ -789,9 +981,14 @@ public final class MerkleDbDataSource<K extends VirtualKey, V extends VirtualVal
             try {
                 // stop merging
                 stopBackgroundCompaction();
-                // shut down all four DB threads
+                // shut down all DB threads
                 shutdownThreadsAndWait(
-                        mergingExecutor, storeInternalExecutor, storeKeyToPathExecutor, snapshotExecutor);
+                        mergingExecutor,
+                        storeInternalExecutor,
+                        storeKeyToPathExecutor,
+                        flushPartitionsExecutor,
+                        warmupExecutor,
+                        snapshotExecutor);
             } finally {
                 // close all closable data stores
                 logger.info(MERKLE_DB.getMarker(), "Closing Data Source [{}]", tableName);
@@ -889,6 +1086,7 @@ public final class MerkleDbDataSource<K extends VirtualKey, V extends VirtualVal
                 });
                 // wait for the others to finish
                 countDownLatch.await();
+                statistics.recordSnapshotTimeMs(System.currentTimeMillis() - START);
             } catch (final InterruptedException e) {
                 logger.error(
                         EXCEPTION.getMarker(),
@@ -1048,11 +1246,26 @@ public final class MerkleDbDataSource<K extends VirtualKey, V extends VirtualVal
             return;
         }
         statistics = thatDataSource.statistics;
+        updateReadListeners();
     }
 
     // ==================================================================================================================
     // private methods
 
+    /**
+     * Sets the current statistics object as a read listener for all data file collections, so
+     * bytes read from data files and file channel lease times are reported per table.
+     */
+    private void updateReadListeners() {
+        if (hashStoreDisk != null) {
+            hashStoreDisk.setReadListener(statistics);
+        }
+        if (objectKeyToPath != null) {
+            objectKeyToPath.setReadListener(statistics);
+        }
+        pathToKeyValue.setReadListener(statistics);
+    }
+
     /**
      * Updates hashes store file stats: file count and total size in Mb. No-op if all hashes
      * are cached in RAM.
@@ -1112,14 +1325,59 @@ public final class MerkleDbDataSource<K extends VirtualKey, V extends VirtualVal
         if (hashStoreRam != null) {
             totalOffHeapMemoryConsumption += updateOffHeapStat(hashStoreRam, statistics::setOffHeapHashesListMb);
         }
+        totalOffHeapMemoryConsumption += getCacheOffHeapConsumptionMb(hashStoreDisk);
+        totalOffHeapMemoryConsumption += getCacheOffHeapConsumptionMb(pathToKeyValue);
         statistics.setOffHeapDataSourceMb(totalOffHeapMemoryConsumption);
     }
 
+    private static int getCacheOffHeapConsumptionMb(final MemoryIndexDiskKeyValueStore<?> store) {
+        if ((store == null) || (store.getDataItemCache() == null)) {
+            return 0;
+        }
+        return (int) (store.getDataItemCache().getCapacity() * BYTES_TO_MEBIBYTES);
+    }
+
+    /**
+     * Reports data item cache hits, misses, and evictions since the last call to this method to
+     * data source statistics. No-op for stores with caching disabled.
+     */
+    private void updateCacheStats() {
+        if ((hashStoreDisk != null) && (hashStoreDisk.getDataItemCache() != null)) {
+            hashStoreDisk.getDataItemCache().getAndResetStats(statistics::countHashesStoreCacheStats);
+        }
+        if (pathToKeyValue.getDataItemCache() != null) {
+            pathToKeyValue.getDataItemCache().getAndResetStats(statistics::countLeavesStoreCacheStats);
+        }
+    }
+
+    /**
+     * Creates an off-heap cache for data items read from a store on disk. Fixed size data items
+     * use their size as the cache slot size, variable size items use the slot size from config.
+     *
+     * @param capacityBytes cache capacity, in bytes
+     * @param serializer data item serializer of the store
+     * @return a new data item cache, or null if capacity is zero
+     */
+    private static DataItemCache createDataItemCache(final long capacityBytes, final DataItemSerializer<?> serializer) {
+        if (capacityBytes <= 0) {
+            return null;
+        }
+        final int slotSize =
+                serializer.isVariableSize() ? config.dataItemCacheSlotSize() : serializer.getSerializedSize();
+        final int segmentCount =
+                (int) Math.max(1, Math.min(DataItemCache.DEFAULT_SEGMENT_COUNT, capacityBytes / slotSize));
+        return new DataItemCache(capacityBytes, slotSize, segmentCount);
+    }
+
     private static int updateOffHeapStat(final LongList longList, final IntConsumer updateFunction) {
         if (longList instanceof LongListOffHeap longListOffHeap) {
             final int result = (int) (longListOffHeap.getOffHeapConsumption() * BYTES_TO_MEBIBYTES);
             updateFunction.accept(result);
             return result;
+        } else if (longList instanceof LongListTiered longListTiered) {
+            final int result = (int) (longListTiered.getOffHeapConsumption() * BYTES_TO_MEBIBYTES);
+            updateFunction.accept(result);
+            return result;
         } else {
             return 0;
         }
@@ -1185,6 +1443,7 @@ public final class MerkleDbDataSource<K extends VirtualKey, V extends VirtualVal
                 final long START = System.currentTimeMillis();
                 try {
                     runnable.call();
+                    statistics.recordSnapshotStepTimeMs(System.currentTimeMillis() - START);
                     logger.trace(
                             MERKLE_DB.getMarker(),
                             "[{}] Snapshot {} complete in {} seconds",
@@ -1211,6 +1470,11 @@ public final class MerkleDbDataSource<K extends VirtualKey, V extends VirtualVal
             return;
         }
 
+        if (hasDiskStoreForHashes && (config.numFlushPartitions() > 1)) {
+            writeHashesPartitioned(maxValidPath, dirtyHashes);
+            return;
+        }
+
         if (hasDiskStoreForHashes) {
             hashStoreDisk.startWriting(0, maxValidPath);
         }
@@ -1236,6 +1500,31 @@ public final class MerkleDbDataSource<K extends VirtualKey, V extends VirtualVal
         }
     }
 
+    /**
+     * Write all hashes to hashStore, hashes on disk are split into partitions by path and written
+     * to separate files in parallel.
+     */
+    private void writeHashesPartitioned(final long maxValidPath, final Stream<VirtualHashRecord> dirtyHashes)
+            throws IOException {
+        final long firstDiskPath = Math.min(tableConfig.getHashesRamToDiskThreshold(), maxValidPath);
+        final List<List<VirtualHashRecord>> partitions = createFlushPartitions();
+        dirtyHashes.forEach(rec -> {
+            statistics.countFlushHashesWritten(1);
+            if (rec.path() < tableConfig.getHashesRamToDiskThreshold()) {
+                hashStoreRam.put(rec.path(), rec.hash());
+            } else {
+                partitions.get(getFlushPartition(rec.path(), firstDiskPath, maxValidPath)).add(rec);
+            }
+        });
+
+        final List<List<VirtualHashRecord>> nonEmptyPartitions = removeEmptyFlushPartitions(partitions);
+        hashStoreDisk.startWriting(0, maxValidPath, nonEmptyPartitions.size());
+        awaitFlushPartitions(submitFlushPartitions(
+                nonEmptyPartitions, (partition, rec) -> hashStoreDisk.put(partition, rec.path(), rec)));
+        final List<DataFileReader<VirtualHashRecord>> newHashesFiles = hashStoreDisk.endWritingPartitions();
+        statistics.setFlushHashesStoreFileSizeMb(getTotalFileSize(newHashesFiles) * BYTES_TO_MEBIBYTES);
+    }
+
     /** Write all the given leaf records to pathToKeyValue */
     private void writeLeavesToPathToKeyValue(
             final long firstLeafPath,
@@ -1248,6 +1537,11 @@ public final class MerkleDbDataSource<K extends VirtualKey, V extends VirtualVal
             return;
         }
 
+        if (config.numFlushPartitions() > 1) {
+            writeLeavesPartitioned(firstLeafPath, lastLeafPath, dirtyLeaves, deletedLeaves);
+            return;
+        }
+
         // start writing
         pathToKeyValue.startWriting(firstLeafPath, lastLeafPath);
         if (!isLongKeyMode) {
@@ -1308,6 +1602,173 @@ public final class MerkleDbDataSource<K extends VirtualKey, V extends VirtualVal
         }
     }
 
+    /**
+     * Write all the given leaf records to pathToKeyValue, leaf records are split into partitions by
+     * path and written to separate files in parallel. Key to path mappings are updated on the
+     * current thread, while leaf records are being written.
+     */
+    private void writeLeavesPartitioned(
+            final long firstLeafPath,
+            final long lastLeafPath,
+            final Stream<VirtualLeafRecord<K, V>> dirtyLeaves,
+            final Stream<VirtualLeafRecord<K, V>> deletedLeaves)
+            throws IOException {
+        if (!isLongKeyMode) {
+            objectKeyToPath.startWriting();
+        }
+
+        // iterate over leaf records, update key to path mappings, and split the records into partitions
+        final List<List<VirtualLeafRecord<K, V>>> partitions = createFlushPartitions();
+        dirtyLeaves.forEach(leafRecord -> {
+            if (isLongKeyMode) {
+                longKeyToPath.put(((VirtualLongKey) leafRecord.getKey()).getKeyAsLong(), leafRecord.getPath());
+            } else {
+                objectKeyToPath.put(leafRecord.getKey(), leafRecord.getPath());
+            }
+            statistics.countFlushLeafKeysWritten(1);
+            partitions
+                    .get(getFlushPartition(leafRecord.getPath(), firstLeafPath, lastLeafPath))
+                    .add(leafRecord);
+            invalidateReadCache(leafRecord.getKey());
+        });
+
+        // write leaf records in the background
+        final List<List<VirtualLeafRecord<K, V>>> nonEmptyPartitions = removeEmptyFlushPartitions(partitions);
+        pathToKeyValue.startWriting(firstLeafPath, lastLeafPath, nonEmptyPartitions.size());
+        final List<Future<Void>> leafWriteFutures =
+                submitFlushPartitions(nonEmptyPartitions, (partition, leafRecord) -> {
+                    pathToKeyValue.put(partition, leafRecord.getPath(), leafRecord);
+                    statistics.countFlushLeavesWritten(1);
+                });
+
+        // iterate over leaf records to delete, see writeLeavesToPathToKeyValue() for details
+        deletedLeaves.forEach(leafRecord -> {
+            if (isLongKeyMode) {
+                longKeyToPath.put(((VirtualLongKey) leafRecord.getKey()).getKeyAsLong(), INVALID_PATH);
+            } else {
+                objectKeyToPath.delete(leafRecord.getKey());
+            }
+            statistics.countFlushLeavesDeleted(1);
+            invalidateReadCache(leafRecord.getKey());
+        });
+        if (!isLongKeyMode) {
+            final DataFileReader<Bucket<K>> newLeafKeysFile = objectKeyToPath.endWriting();
+            statistics.setFlushLeafKeysStoreFileSizeMb(
+                    newLeafKeysFile == null ? 0 : newLeafKeysFile.getSize() * BYTES_TO_MEBIBYTES);
+        }
+
+        // end writing, all partitions are completed together
+        awaitFlushPartitions(leafWriteFutures);
+        final List<DataFileReader<VirtualLeafRecord<K, V>>> newLeavesFiles = pathToKeyValue.endWritingPartitions();
+        statistics.setFlushLeavesStoreFileSizeMb(getTotalFileSize(newLeavesFiles) * BYTES_TO_MEBIBYTES);
+    }
+
+    /** Writes a single record to a flush partition. */
+    @FunctionalInterface
+    private interface FlushPartitionWriter<T> {
+        void write(int partition, T record) throws IOException;
+    }
+
+    /**
+     * Creates empty lists for records in flush partitions.
+     *
+     * @return a list of {@link MerkleDbConfig#numFlushPartitions()} empty lists
+     */
+    private static <T> List<List<T>> createFlushPartitions() {
+        final List<List<T>> partitions = new ArrayList<>(config.numFlushPartitions());
+        for (int i = 0; i < config.numFlushPartitions(); i++) {
+            partitions.add(new ArrayList<>());
+        }
+        return partitions;
+    }
+
+    /**
+     * Gets the flush partition for the given path. Paths from first to last path are split into
+     * {@link MerkleDbConfig#numFlushPartitions()} ranges of about the same size.
+     *
+     * @param path the path
+     * @param firstPath first path in the flush
+     * @param lastPath last path in the flush
+     * @return flush partition, from 0 to number of flush partitions - 1
+     */
+    private static int getFlushPartition(final long path, final long firstPath, final long lastPath) {
+        final int numPartitions = config.numFlushPartitions();
+        if ((path <= firstPath) || (lastPath <= firstPath)) {
+            return 0;
+        }
+        final long partition = (path - firstPath) * numPartitions / (lastPath - firstPath + 1);
+        return (int) Math.min(partition, numPartitions - 1);
+    }
+
+    /**
+     * Removes empty partitions, so no empty data files are created for them. At least one
+     * partition is always returned, even if it's empty.
+     */
+    private static <T> List<List<T>> removeEmptyFlushPartitions(final List<List<T>> partitions) {
+        final List<List<T>> nonEmpty = new ArrayList<>(partitions.size());
+        for (final List<T> partition : partitions) {
+            if (!partition.isEmpty()) {
+                nonEmpty.add(partition);
+            }
+        }
+        return nonEmpty.isEmpty() ? partitions.subList(0, 1) : nonEmpty;
+    }
+
+    /**
+     * Submits tasks to write all flush partitions in parallel, one task per partition.
+     *
+     * @param partitions records to write, one list per partition
+     * @param writer writes a record to a partition
+     * @return futures to wait for in {@link #awaitFlushPartitions(List)}
+     */
+    private <T> List<Future<Void>> submitFlushPartitions(
+            final List<List<T>> partitions, final FlushPartitionWriter<T> writer) {
+        final List<Future<Void>> futures = new ArrayList<>(partitions.size());
+        for (int i = 0; i < partitions.size(); i++) {
+            final int partition = i;
+            final List<T> records = partitions.get(i);
+            futures.add(flushPartitionsExecutor.submit(() -> {
+                for (final T record : records) {
+                    writer.write(partition, record);
+                }
+                return null;
+            }));
+        }
+        return futures;
+    }
+
+    /**
+     * Waits for all flush partitions to be written.
+     *
+     * @param futures futures returned from {@link #submitFlushPartitions(List, FlushPartitionWriter)}
+     * @throws IOException if any of the partitions failed to write, or if the current thread is
+     *     interrupted while waiting
+     */
+    private void awaitFlushPartitions(final List<Future<Void>> futures) throws IOException {
+        try {
+            for (final Future<Void> future : futures) {
+                future.get();
+            }
+        } catch (final ExecutionException e) {
+            logger.error(EXCEPTION.getMarker(), "[{}] Failed to write flush partition", tableName, e.getCause());
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw new IOException("Failed to write flush partition", e.getCause());
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while writing flush partitions", e);
+        }
+    }
+
+    private static long getTotalFileSize(final List<? extends DataFileReader<?>> files) {
+        long size = 0;
+        for (final DataFileReader<?> file : files) {
+            size += file.getSize();
+        }
+        return size;
+    }
+
     /**
      * Invalidates the given key in virtual leaf record cache, if the cache is enabled.
      *
@@ -1372,49 +1833,64 @@ public final class MerkleDbDataSource<K extends VirtualKey, V extends VirtualVal
                 logger.info(MERKLE_DB.getMarker(), "[{}] Starting Small Merge", tableName);
             }
 
+            // With a compaction strategy, it decides how many files to compact, two at least
+            final int minNumberOfFilesInMerge = (compactionStrategy != null) ? 2 : config.minNumberOfFilesInMerge();
+
             int totalFileSizeMb = 0;
             // we need to merge disk files for internal hashes if they exist and pathToHashKeyValue store
             if (hasDiskStoreForHashes) {
                 // horrible hack to get around generics because file filters work on any type of
                 // DataFileReader
                 final UnaryOperator<List<DataFileReader<VirtualHashRecord>>> internalRecordFileFilter =
-                        (UnaryOperator<List<DataFileReader<VirtualHashRecord>>>) ((Object) filesToMergeFilter);
+                        (compactionStrategy != null)
+                                ? strategyFilter(compactionType, hashStoreDisk::estimateLiveBytes)
+                                : (UnaryOperator<List<DataFileReader<VirtualHashRecord>>>)
+                                        ((Object) filesToMergeFilter);
                 hashStoreDisk.merge(
                         internalRecordFileFilter,
-                        config.minNumberOfFilesInMerge(),
+                        minNumberOfFilesInMerge,
                         time -> statistics.setHashesStoreCompactionTimeMs(compactionType, time),
-                        savedSpace -> statistics.setHashesStoreCompactionSavedSpaceMb(compactionType, savedSpace));
+                        savedSpace -> statistics.setHashesStoreCompactionSavedSpaceMb(compactionType, savedSpace),
+                        statistics::setHashesStoreCompactionWrittenMb);
                 totalFileSizeMb += updateHashesStoreFileStats();
             }
             // merge objectKeyToPath files
             if (objectKeyToPath != null) {
                 // horrible hack to get around generics because file filters work on any type of
                 // DataFileReader
-                final UnaryOperator<List<DataFileReader<Bucket<K>>>> bucketFileFilter =
-                        (UnaryOperator<List<DataFileReader<Bucket<K>>>>) ((Object) filesToMergeFilter);
+                final UnaryOperator<List<DataFileReader<Bucket<K>>>> bucketFileFilter = (compactionStrategy != null)
+                        ? strategyFilter(compactionType, objectKeyToPath::estimateLiveBytes)
+                        : (UnaryOperator<List<DataFileReader<Bucket<K>>>>) ((Object) filesToMergeFilter);
                 objectKeyToPath.merge(
                         bucketFileFilter,
-                        config.minNumberOfFilesInMerge(),
+                        minNumberOfFilesInMerge,
                         time -> statistics.setLeafKeysStoreCompactionTimeMs(compactionType, time),
-                        savedSpace -> statistics.setLeafKeysStoreCompactionSavedSpaceMb(compactionType, savedSpace));
+                        savedSpace -> statistics.setLeafKeysStoreCompactionSavedSpaceMb(compactionType, savedSpace),
+                        statistics::setLeafKeysStoreCompactionWrittenMb);
                 totalFileSizeMb += updateLeafKeysStoreFileStats();
             }
             // now do main merge of pathToKeyValue store
             // horrible hack to get around generics because file filters work on any type of
             // DataFileReader
             final UnaryOperator<List<DataFileReader<VirtualLeafRecord<K, V>>>> leafRecordFileFilter =
-                    (UnaryOperator<List<DataFileReader<VirtualLeafRecord<K, V>>>>) ((Object) filesToMergeFilter);
+                    (compactionStrategy != null)
+                            ? strategyFilter(compactionType, pathToKeyValue::estimateLiveBytes)
+                            : (UnaryOperator<List<DataFileReader<VirtualLeafRecord<K, V>>>>)
+                                    ((Object) filesToMergeFilter);
             pathToKeyValue.merge(
                     leafRecordFileFilter,
-                    config.minNumberOfFilesInMerge(),
+                    minNumberOfFilesInMerge,
                     time -> statistics.setLeavesStoreCompactionTimeMs(compactionType, time),
-                    savedSpace -> statistics.setLeavesStoreCompactionSavedSpaceMb(compactionType, savedSpace));
+                    savedSpace -> statistics.setLeavesStoreCompactionSavedSpaceMb(compactionType, savedSpace),
+                    statistics::setLeavesStoreCompactionWrittenMb);
             totalFileSizeMb += updateLeavesStoreFileStats();
 
             // Update total file size stat
             statistics.setTotalFileSizeMb(totalFileSizeMb);
             // Update off-heap usage stat
             updateOffHeapStats();
+            // Update data item cache stats
+            updateCacheStats();
             logger.info(MERKLE_DB.getMarker(), "[{}] Finished compaction", tableName);
             return true;
         } catch (final InterruptedException | ClosedByInterruptException e) {
@@ -1429,6 +1905,64 @@ public final class MerkleDbDataSource<K extends VirtualKey, V extends VirtualVal
         }
     }
 
+    /** Estimates live bytes in data files of a store, see {@link DataFileCollection#estimateLiveBytes}. */
+    @FunctionalInterface
+    private interface LiveBytesEstimator<D> {
+        ToLongFunction<DataFileReader<D>> estimate() throws InterruptedException;
+    }
+
+    /**
+     * Creates a file filter, which delegates to {@link #compactionStrategy} to select files to
+     * compact. Estimating live bytes iterates over the whole store index, so it's only done when
+     * the strategy asks for live bytes of a file, i.e. when there are files that may be compacted.
+     * If interrupted while estimating, files are assumed to be fully live.
+     *
+     * @param compactionType compaction type
+     * @param liveBytesEstimator estimates live bytes for data files in a store
+     * @return file filter to use in store compaction
+     * @param <D> data item type
+     */
+    private <D> UnaryOperator<List<DataFileReader<D>>> strategyFilter(
+            final CompactionType compactionType, final LiveBytesEstimator<D> liveBytesEstimator) {
+        return files -> {
+            final AtomicReference<ToLongFunction<DataFileReader<D>>> liveBytes = new AtomicReference<>();
+            return compactionStrategy.selectFilesToCompact(compactionType, files, file -> {
+                if (liveBytes.get() == null) {
+                    try {
+                        liveBytes.set(liveBytesEstimator.estimate());
+                    } catch (final InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        liveBytes.set(DataFileReader::getSize);
+                    }
+                }
+                return liveBytes.get().applyAsLong(file);
+            });
+        };
+    }
+
+    /**
+     * Creates a compaction strategy as configured in {@link MerkleDbConfig#compactionStrategy()}.
+     *
+     * @return compaction strategy, or null if files to compact are selected by compaction type only
+     */
+    private static CompactionStrategy createCompactionStrategy() {
+        final long baseSizeBytes = config.compactionBaseFileSizeMb() * (long) MEBIBYTES_TO_BYTES;
+        return switch (config.compactionStrategy()) {
+            case PERIODIC -> null;
+            case LEVELED -> new LeveledCompactionStrategy(
+                    baseSizeBytes,
+                    config.compactionSizeRatio(),
+                    config.maxNumberOfFilesInMerge(),
+                    config.compactionGarbageRatio());
+            case SIZE_TIERED -> new SizeTieredCompactionStrategy(
+                    baseSizeBytes,
+                    config.compactionSizeRatio(),
+                    config.minNumberOfFilesInMerge(),
+                    config.maxNumberOfFilesInMerge(),
+                    config.compactionGarbageRatio());
+        };
+    }
+
     private boolean isTimeForFullMerge(final Instant startMerge) {
         return startMerge
                 .minus(config.fullMergePeriod(), config.mergePeriodUnit())
@@ -19,15 +19,27 @@ package com.swirlds.merkledb;
 import static com.swirlds.common.metrics.FloatFormats.FORMAT_9_6;
 
 import com.swirlds.common.metrics.DoubleAccumulator;
+import com.swirlds.common.metrics.DoubleGauge;
+import com.swirlds.common.metrics.FunctionGauge;
 import com.swirlds.common.metrics.IntegerGauge;
 import com.swirlds.common.metrics.LongAccumulator;
 import com.swirlds.common.metrics.Metrics;
+import com.swirlds.common.metrics.SpeedometerMetric;
 import com.swirlds.common.utility.CommonUtils;
+import com.swirlds.merkledb.files.DataFileReadListener;
+import com.swirlds.merkledb.utilities.IntervalHistogram;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.function.LongSupplier;
 
 /**
  * Encapsulates statistics for an instance of a {@link MerkleDbDataSource}.
+ *
+ * <p>Besides counters and gauges, some durations are collected into {@link IntervalHistogram}s.
+ * There is no histogram metric type, so every histogram is exposed as three function gauges: p50,
+ * p99, and max over a recent time window.
  */
-public class MerkleDbStatistics {
+public class MerkleDbStatistics implements DataFileReadListener {
 
     public static final String STAT_CATEGORY = "merkle-db";
 
@@ -43,6 +55,15 @@ public class MerkleDbStatistics {
     private static final String COMPACTIONS_PREFIX = "compactions_";
     /** Prefix for all off-heap related metrics */
     private static final String OFFHEAP_PREFIX = "offheap_";
+    /** Prefix for all data item cache related metrics */
+    private static final String CACHE_PREFIX = "cache_";
+    /** Prefix for all snapshot related metrics */
+    private static final String SNAPSHOTS_PREFIX = "snapshots_";
+
+    /** Time window for frequent events like reads, in nanoseconds */
+    private static final long SHORT_HISTOGRAM_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+    /** Time window for rare events like flushes, compactions, and snapshots, in nanoseconds */
+    private static final long LONG_HISTOGRAM_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(10);
 
     private final String label;
 
@@ -52,6 +73,30 @@ public class MerkleDbStatistics {
     private LongAccumulator leafReads;
     /** Leaf keys - reads / s */
     private LongAccumulator leafKeyReads;
+    /** Data files - bytes read / s */
+    private SpeedometerMetric bytesRead;
+
+    /** Hashes - read time in microseconds */
+    private final IntervalHistogram hashReadTimeUs = new IntervalHistogram(SHORT_HISTOGRAM_INTERVAL_NANOS);
+    /** Leaves - read time in microseconds */
+    private final IntervalHistogram leafReadTimeUs = new IntervalHistogram(SHORT_HISTOGRAM_INTERVAL_NANOS);
+    /** Leaf keys - read time in microseconds */
+    private final IntervalHistogram leafKeyReadTimeUs = new IntervalHistogram(SHORT_HISTOGRAM_INTERVAL_NANOS);
+    /** Data files - time to lease a file channel in nanoseconds */
+    private final IntervalHistogram fileChannelLeaseTimeNs = new IntervalHistogram(SHORT_HISTOGRAM_INTERVAL_NANOS);
+    /** Flushes - time in ms */
+    private final IntervalHistogram flushTimeMs = new IntervalHistogram(LONG_HISTOGRAM_INTERVAL_NANOS);
+    /** Hashes store compactions of all types - time in ms */
+    private final IntervalHistogram hashesStoreCompactionTimeMs = new IntervalHistogram(LONG_HISTOGRAM_INTERVAL_NANOS);
+    /** Leaves store compactions of all types - time in ms */
+    private final IntervalHistogram leavesStoreCompactionTimeMs = new IntervalHistogram(LONG_HISTOGRAM_INTERVAL_NANOS);
+    /** Leaf keys store compactions of all types - time in ms */
+    private final IntervalHistogram leafKeysStoreCompactionTimeMs =
+            new IntervalHistogram(LONG_HISTOGRAM_INTERVAL_NANOS);
+    /** Snapshots - total time in ms */
+    private final IntervalHistogram snapshotTimeMs = new IntervalHistogram(LONG_HISTOGRAM_INTERVAL_NANOS);
+    /** Snapshots - time of individual steps (indices, stores, metadata) in ms */
+    private final IntervalHistogram snapshotStepTimeMs = new IntervalHistogram(LONG_HISTOGRAM_INTERVAL_NANOS);
 
     /** Hashes store - file count */
     private IntegerGauge hashesStoreFileCount;
@@ -113,6 +158,31 @@ public class MerkleDbStatistics {
     private LongAccumulator leafKeysStoreFullCompactionTimeMs;
     /** Leaf keys store full compactions - saved space in Mb */
     private DoubleAccumulator leafKeysStoreFullCompactionSavedSpaceMb;
+    /** Hashes store compactions - data written to new files in Mb */
+    private DoubleAccumulator hashesStoreCompactionWrittenMb;
+    /** Hashes store - write amplification, total data written by flushes and compactions per data flushed */
+    private DoubleGauge hashesStoreWriteAmplification;
+    /** Leaves store compactions - data written to new files in Mb */
+    private DoubleAccumulator leavesStoreCompactionWrittenMb;
+    /** Leaves store - write amplification, total data written by flushes and compactions per data flushed */
+    private DoubleGauge leavesStoreWriteAmplification;
+    /** Leaf keys store compactions - data written to new files in Mb */
+    private DoubleAccumulator leafKeysStoreCompactionWrittenMb;
+    /** Leaf keys store - write amplification, total data written by flushes and compactions per data flushed */
+    private DoubleGauge leafKeysStoreWriteAmplification;
+
+    /** Hashes store - total data flushed in Mb, used to compute write amplification */
+    private final DoubleAdder hashesStoreTotalFlushedMb = new DoubleAdder();
+    /** Hashes store - total data written by compactions in Mb, used to compute write amplification */
+    private final DoubleAdder hashesStoreTotalCompactedMb = new DoubleAdder();
+    /** Leaves store - total data flushed in Mb, used to compute write amplification */
+    private final DoubleAdder leavesStoreTotalFlushedMb = new DoubleAdder();
+    /** Leaves store - total data written by compactions in Mb, used to compute write amplification */
+    private final DoubleAdder leavesStoreTotalCompactedMb = new DoubleAdder();
+    /** Leaf keys store - total data flushed in Mb, used to compute write amplification */
+    private final DoubleAdder leafKeysStoreTotalFlushedMb = new DoubleAdder();
+    /** Leaf keys store - total data written by compactions in Mb, used to compute write amplification */
+    private final DoubleAdder leafKeysStoreTotalCompactedMb = new DoubleAdder();
 
     /** Off-heap usage in MB of hashes store index */
     private IntegerGauge offHeapHashesIndexMb;
@@ -127,6 +197,23 @@ public class MerkleDbStatistics {
     /** Total data source off-heap usage in MB */
     private IntegerGauge offHeapDataSourceMb;
 
+    /** Hashes store data item cache - hits */
+    private LongAccumulator hashesStoreCacheHits;
+    /** Hashes store data item cache - misses */
+    private LongAccumulator hashesStoreCacheMisses;
+    /** Hashes store data item cache - evictions */
+    private LongAccumulator hashesStoreCacheEvictions;
+    /** Leaves store data item cache - hits */
+    private LongAccumulator leavesStoreCacheHits;
+    /** Leaves store data item cache - misses */
+    private LongAccumulator leavesStoreCacheMisses;
+    /** Leaves store data item cache - evictions */
+    private LongAccumulator leavesStoreCacheEvictions;
+    /** Hashes store data item cache - hit ratio since the last update */
+    private DoubleGauge hashesStoreCacheHitRatio;
+    /** Leaves store data item cache - hit ratio since the last update */
+    private DoubleGauge leavesStoreCacheHitRatio;
+
     /**
      * Create a new statistics object for a MerkleDb instances.
      *
@@ -149,6 +236,11 @@ public class MerkleDbStatistics {
                 .withDescription(description));
     }
 
+    private static DoubleGauge buildDoubleGauge(final Metrics metrics, final String name, final String description) {
+        return metrics.getOrCreate(
+                new DoubleGauge.Config(STAT_CATEGORY, name).withDescription(description).withFormat(FORMAT_9_6));
+    }
+
     private static DoubleAccumulator buildDoubleAccumulator(
             final Metrics metrics, final String name, final String description) {
         return metrics.getOrCreate(new DoubleAccumulator.Config(STAT_CATEGORY, name)
@@ -158,6 +250,42 @@ public class MerkleDbStatistics {
                 .withFormat(FORMAT_9_6));
     }
 
+    private static void buildLongFunctionGauge(
+            final Metrics metrics, final String name, final String description, final LongSupplier supplier) {
+        metrics.getOrCreate(new FunctionGauge.Config<>(STAT_CATEGORY, name, Long.class, supplier::getAsLong)
+                .withDescription(description));
+    }
+
+    /**
+     * Registers p50, p99, and max metrics for the given histogram.
+     *
+     * @param metrics reference to the metrics system
+     * @param histogram the histogram
+     * @param name metric name, without label. Metric names are this name followed by "P50_",
+     *     "P99_", or "Max_", and the label
+     * @param description metric description, without label and units
+     * @param unit value units
+     */
+    private void registerHistogram(
+            final Metrics metrics,
+            final IntervalHistogram histogram,
+            final String name,
+            final String description,
+            final String unit) {
+        buildLongFunctionGauge(
+                metrics,
+                name + "P50_" + label,
+                description + ", p50, " + label + ", " + unit,
+                () -> histogram.getPercentile(50));
+        buildLongFunctionGauge(
+                metrics,
+                name + "P99_" + label,
+                description + ", p99, " + label + ", " + unit,
+                () -> histogram.getPercentile(99));
+        buildLongFunctionGauge(
+                metrics, name + "Max_" + label, description + ", max, " + label + ", " + unit, histogram::getMax);
+    }
+
     /**
      * Register all statistics with a registry.
      *
@@ -175,6 +303,22 @@ public class MerkleDbStatistics {
                 metrics, DS_PREFIX + READS_PREFIX + "leaves_" + label, "Number of leaf reads, " + label);
         leafKeyReads = buildLongAccumulator(
                 metrics, DS_PREFIX + READS_PREFIX + "leafKeys_" + label, "Number of leaf key reads, " + label);
+        bytesRead = metrics.getOrCreate(
+                new SpeedometerMetric.Config(STAT_CATEGORY, DS_PREFIX + READS_PREFIX + "bytesPerSec_" + label)
+                        .withDescription("Bytes read from data files per second, " + label)
+                        .withFormat(FORMAT_9_6));
+
+        // Read latencies
+        registerHistogram(metrics, hashReadTimeUs, DS_PREFIX + READS_PREFIX + "hashesTimeUs", "Hash read time", "us");
+        registerHistogram(metrics, leafReadTimeUs, DS_PREFIX + READS_PREFIX + "leavesTimeUs", "Leaf read time", "us");
+        registerHistogram(
+                metrics, leafKeyReadTimeUs, DS_PREFIX + READS_PREFIX + "leafKeysTimeUs", "Leaf key read time", "us");
+        registerHistogram(
+                metrics,
+                fileChannelLeaseTimeNs,
+                DS_PREFIX + READS_PREFIX + "fileChannelLeaseTimeNs",
+                "Time to lease a file channel to read from a data file",
+                "ns");
 
         // File counts and sizes
         hashesStoreFileCount = metrics.getOrCreate(
@@ -232,6 +376,7 @@ public class MerkleDbStatistics {
                 metrics,
                 DS_PREFIX + FLUSHES_PREFIX + "leafKeysStoreFileSizeMb_" + label,
                 "Size of the new leaf keys store file created during flush, " + label + ", Mb");
+        registerHistogram(metrics, flushTimeMs, DS_PREFIX + FLUSHES_PREFIX + "timeMs", "Flush time", "ms");
 
         // Compaction
         // Hashes store
@@ -309,6 +454,57 @@ public class MerkleDbStatistics {
                 metrics,
                 DS_PREFIX + COMPACTIONS_PREFIX + "leafKeysFullSavedSpaceMb_" + label,
                 "Saved space during full compactions, leaf keys store, " + label + ", Mb");
+        hashesStoreCompactionWrittenMb = buildDoubleAccumulator(
+                metrics,
+                DS_PREFIX + COMPACTIONS_PREFIX + "hashesWrittenMb_" + label,
+                "Data written to new files during compactions, hashes store, " + label + ", Mb");
+        hashesStoreWriteAmplification = buildDoubleGauge(
+                metrics,
+                DS_PREFIX + COMPACTIONS_PREFIX + "hashesWriteAmplification_" + label,
+                "Write amplification, hashes store, " + label);
+        leavesStoreCompactionWrittenMb = buildDoubleAccumulator(
+                metrics,
+                DS_PREFIX + COMPACTIONS_PREFIX + "leavesWrittenMb_" + label,
+                "Data written to new files during compactions, leaves store, " + label + ", Mb");
+        leavesStoreWriteAmplification = buildDoubleGauge(
+                metrics,
+                DS_PREFIX + COMPACTIONS_PREFIX + "leavesWriteAmplification_" + label,
+                "Write amplification, leaves store, " + label);
+        leafKeysStoreCompactionWrittenMb = buildDoubleAccumulator(
+                metrics,
+                DS_PREFIX + COMPACTIONS_PREFIX + "leafKeysWrittenMb_" + label,
+                "Data written to new files during compactions, leaf keys store, " + label + ", Mb");
+        leafKeysStoreWriteAmplification = buildDoubleGauge(
+                metrics,
+                DS_PREFIX + COMPACTIONS_PREFIX + "leafKeysWriteAmplification_" + label,
+                "Write amplification, leaf keys store, " + label);
+        registerHistogram(
+                metrics,
+                hashesStoreCompactionTimeMs,
+                DS_PREFIX + COMPACTIONS_PREFIX + "hashesTimeMs",
+                "Compaction time, hashes store",
+                "ms");
+        registerHistogram(
+                metrics,
+                leavesStoreCompactionTimeMs,
+                DS_PREFIX + COMPACTIONS_PREFIX + "leavesTimeMs",
+                "Compaction time, leaves store",
+                "ms");
+        registerHistogram(
+                metrics,
+                leafKeysStoreCompactionTimeMs,
+                DS_PREFIX + COMPACTIONS_PREFIX + "leafKeysTimeMs",
+                "Compaction time, leaf keys store",
+                "ms");
+
+        // Snapshots
+        registerHistogram(metrics, snapshotTimeMs, DS_PREFIX + SNAPSHOTS_PREFIX + "timeMs", "Snapshot time", "ms");
+        registerHistogram(
+                metrics,
+                snapshotStepTimeMs,
+                DS_PREFIX + SNAPSHOTS_PREFIX + "stepTimeMs",
+                "Snapshot step time (an index, a store, or metadata)",
+                "ms");
 
         // Off-heap usage
         offHeapHashesIndexMb = metrics.getOrCreate(
@@ -329,6 +525,42 @@ public class MerkleDbStatistics {
         offHeapDataSourceMb = metrics.getOrCreate(
                 new IntegerGauge.Config(STAT_CATEGORY, DS_PREFIX + OFFHEAP_PREFIX + "dataSourceMb_" + label)
                         .withDescription("Off-heap usage, data source, " + label + ", Mb"));
+
+        // Data item caches
+        hashesStoreCacheHits = buildLongAccumulator(
+                metrics,
+                DS_PREFIX + CACHE_PREFIX + "hashesHits_" + label,
+                "Number of cache hits, hashes store, " + label);
+        hashesStoreCacheMisses = buildLongAccumulator(
+                metrics,
+                DS_PREFIX + CACHE_PREFIX + "hashesMisses_" + label,
+                "Number of cache misses, hashes store, " + label);
+        hashesStoreCacheEvictions = buildLongAccumulator(
+                metrics,
+                DS_PREFIX + CACHE_PREFIX + "hashesEvictions_" + label,
+                "Number of cache evictions, hashes store, " + label);
+        leavesStoreCacheHits = buildLongAccumulator(
+                metrics,
+                DS_PREFIX + CACHE_PREFIX + "leavesHits_" + label,
+                "Number of cache hits, leaves store, " + label);
+        leavesStoreCacheMisses = buildLongAccumulator(
+                metrics,
+                DS_PREFIX + CACHE_PREFIX + "leavesMisses_" + label,
+                "Number of cache misses, leaves store, " + label);
+        leavesStoreCacheEvictions = buildLongAccumulator(
+                metrics,
+                DS_PREFIX + CACHE_PREFIX + "leavesEvictions_" + label,
+                "Number of cache evictions, leaves store, " + label);
+        hashesStoreCacheHitRatio = buildDoubleGauge(
+                metrics,
+                DS_PREFIX + CACHE_PREFIX + "hashesHitRatio_" + label,
+                "Ratio of cache hits to all cache lookups since the last flush or compaction, hashes store, "
+                        + label);
+        leavesStoreCacheHitRatio = buildDoubleGauge(
+                metrics,
+                DS_PREFIX + CACHE_PREFIX + "leavesHitRatio_" + label,
+                "Ratio of cache hits to all cache lookups since the last flush or compaction, leaves store, "
+                        + label);
     }
 
     /**
@@ -358,6 +590,82 @@ public class MerkleDbStatistics {
         }
     }
 
+    /**
+     * Records a hash read time to {@link #hashReadTimeUs} histogram
+     *
+     * @param value the time, in microseconds
+     */
+    public void recordHashReadTimeUs(final long value) {
+        hashReadTimeUs.record(value);
+    }
+
+    /**
+     * Records a leaf read time to {@link #leafReadTimeUs} histogram
+     *
+     * @param value the time, in microseconds
+     */
+    public void recordLeafReadTimeUs(final long value) {
+        leafReadTimeUs.record(value);
+    }
+
+    /**
+     * Records a leaf key read time to {@link #leafKeyReadTimeUs} histogram
+     *
+     * @param value the time, in microseconds
+     */
+    public void recordLeafKeyReadTimeUs(final long value) {
+        leafKeyReadTimeUs.record(value);
+    }
+
+    /**
+     * Updates {@link #bytesRead} stat
+     *
+     * @param bytes number of bytes read
+     */
+    @Override
+    public void dataItemRead(final long bytes) {
+        if (bytesRead != null) {
+            bytesRead.update(bytes);
+        }
+    }
+
+    /**
+     * Records a file channel lease time to {@link #fileChannelLeaseTimeNs} histogram
+     *
+     * @param leaseNanos the time, in nanoseconds
+     */
+    @Override
+    public void fileChannelLeased(final long leaseNanos) {
+        fileChannelLeaseTimeNs.record(leaseNanos);
+    }
+
+    /**
+     * Records a flush time to {@link #flushTimeMs} histogram
+     *
+     * @param value the time, in ms
+     */
+    public void recordFlushTimeMs(final long value) {
+        flushTimeMs.record(value);
+    }
+
+    /**
+     * Records a snapshot time to {@link #snapshotTimeMs} histogram
+     *
+     * @param value the time, in ms
+     */
+    public void recordSnapshotTimeMs(final long value) {
+        snapshotTimeMs.record(value);
+    }
+
+    /**
+     * Records a snapshot step time to {@link #snapshotStepTimeMs} histogram
+     *
+     * @param value the time, in ms
+     */
+    public void recordSnapshotStepTimeMs(final long value) {
+        snapshotStepTimeMs.record(value);
+    }
+
     /**
      * Set the current value for the {@link #hashesStoreFileCount} stat
      *
@@ -452,6 +760,8 @@ public class MerkleDbStatistics {
         if (flushHashesStoreFileSizeMb != null) {
             flushHashesStoreFileSizeMb.update(value);
         }
+        hashesStoreTotalFlushedMb.add(value);
+        updateWriteAmplification(hashesStoreWriteAmplification, hashesStoreTotalFlushedMb, hashesStoreTotalCompactedMb);
     }
 
     public void countFlushLeavesWritten(final long value) {
@@ -470,6 +780,8 @@ public class MerkleDbStatistics {
         if (flushLeavesStoreFileSizeMb != null) {
             flushLeavesStoreFileSizeMb.update(value);
         }
+        leavesStoreTotalFlushedMb.add(value);
+        updateWriteAmplification(leavesStoreWriteAmplification, leavesStoreTotalFlushedMb, leavesStoreTotalCompactedMb);
     }
 
     public void countFlushLeafKeysWritten(final long value) {
@@ -482,16 +794,21 @@ public class MerkleDbStatistics {
         if (flushLeafKeysStoreFileSizeMb != null) {
             flushLeafKeysStoreFileSizeMb.update(value);
         }
+        leafKeysStoreTotalFlushedMb.add(value);
+        updateWriteAmplification(
+                leafKeysStoreWriteAmplification, leafKeysStoreTotalFlushedMb, leafKeysStoreTotalCompactedMb);
     }
 
     /**
      * Set the current value for the {@link #hashesStoreSmallCompactionTimeMs},
      * {@link #hashesStoreMediumCompactionTimeMs}, or {@link #hashesStoreFullCompactionTimeMs}
-     * metric based on the given compaction type.
+     * metric based on the given compaction type, and record the value to
+     * {@link #hashesStoreCompactionTimeMs} histogram.
      *
      * @param value the value to set
      */
     public void setHashesStoreCompactionTimeMs(final CompactionType type, final long value) {
+        hashesStoreCompactionTimeMs.record(value);
         final LongAccumulator metric =
                 switch (type) {
                     case SMALL -> hashesStoreSmallCompactionTimeMs;
@@ -525,11 +842,13 @@ public class MerkleDbStatistics {
     /**
      * Set the current value for the {@link #leavesStoreSmallCompactionTimeMs},
      * {@link #leavesStoreMediumCompactionTimeMs}, or {@link #leavesStoreFullCompactionTimeMs}
-     * metric based on the given compaction type.
+     * metric based on the given compaction type, and record the value to
+     * {@link #leavesStoreCompactionTimeMs} histogram.
      *
      * @param value the value to set
      */
     public void setLeavesStoreCompactionTimeMs(final CompactionType type, final long value) {
+        leavesStoreCompactionTimeMs.record(value);
         final LongAccumulator metric =
                 switch (type) {
                     case SMALL -> leavesStoreSmallCompactionTimeMs;
@@ -563,11 +882,13 @@ public class MerkleDbStatistics {
     /**
      * Set the current value for the {@link #leafKeysStoreSmallCompactionTimeMs},
      * {@link #leafKeysStoreMediumCompactionTimeMs}, or {@link #leafKeysStoreFullCompactionTimeMs}
-     * metric based on the given compaction type.
+     * metric based on the given compaction type, and record the value to
+     * {@link #leafKeysStoreCompactionTimeMs} histogram.
      *
      * @param value the value to set
      */
     public void setLeafKeysStoreCompactionTimeMs(final CompactionType type, final long value) {
+        leafKeysStoreCompactionTimeMs.record(value);
         final LongAccumulator metric =
                 switch (type) {
                     case SMALL -> leafKeysStoreSmallCompactionTimeMs;
@@ -598,6 +919,61 @@ public class MerkleDbStatistics {
         }
     }
 
+    /**
+     * Add the given value to the {@link #hashesStoreCompactionWrittenMb} metric and update the
+     * {@link #hashesStoreWriteAmplification} metric.
+     *
+     * @param value data written to new files during a compaction, in Mb
+     */
+    public void setHashesStoreCompactionWrittenMb(final double value) {
+        if (hashesStoreCompactionWrittenMb != null) {
+            hashesStoreCompactionWrittenMb.update(value);
+        }
+        hashesStoreTotalCompactedMb.add(value);
+        updateWriteAmplification(hashesStoreWriteAmplification, hashesStoreTotalFlushedMb, hashesStoreTotalCompactedMb);
+    }
+
+    /**
+     * Add the given value to the {@link #leavesStoreCompactionWrittenMb} metric and update the
+     * {@link #leavesStoreWriteAmplification} metric.
+     *
+     * @param value data written to new files during a compaction, in Mb
+     */
+    public void setLeavesStoreCompactionWrittenMb(final double value) {
+        if (leavesStoreCompactionWrittenMb != null) {
+            leavesStoreCompactionWrittenMb.update(value);
+        }
+        leavesStoreTotalCompactedMb.add(value);
+        updateWriteAmplification(leavesStoreWriteAmplification, leavesStoreTotalFlushedMb, leavesStoreTotalCompactedMb);
+    }
+
+    /**
+     * Add the given value to the {@link #leafKeysStoreCompactionWrittenMb} metric and update the
+     * {@link #leafKeysStoreWriteAmplification} metric.
+     *
+     * @param value data written to new files during a compaction, in Mb
+     */
+    public void setLeafKeysStoreCompactionWrittenMb(final double value) {
+        if (leafKeysStoreCompactionWrittenMb != null) {
+            leafKeysStoreCompactionWrittenMb.update(value);
+        }
+        leafKeysStoreTotalCompactedMb.add(value);
+        updateWriteAmplification(
+                leafKeysStoreWriteAmplification, leafKeysStoreTotalFlushedMb, leafKeysStoreTotalCompactedMb);
+    }
+
+    /**
+     * Write amplification is the ratio of all data written to disk, by flushes and compactions,
+     * to the data flushed, since the data source was created.
+     */
+    private static void updateWriteAmplification(
+            final DoubleGauge metric, final DoubleAdder totalFlushedMb, final DoubleAdder totalCompactedMb) {
+        final double flushed = totalFlushedMb.sum();
+        if ((metric != null) && (flushed > 0)) {
+            metric.set((flushed + totalCompactedMb.sum()) / flushed);
+        }
+    }
+
     /**
      * Set the current value for the {@link #offHeapLeavesIndexMb} stat
      *
@@ -663,4 +1039,59 @@ public class MerkleDbStatistics {
             offHeapDataSourceMb.set(value);
         }
     }
+
+    /**
+     * Updates {@link #hashesStoreCacheHits}, {@link #hashesStoreCacheMisses},
+     * {@link #hashesStoreCacheEvictions}, and {@link #hashesStoreCacheHitRatio} stats
+     *
+     * @param hits number of cache hits to add
+     * @param misses number of cache misses to add
+     * @param evictions number of cache evictions to add
+     */
+    public void countHashesStoreCacheStats(final long hits, final long misses, final long evictions) {
+        updateCacheStats(
+                hashesStoreCacheHits, hashesStoreCacheMisses, hashesStoreCacheEvictions, hits, misses, evictions);
+        updateCacheHitRatio(hashesStoreCacheHitRatio, hits, misses);
+    }
+
+    /**
+     * Updates {@link #leavesStoreCacheHits}, {@link #leavesStoreCacheMisses},
+     * {@link #leavesStoreCacheEvictions}, and {@link #leavesStoreCacheHitRatio} stats
+     *
+     * @param hits number of cache hits to add
+     * @param misses number of cache misses to add
+     * @param evictions number of cache evictions to add
+     */
+    public void countLeavesStoreCacheStats(final long hits, final long misses, final long evictions) {
+        updateCacheStats(
+                leavesStoreCacheHits, leavesStoreCacheMisses, leavesStoreCacheEvictions, hits, misses, evictions);
+        updateCacheHitRatio(leavesStoreCacheHitRatio, hits, misses);
+    }
+
+    private static void updateCacheStats(
+            final LongAccumulator hitsMetric,
+            final LongAccumulator missesMetric,
+            final LongAccumulator evictionsMetric,
+            final long hits,
+            final long misses,
+            final long evictions) {
+        if (hitsMetric != null) {
+            hitsMetric.update(hits);
+        }
+        if (missesMetric != null) {
+            missesMetric.update(misses);
+        }
+        if (evictionsMetric != null) {
+            evictionsMetric.update(evictions);
+        }
+    }
+
+    /**
+     * Hit ratio is only updated if there were any cache lookups, otherwise the last value is kept.
+     */
+    private static void updateCacheHitRatio(final DoubleGauge metric, final long hits, final long misses) {
+        if ((metric != null) && (hits + misses > 0)) {
+            metric.set((double) hits / (hits + misses));
+        }
+    }
 }
@@ -0,0 +1,586 @@
+/*
+ * Copyright (C) 2023 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.merkledb.collections;
+
+import static com.swirlds.merkledb.collections.LongListOffHeap.address;
+import static java.lang.Math.toIntExact;
+
+import com.swirlds.merkledb.utilities.MerkleDbFileUtils;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link LongList} that keeps up to a configured number of chunks off-heap, like {@link LongListOffHeap},
+ * and pages all other chunks to a temporary file, like {@link LongListDisk}. When a chunk that is not in
+ * memory is accessed, it is loaded from the file, and if there are too many chunks in memory, the least
+ * recently used ones are written back to the file and their memory is reused for other chunks.
+ * <p>
+ * Recency is tracked with a logical clock, which is advanced every time a chunk is loaded. Every access to
+ * a chunk stamps it with the current clock value. This keeps reads of in-memory chunks free of shared writes.
+ * Chunks in memory are queued in the order they were loaded, and evictions take chunks from the head of the
+ * queue. A chunk that was accessed after it was queued gets a second chance and is queued again, so chunks
+ * that haven't been accessed since the oldest loads are evicted first, without scanning all chunks.
+ * <p>
+ * Reads of in-memory chunks don't take locks. Chunk memory is never freed until the list is closed, it's
+ * only reused for other chunks, and every eviction bumps a chunk version, so a reader can detect that a
+ * chunk was evicted while it was being read and retry under the chunk lock. Writes, loads and evictions of
+ * a chunk are synchronized on the chunk. Evictions are run after chunk locks are released, so the number
+ * of chunks in memory may temporarily exceed the limit by the number of concurrently accessing threads.
+ * <p>
+ * Like with {@link LongListDisk}, the temporary file doesn't contain the header, only chunk data. Chunks
+ * are placed in the file in arbitrary order, a chunk gets a place in the file when it's first evicted.
+ *
+ * <p>Per the {@link LongList} contract, this class is thread-safe for both concurrent reads and
+ * writes.
+ */
+public final class LongListTiered extends AbstractLongList<LongListTiered.TieredChunk> {
+
+    private static final String DEFAULT_FILE_NAME = "LongListTiered.ll";
+
+    /** Max number of chunks to keep in memory */
+    private final int maxHotChunks;
+
+    /** The number of chunks currently in memory */
+    private final AtomicInteger hotChunkCount = new AtomicInteger(0);
+
+    /** The number of direct buffers allocated for chunks, both in use and pooled */
+    private final AtomicInteger allocatedBufferCount = new AtomicInteger(0);
+
+    /** Direct buffers released by evicted or deleted chunks, to be reused for other chunks */
+    private final Deque<ByteBuffer> bufferPool = new ConcurrentLinkedDeque<>();
+
+    /** Logical clock to track chunk recency, advanced every time a chunk is loaded to memory */
+    private final AtomicLong accessClock = new AtomicLong(0);
+
+    /**
+     * Chunks in memory, in the order they were loaded. Entries of chunks that have been evicted or released
+     * since they were queued are stale, they are skipped when polled.
+     */
+    private final Deque<HotChunk> hotChunks = new ConcurrentLinkedDeque<>();
+
+    /** The number of entries in {@link #hotChunks}, including stale ones */
+    private final AtomicInteger hotChunksQueued = new AtomicInteger(0);
+
+    /** Only one thread evicts chunks at a time */
+    private final Object evictionLock = new Object();
+
+    /**
+     * Path to the temporary file used to store chunks evicted from memory. This and the other file
+     * fields below are effectively immutable, however they can't be declared final because in some
+     * cases they have to be initialized in {@link LongListTiered#readBodyFromFileChannelOnInit},
+     * which is called from the parent class constructor.
+     */
+    private Path tempFile;
+
+    /** File channel to work with the temporary file */
+    private FileChannel currentFileChannel;
+
+    /** The offset in the temporary file where the next new chunk will be placed */
+    private AtomicLong nextChunkOffset;
+
+    /** Offsets of the chunks in the temporary file that are free to be used */
+    private Deque<Long> freeChunkOffsets;
+
+    /**
+     * Create a {@link LongListTiered} with the default chunk size and capacity.
+     *
+     * @param reservedBufferLength the number of indices before the minimal index to keep reserved
+     * @param maxHotChunks max number of chunks to keep in memory
+     */
+    public LongListTiered(final long reservedBufferLength, final int maxHotChunks) {
+        this(DEFAULT_NUM_LONGS_PER_CHUNK, DEFAULT_MAX_LONGS_TO_STORE, reservedBufferLength, maxHotChunks);
+    }
+
+    /**
+     * Create a {@link LongListTiered} with the specified chunk size and capacity.
+     *
+     * @param numLongsPerChunk number of longs to store in each chunk
+     * @param maxLongs the maximum number of longs permissible for this LongList
+     * @param reservedBufferLength the number of indices before the minimal index to keep reserved
+     * @param maxHotChunks max number of chunks to keep in memory
+     */
+    LongListTiered(
+            final int numLongsPerChunk, final long maxLongs, final long reservedBufferLength, final int maxHotChunks) {
+        super(numLongsPerChunk, maxLongs, reservedBufferLength);
+        this.maxHotChunks = checkMaxHotChunks(maxHotChunks);
+        try {
+            openTempFile(DEFAULT_FILE_NAME);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Create a {@link LongListTiered} from a file that was saved. Chunks are loaded to memory lazily, on
+     * first access.
+     *
+     * @param file the file to read from, if the file doesn't exist, the list will be empty
+     * @param reservedBufferLength the number of indices before the minimal index to keep reserved
+     * @param maxHotChunks max number of chunks to keep in memory
+     * @throws IOException if there was a problem reading the file
+     */
+    public LongListTiered(final Path file, final long reservedBufferLength, final int maxHotChunks)
+            throws IOException {
+        super(file, reservedBufferLength);
+        this.maxHotChunks = checkMaxHotChunks(maxHotChunks);
+        // IDE complains that the file channel is not initialized, but it's initialized in one of the
+        // callbacks called from the constructor of the parent class
+        //noinspection ConstantValue
+        if (currentFileChannel == null) {
+            throw new IllegalStateException("The temp file is not initialized");
+        }
+    }
+
+    private static int checkMaxHotChunks(final int maxHotChunks) {
+        if (maxHotChunks < 1) {
+            throw new IllegalArgumentException("Max number of hot chunks must be positive, not " + maxHotChunks);
+        }
+        return maxHotChunks;
+    }
+
+    private void openTempFile(final String sourceFileName) throws IOException {
+        tempFile = LongListDisk.createTempFile(sourceFileName);
+        currentFileChannel = FileChannel.open(
+                tempFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        nextChunkOffset = new AtomicLong(0);
+        freeChunkOffsets = new ConcurrentLinkedDeque<>();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void onEmptyOrAbsentSourceFile(final Path path) throws IOException {
+        openTempFile(path.toFile().getName());
+    }
+
+    /**
+     * Copies chunks from the given file to the temporary file. No chunks are loaded to memory, all of
+     * them are initially on disk.
+     */
+    @Override
+    protected void readBodyFromFileChannelOnInit(final String sourceFileName, final FileChannel fileChannel)
+            throws IOException {
+        openTempFile(sourceFileName);
+        final int totalNumberOfChunks = calculateNumberOfChunks(size());
+        final int firstChunkWithDataIndex = toIntExact(minValidIndex.get() / numLongsPerChunk);
+        final int minValidIndexInChunk = toIntExact(minValidIndex.get() % numLongsPerChunk);
+        final ByteBuffer transferBuffer = ByteBuffer.allocateDirect(memoryChunkSize);
+        try {
+            for (int i = firstChunkWithDataIndex; i < totalNumberOfChunks; i++) {
+                clearChunkBuffer(transferBuffer);
+                // the first chunk in the file starts with the min valid index, the last one may be partial
+                transferBuffer.position(i == firstChunkWithDataIndex ? minValidIndexInChunk * Long.BYTES : 0);
+                MerkleDbFileUtils.completelyRead(fileChannel, transferBuffer);
+                transferBuffer.clear();
+                final long offset = nextChunkOffset.getAndAdd(memoryChunkSize);
+                MerkleDbFileUtils.completelyWrite(currentFileChannel, transferBuffer, offset);
+                chunkList.set(i, new TieredChunk(offset));
+            }
+        } finally {
+            UNSAFE.invokeCleaner(transferBuffer);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void putToChunk(final TieredChunk chunk, final int subIndex, final long value) {
+        synchronized (chunk) {
+            if (!chunk.released) {
+                final ByteBuffer buffer = loadChunk(chunk);
+                UNSAFE.putLongVolatile(null, address(buffer) + (long) subIndex * Long.BYTES, value);
+                chunk.dirty = true;
+            }
+        }
+        evictChunksIfNeeded();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected boolean putIfEqual(final TieredChunk chunk, final int subIndex, final long oldValue, long newValue) {
+        final boolean result;
+        synchronized (chunk) {
+            if (chunk.released) {
+                return false;
+            }
+            final long chunkPointer = address(loadChunk(chunk));
+            result = UNSAFE.compareAndSwapLong(null, chunkPointer + (long) subIndex * Long.BYTES, oldValue, newValue);
+            if (result) {
+                chunk.dirty = true;
+            }
+        }
+        evictChunksIfNeeded();
+        return result;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected long lookupInChunk(@NonNull final TieredChunk chunk, final long subIndex) {
+        final long subIndexOffset = subIndex * Long.BYTES;
+        // Optimistic read. If the chunk is evicted while being read, its buffer may be reused for another
+        // chunk, and the value may be wrong. Evictions bump chunk version, so this case is detected
+        final long version = chunk.version;
+        final ByteBuffer hotBuffer = chunk.buffer;
+        if (hotBuffer != null) {
+            final long value = UNSAFE.getLongVolatile(null, address(hotBuffer) + subIndexOffset);
+            if (chunk.version == version) {
+                touch(chunk);
+                return value;
+            }
+        }
+        final long value;
+        synchronized (chunk) {
+            if (chunk.released) {
+                return IMPERMISSIBLE_VALUE;
+            }
+            final ByteBuffer buffer = loadChunk(chunk);
+            value = UNSAFE.getLongVolatile(null, address(buffer) + subIndexOffset);
+        }
+        evictChunksIfNeeded();
+        return value;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void writeLongsData(final FileChannel fc) throws IOException {
+        final int totalNumOfChunks = calculateNumberOfChunks(size());
+        final long currentMinValidIndex = minValidIndex.get();
+        final int firstChunkWithDataIndex = toIntExact(currentMinValidIndex / numLongsPerChunk);
+        final ByteBuffer transferBuffer = ByteBuffer.allocateDirect(memoryChunkSize);
+        try {
+            for (int i = firstChunkWithDataIndex; i < totalNumOfChunks; i++) {
+                final TieredChunk chunk = chunkList.get(i);
+                if (chunk == null) {
+                    clearChunkBuffer(transferBuffer);
+                } else {
+                    // chunk buffer may be reused after the lock is released, copy the data out
+                    synchronized (chunk) {
+                        if (chunk.released) {
+                            clearChunkBuffer(transferBuffer);
+                        } else if (chunk.buffer != null) {
+                            UNSAFE.copyMemory(address(chunk.buffer), address(transferBuffer), memoryChunkSize);
+                        } else {
+                            transferBuffer.clear();
+                            MerkleDbFileUtils.completelyRead(currentFileChannel, transferBuffer, chunk.fileOffset);
+                        }
+                    }
+                }
+                if (i == firstChunkWithDataIndex) {
+                    // writing starts from the first valid index in the first valid chunk
+                    final int firstValidIndexInChunk = toIntExact(currentMinValidIndex % numLongsPerChunk);
+                    transferBuffer.position(firstValidIndexInChunk * Long.BYTES);
+                } else {
+                    transferBuffer.position(0);
+                }
+                if (i == (totalNumOfChunks - 1)) {
+                    // the last chunk, so set limit to only the data needed
+                    final long bytesWrittenSoFar = (long) memoryChunkSize * (long) i;
+                    final long remainingBytes = (size() * Long.BYTES) - bytesWrittenSoFar;
+                    transferBuffer.limit(toIntExact(remainingBytes));
+                } else {
+                    transferBuffer.limit(transferBuffer.capacity());
+                }
+                MerkleDbFileUtils.completelyWrite(fc, transferBuffer);
+            }
+        } finally {
+            UNSAFE.invokeCleaner(transferBuffer);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected TieredChunk createChunk() {
+        final TieredChunk chunk = new TieredChunk(-1);
+        chunk.buffer = takeBuffer();
+        chunk.lastAccess = accessClock.get();
+        hotChunkCount.incrementAndGet();
+        queueHotChunk(chunk, chunk.version, chunk.lastAccess);
+        return chunk;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void releaseChunk(@NonNull final TieredChunk chunk) {
+        synchronized (chunk) {
+            if (chunk.released) {
+                return;
+            }
+            chunk.released = true;
+            final ByteBuffer buffer = chunk.buffer;
+            // see evictChunk() for the order of these updates
+            chunk.buffer = null;
+            chunk.version++;
+            if (buffer != null) {
+                hotChunkCount.decrementAndGet();
+                bufferPool.add(buffer);
+            }
+            if (chunk.fileOffset >= 0) {
+                freeChunkOffsets.add(chunk.fileOffset);
+            }
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void partialChunkCleanup(
+            @NonNull final TieredChunk chunk, final boolean leftSide, final long entriesToCleanUp) {
+        synchronized (chunk) {
+            if (chunk.released) {
+                return;
+            }
+            final long chunkPointer = address(loadChunk(chunk));
+            if (leftSide) {
+                // cleans up all values up to newMinValidIndex in the first chunk
+                UNSAFE.setMemory(chunkPointer, entriesToCleanUp * Long.BYTES, (byte) 0);
+            } else {
+                // cleans up all values on the right side of the last chunk
+                final long offset = (numLongsPerChunk - entriesToCleanUp) * Long.BYTES;
+                UNSAFE.setMemory(chunkPointer + offset, entriesToCleanUp * Long.BYTES, (byte) 0);
+            }
+            chunk.dirty = true;
+        }
+        evictChunksIfNeeded();
+    }
+
+    /**
+     * Closes and deletes the temporary file, and frees all chunk memory.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    protected void onClose() throws IOException {
+        for (int i = 0; i < chunkList.length(); i++) {
+            final TieredChunk chunk = chunkList.get(i);
+            if (chunk != null) {
+                releaseChunk(chunk);
+            }
+        }
+        hotChunks.clear();
+        hotChunksQueued.set(0);
+        ByteBuffer buffer;
+        while ((buffer = bufferPool.poll()) != null) {
+            UNSAFE.invokeCleaner(buffer);
+            allocatedBufferCount.decrementAndGet();
+        }
+        currentFileChannel.close();
+        Files.deleteIfExists(tempFile);
+        freeChunkOffsets.clear();
+    }
+
+    /**
+     * Makes sure the given chunk is in memory. Must be called while holding the chunk lock.
+     *
+     * @param chunk the chunk to load
+     * @return the chunk buffer
+     */
+    private ByteBuffer loadChunk(final TieredChunk chunk) {
+        final ByteBuffer hotBuffer = chunk.buffer;
+        if (hotBuffer != null) {
+            touch(chunk);
+            return hotBuffer;
+        }
+        final ByteBuffer buffer = takeBuffer();
+        try {
+            MerkleDbFileUtils.completelyRead(currentFileChannel, buffer, chunk.fileOffset);
+        } catch (final IOException e) {
+            bufferPool.add(buffer);
+            throw new UncheckedIOException(e);
+        }
+        buffer.clear();
+        chunk.lastAccess = accessClock.incrementAndGet();
+        chunk.buffer = buffer;
+        chunk.dirty = false;
+        hotChunkCount.incrementAndGet();
+        queueHotChunk(chunk, chunk.version, chunk.lastAccess);
+        return buffer;
+    }
+
+    /**
+     * Stamps the given chunk as recently used. The stamp is only written if changed, so reads of hot
+     * chunks don't cause writes to shared memory.
+     */
+    private void touch(final TieredChunk chunk) {
+        final long now = accessClock.get();
+        if (chunk.lastAccess != now) {
+            chunk.lastAccess = now;
+        }
+    }
+
+    /**
+     * Evicts least recently used chunks from memory, until there are no more than {@link #maxHotChunks}
+     * chunks in memory. Must not be called while holding any chunk locks.
+     */
+    private void evictChunksIfNeeded() {
+        final long maxQueued = 2L * maxHotChunks;
+        if ((hotChunkCount.get() <= maxHotChunks) && (hotChunksQueued.get() <= maxQueued)) {
+            return;
+        }
+        synchronized (evictionLock) {
+            if (hotChunksQueued.get() > maxQueued) {
+                // entries of released chunks are only skipped when polled, drop them if they pile up
+                hotChunks.removeIf(hot -> {
+                    if (hot.isStale()) {
+                        hotChunksQueued.decrementAndGet();
+                        return true;
+                    }
+                    return false;
+                });
+            }
+            // every queued chunk gets at most one second chance, even if chunks are accessed concurrently
+            int secondChances = hotChunksQueued.get();
+            while (hotChunkCount.get() > maxHotChunks) {
+                final HotChunk hot = hotChunks.poll();
+                if (hot == null) {
+                    // the remaining hot chunks are being loaded or released
+                    return;
+                }
+                hotChunksQueued.decrementAndGet();
+                if (hot.isStale()) {
+                    continue;
+                }
+                final TieredChunk chunk = hot.chunk();
+                if ((chunk.lastAccess > hot.queuedAt()) && (secondChances-- > 0)) {
+                    queueHotChunk(chunk, hot.version(), accessClock.get());
+                    continue;
+                }
+                evictChunk(chunk);
+            }
+        }
+    }
+
+    private void queueHotChunk(final TieredChunk chunk, final long version, final long queuedAt) {
+        hotChunks.add(new HotChunk(chunk, version, queuedAt));
+        hotChunksQueued.incrementAndGet();
+    }
+
+    private void evictChunk(final TieredChunk chunk) {
+        synchronized (chunk) {
+            final ByteBuffer buffer = chunk.buffer;
+            if ((buffer == null) || chunk.released) {
+                return;
+            }
+            // clean chunks that are already in the file don't have to be written again
+            if (chunk.dirty || (chunk.fileOffset < 0)) {
+                if (chunk.fileOffset < 0) {
+                    final Long freeOffset = freeChunkOffsets.poll();
+                    chunk.fileOffset = (freeOffset != null) ? freeOffset : nextChunkOffset.getAndAdd(memoryChunkSize);
+                }
+                try {
+                    buffer.clear();
+                    MerkleDbFileUtils.completelyWrite(currentFileChannel, buffer, chunk.fileOffset);
+                } catch (final IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            // The buffer must be taken away from the chunk before the version is bumped, and both must happen
+            // before the buffer can be reused by another chunk. A reader that still sees the old buffer has
+            // read the version before it was bumped, so it detects the change after reading the value
+            chunk.buffer = null;
+            chunk.version++;
+            chunk.dirty = false;
+            hotChunkCount.decrementAndGet();
+            bufferPool.add(buffer);
+        }
+    }
+
+    private ByteBuffer takeBuffer() {
+        ByteBuffer buffer = bufferPool.poll();
+        if (buffer == null) {
+            buffer = ByteBuffer.allocateDirect(memoryChunkSize).order(ByteOrder.nativeOrder());
+            allocatedBufferCount.incrementAndGet();
+        } else {
+            clearChunkBuffer(buffer);
+        }
+        return buffer;
+    }
+
+    private void clearChunkBuffer(final ByteBuffer buffer) {
+        UNSAFE.setMemory(address(buffer), memoryChunkSize, (byte) IMPERMISSIBLE_VALUE);
+        buffer.clear();
+    }
+
+    /**
+     * Get the number of chunks currently in memory.
+     *
+     * @return the number of hot chunks
+     */
+    public int getHotChunkCount() {
+        return hotChunkCount.get();
+    }
+
+    /**
+     * Measures the amount of off-heap memory consumption. It includes memory of chunks in memory and
+     * memory pooled for reuse by chunks loaded in the future.
+     *
+     * @return the amount of off-heap memory (in bytes) consumed by the list
+     */
+    public long getOffHeapConsumption() {
+        return (long) allocatedBufferCount.get() * memoryChunkSize;
+    }
+
+    // exposed for test purposes only - DO NOT USE IN PROD CODE
+    FileChannel getCurrentFileChannel() {
+        return currentFileChannel;
+    }
+
+    /**
+     * An entry in the queue of chunks in memory.
+     *
+     * @param chunk the chunk
+     * @param version the chunk version when it was queued, the entry is stale if the version has changed
+     * @param queuedAt the access clock when the chunk was queued, the chunk was accessed since if its last
+     *      access is later
+     */
+    private record HotChunk(TieredChunk chunk, long version, long queuedAt) {
+        /** Whether the chunk has been evicted or released since it was queued */
+        boolean isStale() {
+            return (chunk.buffer == null) || (chunk.version != version);
+        }
+    }
+
+    /**
+     * A chunk of a tiered long list. A chunk is either in memory, with a direct buffer, or on disk, at
+     * an offset in the temporary file. Chunks that are in memory may also have a stale copy on disk.
+     */
+    static final class TieredChunk {
+        /** Chunk data in memory, or null, if the chunk is only on disk */
+        private volatile ByteBuffer buffer;
+        /** Incremented every time the chunk buffer is taken away from the chunk */
+        private volatile long version;
+        /** Logical time of the last access to the chunk, used to select chunks to evict */
+        private volatile long lastAccess;
+        /** Chunk offset in the temporary file, or -1, if the chunk has never been written to the file */
+        private long fileOffset;
+        /** Whether the chunk in memory differs from its copy on disk */
+        private boolean dirty;
+        /** Whether the chunk is released and must not be used anymore */
+        private boolean released;
+
+        private TieredChunk(final long fileOffset) {
+            this.fileOffset = fileOffset;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright (C) 2023 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.merkledb.config;
+
+/**
+ * Strategy used by MerkleDb data sources to select data files to compact.
+ */
+public enum CompactionStrategyType {
+
+    /**
+     * Small, medium and full compactions on a fixed schedule. Small and medium compactions process
+     * the newest files below a size cutoff, full compactions process all files.
+     */
+    PERIODIC,
+
+    /**
+     * Leveled compactions. Files are assigned to levels by size, files in a level are compacted
+     * once they have enough live data to produce a file in the next level, or when they contain
+     * too much garbage.
+     */
+    LEVELED,
+
+    /**
+     * Size-tiered compactions. Files of similar sizes are compacted, when there are enough of them,
+     * or when they contain too much garbage.
+     */
+    SIZE_TIERED
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (C) 2023 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.merkledb.config;
+
+/**
+ * Compression codec for MerkleDb data files. Compressed files store data items in blocks, every
+ * block is compressed separately, so a random read only needs to decompress a single block. Every
+ * block records the codec it's compressed with, blocks that don't compress well are stored as is.
+ */
+public enum DataFileCompression {
+
+    /** No compression. Data files are written in the original, not block based, format */
+    NONE(0),
+
+    /** LZ4 block compression, implemented in Java */
+    LZ4(1);
+
+    /** Codec ID, stored in every compressed block */
+    private final int id;
+
+    DataFileCompression(final int id) {
+        this.id = id;
+    }
+
+    /**
+     * Get the codec ID, as stored in data files.
+     *
+     * @return the codec ID
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Get a codec by its ID, as stored in data files.
+     *
+     * @param id the codec ID
+     * @return the codec
+     * @throws IllegalArgumentException if there is no codec with the given ID
+     */
+    public static DataFileCompression fromId(final int id) {
+        for (final DataFileCompression compression : values()) {
+            if (compression.id == id) {
+                return compression;
+            }
+        }
+        throw new IllegalArgumentException("Unknown data file compression codec: " + id);
+    }
+}
@@ -22,6 +22,7 @@ import com.swirlds.config.api.ConfigProperty;
 import com.swirlds.config.api.Configuration;
 import com.swirlds.config.api.validation.ConfigViolation;
 import com.swirlds.config.api.validation.annotation.ConstraintMethod;
+import com.swirlds.config.api.validation.annotation.Max;
 import com.swirlds.config.api.validation.annotation.Min;
 import com.swirlds.config.api.validation.annotation.Positive;
 import java.time.temporal.ChronoUnit;
@@ -104,6 +105,58 @@ import java.time.temporal.ChronoUnit;
  * @param leafRecordCacheSize
  *      Cache size in bytes for reading virtual leaf records. Initialized in data source creation time from MerkleDb config.
  *      If the value is zero, leaf records cache isn't used.
+ * @param hashesStoreCacheSize
+ *      Off-heap cache size in bytes for hash records read from the hashes store on disk. Every table (data source)
+ *      gets a cache of this size. If the value is zero, the cache isn't used.
+ * @param leavesStoreCacheSize
+ *      Off-heap cache size in bytes for leaf records read from the leaves store on disk. Every table (data source)
+ *      gets a cache of this size. If the value is zero, the cache isn't used.
+ * @param dataItemCacheSlotSize
+ *      Slot size in bytes in data item caches for variable size data items. Data items larger than this are not
+ *      cached. Caches for fixed size data items use data item size as the slot size.
+ * @param compactionStrategy
+ *      Strategy to select data files to compact. With {@link CompactionStrategyType#PERIODIC}, small, medium and full
+ *      compactions are run on a fixed schedule using size cutoffs. Other strategies use the same schedule, but select
+ *      files by size class and by the estimated amount of garbage in them.
+ * @param compactionBaseFileSizeMb
+ *      Max size in MB of files in the smallest size class (level or tier), used by leveled and size-tiered compaction
+ *      strategies.
+ * @param compactionSizeRatio
+ *      Size ratio between adjacent size classes (levels or tiers), used by leveled and size-tiered compaction
+ *      strategies.
+ * @param compactionGarbageRatio
+ *      Fraction, greater than 0.0 and up to 1.0, of garbage (bytes no longer referenced from indices) in a set of
+ *      files of the same size class, at which the files are compacted regardless of other criteria. Used by leveled
+ *      and size-tiered compaction strategies.
+ * @param compactionMaxBytesPerSecond
+ *      Max number of bytes per second copied by compactions in a single store. If zero, compactions are not rate
+ *      limited.
+ * @param numFlushPartitions
+ *      Number of partitions to split hashes and leaves into, when they are flushed to disk. Every partition is a
+ *      contiguous range of paths, written to its own data file by a separate thread. If set to 1, all hashes and
+ *      leaves are written to a single file per store.
+ * @param keyToPathBloomFilterBitsPerKey
+ *      Size of the in-memory bloom filter in front of the key to path store, in bits per max number of keys in a
+ *      table. The filter lets lookups of non-existent keys skip disk reads. If zero, the filter is disabled.
+ * @param keyToPathBloomFilterHashCount
+ *      Number of hash functions used by the key to path bloom filter.
+ * @param numWarmupThreads
+ *      Number of threads per table to load leaf records in the background, when virtual maps are asked to warm
+ *      multiple keys at once. Records are read in order of their locations in data files.
+ * @param pathIndexMaxHotChunks
+ *      Max number of chunks of path to disk location indices to keep in memory, per index. Other chunks are paged
+ *      to disk and loaded back on access, least recently used chunks are paged out first. If zero, the indices are
+ *      kept in memory in full. Not used for tables that prefer disk based indices.
+ * @param leavesStoreCompression
+ *      Compression codec for new data files in the leaves store. Compressed files store leaf records in blocks, every
+ *      block is compressed separately. Existing files are read in the format they were written in. Hashes are not
+ *      compressed, as they don't compress well.
+ * @param compressionBlockSize
+ *      Uncompressed block size, in bytes, in compressed data files. Larger blocks compress better, but every random
+ *      read decompresses the whole block. Max value is 262144.
+ * @param memoryMappedReads
+ *      Whether completed data files are read through memory mapped buffers rather than file channels. This is a node
+ *      local setting, it doesn't affect the format of data files or saved states.
  */
 @ConfigData("merkleDb")
 public record MerkleDbConfig(
@@ -129,7 +182,24 @@ public record MerkleDbConfig(
         @ConfigProperty(defaultValue = "50.0") double percentHalfDiskHashMapFlushThreads,
         @ConfigProperty(defaultValue = "-1") int numHalfDiskHashMapFlushThreads,
         @ConfigProperty(defaultValue = "262144") int reservedBufferLengthForLeafList,
-        @ConfigProperty(defaultValue = "1048576") int leafRecordCacheSize) {
+        @ConfigProperty(defaultValue = "1048576") int leafRecordCacheSize,
+        @Min(0) @ConfigProperty(defaultValue = "0") long hashesStoreCacheSize,
+        @Min(0) @ConfigProperty(defaultValue = "0") long leavesStoreCacheSize,
+        @Positive @ConfigProperty(defaultValue = "512") int dataItemCacheSlotSize,
+        @ConfigProperty(defaultValue = "PERIODIC") CompactionStrategyType compactionStrategy,
+        @Positive @ConfigProperty(defaultValue = "64") int compactionBaseFileSizeMb,
+        @Min(2) @ConfigProperty(defaultValue = "4") int compactionSizeRatio,
+        @ConstraintMethod("compactionGarbageRatioValidation") @ConfigProperty(defaultValue = "0.5")
+                double compactionGarbageRatio,
+        @Min(0) @ConfigProperty(defaultValue = "0") long compactionMaxBytesPerSecond,
+        @Min(1) @ConfigProperty(defaultValue = "1") int numFlushPartitions,
+        @Min(0) @ConfigProperty(defaultValue = "0") int keyToPathBloomFilterBitsPerKey,
+        @Positive @ConfigProperty(defaultValue = "7") int keyToPathBloomFilterHashCount,
+        @Min(1) @ConfigProperty(defaultValue = "4") int numWarmupThreads,
+        @Min(0) @ConfigProperty(defaultValue = "0") int pathIndexMaxHotChunks,
+        @ConfigProperty(defaultValue = "NONE") DataFileCompression leavesStoreCompression,
+        @Positive @Max(262144) @ConfigProperty(defaultValue = "32768") int compressionBlockSize,
+        @ConfigProperty(defaultValue = "false") boolean memoryMappedReads) {
 
     static double UNIT_FRACTION_PERCENT = 100.0;
 
@@ -164,6 +234,20 @@ public record MerkleDbConfig(
         return null;
     }
 
+    public ConfigViolation compactionGarbageRatioValidation(final Configuration configuration) {
+        final double compactionGarbageRatio =
+                configuration.getConfigData(MerkleDbConfig.class).compactionGarbageRatio();
+        if (!(compactionGarbageRatio > 0 && compactionGarbageRatio <= 1)) {
+            return new DefaultConfigViolation(
+                    "compactionGarbageRatio",
+                    "%s".formatted(compactionGarbageRatio),
+                    true,
+                    "Cannot configure compactionGarbageRatio to " + compactionGarbageRatio
+                            + ", it must be > 0 and <= 1");
+        }
+        return null;
+    }
+
     public int getNumHalfDiskHashMapFlushThreads() {
         final int numProcessors = Runtime.getRuntime().availableProcessors();
         final int threads = (numHalfDiskHashMapFlushThreads() == -1)
@@ -0,0 +1,181 @@
+/*
+ * Copyright (C) 2023 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.merkledb.files;
+
+import com.swirlds.merkledb.CompactionType;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * Base class for compaction strategies, which group data files into size classes. Size class 0
+ * contains files smaller than the base size, size class 1 contains files smaller than the base
+ * size multiplied by size ratio, and so on.
+ *
+ * <p>Files are sorted by creation time and split into runs of adjacent files of the same size
+ * class. A run is a candidate for compaction, if a subclass says so in {@link
+ * #isCompactionNeeded(int, List, long)}, or if its garbage ratio (the fraction of bytes in the
+ * files that are no longer referenced from the index) exceeds the configured threshold. Of all
+ * candidates, the run with the highest garbage ratio is compacted. Compaction type limits size
+ * classes to consider: small compactions only process size class 0, medium compactions process
+ * classes 0 and 1, and full compactions process all classes.
+ */
+public abstract class AbstractSizeBasedCompactionStrategy implements CompactionStrategy {
+
+    /** Files smaller than this size are in size class 0 */
+    private final long baseSizeBytes;
+
+    /** Size ratio between adjacent size classes */
+    private final int sizeRatio;
+
+    /** Max number of files to compact at once */
+    private final int maxFiles;
+
+    /** A run of files is compacted, if its garbage ratio is greater or equal to this threshold */
+    private final double garbageRatioThreshold;
+
+    /**
+     * Creates a new size based compaction strategy.
+     *
+     * @param baseSizeBytes max file size in size class 0, in bytes
+     * @param sizeRatio size ratio between adjacent size classes
+     * @param maxFiles max number of files to compact at once
+     * @param garbageRatioThreshold min garbage ratio to compact a run of files regardless of other
+     *     criteria, greater than 0.0 and up to 1.0
+     * @throws IllegalArgumentException if any of the arguments is out of range
+     */
+    protected AbstractSizeBasedCompactionStrategy(
+            final long baseSizeBytes, final int sizeRatio, final int maxFiles, final double garbageRatioThreshold) {
+        if (baseSizeBytes <= 0) {
+            throw new IllegalArgumentException("Base size must be positive");
+        }
+        if (sizeRatio < 2) {
+            throw new IllegalArgumentException("Size ratio must be at least 2");
+        }
+        if (maxFiles < 2) {
+            throw new IllegalArgumentException("Max number of files to compact must be at least 2");
+        }
+        if (!(garbageRatioThreshold > 0) || (garbageRatioThreshold > 1)) {
+            throw new IllegalArgumentException("Garbage ratio threshold must be greater than 0 and at most 1");
+        }
+        this.baseSizeBytes = baseSizeBytes;
+        this.sizeRatio = sizeRatio;
+        this.maxFiles = maxFiles;
+        this.garbageRatioThreshold = garbageRatioThreshold;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @NonNull
+    @Override
+    public <D> List<DataFileReader<D>> selectFilesToCompact(
+            @NonNull final CompactionType type,
+            @NonNull final List<DataFileReader<D>> files,
+            @NonNull final ToLongFunction<DataFileReader<D>> liveBytes) {
+        final int maxSizeClass =
+                switch (type) {
+                    case SMALL -> 0;
+                    case MEDIUM -> 1;
+                    case FULL -> Integer.MAX_VALUE;
+                };
+        final List<DataFileReader<D>> sortedFiles = new ArrayList<>(files);
+        Collections.sort(sortedFiles);
+
+        List<DataFileReader<D>> bestRun = Collections.emptyList();
+        double bestGarbageRatio = -1;
+        int start = 0;
+        while (start < sortedFiles.size()) {
+            final int sizeClass = getSizeClass(sortedFiles.get(start).getSize());
+            int end = start + 1;
+            while ((end < sortedFiles.size()) && (getSizeClass(sortedFiles.get(end).getSize()) == sizeClass)) {
+                end++;
+            }
+            if ((sizeClass <= maxSizeClass) && (end - start >= 2)) {
+                // Only consider the newest files in the run, if there are too many
+                final List<DataFileReader<D>> run = sortedFiles.subList(Math.max(start, end - maxFiles), end);
+                long runSize = 0;
+                long runLiveBytes = 0;
+                for (final DataFileReader<D> file : run) {
+                    runSize += file.getSize();
+                    runLiveBytes += Math.min(file.getSize(), liveBytes.applyAsLong(file));
+                }
+                final double garbageRatio = (runSize == 0) ? 0 : 1.0 - (double) runLiveBytes / runSize;
+                if ((garbageRatio >= garbageRatioThreshold || isCompactionNeeded(sizeClass, run, runLiveBytes))
+                        && (garbageRatio > bestGarbageRatio)) {
+                    bestRun = run;
+                    bestGarbageRatio = garbageRatio;
+                }
+            }
+            start = end;
+        }
+        return bestRun.isEmpty() ? bestRun : new ArrayList<>(bestRun);
+    }
+
+    /**
+     * Checks if a run of files of the same size class needs to be compacted, even if its garbage
+     * ratio is below the threshold.
+     *
+     * @param sizeClass size class of all files in the run
+     * @param run files in the run, sorted by creation time, at least two files
+     * @param runLiveBytes estimated number of live bytes in all files in the run
+     * @param <D> data item type
+     * @return whether to compact the run
+     */
+    protected abstract <D> boolean isCompactionNeeded(int sizeClass, List<DataFileReader<D>> run, long runLiveBytes);
+
+    /**
+     * Gets the size class for a file of the given size.
+     *
+     * @param fileSize file size, in bytes
+     * @return size class, 0 for the smallest files
+     */
+    protected int getSizeClass(final long fileSize) {
+        int sizeClass = 0;
+        long limit = baseSizeBytes;
+        while ((fileSize >= limit) && (limit <= Long.MAX_VALUE / sizeRatio)) {
+            limit *= sizeRatio;
+            sizeClass++;
+        }
+        return (fileSize >= limit) ? sizeClass + 1 : sizeClass;
+    }
+
+    /**
+     * Gets the max size of a file in the given size class.
+     *
+     * @param sizeClass size class
+     * @return size limit for the class, in bytes. Files in the class are smaller than this limit
+     */
+    protected long getSizeClassLimit(final int sizeClass) {
+        long limit = baseSizeBytes;
+        for (int i = 0; (i < sizeClass) && (limit <= Long.MAX_VALUE / sizeRatio); i++) {
+            limit *= sizeRatio;
+        }
+        return limit;
+    }
+
+    /**
+     * Gets the max number of files to compact at once.
+     *
+     * @return max number of files
+     */
+    protected int getMaxFiles() {
+        return maxFiles;
+    }
+}
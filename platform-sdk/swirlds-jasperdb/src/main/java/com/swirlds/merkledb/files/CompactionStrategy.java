@@ -0,0 +1,50 @@
+/*
+ * Copyright (C) 2023 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.merkledb.files;
+
+import com.swirlds.merkledb.CompactionType;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * A strategy to select data files to compact in a {@link DataFileCollection}. Strategies are
+ * consulted every time the compaction thread is activated, and they are given an estimate of how
+ * many bytes in every file are still live, i.e. referenced from the store index. It allows to
+ * prefer files with a lot of garbage, rather than to rewrite all files on a fixed schedule.
+ *
+ * <p>Strategy implementations must return a list of files that are contiguous in order of file
+ * creation time. See {@link DataFileCollection#compactFiles} for details.
+ */
+public interface CompactionStrategy {
+
+    /**
+     * Select files to compact.
+     *
+     * @param type compaction type. Strategies may use it to limit the scope of compaction, e.g.
+     *     only compact small files during {@link CompactionType#SMALL} compactions
+     * @param files all completed files in the data file collection, in no particular order
+     * @param liveBytes function to estimate the number of live bytes in a data file
+     * @param <D> data item type
+     * @return files to compact, or an empty list if no compaction is needed
+     */
+    @NonNull
+    <D> List<DataFileReader<D>> selectFilesToCompact(
+            @NonNull CompactionType type,
+            @NonNull List<DataFileReader<D>> files,
+            @NonNull ToLongFunction<DataFileReader<D>> liveBytes);
+}
@@ -25,14 +25,17 @@ import static com.swirlds.merkledb.files.DataFileCommon.fileIndexFromDataLocatio
 import static com.swirlds.merkledb.files.DataFileCommon.isFullyWrittenDataFile;
 import static java.util.Collections.singletonList;
 
+import com.swirlds.common.utility.throttle.Throttle;
 import com.swirlds.merkledb.KeyRange;
 import com.swirlds.merkledb.Snapshotable;
 import com.swirlds.merkledb.collections.CASableLongIndex;
 import com.swirlds.merkledb.collections.ImmutableIndexedObjectList;
 import com.swirlds.merkledb.collections.ImmutableIndexedObjectListUsingArray;
 import com.swirlds.merkledb.collections.LongList;
+import com.swirlds.merkledb.config.DataFileCompression;
 import com.swirlds.merkledb.serialize.DataItemSerializer;
 import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
@@ -48,6 +51,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.LongSummaryStatistics;
+import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.concurrent.Semaphore;
@@ -55,6 +59,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
+import java.util.function.ToLongFunction;
 import java.util.stream.Stream;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -113,6 +118,13 @@ public class DataFileCollection<D> implements Snapshotable {
     private final String legacyStoreName;
     /** Serializer responsible for serializing/deserializing data items into and out of files */
     private final DataItemSerializer<D> dataItemSerializer;
+    /**
+     * Cache for data items read using an index, or null if caching is disabled. Data files are
+     * immutable, so cached data items never have to be invalidated
+     */
+    private final DataItemCache dataItemCache;
+    /** Whether completed data files are read through memory mapped buffers */
+    private final boolean memoryMappedReads;
     /** True if this DataFileCollection was loaded from an existing set of files */
     private final boolean loadedFromExistingFiles;
     /** The index to use for the next file we create */
@@ -139,15 +151,15 @@ public class DataFileCollection<D> implements Snapshotable {
     private final AtomicReference<ImmutableIndexedObjectList<DataFileReader<D>>> dataFiles = new AtomicReference<>();
 
     /**
-     * The current open file writer, if we are in the middle of writing a new file during flush, or
-     * null if not writing.
+     * The current open file writers, one per partition, if we are in the middle of writing new
+     * files during flush, or null if not writing.
      */
-    private final AtomicReference<DataFileWriter<D>> currentDataFileWriter = new AtomicReference<>();
+    private final AtomicReference<List<DataFileWriter<D>>> currentDataFileWriters = new AtomicReference<>();
     /**
-     * Data file reader for the file, which is being written with the writer above, or null if not
-     * writing. The reader is created right after writing to the file is started.
+     * Data file readers for the files, which are being written with the writers above, or null if
+     * not writing. The readers are created right after writing to the files is started.
      */
-    private final AtomicReference<DataFileReader<D>> currentDataFileReader = new AtomicReference<>();
+    private final AtomicReference<List<DataFileReader<D>>> currentDataFileReaders = new AtomicReference<>();
     /** Constructor for creating ImmutableIndexedObjectLists */
     private final Function<List<DataFileReader<D>>, ImmutableIndexedObjectList<DataFileReader<D>>>
             indexedObjectListConstructor;
@@ -193,6 +205,23 @@ public class DataFileCollection<D> implements Snapshotable {
      * compacted file or not.
      */
     private final AtomicBoolean compactionWasInProgress = new AtomicBoolean(false);
+    /**
+     * Throttle to limit the rate of bytes copied during compactions, or null if compactions are not
+     * rate limited. See {@link #setCompactionRateLimit(long)}
+     */
+    private volatile Throttle compactionThrottle = null;
+    /**
+     * Listener to notify about data item reads from all files in this collection, or null. See
+     * {@link #setReadListener(DataFileReadListener)}
+     */
+    private volatile DataFileReadListener readListener = null;
+    /**
+     * Compression codec for new data files created by flushes and compactions. See {@link
+     * #setCompression(DataFileCompression, int)}
+     */
+    private volatile DataFileCompression compression = DataFileCompression.NONE;
+    /** Uncompressed block size for new compressed data files */
+    private volatile int compressionBlockSize = 0;
 
     /**
      * Construct a new DataFileCollection.
@@ -218,6 +247,8 @@ public class DataFileCollection<D> implements Snapshotable {
                 null,
                 dataItemSerializer,
                 loadedDataCallback,
+                null,
+                false,
                 ImmutableIndexedObjectListUsingArray::new);
     }
 
@@ -251,6 +282,51 @@ public class DataFileCollection<D> implements Snapshotable {
                 legacyStoreName,
                 dataItemSerializer,
                 loadedDataCallback,
+                null,
+                false,
+                ImmutableIndexedObjectListUsingArray::new);
+    }
+
+    /**
+     * Construct a new DataFileCollection with a custom legacy store name, a cache for data items
+     * read using an index, and optional memory mapped reads. If data files and/or metadata file
+     * exist with the legacy store name prefix, they will be processed by this file collection at
+     * startup.
+     *
+     * @param storeDir The directory to store data files
+     * @param storeName Base name for the data files, allowing more than one DataFileCollection to
+     *     share a directory
+     * @param legacyStoreName Base name for the data files. If not null, data files with this prefix
+     *     are processed by this file collection at startup same way as files prefixed with
+     *     storeName
+     * @param dataItemSerializer Serializer responsible for serializing/deserializing data items
+     *     into and out of files.
+     * @param loadedDataCallback Callback for rebuilding indexes from existing files, can be null if
+     *     not needed. Using this is expensive as it requires all files to be read and parsed.
+     * @param dataItemCache Cache for data items read in {@link #readDataItemUsingIndex(LongList,
+     *     long)}, can be null if not needed. The cache is owned by this file collection and closed
+     *     when the collection is closed
+     * @param memoryMappedReads Whether completed data files should be read through memory mapped
+     *     buffers rather than file channels
+     * @throws IOException If there was a problem creating new data set or opening existing one
+     */
+    public DataFileCollection(
+            final Path storeDir,
+            final String storeName,
+            final String legacyStoreName,
+            final DataItemSerializer<D> dataItemSerializer,
+            final LoadedDataCallback loadedDataCallback,
+            @Nullable final DataItemCache dataItemCache,
+            final boolean memoryMappedReads)
+            throws IOException {
+        this(
+                storeDir,
+                storeName,
+                legacyStoreName,
+                dataItemSerializer,
+                loadedDataCallback,
+                dataItemCache,
+                memoryMappedReads,
                 ImmutableIndexedObjectListUsingArray::new);
     }
 
@@ -270,6 +346,9 @@ public class DataFileCollection<D> implements Snapshotable {
      *     into and out of files.
      * @param loadedDataCallback Callback for rebuilding indexes from existing files, can be null if
      *     not needed. Using this is expensive as it requires all files to be read and parsed.
+     * @param dataItemCache Cache for data items read using an index, can be null if not needed
+     * @param memoryMappedReads Whether completed data files should be read through memory mapped
+     *     buffers rather than file channels
      * @param indexedObjectListConstructor Constructor for creating ImmutableIndexedObjectList
      *     instances.
      * @throws IOException If there was a problem creating new data set or opening existing one
@@ -280,6 +359,8 @@ public class DataFileCollection<D> implements Snapshotable {
             final String legacyStoreName,
             final DataItemSerializer<D> dataItemSerializer,
             final LoadedDataCallback loadedDataCallback,
+            @Nullable final DataItemCache dataItemCache,
+            final boolean memoryMappedReads,
             final Function<List<DataFileReader<D>>, ImmutableIndexedObjectList<DataFileReader<D>>>
                     indexedObjectListConstructor)
             throws IOException {
@@ -287,6 +368,8 @@ public class DataFileCollection<D> implements Snapshotable {
         this.storeName = storeName;
         this.legacyStoreName = legacyStoreName;
         this.dataItemSerializer = dataItemSerializer;
+        this.dataItemCache = dataItemCache;
+        this.memoryMappedReads = memoryMappedReads;
         this.indexedObjectListConstructor = indexedObjectListConstructor;
 
         // check if exists, if so open existing files
@@ -369,6 +452,107 @@ public class DataFileCollection<D> implements Snapshotable {
                         .summaryStatistics();
     }
 
+    /**
+     * Estimates the number of live bytes in every completed data file, i.e. the number of bytes
+     * taken by data items, which are still referenced from the given index. The number of live
+     * data items in every file is counted precisely, but their size is estimated based on the
+     * average data item size in the file.
+     *
+     * <p>This method iterates over the whole index, so it should not be called too often. Files,
+     * which aren't completed at the time this method is called, are assumed to be fully live.
+     *
+     * @param index key to data location index
+     * @return function to estimate the number of live bytes in a data file
+     * @throws InterruptedException If the thread is interrupted while iterating over the index
+     */
+    public ToLongFunction<DataFileReader<D>> estimateLiveBytes(final CASableLongIndex index)
+            throws InterruptedException {
+        final List<DataFileReader<D>> completedFiles = getAllCompletedFiles();
+        if (completedFiles.isEmpty()) {
+            return DataFileReader::getSize;
+        }
+        // Similar to compactFiles(), use an array rather than a map to count live items per file
+        int minFileIndex = Integer.MAX_VALUE;
+        int maxFileIndex = 0;
+        for (final DataFileReader<D> r : completedFiles) {
+            minFileIndex = Math.min(minFileIndex, r.getIndex());
+            maxFileIndex = Math.max(maxFileIndex, r.getIndex());
+        }
+        final int firstIndexInc = minFileIndex;
+        final long[] liveItems = new long[maxFileIndex + 1 - firstIndexInc];
+        final boolean[] counted = new boolean[liveItems.length];
+        for (final DataFileReader<D> r : completedFiles) {
+            counted[r.getIndex() - firstIndexInc] = true;
+        }
+        final KeyRange keyRange = validKeyRange;
+        index.forEach((key, dataLocation) -> {
+            if (!keyRange.withinRange(key)) {
+                return;
+            }
+            final int fileIndex = DataFileCommon.fileIndexFromDataLocation(dataLocation) - firstIndexInc;
+            if ((fileIndex >= 0) && (fileIndex < liveItems.length)) {
+                liveItems[fileIndex]++;
+            }
+        });
+        return file -> {
+            final int fileIndex = file.getIndex() - firstIndexInc;
+            if ((fileIndex < 0) || (fileIndex >= liveItems.length) || !counted[fileIndex]) {
+                return file.getSize();
+            }
+            final long dataItemCount = file.getMetadata().getDataItemCount();
+            if (dataItemCount <= 0) {
+                return file.getSize();
+            }
+            return (long) ((double) file.getSize() * Math.min(liveItems[fileIndex], dataItemCount) / dataItemCount);
+        };
+    }
+
+    /**
+     * Sets the max rate of bytes copied by compactions. Data items are copied one by one, and
+     * the compaction thread sleeps as needed to keep the rate within the limit. Rate limiting is
+     * done outside the snapshot / compaction lock, so it never slows down snapshots.
+     *
+     * @param bytesPerSecond max number of bytes copied per second, zero or negative value means no
+     *     rate limit
+     */
+    public void setCompactionRateLimit(final long bytesPerSecond) {
+        compactionThrottle = (bytesPerSecond > 0) ? new Throttle(bytesPerSecond) : null;
+    }
+
+    /**
+     * Sets compression for new data files created by flushes and compactions. Existing files are
+     * not changed, they are read in the format they were written in, until they are compacted.
+     *
+     * @param compression compression codec, {@link DataFileCompression#NONE} to write files
+     *     uncompressed
+     * @param blockSize uncompressed block size, in bytes, ignored if files are not compressed
+     * @throws IllegalArgumentException if the block size is not positive or exceeds {@link
+     *     DataFileCommon#MAX_BLOCK_SIZE}
+     */
+    public void setCompression(@NonNull final DataFileCompression compression, final int blockSize) {
+        Objects.requireNonNull(compression);
+        if ((compression != DataFileCompression.NONE)
+                && ((blockSize <= 0) || (blockSize > DataFileCommon.MAX_BLOCK_SIZE))) {
+            throw new IllegalArgumentException("Block size must be between 1 and " + DataFileCommon.MAX_BLOCK_SIZE);
+        }
+        this.compressionBlockSize = blockSize;
+        this.compression = compression;
+    }
+
+    /**
+     * Sets a listener to notify about data item reads from files in this collection, both existing
+     * and created later by flushes and compactions. The listener is used to collect I/O statistics.
+     *
+     * @param readListener the listener, or null to stop notifications
+     */
+    public void setReadListener(final DataFileReadListener readListener) {
+        this.readListener = readListener;
+        final ImmutableIndexedObjectList<DataFileReader<D>> currentFiles = dataFiles.get();
+        if (currentFiles != null) {
+            currentFiles.stream().forEach(file -> file.setReadListener(readListener));
+        }
+    }
+
     /**
      * Merges all files in filesToMerge.
      *
@@ -437,6 +621,7 @@ public class DataFileCollection<D> implements Snapshotable {
                     return;
                 }
                 final long fileOffset = DataFileCommon.byteOffsetFromDataLocation(dataLocation);
+                final int copiedBytes;
                 // Take the lock. If a snapshot is started in a different thread, this call
                 // will block until the snapshot is done. The current file will be flushed,
                 // and current data file writer and reader will point to a new file
@@ -444,8 +629,9 @@ public class DataFileCollection<D> implements Snapshotable {
                 try {
                     final DataFileWriter<D> newFileWriter = currentCompactionWriter.get();
                     long serializationVersion = reader.getMetadata().getSerializationVersion();
-                    final long newLocation = newFileWriter.writeCopiedDataItem(
-                            serializationVersion, reader.readDataItemBytes(fileOffset));
+                    final ByteBuffer dataItemBytes = reader.readDataItemBytes(fileOffset);
+                    copiedBytes = dataItemBytes.remaining();
+                    final long newLocation = newFileWriter.writeCopiedDataItem(serializationVersion, dataItemBytes);
                     // update the index
                     index.putIfEqual(path, dataLocation, newLocation);
                 } catch (final ClosedByInterruptException e) {
@@ -462,6 +648,7 @@ public class DataFileCollection<D> implements Snapshotable {
                 } finally {
                     snapshotCompactionLock.release();
                 }
+                throttleCompaction(copiedBytes);
             });
             allDataItemsProcessed = true;
         } finally {
@@ -485,6 +672,26 @@ public class DataFileCollection<D> implements Snapshotable {
         return newCompactedFiles;
     }
 
+    /**
+     * Blocks the compaction thread, if needed, to keep the rate of copied bytes within the limit
+     * set by {@link #setCompactionRateLimit(long)}.
+     *
+     * @param bytes number of bytes just copied
+     * @throws InterruptedException If the thread is interrupted while waiting
+     */
+    private void throttleCompaction(final int bytes) throws InterruptedException {
+        final Throttle throttle = compactionThrottle;
+        if (throttle == null) {
+            return;
+        }
+        // Data items larger than throttle capacity would never be allowed
+        final double amount = Math.min(bytes, throttle.getCapacity());
+        while (!throttle.allow(amount)) {
+            //noinspection BusyWait
+            Thread.sleep(1);
+        }
+    }
+
     /**
      * Opens a new file for writing during compaction. This method is called, when compaction is
      * started. If compaction is interrupted and resumed by data source snapshot using {@link
@@ -504,6 +711,7 @@ public class DataFileCollection<D> implements Snapshotable {
         newCompactedFiles.add(newFileCreated);
         final DataFileMetadata newFileMetadata = newFileWriter.getMetadata();
         final DataFileReader<D> newFileReader = addNewDataFileReader(newFileCreated, newFileMetadata);
+        newFileReader.setPendingWriter(newFileWriter);
         currentCompactionReader.set(newFileReader);
     }
 
@@ -583,9 +791,11 @@ public class DataFileCollection<D> implements Snapshotable {
     /** Close all the data files */
     public void close() throws IOException {
         // finish writing if we still are
-        final DataFileWriter<D> currentDataFileForWriting = currentDataFileWriter.getAndSet(null);
-        if (currentDataFileForWriting != null) {
-            currentDataFileForWriting.finishWriting();
+        final List<DataFileWriter<D>> currentDataFilesForWriting = currentDataFileWriters.getAndSet(null);
+        if (currentDataFilesForWriting != null) {
+            for (final DataFileWriter<D> writer : currentDataFilesForWriting) {
+                writer.finishWriting();
+            }
         }
         // calling startSnapshot causes the metadata file to be written
         saveMetadata(storeDir);
@@ -596,6 +806,20 @@ public class DataFileCollection<D> implements Snapshotable {
                 file.close();
             }
         }
+        // release cache memory
+        if (dataItemCache != null) {
+            dataItemCache.close();
+        }
+    }
+
+    /**
+     * Get the cache for data items read using an index.
+     *
+     * @return the data item cache, or null if caching is disabled
+     */
+    @Nullable
+    public DataItemCache getDataItemCache() {
+        return dataItemCache;
     }
 
     /**
@@ -604,15 +828,39 @@ public class DataFileCollection<D> implements Snapshotable {
      * @throws IOException If there was a problem opening a new data file
      */
     public void startWriting() throws IOException {
-        final DataFileWriter<D> activeDataFileWriter = currentDataFileWriter.get();
-        if (activeDataFileWriter != null) {
+        startWriting(1);
+    }
+
+    /**
+     * Start writing new data files, one file per partition. Partitions can be written to from
+     * different threads concurrently, but every partition must only be written to from a single
+     * thread at a time. All the files get the same creation time. Callers must make sure data items
+     * written to different partitions don't have the same keys, otherwise it would be undefined
+     * which of the items is the latest.
+     *
+     * @param numberOfPartitions number of partitions (files) to write, at least 1
+     * @throws IOException If there was a problem opening new data files
+     */
+    public void startWriting(final int numberOfPartitions) throws IOException {
+        if (numberOfPartitions < 1) {
+            throw new IllegalArgumentException("Number of partitions must be positive");
+        }
+        final List<DataFileWriter<D>> activeDataFileWriters = currentDataFileWriters.get();
+        if (activeDataFileWriters != null) {
             throw new IOException("Tried to start writing when we were already writing.");
         }
-        final DataFileWriter<D> writer = newDataFile(Instant.now());
-        currentDataFileWriter.set(writer);
-        final DataFileMetadata metadata = writer.getMetadata();
-        final DataFileReader<D> reader = addNewDataFileReader(writer.getPath(), metadata);
-        currentDataFileReader.set(reader);
+        final Instant creationTime = Instant.now();
+        final List<DataFileWriter<D>> writers = new ArrayList<>(numberOfPartitions);
+        final List<DataFileReader<D>> readers = new ArrayList<>(numberOfPartitions);
+        for (int i = 0; i < numberOfPartitions; i++) {
+            final DataFileWriter<D> writer = newDataFile(creationTime);
+            writers.add(writer);
+            final DataFileReader<D> reader = addNewDataFileReader(writer.getPath(), writer.getMetadata());
+            reader.setPendingWriter(writer);
+            readers.add(reader);
+        }
+        currentDataFileWriters.set(writers);
+        currentDataFileReaders.set(readers);
     }
 
     /**
@@ -624,12 +872,26 @@ public class DataFileCollection<D> implements Snapshotable {
      * @throws IOException If there was a problem writing this data item to the file.
      */
     public long storeDataItem(final D dataItem) throws IOException {
-        final DataFileWriter<D> currentDataFileForWriting = currentDataFileWriter.get();
-        if (currentDataFileForWriting == null) {
+        return storeDataItem(0, dataItem);
+    }
+
+    /**
+     * Store a data item into the file for the given partition, opened with {@link
+     * #startWriting(int)}.
+     *
+     * @param partition The partition to write the data item to
+     * @param dataItem The data item to write into file
+     * @return the location where data item was stored. This contains both the file and the location
+     *     within the file.
+     * @throws IOException If there was a problem writing this data item to the file.
+     */
+    public long storeDataItem(final int partition, final D dataItem) throws IOException {
+        final List<DataFileWriter<D>> currentDataFilesForWriting = currentDataFileWriters.get();
+        if (currentDataFilesForWriting == null) {
             throw new IOException("Tried to put data " + dataItem + " when we never started writing.");
         }
         /* FUTURE WORK - https://github.com/swirlds/swirlds-platform/issues/3926 */
-        return currentDataFileForWriting.storeDataItem(dataItem);
+        return currentDataFilesForWriting.get(partition).storeDataItem(dataItem);
     }
 
     /**
@@ -644,19 +906,44 @@ public class DataFileCollection<D> implements Snapshotable {
      * @throws IOException If there was a problem closing the data file
      */
     public DataFileReader<D> endWriting(final long minimumValidKey, final long maximumValidKey) throws IOException {
+        final List<DataFileWriter<D>> dataWriters = currentDataFileWriters.get();
+        if ((dataWriters != null) && (dataWriters.size() != 1)) {
+            throw new IOException("Tried to end writing a single file when writing " + dataWriters.size() + " files");
+        }
+        return endWritingPartitions(minimumValidKey, maximumValidKey).get(0);
+    }
+
+    /**
+     * End writing all files started with {@link #startWriting(int)} and return the corresponding
+     * readers, one per partition. All the files are finished in a single call, so callers can mark
+     * them completed together. As in {@link #endWriting(long, long)}, the readers aren't marked as
+     * completed here.
+     *
+     * @param minimumValidKey The minimum valid data key at this point in time, can be used for
+     *     cleaning out old data
+     * @param maximumValidKey The maximum valid data key at this point in time, can be used for
+     *     cleaning out old data
+     * @return readers for the written files, in partition order
+     * @throws IOException If there was a problem closing the data files
+     */
+    public List<DataFileReader<D>> endWritingPartitions(final long minimumValidKey, final long maximumValidKey)
+            throws IOException {
         validKeyRange = new KeyRange(minimumValidKey, maximumValidKey);
-        final DataFileWriter<D> dataWriter = currentDataFileWriter.getAndSet(null);
-        if (dataWriter == null) {
+        final List<DataFileWriter<D>> dataWriters = currentDataFileWriters.getAndSet(null);
+        if (dataWriters == null) {
             throw new IOException("Tried to end writing when we never started writing.");
         }
-        // finish writing the file and write its footer
-        dataWriter.finishWriting();
-        final DataFileReader<D> dataReader = currentDataFileReader.getAndSet(null);
+        // finish writing the files and write their footers
+        for (final DataFileWriter<D> dataWriter : dataWriters) {
+            dataWriter.finishWriting();
+        }
+        final List<DataFileReader<D>> dataReaders = currentDataFileReaders.getAndSet(null);
         if (logger.isTraceEnabled()) {
-            final DataFileMetadata metadata = dataReader.getMetadata();
-            setOfNewFileIndexes.remove(metadata.getIndex());
+            for (final DataFileReader<D> dataReader : dataReaders) {
+                setOfNewFileIndexes.remove(dataReader.getMetadata().getIndex());
+            }
         }
-        return dataReader;
+        return dataReaders;
     }
 
     /**
@@ -701,7 +988,15 @@ public class DataFileCollection<D> implements Snapshotable {
         }
         // read data, check at last second that file is not closed
         if (file.isOpen()) {
-            return file.readDataItem(dataLocation);
+            if (dataItemCache == null) {
+                return file.readDataItem(dataLocation);
+            }
+            ByteBuffer data = dataItemCache.get(dataLocation);
+            if (data == null) {
+                data = file.readDataItemBytes(dataLocation);
+                dataItemCache.put(dataLocation, data);
+            }
+            return dataItemSerializer.deserialize(data, file.getMetadata().getSerializationVersion());
         } else {
             // Let's log this as it should happen very rarely but if we see it a lot then we should
             // have a rethink.
@@ -853,7 +1148,8 @@ public class DataFileCollection<D> implements Snapshotable {
      */
     private DataFileReader<D> addNewDataFileReader(final Path filePath, final DataFileMetadata metadata)
             throws IOException {
-        final DataFileReader<D> newDataFileReader = new DataFileReader<>(filePath, dataItemSerializer, metadata);
+        final DataFileReader<D> newDataFileReader =
+                new DataFileReader<>(filePath, dataItemSerializer, metadata, memoryMappedReads);
         dataFiles.getAndUpdate(currentFileList -> {
             try {
                 return (currentFileList == null)
@@ -864,6 +1160,9 @@ public class DataFileCollection<D> implements Snapshotable {
                 throw e;
             }
         });
+        // Set the listener after the reader is added to the list, so it isn't missed, if the listener
+        // is changed concurrently
+        newDataFileReader.setReadListener(readListener);
         return newDataFileReader;
     }
 
@@ -896,7 +1195,14 @@ public class DataFileCollection<D> implements Snapshotable {
         if (logger.isTraceEnabled()) {
             setOfNewFileIndexes.add(newFileIndex);
         }
-        return new DataFileWriter<>(storeName, storeDir, newFileIndex, dataItemSerializer, creationTime);
+        return new DataFileWriter<>(
+                storeName,
+                storeDir,
+                newFileIndex,
+                dataItemSerializer,
+                creationTime,
+                compression,
+                compressionBlockSize);
     }
 
     /**
@@ -935,7 +1241,8 @@ public class DataFileCollection<D> implements Snapshotable {
             final DataFileReader<D>[] dataFileReaders = new DataFileReader[fullWrittenFilePaths.length];
             try {
                 for (int i = 0; i < fullWrittenFilePaths.length; i++) {
-                    dataFileReaders[i] = new DataFileReader<>(fullWrittenFilePaths[i], dataItemSerializer);
+                    dataFileReaders[i] =
+                            new DataFileReader<>(fullWrittenFilePaths[i], dataItemSerializer, memoryMappedReads);
                 }
                 // sort the readers into data file index order
                 Arrays.sort(dataFileReaders);
@@ -82,6 +82,25 @@ public final class DataFileCommon {
 
     /** The current file format version, ready for if the file format needs to change */
     public static final int FILE_FORMAT_VERSION = 1;
+    /**
+     * File format version for block compressed data files. In such files, data items are grouped
+     * into blocks, and every block is compressed separately, see {@link DataFileWriter}
+     */
+    public static final int COMPRESSED_FILE_FORMAT_VERSION = 2;
+    /**
+     * In compressed data files, data item offsets are packed into lower 18 bits of data location
+     * byte offsets, and block indices are packed into the upper 22 bits. This allows for 4 million
+     * blocks per file, up to 256Kb each.
+     */
+    private static final int BLOCK_OFFSET_BITS = 18;
+    /** The maximum number of blocks in a compressed data file */
+    static final int MAX_BLOCK_COUNT = 1 << (DATA_ITEM_OFFSET_BITS - BLOCK_OFFSET_BITS);
+    /** The maximum size of an uncompressed block in compressed data files */
+    public static final int MAX_BLOCK_SIZE = 1 << BLOCK_OFFSET_BITS;
+    /** Bit mask to remove block index from data location byte offset */
+    private static final long BLOCK_OFFSET_MASK = MAX_BLOCK_SIZE - 1;
+    /** Size of a block header: codec ID (1 byte), uncompressed size (4 bytes), stored size (4 bytes) */
+    static final int BLOCK_HEADER_SIZE = 9;
     /** Date formatter for dates used in data file names */
     private static final DateTimeFormatter DATE_FORMAT =
             DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss-SSS").withZone(ZoneId.of("Z"));
@@ -205,6 +224,38 @@ public final class DataFileCommon {
         return dataLocation & ITEM_OFFSET_MASK;
     }
 
+    /**
+     * Get the data location byte offset for a data item in a compressed data file.
+     *
+     * @param blockIndex the index of the block the data item is in
+     * @param offsetInBlock the offset of the data item in the uncompressed block
+     * @return data location byte offset
+     */
+    static long blockByteOffset(final int blockIndex, final int offsetInBlock) {
+        return ((long) blockIndex << BLOCK_OFFSET_BITS) | offsetInBlock;
+    }
+
+    /**
+     * Extract the block index from a data location byte offset in a compressed data file.
+     *
+     * @param byteOffset data location byte offset
+     * @return block index
+     */
+    static int blockIndexFromByteOffset(final long byteOffset) {
+        return (int) (byteOffset >>> BLOCK_OFFSET_BITS);
+    }
+
+    /**
+     * Extract the data item offset in its uncompressed block from a data location byte offset in a
+     * compressed data file.
+     *
+     * @param byteOffset data location byte offset
+     * @return data item offset in the block
+     */
+    static int offsetInBlockFromByteOffset(final long byteOffset) {
+        return (int) (byteOffset & BLOCK_OFFSET_MASK);
+    }
+
     /**
      * Check if a file at path, is a data file based on name. Also checks if there is an existing
      * write lock file.
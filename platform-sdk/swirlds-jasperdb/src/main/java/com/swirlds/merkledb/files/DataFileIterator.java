@@ -16,8 +16,11 @@
 
 package com.swirlds.merkledb.files;
 
+import static com.swirlds.merkledb.files.DataFileCommon.BLOCK_HEADER_SIZE;
+
 import com.swirlds.base.utility.ToStringBuilder;
 import com.swirlds.common.config.singleton.ConfigurationHolder;
+import com.swirlds.merkledb.config.DataFileCompression;
 import com.swirlds.merkledb.config.MerkleDbConfig;
 import com.swirlds.merkledb.serialize.DataItemHeader;
 import com.swirlds.merkledb.serialize.DataItemSerializer;
@@ -38,6 +41,9 @@ import java.util.Objects;
  *
  * It is designed to be used from a single thread.
  *
+ * For compressed files, blocks are read and decompressed one by one, and data items are iterated
+ * over within the current block.
+ *
  * @see DataFileWriter for definition of file structure
  */
 @SuppressWarnings("rawtypes")
@@ -75,6 +81,13 @@ public final class DataFileIterator implements AutoCloseable {
     /** True if this iterator has been closed */
     private boolean closed = false;
 
+    /** Uncompressed current block, if the file is compressed, or null before the first block is read */
+    private ByteBuffer block;
+    /** Index of the current block, if the file is compressed */
+    private int blockIndex = -1;
+    /** Offset of the current data item in the current block, if the file is compressed */
+    private int offsetInBlock = 0;
+
     /**
      * Create a new DataFileIterator on an existing file.
      *
@@ -117,6 +130,7 @@ public final class DataFileIterator implements AutoCloseable {
         if (!closed) {
             closed = true;
             dataItemBuffer = null;
+            block = null;
             inputStream.close();
         }
     }
@@ -136,9 +150,14 @@ public final class DataFileIterator implements AutoCloseable {
         // Have we reached the end?
         if (currentDataItem >= metadata.getDataItemCount() - 1) {
             dataItemBuffer = null;
+            block = null;
             return false;
         }
 
+        if (metadata.isCompressed()) {
+            return nextInBlock();
+        }
+
         // Move the current byte position forward past the last item.
         // Note: initially dataItemSize is zero, so calling next() for the first time
         // does not advance the pointer, but on subsequent calls to next(), it will.
@@ -161,6 +180,9 @@ public final class DataFileIterator implements AutoCloseable {
      * 		been closed, or if the iterator is in the before-first or after-last states.
      */
     public ByteBuffer getDataItemData() throws IOException {
+        if (metadata.isCompressed()) {
+            return block.slice(offsetInBlock, dataItemSize);
+        }
         return fillBuffer(dataItemSize);
     }
 
@@ -170,6 +192,10 @@ public final class DataFileIterator implements AutoCloseable {
      * @return file index and dataItem index combined location
      */
     public long getDataItemsDataLocation() {
+        if (metadata.isCompressed()) {
+            return DataFileCommon.dataLocation(
+                    metadata.getIndex(), DataFileCommon.blockByteOffset(blockIndex, offsetInBlock));
+        }
         return DataFileCommon.dataLocation(metadata.getIndex(), currentDataItemFilePosition);
     }
 
@@ -239,6 +265,61 @@ public final class DataFileIterator implements AutoCloseable {
     // =================================================================================================================
     // Private methods
 
+    /**
+     * Advances to the next data item in a compressed file. If there are no more data items in the
+     * current block, the next block is read.
+     *
+     * @return always true, the caller checks if there are more data items in the file
+     * @throws IOException if there was a problem reading from the file, or the file is malformed
+     */
+    private boolean nextInBlock() throws IOException {
+        offsetInBlock += dataItemSize;
+        if ((block == null) || (offsetInBlock >= block.limit())) {
+            readNextBlock();
+            offsetInBlock = 0;
+        }
+        currentDataItemHeader =
+                dataItemSerializer.deserializeHeader(block.slice(offsetInBlock, block.limit() - offsetInBlock));
+        dataItemSize = currentDataItemHeader.getSizeBytes();
+        if ((dataItemSize <= 0) || (offsetInBlock + dataItemSize > block.limit())) {
+            throw new IOException("Malformed file [" + path + "], data item [" + (currentDataItem + 1)
+                    + "], block [" + blockIndex + "], size [" + dataItemSize + "]");
+        }
+        currentDataItem++;
+        return true;
+    }
+
+    /**
+     * Reads the next block from a compressed file and decompresses it.
+     *
+     * @throws IOException if there was a problem reading from the file, or the block is malformed
+     */
+    private void readNextBlock() throws IOException {
+        final ByteBuffer header = ByteBuffer.wrap(inputStream.readNBytes(BLOCK_HEADER_SIZE));
+        if (header.remaining() != BLOCK_HEADER_SIZE) {
+            throw new EOFException("Was trying to read a block [" + (blockIndex + 1)
+                    + "] but ran out of data in the file [" + path + "].");
+        }
+        final DataFileCompression codec = DataFileCompression.fromId(header.get());
+        final int uncompressedSize = header.getInt();
+        final int storedSize = header.getInt();
+        final byte[] stored = inputStream.readNBytes(storedSize);
+        if (stored.length != storedSize) {
+            throw new EOFException("Was trying to read a block [" + (blockIndex + 1)
+                    + "] but ran out of data in the file [" + path + "].");
+        }
+        if (codec == DataFileCompression.NONE) {
+            block = ByteBuffer.wrap(stored);
+        } else {
+            final byte[] data = ((block != null) && (block.capacity() >= uncompressedSize))
+                    ? block.array()
+                    : new byte[uncompressedSize];
+            Lz4BlockCodec.decompress(ByteBuffer.wrap(stored), 0, storedSize, data, uncompressedSize);
+            block = ByteBuffer.wrap(data, 0, uncompressedSize);
+        }
+        blockIndex++;
+    }
+
     /**
      * Reads bytesToRead bytes from the current data item
      * @param bytesToRead bytes to read
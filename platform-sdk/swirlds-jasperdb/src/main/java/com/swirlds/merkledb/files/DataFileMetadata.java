@@ -16,10 +16,12 @@
 
 package com.swirlds.merkledb.files;
 
+import static com.swirlds.merkledb.files.DataFileCommon.COMPRESSED_FILE_FORMAT_VERSION;
 import static com.swirlds.merkledb.files.DataFileCommon.FOOTER_SIZE;
 import static com.swirlds.merkledb.serialize.BaseSerializer.VARIABLE_DATA_SIZE;
 
 import com.swirlds.base.utility.ToStringBuilder;
+import com.swirlds.merkledb.config.DataFileCompression;
 import com.swirlds.merkledb.utilities.MerkleDbFileUtils;
 import java.io.IOException;
 import java.nio.ByteBuffer;
@@ -63,6 +65,22 @@ public final class DataFileMetadata {
     private final Instant creationDate;
     /** Serialization version for data stored in the file */
     private final long serializationVersion;
+    /**
+     * Compression codec the file is written with. Only stored in files with {@link
+     * DataFileCommon#COMPRESSED_FILE_FORMAT_VERSION} format, older files are never compressed
+     */
+    private final DataFileCompression compression;
+    /**
+     * Number of compressed blocks in the file. Similar to {@link #dataItemCount}, this field is
+     * updated by {@link DataFileWriter} right before the file is finished writing
+     */
+    private volatile int blockCount;
+    /**
+     * Byte offset of the block index in the file. The block index contains byte offsets of all
+     * blocks in the file, followed by the offset of the block index itself. Set by {@link
+     * DataFileWriter} right before the file is finished writing, zero until then
+     */
+    private volatile long blockIndexOffset;
 
     /**
      * Create a new DataFileMetadata with complete set of data
@@ -85,12 +103,50 @@ public final class DataFileMetadata {
             final int index,
             final Instant creationDate,
             final long serializationVersion) {
+        this(
+                fileFormatVersion,
+                dataItemValueSize,
+                dataItemCount,
+                index,
+                creationDate,
+                serializationVersion,
+                DataFileCompression.NONE);
+    }
+
+    /**
+     * Create a new DataFileMetadata with complete set of data, including compression codec
+     *
+     * @param fileFormatVersion The file format version. Must be {@link
+     *     DataFileCommon#COMPRESSED_FILE_FORMAT_VERSION} for compressed files
+     * @param dataItemValueSize The data item value's size, if the file contains fixed size data
+     *     items then this is the size in bytes of those items. If the file contains variable size
+     *     items then this is the constant VARIABLE_DATA_SIZE.
+     * @param dataItemCount The number of data items the file contains
+     * @param index The file index, in a data file collection
+     * @param creationDate The creation data of this file, this is critical as it is used when
+     *     merging two files to know which files data is newer.
+     * @param serializationVersion Serialization version for data stored in the file
+     * @param compression Compression codec the file is written with
+     */
+    public DataFileMetadata(
+            final int fileFormatVersion,
+            final int dataItemValueSize,
+            final long dataItemCount,
+            final int index,
+            final Instant creationDate,
+            final long serializationVersion,
+            final DataFileCompression compression) {
+        if ((compression != DataFileCompression.NONE) && (fileFormatVersion < COMPRESSED_FILE_FORMAT_VERSION)) {
+            throw new IllegalArgumentException("File format version " + fileFormatVersion
+                    + " doesn't support compression " + compression);
+        }
         this.fileFormatVersion = fileFormatVersion;
         this.dataItemValueSize = dataItemValueSize;
         this.dataItemCount = dataItemCount;
         this.index = index;
         this.creationDate = creationDate;
         this.serializationVersion = serializationVersion;
+        this.compression = compression;
     }
 
     /**
@@ -114,6 +170,13 @@ public final class DataFileMetadata {
             this.creationDate = Instant.ofEpochSecond(buf.getLong(), buf.getInt());
             buf.get(); // backwards compatibility: used to be a byte for isMergeFile
             this.serializationVersion = buf.getLong();
+            if (fileFormatVersion >= COMPRESSED_FILE_FORMAT_VERSION) {
+                this.compression = DataFileCompression.fromId(buf.get());
+                this.blockCount = buf.getInt();
+                this.blockIndexOffset = buf.getLong();
+            } else {
+                this.compression = DataFileCompression.NONE;
+            }
         }
     }
 
@@ -132,6 +195,11 @@ public final class DataFileMetadata {
         buf.putInt(this.creationDate.getNano());
         buf.put((byte) 0); // backwards compatibility: used to be a byte for isMergeFile
         buf.putLong(this.serializationVersion);
+        if (fileFormatVersion >= COMPRESSED_FILE_FORMAT_VERSION) {
+            buf.put((byte) this.compression.getId());
+            buf.putInt(this.blockCount);
+            buf.putLong(this.blockIndexOffset);
+        }
         buf.rewind();
         return buf;
     }
@@ -189,6 +257,41 @@ public final class DataFileMetadata {
         return serializationVersion;
     }
 
+    /** Get the compression codec the file is written with */
+    public DataFileCompression getCompression() {
+        return compression;
+    }
+
+    /** Get if the file is block compressed */
+    public boolean isCompressed() {
+        return compression != DataFileCompression.NONE;
+    }
+
+    /**
+     * Get the number of compressed blocks in the file. If this method is called before the
+     * corresponding file is completely written by {@link DataFileWriter}, the return value is 0.
+     */
+    public int getBlockCount() {
+        return blockCount;
+    }
+
+    /**
+     * Get the byte offset of the block index in the file. If this method is called before the
+     * corresponding file is completely written by {@link DataFileWriter}, the return value is 0.
+     */
+    public long getBlockIndexOffset() {
+        return blockIndexOffset;
+    }
+
+    /**
+     * Updates the number of compressed blocks and the block index offset. This method is called by
+     * {@link DataFileWriter} right before the file is finished writing.
+     */
+    void setBlockIndex(final int blockCount, final long blockIndexOffset) {
+        this.blockCount = blockCount;
+        this.blockIndexOffset = blockIndexOffset;
+    }
+
     /** toString for debugging */
     @Override
     public String toString() {
@@ -199,6 +302,8 @@ public final class DataFileMetadata {
                 .append("index", index)
                 .append("creationDate", creationDate)
                 .append("serializationVersion", serializationVersion)
+                .append("compression", compression)
+                .append("blockCount", blockCount)
                 .toString();
     }
 
@@ -219,6 +324,8 @@ public final class DataFileMetadata {
                 && dataItemCount == that.dataItemCount
                 && index == that.index
                 && serializationVersion == that.serializationVersion
+                && compression == that.compression
+                && blockCount == that.blockCount
                 && Objects.equals(this.creationDate, that.creationDate);
     }
 
@@ -228,6 +335,13 @@ public final class DataFileMetadata {
     @Override
     public int hashCode() {
         return Objects.hash(
-                fileFormatVersion, dataItemValueSize, dataItemCount, index, creationDate, serializationVersion);
+                fileFormatVersion,
+                dataItemValueSize,
+                dataItemCount,
+                index,
+                creationDate,
+                serializationVersion,
+                compression,
+                blockCount);
     }
 }
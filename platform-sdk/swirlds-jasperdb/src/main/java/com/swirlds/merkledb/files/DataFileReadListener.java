@@ -0,0 +1,40 @@
+/*
+ * Copyright (C) 2023 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.merkledb.files;
+
+/**
+ * Receives notifications about data item reads from data files. Used to collect I/O statistics.
+ * Methods of this interface are called on reader threads, on every data item read, so they must
+ * be thread safe and cheap.
+ */
+public interface DataFileReadListener {
+
+    /**
+     * Called when a data item is read from a data file.
+     *
+     * @param bytes number of bytes read, including the data item header, if any
+     */
+    void dataItemRead(long bytes);
+
+    /**
+     * Called when a file channel is leased to read from a data file, which is not memory mapped.
+     *
+     * @param leaseNanos time spent to get a file channel, including the time to open a new channel,
+     *     if needed, in nanoseconds
+     */
+    void fileChannelLeased(long leaseNanos);
+}
@@ -16,16 +16,21 @@
 
 package com.swirlds.merkledb.files;
 
+import static com.swirlds.merkledb.files.DataFileCommon.BLOCK_HEADER_SIZE;
+
 import com.swirlds.merkledb.collections.IndexedObject;
+import com.swirlds.merkledb.config.DataFileCompression;
 import com.swirlds.merkledb.serialize.DataItemHeader;
 import com.swirlds.merkledb.serialize.DataItemSerializer;
 import com.swirlds.merkledb.utilities.MerkleDbFileUtils;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
 import java.nio.channels.ClosedByInterruptException;
 import java.nio.channels.ClosedChannelException;
 import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
@@ -45,6 +50,8 @@ import java.util.concurrent.atomic.AtomicReferenceArray;
 public final class DataFileReader<D> implements AutoCloseable, Comparable<DataFileReader<D>>, IndexedObject {
     /** FileChannel's for each thread */
     private static final ThreadLocal<ByteBuffer> BUFFER_CACHE = new ThreadLocal<>();
+    /** The last decompressed block for each thread, used to read compressed files */
+    private static final ThreadLocal<BlockCache> BLOCK_CACHE = ThreadLocal.withInitial(BlockCache::new);
     /** Max number of file channels to use for reading */
     private static final int MAX_FILE_CHANNELS = 8;
     /**
@@ -83,6 +90,35 @@ public final class DataFileReader<D> implements AutoCloseable, Comparable<DataFi
      * and for newly created files right after they are fully written and available to compact.
      */
     private final AtomicLong fileSizeBytes = new AtomicLong(0);
+    /**
+     * Indicates whether completed files should be read through a memory mapped buffer rather than
+     * file channels
+     */
+    private final boolean memoryMapped;
+    /**
+     * Read only buffer mapped to the whole file, or null if the file isn't memory mapped. The buffer
+     * is created in {@link #setFileCompleted()}, if {@link #memoryMapped} is set. Until then, and for
+     * files larger than {@link Integer#MAX_VALUE} bytes, which can't be mapped to a single buffer,
+     * data is read using file channels.
+     */
+    private volatile MappedByteBuffer mappedFile = null;
+    /**
+     * Optional listener to notify about data item reads and file channel leases, used to collect
+     * I/O statistics. May be null
+     */
+    private volatile DataFileReadListener readListener = null;
+    /**
+     * File offsets of all blocks in a compressed file, followed by the offset of the block index,
+     * or null if the file isn't compressed, or the block index isn't written yet. Loaded from the
+     * file in the constructor for existing files, or in {@link #setFileCompleted()} for new files
+     */
+    private volatile long[] blockOffsets = null;
+    /**
+     * Writer of a compressed file, which is still being written, or null. Used to read data items
+     * from the block, which is not written to the file yet, and to get block offsets, until the
+     * block index is written. Cleared in {@link #setFileCompleted()}
+     */
+    private volatile DataFileWriter<D> pendingWriter = null;
     /**
      * Open an existing data file, reading the metadata from the file
      *
@@ -93,6 +129,18 @@ public final class DataFileReader<D> implements AutoCloseable, Comparable<DataFi
         this(path, dataItemSerializer, new DataFileMetadata(path));
     }
 
+    /**
+     * Open an existing data file, reading the metadata from the file
+     *
+     * @param path the path to the data file
+     * @param dataItemSerializer Serializer for converting raw data to/from data items
+     * @param memoryMapped whether to read data through a memory mapped buffer, once the file is completed
+     */
+    public DataFileReader(final Path path, final DataItemSerializer<D> dataItemSerializer, final boolean memoryMapped)
+            throws IOException {
+        this(path, dataItemSerializer, new DataFileMetadata(path), memoryMapped);
+    }
+
     /**
      * Open an existing data file, using the provided metadata
      *
@@ -103,6 +151,26 @@ public final class DataFileReader<D> implements AutoCloseable, Comparable<DataFi
     public DataFileReader(
             final Path path, final DataItemSerializer<D> dataItemSerializer, final DataFileMetadata metadata)
             throws IOException {
+        this(path, dataItemSerializer, metadata, false);
+    }
+
+    /**
+     * Open an existing data file, using the provided metadata. If memory mapped reads are requested,
+     * the file is mapped to memory once it's completed, see {@link #setFileCompleted()}. Data items
+     * read from a mapped file are not copied to an intermediate buffer, but passed to the serializer
+     * as read only slices of the mapped buffer.
+     *
+     * @param path the path to the data file
+     * @param dataItemSerializer Serializer for converting raw data to/from data items
+     * @param metadata the file's metadata to save loading from file
+     * @param memoryMapped whether to read data through a memory mapped buffer, once the file is completed
+     */
+    public DataFileReader(
+            final Path path,
+            final DataItemSerializer<D> dataItemSerializer,
+            final DataFileMetadata metadata,
+            final boolean memoryMapped)
+            throws IOException {
         if (!Files.exists(path)) {
             throw new IllegalArgumentException(
                     "Tried to open a non existent data file [" + path.toAbsolutePath() + "].");
@@ -110,7 +178,11 @@ public final class DataFileReader<D> implements AutoCloseable, Comparable<DataFi
         this.path = path;
         this.metadata = metadata;
         this.dataItemSerializer = dataItemSerializer;
+        this.memoryMapped = memoryMapped;
         openNewFileChannel(0);
+        if (metadata.isCompressed() && (metadata.getBlockCount() > 0)) {
+            loadBlockIndex();
+        }
     }
 
     /**
@@ -127,10 +199,24 @@ public final class DataFileReader<D> implements AutoCloseable, Comparable<DataFi
      * is created for an existing file, it's usually marked as completed immediately. If the reader
      * is created for a new file, which is still being written in a different thread, it's marked as
      * completed right after the file is fully written and the writer is closed.
+     *
+     * <p>If this reader is created with memory mapped reads enabled, the file is mapped to memory
+     * here, since completed files are never changed.
      */
     public void setFileCompleted() {
         try {
-            fileSizeBytes.set(fileChannels.get(0).size());
+            final FileChannel fileChannel = fileChannels.get(0);
+            final long size = fileChannel.size();
+            fileSizeBytes.set(size);
+            if (memoryMapped && (mappedFile == null) && (size <= Integer.MAX_VALUE)) {
+                mappedFile = fileChannel.map(MapMode.READ_ONLY, 0, size);
+            }
+            // Block offsets must be loaded before the writer is cleared, so all blocks are
+            // available to readers at any time
+            if (metadata.isCompressed() && (blockOffsets == null) && (metadata.getBlockCount() > 0)) {
+                loadBlockIndex();
+            }
+            pendingWriter = null;
         } catch (final IOException e) {
             throw new UncheckedIOException("Failed to update data file reader size", e);
         } finally {
@@ -138,6 +224,19 @@ public final class DataFileReader<D> implements AutoCloseable, Comparable<DataFi
         }
     }
 
+    /**
+     * Sets the writer of a compressed file, which is still being written. Until the file is
+     * completed, data items in the block, which is not written to the file yet, are read from the
+     * writer. Must be called before any data locations in the file are available to readers.
+     *
+     * @param writer the writer of the file
+     */
+    void setPendingWriter(final DataFileWriter<D> writer) {
+        if (metadata.isCompressed()) {
+            this.pendingWriter = writer;
+        }
+    }
+
     /**
      * Get file index, the index is an ordered integer identifying the file in a set of files
      *
@@ -186,19 +285,179 @@ public final class DataFileReader<D> implements AutoCloseable, Comparable<DataFi
         return dataItemSerializer.deserialize(data, serializationVersion);
     }
 
+    /**
+     * Read data item bytes from file at dataLocation.
+     *
+     * @param dataLocation The file index combined with the offset for the starting block of the
+     *     data in the file
+     * @return ByteBuffer containing data item bytes between its position and limit. If the file is
+     *     memory mapped, it's a read only slice of the mapped buffer. Otherwise, it's a reused per
+     *     thread buffer, so you can use it till your thread reads data again
+     * @throws IOException If there was a problem reading from data file
+     * @throws ClosedChannelException if the data file was closed
+     */
     public ByteBuffer readDataItemBytes(final long dataLocation) throws IOException {
         final long serializationVersion = metadata.getSerializationVersion();
         final long byteOffset = DataFileCommon.byteOffsetFromDataLocation(dataLocation);
+        final DataFileReadListener listener = readListener;
+        if (metadata.isCompressed()) {
+            return readCompressedDataItemBytes(byteOffset, serializationVersion, listener);
+        }
+        final MappedByteBuffer mapped = mappedFile;
         final int bytesToRead;
         if (dataItemSerializer.isVariableSize()) {
             // read header to get size
-            final ByteBuffer serializedHeader = read(byteOffset, dataItemSerializer.getHeaderSize());
+            final ByteBuffer serializedHeader = (mapped != null)
+                    ? slice(mapped, byteOffset, dataItemSerializer.getHeaderSize())
+                    : read(byteOffset, dataItemSerializer.getHeaderSize(), listener);
             final DataItemHeader header = dataItemSerializer.deserializeHeader(serializedHeader);
             bytesToRead = header.getSizeBytes();
         } else {
             bytesToRead = dataItemSerializer.getSerializedSizeForVersion(serializationVersion);
         }
-        return read(byteOffset, bytesToRead);
+        final ByteBuffer data =
+                (mapped != null) ? slice(mapped, byteOffset, bytesToRead) : read(byteOffset, bytesToRead, listener);
+        if (listener != null) {
+            listener.dataItemRead(data.remaining());
+        }
+        return data;
+    }
+
+    /**
+     * Reads data item bytes from a compressed file. Only a single block is read and decompressed.
+     * Decompressed blocks are cached per thread, so sequential reads of data items from the same
+     * block, which is what iterations in key or path order usually result in, decompress the block
+     * only once.
+     */
+    private ByteBuffer readCompressedDataItemBytes(
+            final long byteOffset, final long serializationVersion, final DataFileReadListener listener)
+            throws IOException {
+        final int blockIndex = DataFileCommon.blockIndexFromByteOffset(byteOffset);
+        final int offsetInBlock = DataFileCommon.offsetInBlockFromByteOffset(byteOffset);
+        final ByteBuffer block = readBlock(blockIndex, listener);
+        final int bytesToRead;
+        if (dataItemSerializer.isVariableSize()) {
+            final ByteBuffer serializedHeader = block.slice(
+                    offsetInBlock, Math.min(dataItemSerializer.getHeaderSize(), block.limit() - offsetInBlock));
+            bytesToRead = dataItemSerializer.deserializeHeader(serializedHeader).getSizeBytes();
+        } else {
+            bytesToRead = dataItemSerializer.getSerializedSizeForVersion(serializationVersion);
+        }
+        if (offsetInBlock + bytesToRead > block.limit()) {
+            throw new IOException("Data item at offset " + offsetInBlock + " in block " + blockIndex
+                    + " is out of block bounds, file " + path);
+        }
+        final ByteBuffer data = block.slice(offsetInBlock, bytesToRead);
+        if (listener != null) {
+            listener.dataItemRead(bytesToRead);
+        }
+        return data;
+    }
+
+    /**
+     * Reads and decompresses a block from a compressed file. If the block is still being written,
+     * a copy of its data is taken from the writer.
+     *
+     * @param blockIndex the block index
+     * @param listener listener to notify about file channel lease times, may be null
+     * @return the uncompressed block data, between position zero and limit. This is a reused per
+     *     thread buffer, so you can use it till your thread reads data again
+     * @throws IOException if there was a problem reading from the file, or the block is malformed
+     */
+    private ByteBuffer readBlock(final int blockIndex, final DataFileReadListener listener) throws IOException {
+        // The writer must be checked before block offsets, see setFileCompleted()
+        final DataFileWriter<D> writer = pendingWriter;
+        if (writer != null) {
+            final ByteBuffer pending = writer.copyPendingBlock(blockIndex);
+            if (pending != null) {
+                return pending;
+            }
+        }
+        final BlockCache cache = BLOCK_CACHE.get();
+        if ((cache.reader == this) && (cache.blockIndex == blockIndex)) {
+            return cache.block;
+        }
+        final long[] offsets = blockOffsets;
+        final long blockOffset;
+        ByteBuffer raw;
+        if (offsets != null) {
+            if ((blockIndex < 0) || (blockIndex >= offsets.length - 1)) {
+                throw new IOException("Block " + blockIndex + " is out of bounds, file " + path);
+            }
+            // The next offset is where the block ends, so the whole block is read at once
+            blockOffset = offsets[blockIndex];
+            raw = readRaw(blockOffset, (int) (offsets[blockIndex + 1] - blockOffset), listener);
+        } else if (writer != null) {
+            blockOffset = writer.getBlockOffset(blockIndex);
+            raw = readRaw(blockOffset, BLOCK_HEADER_SIZE, listener);
+        } else {
+            throw new IOException("Block index is not available, file " + path);
+        }
+        if (raw.remaining() < BLOCK_HEADER_SIZE) {
+            throw new IOException("Malformed block " + blockIndex + ", file " + path);
+        }
+        final DataFileCompression codec = DataFileCompression.fromId(raw.get(0));
+        final int uncompressedSize = raw.getInt(1);
+        final int storedSize = raw.getInt(5);
+        if (raw.remaining() < BLOCK_HEADER_SIZE + storedSize) {
+            raw = readRaw(blockOffset + BLOCK_HEADER_SIZE, storedSize, listener);
+        } else {
+            raw = raw.slice(BLOCK_HEADER_SIZE, storedSize);
+        }
+        if (raw.remaining() != storedSize) {
+            throw new IOException("Malformed block " + blockIndex + ", file " + path);
+        }
+        final byte[] data = cache.ensureCapacity(uncompressedSize);
+        if (codec == DataFileCompression.NONE) {
+            if (storedSize != uncompressedSize) {
+                throw new IOException("Malformed block " + blockIndex + ", file " + path);
+            }
+            raw.get(0, data, 0, uncompressedSize);
+        } else {
+            Lz4BlockCodec.decompress(raw, 0, storedSize, data, uncompressedSize);
+        }
+        cache.reader = this;
+        cache.blockIndex = blockIndex;
+        cache.block = ByteBuffer.wrap(data, 0, uncompressedSize);
+        return cache.block;
+    }
+
+    /** Reads bytes from the file, using the memory mapped buffer, if available */
+    private ByteBuffer readRaw(final long byteOffset, final int bytesToRead, final DataFileReadListener listener)
+            throws IOException {
+        final MappedByteBuffer mapped = mappedFile;
+        return (mapped != null) ? slice(mapped, byteOffset, bytesToRead) : read(byteOffset, bytesToRead, listener);
+    }
+
+    /** Loads block offsets from the block index of a compressed file */
+    private void loadBlockIndex() throws IOException {
+        final int blockCount = metadata.getBlockCount();
+        final ByteBuffer buffer = ByteBuffer.allocate((blockCount + 1) * Long.BYTES);
+        MerkleDbFileUtils.completelyRead(fileChannels.get(0), buffer, metadata.getBlockIndexOffset());
+        buffer.flip();
+        final long[] offsets = new long[blockCount + 1];
+        buffer.asLongBuffer().get(offsets);
+        blockOffsets = offsets;
+    }
+
+    /**
+     * Sets a listener to notify about data item reads from this file. The listener is used to
+     * collect I/O statistics.
+     *
+     * @param readListener the listener, or null to stop notifications
+     */
+    public void setReadListener(final DataFileReadListener readListener) {
+        this.readListener = readListener;
+    }
+
+    /**
+     * Check if this reader reads data through a memory mapped buffer. Files are only mapped after
+     * they are completed.
+     *
+     * @return true if the file is memory mapped
+     */
+    public boolean isMemoryMapped() {
+        return mappedFile != null;
     }
 
     /**
@@ -262,6 +521,15 @@ public final class DataFileReader<D> implements AutoCloseable, Comparable<DataFi
     /** Close this data file, it can not be used once closed. */
     public void close() throws IOException {
         open.set(false);
+        // The mapped buffer isn't unmapped explicitly, as other threads may still be reading from
+        // it, and accessing unmapped memory crashes the JVM. The memory is unmapped, when the buffer
+        // is garbage collected
+        mappedFile = null;
+        pendingWriter = null;
+        final BlockCache cache = BLOCK_CACHE.get();
+        if (cache.reader == this) {
+            cache.reader = null;
+        }
         for (int i = 0; i < MAX_FILE_CHANNELS; i++) {
             final FileChannel fileChannel = fileChannels.getAndSet(i, null);
             if (fileChannel != null) {
@@ -346,6 +614,21 @@ public final class DataFileReader<D> implements AutoCloseable, Comparable<DataFi
         fileChannelsInUse.decrementAndGet();
     }
 
+    /**
+     * Create a read only slice of the mapped file buffer. Similar to {@link #read}, if
+     * the end of file is reached, the returned buffer's limit is less than bytesToRead.
+     *
+     * @param mapped Mapped file buffer
+     * @param byteOffsetInFile Offset to start reading at
+     * @param bytesToRead Number of bytes to read
+     * @return ByteBuffer slice containing the data, it doesn't share position and limit with the
+     *     mapped buffer, so it can be used by multiple threads concurrently
+     */
+    private static ByteBuffer slice(final MappedByteBuffer mapped, final long byteOffsetInFile, final int bytesToRead) {
+        final int offset = (int) byteOffsetInFile;
+        return mapped.slice(offset, Math.min(bytesToRead, mapped.capacity() - offset));
+    }
+
     /**
      * Read bytesToRead bytes of data from the file starting at byteOffsetInFile unless we reach the
      * end of file. If we reach the end of file then returned buffer's limit will be set to the
@@ -353,12 +636,14 @@ public final class DataFileReader<D> implements AutoCloseable, Comparable<DataFi
      *
      * @param byteOffsetInFile Offset to start reading at
      * @param bytesToRead Number of bytes to read
+     * @param listener Listener to notify about file channel lease times, may be null
      * @return ByteBuffer containing read data. This is a reused per thread buffer, so you can use
      *     it till your thread calls read again.
      * @throws IOException if there was a problem reading
      * @throws ClosedChannelException if the file was closed
      */
-    private ByteBuffer read(final long byteOffsetInFile, final int bytesToRead) throws IOException {
+    private ByteBuffer read(final long byteOffsetInFile, final int bytesToRead, final DataFileReadListener listener)
+            throws IOException {
         // get or create cached buffer
         ByteBuffer buffer = BUFFER_CACHE.get();
         if (buffer == null || bytesToRead > buffer.capacity()) {
@@ -368,7 +653,11 @@ public final class DataFileReader<D> implements AutoCloseable, Comparable<DataFi
         // Try a few times. It's very unlikely (other than in tests) that a thread is
         // interrupted more than once in short period of time, so 3 retries should be enough
         for (int retries = 3; retries > 0; retries--) {
+            final long leaseStart = (listener != null) ? System.nanoTime() : 0;
             final int fcIndex = leaseFileChannel();
+            if (listener != null) {
+                listener.fileChannelLeased(System.nanoTime() - leaseStart);
+            }
             final FileChannel fileChannel = fileChannels.get(fcIndex);
             try {
                 buffer.position(0);
@@ -391,4 +680,25 @@ public final class DataFileReader<D> implements AutoCloseable, Comparable<DataFi
         }
         throw new IOException("Failed to read from file, file channels keep getting closed");
     }
+
+    /** The last decompressed block read by a thread */
+    private static final class BlockCache {
+        /** The reader the block is read from, or null */
+        private DataFileReader<?> reader;
+        /** The block index */
+        private int blockIndex = -1;
+        /** Uncompressed block data */
+        private ByteBuffer block;
+        /** Array to decompress blocks to, reused between blocks */
+        private byte[] data = new byte[0];
+
+        private byte[] ensureCapacity(final int size) {
+            if (data.length < size) {
+                data = new byte[size];
+            }
+            // The cached block is about to be overwritten
+            reader = null;
+            return data;
+        }
+    }
 }
@@ -16,10 +16,14 @@
 
 package com.swirlds.merkledb.files;
 
+import static com.swirlds.merkledb.files.DataFileCommon.BLOCK_HEADER_SIZE;
 import static com.swirlds.merkledb.files.DataFileCommon.FOOTER_SIZE;
+import static com.swirlds.merkledb.files.DataFileCommon.MAX_BLOCK_COUNT;
+import static com.swirlds.merkledb.files.DataFileCommon.MAX_BLOCK_SIZE;
 import static com.swirlds.merkledb.files.DataFileCommon.PAGE_SIZE;
 import static com.swirlds.merkledb.files.DataFileCommon.createDataFilePath;
 
+import com.swirlds.merkledb.config.DataFileCompression;
 import com.swirlds.merkledb.serialize.DataItemSerializer;
 import java.io.IOException;
 import java.lang.reflect.Field;
@@ -45,6 +49,16 @@ import sun.misc.Unsafe;
  * At the end of the file it is padded till a 4096 byte page boundary then a footer page is
  * written by DataFileMetadata.
  *
+ * <p>If compression is enabled, data items are not written to the file directly, but collected
+ * into blocks of about the configured size. Data items never span multiple blocks. When a block is
+ * full, it's compressed and written to the file as a block header (codec ID, uncompressed size,
+ * stored size) followed by the compressed bytes. Blocks that don't compress well are stored
+ * uncompressed. After the last block, there is a block index with file offsets of all blocks,
+ * followed by padding and the footer. Data locations in compressed files contain block indices
+ * and data item offsets in uncompressed blocks, so a random read only needs to decompress a
+ * single block. Data items in the block being written are available to readers through {@link
+ * #copyPendingBlock(int)}.
+ *
  * @param <D> Data item type
  */
 public final class DataFileWriter<D> {
@@ -80,6 +94,21 @@ public final class DataFileWriter<D> {
      */
     private long dataItemCount = 0;
 
+    /** Compression codec, or {@link DataFileCompression#NONE} if the file isn't compressed */
+    private final DataFileCompression compression;
+    /** Uncompressed block size for compressed files. Blocks are written once they reach this size */
+    private final int blockSize;
+    /** Compressor, or null if the file isn't compressed */
+    private final Lz4BlockCodec codec;
+    /** Uncompressed data items of the block being written, or null if the file isn't compressed */
+    private ByteBuffer pendingBlock;
+    /** Buffer for compressed block bytes, or null if the file isn't compressed */
+    private byte[] compressedBlock;
+    /** File offsets of all blocks written so far */
+    private long[] blockOffsets;
+    /** Number of blocks written so far, this is also the index of the block being written */
+    private int blockCount = 0;
+
     /** Access to sun.misc.Unsafe required for atomic compareAndSwapLong on off-heap memory */
     private static final Unsafe UNSAFE;
 
@@ -111,17 +140,57 @@ public final class DataFileWriter<D> {
             final DataItemSerializer<D> dataItemSerializer,
             final Instant creationTime)
             throws IOException {
+        this(filePrefix, dataFileDir, index, dataItemSerializer, creationTime, DataFileCompression.NONE, 0);
+    }
+
+    /**
+     * Create a new data file in the given directory, in append mode, optionally compressed.
+     *
+     * @param filePrefix string prefix for all files, must not contain "_" chars
+     * @param dataFileDir the path to directory to create the data file in
+     * @param index the index number for this file
+     * @param dataItemSerializer Serializer for converting raw data to/from data items
+     * @param creationTime the time stamp for the creation time for this file
+     * @param compression compression codec, or {@link DataFileCompression#NONE} to write the file
+     *     in the original, not block based, format
+     * @param blockSize uncompressed block size, in bytes, ignored if the file isn't compressed
+     */
+    public DataFileWriter(
+            final String filePrefix,
+            final Path dataFileDir,
+            final int index,
+            final DataItemSerializer<D> dataItemSerializer,
+            final Instant creationTime,
+            final DataFileCompression compression,
+            final int blockSize)
+            throws IOException {
         this.index = index;
         this.dataItemSerializer = dataItemSerializer;
         this.creationInstant = creationTime;
         this.path = createDataFilePath(filePrefix, dataFileDir, index, creationInstant);
+        this.compression = compression;
+        this.blockSize = blockSize;
+        if (compression != DataFileCompression.NONE) {
+            if ((blockSize <= 0) || (blockSize > MAX_BLOCK_SIZE)) {
+                throw new IllegalArgumentException("Block size must be between 1 and " + MAX_BLOCK_SIZE);
+            }
+            codec = new Lz4BlockCodec();
+            pendingBlock = ByteBuffer.allocate(MAX_BLOCK_SIZE);
+            compressedBlock = new byte[Lz4BlockCodec.maxCompressedLength(MAX_BLOCK_SIZE)];
+            blockOffsets = new long[16];
+        } else {
+            codec = null;
+        }
         metadata = new DataFileMetadata(
-                DataFileCommon.FILE_FORMAT_VERSION,
+                (compression != DataFileCompression.NONE)
+                        ? DataFileCommon.COMPRESSED_FILE_FORMAT_VERSION
+                        : DataFileCommon.FILE_FORMAT_VERSION,
                 dataItemSerializer.getSerializedSize(),
                 0, // data item count will be updated later in finishWriting()
                 index,
                 creationInstant,
-                dataItemSerializer.getCurrentDataVersion());
+                dataItemSerializer.getCurrentDataVersion(),
+                compression);
         Files.createFile(path);
         moveMmapBuffer(0);
     }
@@ -167,7 +236,12 @@ public final class DataFileWriter<D> {
             return mmapPositionInFile;
         }
         // Current mmap offset + position in mmap buffer + padding + footer
-        return mmapPositionInFile + writingMmap.position() + computePaddingLength() + FOOTER_SIZE;
+        final long estimate = mmapPositionInFile + writingMmap.position() + computePaddingLength() + FOOTER_SIZE;
+        if (pendingBlock == null) {
+            return estimate;
+        }
+        // Plus the block being written, uncompressed, and the block index
+        return estimate + pendingBlock.position() + (long) (blockCount + 2) * Long.BYTES;
     }
 
     /** Get the path for the file being written. Useful when needing to get a reader to the file. */
@@ -197,6 +271,15 @@ public final class DataFileWriter<D> {
      */
     public synchronized long writeCopiedDataItem(final long serializedVersion, final ByteBuffer dataItemData)
             throws IOException {
+        if (pendingBlock != null) {
+            final int currentDataItemPos = dataItemData.position();
+            final long dataLocation = writeToPendingBlock(block -> {
+                dataItemData.position(currentDataItemPos);
+                dataItemSerializer.copyItem(serializedVersion, dataItemData.remaining(), dataItemData, block);
+            });
+            dataItemCount++;
+            return dataLocation;
+        }
         // capture the current write position for beginning of data item
         final int currentWritingMmapPos = writingMmap.position();
         final long byteOffset = mmapPositionInFile + currentWritingMmapPos;
@@ -234,6 +317,11 @@ public final class DataFileWriter<D> {
      * @throws IOException if there was a problem appending data to file
      */
     public synchronized long storeDataItem(final D dataItem) throws IOException {
+        if (pendingBlock != null) {
+            final long dataLocation = writeToPendingBlock(block -> dataItemSerializer.serialize(dataItem, block));
+            dataItemCount++;
+            return dataLocation;
+        }
         // find offset for the start of this new data item, we assume we always write data in a
         // whole number of blocks
         final int currentWritingMmapPos = writingMmap.position();
@@ -262,6 +350,138 @@ public final class DataFileWriter<D> {
         return DataFileCommon.dataLocation(index, byteOffset);
     }
 
+    /** Writes a data item to a block buffer */
+    @FunctionalInterface
+    private interface BlockWriter {
+        void write(ByteBuffer block) throws IOException;
+    }
+
+    /**
+     * Writes a data item to the block being written. If the item doesn't fit into the block, the
+     * block is written to the file, and the item is written to a new block. If the block reaches
+     * the configured block size after the item is written, it's written to the file, too.
+     *
+     * @param blockWriter the code to write the data item to the block
+     * @return the data location of the data item
+     * @throws IOException if there was a problem writing a block to the file, or the data item is
+     *     larger than max block size
+     */
+    private long writeToPendingBlock(final BlockWriter blockWriter) throws IOException {
+        int offsetInBlock = pendingBlock.position();
+        try {
+            blockWriter.write(pendingBlock);
+        } catch (final BufferOverflowException e) {
+            if (offsetInBlock == 0) {
+                throw new IOException("Data item is too large to write to a compressed data file block", e);
+            }
+            pendingBlock.position(offsetInBlock);
+            writePendingBlock();
+            offsetInBlock = 0;
+            try {
+                blockWriter.write(pendingBlock);
+            } catch (final BufferOverflowException t) {
+                throw new IOException("Data item is too large to write to a compressed data file block", t);
+            }
+        }
+        final long dataLocation =
+                DataFileCommon.dataLocation(index, DataFileCommon.blockByteOffset(blockCount, offsetInBlock));
+        if (pendingBlock.position() >= blockSize) {
+            writePendingBlock();
+        }
+        return dataLocation;
+    }
+
+    /**
+     * Compresses the block being written and writes it to the file, then starts a new block. If the
+     * block doesn't compress well, it's written uncompressed. No-op if the block is empty.
+     *
+     * @throws IOException if there was a problem writing the block to the file
+     */
+    private void writePendingBlock() throws IOException {
+        final int uncompressedSize = pendingBlock.position();
+        if (uncompressedSize == 0) {
+            return;
+        }
+        if (blockCount == MAX_BLOCK_COUNT) {
+            throw new IOException("Too many blocks in a compressed data file");
+        }
+        final byte[] uncompressed = pendingBlock.array();
+        final int compressedSize = codec.compress(uncompressed, uncompressedSize, compressedBlock);
+        final boolean stored = compressedSize >= uncompressedSize;
+        final ByteBuffer header = ByteBuffer.allocate(BLOCK_HEADER_SIZE);
+        header.put((byte) (stored ? DataFileCompression.NONE : compression).getId());
+        header.putInt(uncompressedSize);
+        header.putInt(stored ? uncompressedSize : compressedSize);
+        header.flip();
+        final long blockOffset = mmapPositionInFile + writingMmap.position();
+        writeBytes(header);
+        writeBytes(
+                stored
+                        ? ByteBuffer.wrap(uncompressed, 0, uncompressedSize)
+                        : ByteBuffer.wrap(compressedBlock, 0, compressedSize));
+        if (blockCount == blockOffsets.length) {
+            blockOffsets = Arrays.copyOf(blockOffsets, blockOffsets.length * 2);
+        }
+        blockOffsets[blockCount++] = blockOffset;
+        pendingBlock.clear();
+    }
+
+    /**
+     * Writes all pending data to the file, followed by the block index, and updates block index
+     * information in the file metadata.
+     *
+     * @throws IOException if there was a problem writing to the file
+     */
+    private void writeBlockIndex() throws IOException {
+        writePendingBlock();
+        final long blockIndexOffset = mmapPositionInFile + writingMmap.position();
+        // Block offsets are followed by the block index offset, so the size of every block is
+        // the difference between the next offset and its own offset
+        final ByteBuffer indexBuffer = ByteBuffer.allocate(PAGE_SIZE);
+        for (int i = 0; i <= blockCount; i++) {
+            indexBuffer.putLong((i < blockCount) ? blockOffsets[i] : blockIndexOffset);
+            if (!indexBuffer.hasRemaining() || (i == blockCount)) {
+                indexBuffer.flip();
+                writeBytes(indexBuffer);
+                indexBuffer.clear();
+            }
+        }
+        metadata.setBlockIndex(blockCount, blockIndexOffset);
+        // Readers will use the block index from the file from now on
+        pendingBlock = null;
+        compressedBlock = null;
+    }
+
+    /**
+     * Returns a copy of the block being written, if its index is the given block index. This
+     * method is used by readers to read data items, which are written to this file, but not yet
+     * flushed to disk, because the block they are in is not complete.
+     *
+     * @param blockIndex the block index
+     * @return a buffer with a copy of the block data, or null if the block with the given index is
+     *     already written to the file
+     */
+    synchronized ByteBuffer copyPendingBlock(final int blockIndex) {
+        if ((pendingBlock == null) || (blockIndex != blockCount)) {
+            return null;
+        }
+        return ByteBuffer.wrap(Arrays.copyOf(pendingBlock.array(), pendingBlock.position()));
+    }
+
+    /**
+     * Returns the file offset of a block, which is already written to the file.
+     *
+     * @param blockIndex the block index
+     * @return the block offset in the file
+     * @throws IllegalArgumentException if the block isn't written to the file yet
+     */
+    synchronized long getBlockOffset(final int blockIndex) {
+        if ((blockIndex < 0) || (blockIndex >= blockCount)) {
+            throw new IllegalArgumentException("Block " + blockIndex + " is not written to the file");
+        }
+        return blockOffsets[blockIndex];
+    }
+
     /** A helper method to write a byte buffer to the file. */
     private void writeBytes(final ByteBuffer data) throws IOException {
         final int needToWrite = data.remaining();
@@ -280,6 +500,9 @@ public final class DataFileWriter<D> {
      * @throws IOException if there was a problem sealing file or opening again as read only
      */
     public synchronized void finishWriting() throws IOException {
+        if (pendingBlock != null) {
+            writeBlockIndex();
+        }
         // pad the end of file till we are a whole number of pages
         int paddingBytesNeeded = computePaddingLength();
         final ByteBuffer paddingBuf = ByteBuffer.allocate(paddingBytesNeeded);
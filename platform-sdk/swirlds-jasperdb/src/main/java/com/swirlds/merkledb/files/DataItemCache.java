@@ -0,0 +1,310 @@
+/*
+ * Copyright (C) 2023 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.merkledb.files;
+
+import com.swirlds.common.utility.NonCryptographicHashing;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.LongAdder;
+import org.eclipse.collections.impl.map.mutable.primitive.LongIntHashMap;
+import sun.misc.Unsafe;
+
+/**
+ * A bounded, off-heap cache of serialized data item bytes, keyed by data location. It sits beneath
+ * {@link DataFileCollection#readDataItemUsingIndex(com.swirlds.merkledb.collections.LongList, long)},
+ * so hot data items are served from memory rather than by a positional file channel read.
+ *
+ * <p>Data files are immutable once an item is written, and file indices are never reused, so the
+ * bytes stored at a given data location never change. It means cache entries never have to be
+ * invalidated. Entries for files deleted by compaction are simply never requested again and are
+ * evicted over time.
+ *
+ * <p>The cache memory is split into a number of segments, each protected by its own lock to reduce
+ * contention between reading threads. Every segment is a direct byte buffer divided into slots of
+ * {@link #getSlotSize()} bytes. A data item occupies a single slot, data items larger than a slot
+ * are never cached. When a segment is full, a slot to reuse is selected using the CLOCK (second
+ * chance) algorithm: every slot has a reference bit, which is set on every cache hit and cleared
+ * when the clock hand passes the slot. The first slot found with a cleared bit is evicted.
+ *
+ * <p>This class is thread safe.
+ */
+public final class DataItemCache implements AutoCloseable {
+
+    /** Default number of cache segments */
+    public static final int DEFAULT_SEGMENT_COUNT = 64;
+
+    /** Value returned from slot index lookups, if a data location is not in the cache */
+    private static final int NO_SLOT = -1;
+
+    /** Access to sun.misc.Unsafe required to release direct buffers */
+    private static final Unsafe UNSAFE;
+
+    static {
+        try {
+            Field f = Unsafe.class.getDeclaredField("theUnsafe");
+            f.setAccessible(true);
+            UNSAFE = (Unsafe) f.get(null);
+        } catch (NoSuchFieldException | SecurityException | IllegalArgumentException | IllegalAccessException e) {
+            throw new InternalError(e);
+        }
+    }
+
+    /** Per-thread buffers to copy cached data item bytes to */
+    private final ThreadLocal<ByteBuffer> bufferCache = new ThreadLocal<>();
+
+    /** Cache segments */
+    private final Segment[] segments;
+
+    /** Slot size, in bytes. Data items larger than this are not cached */
+    private final int slotSize;
+
+    /** Total cache capacity, in bytes */
+    private final long capacity;
+
+    /** Number of cache hits since the last call to {@link #getAndResetStats(StatsConsumer)} */
+    private final LongAdder hits = new LongAdder();
+
+    /** Number of cache misses since the last call to {@link #getAndResetStats(StatsConsumer)} */
+    private final LongAdder misses = new LongAdder();
+
+    /** Number of evicted entries since the last call to {@link #getAndResetStats(StatsConsumer)} */
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Creates a new cache with the default number of segments.
+     *
+     * @param capacityBytes total cache capacity, in bytes
+     * @param slotSizeBytes size of a single cache slot, in bytes
+     */
+    public DataItemCache(final long capacityBytes, final int slotSizeBytes) {
+        this(capacityBytes, slotSizeBytes, DEFAULT_SEGMENT_COUNT);
+    }
+
+    /**
+     * Creates a new cache.
+     *
+     * @param capacityBytes total cache capacity, in bytes
+     * @param slotSizeBytes size of a single cache slot, in bytes
+     * @param segmentCount number of cache segments
+     * @throws IllegalArgumentException if slot size or segment count are not positive, or if the
+     *     capacity is too small to have at least one slot per segment, or too large to fit a segment
+     *     into a single direct buffer
+     */
+    public DataItemCache(final long capacityBytes, final int slotSizeBytes, final int segmentCount) {
+        if (slotSizeBytes <= 0) {
+            throw new IllegalArgumentException("Slot size must be positive");
+        }
+        if (segmentCount <= 0) {
+            throw new IllegalArgumentException("Segment count must be positive");
+        }
+        final long slotsPerSegment = capacityBytes / segmentCount / slotSizeBytes;
+        if (slotsPerSegment <= 0) {
+            throw new IllegalArgumentException("Cache capacity " + capacityBytes + " is too small for "
+                    + segmentCount + " segments of " + slotSizeBytes + " byte slots");
+        }
+        if (slotsPerSegment * slotSizeBytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Cache capacity " + capacityBytes + " is too large for "
+                    + segmentCount + " segments, increase the number of segments");
+        }
+        this.slotSize = slotSizeBytes;
+        this.capacity = slotsPerSegment * slotSizeBytes * segmentCount;
+        segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment((int) slotsPerSegment, slotSizeBytes);
+        }
+    }
+
+    /**
+     * Get the size of a single cache slot. Data items larger than this size are never cached.
+     *
+     * @return cache slot size, in bytes
+     */
+    public int getSlotSize() {
+        return slotSize;
+    }
+
+    /**
+     * Get the total cache capacity, which is also the amount of off-heap memory used by the cache.
+     *
+     * @return cache capacity, in bytes
+     */
+    public long getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Looks up data item bytes for the given data location.
+     *
+     * @param dataLocation data item location
+     * @return a buffer with data item bytes between its position and limit, or {@code null} if the
+     *     data location is not in the cache. This is a reused per thread buffer, so it can only be
+     *     used till the calling thread calls this method again
+     */
+    @Nullable
+    public ByteBuffer get(final long dataLocation) {
+        ByteBuffer buffer = bufferCache.get();
+        if (buffer == null) {
+            buffer = ByteBuffer.allocate(slotSize);
+            bufferCache.set(buffer);
+        }
+        buffer.clear();
+        if (segmentFor(dataLocation).get(dataLocation, buffer)) {
+            hits.increment();
+            return buffer.flip();
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Puts data item bytes for the given data location to the cache. If the data item is larger
+     * than a cache slot, this method is a no-op. The buffer position and limit are not changed.
+     *
+     * @param dataLocation data item location
+     * @param data data item bytes, between buffer position and limit
+     */
+    public void put(final long dataLocation, @NonNull final ByteBuffer data) {
+        if (data.remaining() > slotSize) {
+            return;
+        }
+        if (segmentFor(dataLocation).put(dataLocation, data)) {
+            evictions.increment();
+        }
+    }
+
+    /**
+     * Reports cache hits, misses and evictions since the last call to this method, and resets
+     * them to zero.
+     *
+     * @param consumer cache statistics consumer
+     */
+    public void getAndResetStats(@NonNull final StatsConsumer consumer) {
+        consumer.accept(hits.sumThenReset(), misses.sumThenReset(), evictions.sumThenReset());
+    }
+
+    /** Releases all off-heap memory used by this cache. The cache must not be used after it's closed. */
+    @Override
+    public void close() {
+        for (final Segment segment : segments) {
+            segment.close();
+        }
+    }
+
+    private Segment segmentFor(final long dataLocation) {
+        final int hash = NonCryptographicHashing.hash32(dataLocation);
+        return segments[Math.abs(hash % segments.length)];
+    }
+
+    /** A consumer for cache statistics reported by {@link #getAndResetStats(StatsConsumer)}. */
+    @FunctionalInterface
+    public interface StatsConsumer {
+        /**
+         * Accept cache statistics.
+         *
+         * @param hits number of cache hits
+         * @param misses number of cache misses
+         * @param evictions number of evicted cache entries
+         */
+        void accept(long hits, long misses, long evictions);
+    }
+
+    /** A single cache segment. All segment methods are called under the segment lock. */
+    private static final class Segment {
+        /** Segment memory, all slots */
+        private ByteBuffer memory;
+        /** Segment slot size */
+        private final int slotSize;
+        /** Data locations cached in every slot */
+        private final long[] slotLocations;
+        /** Data item sizes in every slot */
+        private final int[] slotSizes;
+        /** Reference bits for the CLOCK eviction algorithm */
+        private final boolean[] referenced;
+        /** Data location to slot index */
+        private final LongIntHashMap slotIndex;
+        /** Number of slots used so far. When equal to the number of slots, the segment is full */
+        private int slotsUsed = 0;
+        /** CLOCK hand, the index of the next slot to check for eviction */
+        private int clockHand = 0;
+
+        Segment(final int slotCount, final int slotSize) {
+            this.slotSize = slotSize;
+            memory = ByteBuffer.allocateDirect(slotCount * slotSize);
+            slotLocations = new long[slotCount];
+            slotSizes = new int[slotCount];
+            referenced = new boolean[slotCount];
+            slotIndex = new LongIntHashMap(slotCount);
+        }
+
+        synchronized boolean get(final long dataLocation, final ByteBuffer target) {
+            if (memory == null) {
+                return false;
+            }
+            final int slot = slotIndex.getIfAbsent(dataLocation, NO_SLOT);
+            if (slot == NO_SLOT) {
+                return false;
+            }
+            referenced[slot] = true;
+            target.put(0, memory, slot * slotSize, slotSizes[slot]);
+            target.position(slotSizes[slot]);
+            return true;
+        }
+
+        /**
+         * Puts data item bytes to this segment.
+         *
+         * @return whether an existing entry was evicted to store the data
+         */
+        synchronized boolean put(final long dataLocation, final ByteBuffer data) {
+            if ((memory == null) || slotIndex.containsKey(dataLocation)) {
+                return false;
+            }
+            final int slot;
+            final boolean evicted;
+            if (slotsUsed < slotLocations.length) {
+                slot = slotsUsed++;
+                evicted = false;
+            } else {
+                while (referenced[clockHand]) {
+                    referenced[clockHand] = false;
+                    clockHand = (clockHand + 1) % slotLocations.length;
+                }
+                slot = clockHand;
+                clockHand = (clockHand + 1) % slotLocations.length;
+                slotIndex.remove(slotLocations[slot]);
+                evicted = true;
+            }
+            final int size = data.remaining();
+            memory.put(slot * slotSize, data, data.position(), size);
+            slotLocations[slot] = dataLocation;
+            slotSizes[slot] = size;
+            referenced[slot] = false;
+            slotIndex.put(dataLocation, slot);
+            return evicted;
+        }
+
+        synchronized void close() {
+            if (memory != null) {
+                UNSAFE.invokeCleaner(memory);
+                memory = null;
+                slotIndex.clear();
+            }
+        }
+    }
+}
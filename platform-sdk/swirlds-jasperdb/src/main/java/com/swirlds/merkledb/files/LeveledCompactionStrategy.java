@@ -0,0 +1,56 @@
+/*
+ * Copyright (C) 2023 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.merkledb.files;
+
+import java.util.List;
+
+/**
+ * Leveled compaction strategy. Data files are assigned to levels by size: level 0 contains files
+ * smaller than the base size, and every next level contains files up to fanout times larger than
+ * the previous level. Files in a level are compacted, once they contain enough live data to produce
+ * a file in the next level, so every compaction promotes data one level up.
+ *
+ * <p>Unlike in LSM trees, MerkleDB data files are not sorted by key, so levels here don't partition
+ * the key space. Instead, this strategy bounds the number of times every data item is rewritten to
+ * the number of levels, while keeping individual compactions small.
+ */
+public final class LeveledCompactionStrategy extends AbstractSizeBasedCompactionStrategy {
+
+    /**
+     * Creates a new leveled compaction strategy.
+     *
+     * @param baseSizeBytes max file size in level 0, in bytes
+     * @param fanout size ratio between adjacent levels
+     * @param maxFiles max number of files to compact at once
+     * @param garbageRatioThreshold min garbage ratio to compact files in a level, even if they don't
+     *     have enough live data to be promoted to the next level
+     * @throws IllegalArgumentException if any of the arguments is out of range
+     */
+    public LeveledCompactionStrategy(
+            final long baseSizeBytes, final int fanout, final int maxFiles, final double garbageRatioThreshold) {
+        super(baseSizeBytes, fanout, maxFiles, garbageRatioThreshold);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected <D> boolean isCompactionNeeded(
+            final int sizeClass, final List<DataFileReader<D>> run, final long runLiveBytes) {
+        return (runLiveBytes >= getSizeClassLimit(sizeClass)) || (run.size() >= getMaxFiles());
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright (C) 2023 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.merkledb.files;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Pure Java implementation of the LZ4 block format, used to compress data file blocks. No native
+ * libraries are needed. The compressor is a simple greedy single-pass one, it's optimized for speed
+ * rather than compression ratio, which is what data files need: blocks are compressed once, but
+ * decompressed on every random read.
+ *
+ * <p>Compression uses a hash table, which is reused between calls, so compression is not thread
+ * safe. Every writer should use its own codec instance. Decompression is stateless and thread safe.
+ *
+ * <p>See https://github.com/lz4/lz4/blob/dev/doc/lz4_Block_format.md for the format description.
+ */
+final class Lz4BlockCodec {
+
+    /** Min match length in the LZ4 format */
+    private static final int MIN_MATCH = 4;
+    /** The last 5 bytes of a block are always literals */
+    private static final int LAST_LITERALS = 5;
+    /** The last match must start at least 12 bytes before the end of a block */
+    private static final int MF_LIMIT = 12;
+    /** Max distance between a match and its reference */
+    private static final int MAX_DISTANCE = 0xFFFF;
+    /** Number of bits in the hash table index */
+    private static final int HASH_LOG = 12;
+    /** Lengths of literals and matches that don't fit in a token nibble are extended with extra bytes */
+    private static final int RUN_MASK = 0x0F;
+
+    /** Positions + 1 of the last seen 4-byte sequences by their hash, 0 means no position */
+    private final int[] hashTable = new int[1 << HASH_LOG];
+
+    /**
+     * Returns the max size of compressed data for the given input size, in the worst case of
+     * incompressible data.
+     *
+     * @param srcLength input size
+     * @return max compressed size
+     */
+    static int maxCompressedLength(final int srcLength) {
+        return srcLength + srcLength / 255 + 16;
+    }
+
+    /**
+     * Compresses bytes from the source array to the destination array.
+     *
+     * @param src source array
+     * @param srcLength number of bytes to compress, starting from the beginning of the source array
+     * @param dst destination array, must be at least {@link #maxCompressedLength(int)} bytes long
+     * @return compressed size
+     */
+    int compress(final byte[] src, final int srcLength, final byte[] dst) {
+        Arrays.fill(hashTable, 0);
+        int anchor = 0;
+        int op = 0;
+        if (srcLength > MF_LIMIT) {
+            final int matchLimit = srcLength - LAST_LITERALS;
+            final int lastMatchStart = srcLength - MF_LIMIT;
+            int ip = 0;
+            while (ip <= lastMatchStart) {
+                final int sequence = readInt(src, ip);
+                final int hash = (sequence * -1640531535) >>> (Integer.SIZE - HASH_LOG);
+                final int ref = hashTable[hash] - 1;
+                hashTable[hash] = ip + 1;
+                if ((ref < 0) || (ip - ref > MAX_DISTANCE) || (readInt(src, ref) != sequence)) {
+                    ip++;
+                    continue;
+                }
+                int matchLength = MIN_MATCH;
+                while ((ip + matchLength < matchLimit) && (src[ref + matchLength] == src[ip + matchLength])) {
+                    matchLength++;
+                }
+                op = writeSequence(src, anchor, ip - anchor, dst, op, ip - ref, matchLength);
+                ip += matchLength;
+                anchor = ip;
+            }
+        }
+        // Last literals
+        return writeSequence(src, anchor, srcLength - anchor, dst, op, 0, 0);
+    }
+
+    /**
+     * Writes a sequence of literals followed by a match to the destination array. If match length
+     * is zero, only literals are written, this is the last sequence in the block.
+     *
+     * @return destination position after the sequence
+     */
+    private static int writeSequence(
+            final byte[] src,
+            final int literalsStart,
+            final int literalsLength,
+            final byte[] dst,
+            int op,
+            final int matchOffset,
+            final int matchLength) {
+        final int tokenPos = op++;
+        int token;
+        if (literalsLength >= RUN_MASK) {
+            token = RUN_MASK << 4;
+            op = writeLength(dst, op, literalsLength - RUN_MASK);
+        } else {
+            token = literalsLength << 4;
+        }
+        System.arraycopy(src, literalsStart, dst, op, literalsLength);
+        op += literalsLength;
+        if (matchLength > 0) {
+            dst[op++] = (byte) matchOffset;
+            dst[op++] = (byte) (matchOffset >>> 8);
+            final int length = matchLength - MIN_MATCH;
+            if (length >= RUN_MASK) {
+                token |= RUN_MASK;
+                op = writeLength(dst, op, length - RUN_MASK);
+            } else {
+                token |= length;
+            }
+        }
+        dst[tokenPos] = (byte) token;
+        return op;
+    }
+
+    private static int writeLength(final byte[] dst, int op, int length) {
+        while (length >= 0xFF) {
+            dst[op++] = (byte) 0xFF;
+            length -= 0xFF;
+        }
+        dst[op++] = (byte) length;
+        return op;
+    }
+
+    private static int readInt(final byte[] src, final int pos) {
+        return (src[pos] & 0xFF)
+                | ((src[pos + 1] & 0xFF) << 8)
+                | ((src[pos + 2] & 0xFF) << 16)
+                | ((src[pos + 3] & 0xFF) << 24);
+    }
+
+    /**
+     * Decompresses bytes from the source buffer to the destination array. The source buffer may
+     * be a heap or a direct (e.g. memory mapped) buffer, its position and limit are not changed.
+     *
+     * @param src source buffer
+     * @param srcOffset offset of compressed data in the source buffer
+     * @param srcLength compressed data size
+     * @param dst destination array
+     * @param dstLength expected decompressed size
+     * @throws IOException if compressed data is malformed
+     */
+    static void decompress(
+            final ByteBuffer src, final int srcOffset, final int srcLength, final byte[] dst, final int dstLength)
+            throws IOException {
+        final int srcEnd = srcOffset + srcLength;
+        int ip = srcOffset;
+        int op = 0;
+        try {
+            while (true) {
+                final int token = src.get(ip++) & 0xFF;
+                int literalsLength = token >>> 4;
+                if (literalsLength == RUN_MASK) {
+                    int b;
+                    do {
+                        b = src.get(ip++) & 0xFF;
+                        literalsLength += b;
+                    } while (b == 0xFF);
+                }
+                src.get(ip, dst, op, literalsLength);
+                ip += literalsLength;
+                op += literalsLength;
+                if (ip >= srcEnd) {
+                    break;
+                }
+                final int matchOffset = (src.get(ip++) & 0xFF) | ((src.get(ip++) & 0xFF) << 8);
+                int matchLength = token & RUN_MASK;
+                if (matchLength == RUN_MASK) {
+                    int b;
+                    do {
+                        b = src.get(ip++) & 0xFF;
+                        matchLength += b;
+                    } while (b == 0xFF);
+                }
+                matchLength += MIN_MATCH;
+                int ref = op - matchOffset;
+                if ((matchOffset == 0) || (ref < 0)) {
+                    throw new IOException("Malformed compressed block, wrong match offset " + matchOffset);
+                }
+                // Matches may overlap with the output, so bytes are copied one by one
+                for (int i = 0; i < matchLength; i++) {
+                    dst[op++] = dst[ref++];
+                }
+            }
+        } catch (final IndexOutOfBoundsException e) {
+            throw new IOException("Malformed compressed block", e);
+        }
+        if (op != dstLength) {
+            throw new IOException("Malformed compressed block, expected " + dstLength + " bytes, but got " + op);
+        }
+    }
+}
@@ -31,6 +31,7 @@ import com.swirlds.merkledb.KeyRange;
 import com.swirlds.merkledb.Snapshotable;
 import com.swirlds.merkledb.collections.CASableLongIndex;
 import com.swirlds.merkledb.collections.LongList;
+import com.swirlds.merkledb.config.DataFileCompression;
 import com.swirlds.merkledb.files.DataFileCollection.LoadedDataCallback;
 import com.swirlds.merkledb.serialize.DataItemSerializer;
 import edu.umd.cs.findbugs.annotations.Nullable;
@@ -45,6 +46,7 @@ import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.DoubleConsumer;
 import java.util.function.Function;
 import java.util.function.LongConsumer;
+import java.util.function.ToLongFunction;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.eclipse.collections.impl.map.mutable.primitive.LongLongHashMap;
@@ -116,6 +118,47 @@ public class MemoryIndexDiskKeyValueStore<D> implements AutoCloseable, Snapshota
             final LoadedDataCallback loadedDataCallback,
             final LongList keyToDiskLocationIndex)
             throws IOException {
+        this(
+                storeDir,
+                storeName,
+                legacyStoreName,
+                dataItemSerializer,
+                loadedDataCallback,
+                keyToDiskLocationIndex,
+                null,
+                false);
+    }
+
+    /**
+     * Construct a new MemoryIndexDiskKeyValueStore with a cache for values read from disk and
+     * optional memory mapped reads.
+     *
+     * @param storeDir The directory to store data files in
+     * @param storeName The name for the data store, this allows more than one data store in a
+     *     single directory.
+     * @param legacyStoreName Base name for the data store. If not null, the store will process
+     *     files with this prefix at startup. New files in the store will be prefixed with {@code
+     *     storeName}
+     * @param dataItemSerializer Serializer for converting raw data to/from data items
+     * @param loadedDataCallback call back for handing loaded data from existing files on startup.
+     *     Can be null if not needed.
+     * @param keyToDiskLocationIndex The index to use for keys to disk locations
+     * @param dataItemCache Cache for data items read from disk in {@link #get(long)}. Can be null if
+     *     not needed. The cache is closed when this store is closed
+     * @param memoryMappedReads Whether completed data files should be read through memory mapped
+     *     buffers rather than file channels
+     * @throws IOException If there was a problem opening data files
+     */
+    public MemoryIndexDiskKeyValueStore(
+            final Path storeDir,
+            final String storeName,
+            final String legacyStoreName,
+            final DataItemSerializer<D> dataItemSerializer,
+            final LoadedDataCallback loadedDataCallback,
+            final LongList keyToDiskLocationIndex,
+            @Nullable final DataItemCache dataItemCache,
+            final boolean memoryMappedReads)
+            throws IOException {
         this.storeName = storeName;
         index = keyToDiskLocationIndex;
         final boolean indexIsEmpty = keyToDiskLocationIndex.size() == 0;
@@ -137,7 +180,13 @@ public class MemoryIndexDiskKeyValueStore<D> implements AutoCloseable, Snapshota
         }
         // create file collection
         fileCollection = new DataFileCollection<>(
-                storeDir, storeName, legacyStoreName, dataItemSerializer, combinedLoadedDataCallback);
+                storeDir,
+                storeName,
+                legacyStoreName,
+                dataItemSerializer,
+                combinedLoadedDataCallback,
+                dataItemCache,
+                memoryMappedReads);
         // no limits for the keys on init
         minValidKey = new AtomicLong(0);
         maxValidKey = new AtomicLong(Long.MAX_VALUE);
@@ -159,6 +208,33 @@ public class MemoryIndexDiskKeyValueStore<D> implements AutoCloseable, Snapshota
             @Nullable final LongConsumer reportDurationMetricFunction,
             @Nullable final DoubleConsumer reportSavedSpaceMetricFunction)
             throws IOException, InterruptedException {
+        merge(
+                filterForFilesToMerge,
+                minNumberOfFilesToMerge,
+                reportDurationMetricFunction,
+                reportSavedSpaceMetricFunction,
+                null);
+    }
+
+    /**
+     * Compact (merge) all files that match the given filter.
+     *
+     * @param filterForFilesToMerge filter to choose which subset of files to merge
+     * @param minNumberOfFilesToMerge the minimum number of files to consider for a merge
+     * @param reportDurationMetricFunction function to report how long compaction took, in ms
+     * @param reportSavedSpaceMetricFunction function to report how much space was compacted, in Mb
+     * @param reportWrittenSpaceMetricFunction function to report how much data was written to new
+     *     compacted files, in Mb
+     * @throws IOException if there was a problem merging
+     * @throws InterruptedException if the merge thread was interupted
+     */
+    public void merge(
+            final Function<List<DataFileReader<D>>, List<DataFileReader<D>>> filterForFilesToMerge,
+            final int minNumberOfFilesToMerge,
+            @Nullable final LongConsumer reportDurationMetricFunction,
+            @Nullable final DoubleConsumer reportSavedSpaceMetricFunction,
+            @Nullable final DoubleConsumer reportWrittenSpaceMetricFunction)
+            throws IOException, InterruptedException {
         final List<DataFileReader<D>> allMergeableFiles = fileCollection.getAllCompletedFiles();
         final List<DataFileReader<D>> filesToMerge = filterForFilesToMerge.apply(allMergeableFiles);
         if (filesToMerge == null) {
@@ -225,6 +301,9 @@ public class MemoryIndexDiskKeyValueStore<D> implements AutoCloseable, Snapshota
             reportSavedSpaceMetricFunction.accept(
                     (filesToMergeSize - mergedFilesSize) * UnitConstants.BYTES_TO_MEBIBYTES);
         }
+        if (reportWrittenSpaceMetricFunction != null) {
+            reportWrittenSpaceMetricFunction.accept(mergedFilesSize * UnitConstants.BYTES_TO_MEBIBYTES);
+        }
 
         logMergeStats(storeName, tookMillis, filesToMerge, filesToMergeSize, newFilesCreated, fileCollection);
         logger.debug(
@@ -236,6 +315,46 @@ public class MemoryIndexDiskKeyValueStore<D> implements AutoCloseable, Snapshota
                 tookMillis);
     }
 
+    /**
+     * Estimates the number of live bytes in every completed data file in this store. See {@link
+     * DataFileCollection#estimateLiveBytes(CASableLongIndex)} for details.
+     *
+     * @return function to estimate the number of live bytes in a data file
+     * @throws InterruptedException if the thread is interrupted while iterating over the index
+     */
+    public ToLongFunction<DataFileReader<D>> estimateLiveBytes() throws InterruptedException {
+        return fileCollection.estimateLiveBytes(index);
+    }
+
+    /**
+     * Sets the max rate of bytes copied by compactions in this store.
+     *
+     * @param bytesPerSecond max number of bytes copied per second, zero means no rate limit
+     */
+    public void setCompactionRateLimit(final long bytesPerSecond) {
+        fileCollection.setCompactionRateLimit(bytesPerSecond);
+    }
+
+    /**
+     * Sets compression for new data files in this store.
+     *
+     * @param compression compression codec, {@link DataFileCompression#NONE} to write files
+     *     uncompressed
+     * @param blockSize uncompressed block size, in bytes
+     */
+    public void setCompression(final DataFileCompression compression, final int blockSize) {
+        fileCollection.setCompression(compression, blockSize);
+    }
+
+    /**
+     * Sets a listener to notify about data item reads from files in this store.
+     *
+     * @param readListener the listener, or null to stop notifications
+     */
+    public void setReadListener(final DataFileReadListener readListener) {
+        fileCollection.setReadListener(readListener);
+    }
+
     /**
      * Puts this store compaction on hold, if in progress, until {@link #resumeMerging()} is called.
      * If compaction is not in progress, calling this method will prevent new compactions from
@@ -263,13 +382,28 @@ public class MemoryIndexDiskKeyValueStore<D> implements AutoCloseable, Snapshota
      * @throws IOException If there was a problem opening a writing session
      */
     public void startWriting(final long minimumValidKey, final long maxValidIndex) throws IOException {
+        startWriting(minimumValidKey, maxValidIndex, 1);
+    }
+
+    /**
+     * Start a writing session ready for calls to {@link #put(int, long, Object)}, data items are
+     * written to the given number of files (partitions) concurrently. Every key must only be put to
+     * a single partition in a writing session.
+     *
+     * @param minimumValidKey min valid key
+     * @param maxValidIndex max valid key
+     * @param numberOfPartitions number of files to write in parallel
+     * @throws IOException If there was a problem opening a writing session
+     */
+    public void startWriting(final long minimumValidKey, final long maxValidIndex, final int numberOfPartitions)
+            throws IOException {
         this.minValidKey.set(minimumValidKey);
         this.maxValidKey.set(maxValidIndex);
         // By calling `updateMinValidIndex` we compact the index if it's applicable.
         // We need to do this before we start putting values into the index, otherwise we could put a value by
         // index that is not yet valid.
         index.updateValidRange(minimumValidKey, maxValidIndex);
-        fileCollection.startWriting();
+        fileCollection.startWriting(numberOfPartitions);
     }
 
     /**
@@ -281,7 +415,21 @@ public class MemoryIndexDiskKeyValueStore<D> implements AutoCloseable, Snapshota
      * @throws IOException If there was a problem write key/value to the store
      */
     public void put(final long key, final D dataItem) throws IOException {
-        final long dataLocation = fileCollection.storeDataItem(dataItem);
+        put(0, key, dataItem);
+    }
+
+    /**
+     * Put a value into the given partition of this store, you must be in a writing session
+     * started with {@link #startWriting(long, long, int)}. Different partitions may be written to
+     * from different threads.
+     *
+     * @param partition The partition to write the value to
+     * @param key The key to store value for
+     * @param dataItem Data item to store
+     * @throws IOException If there was a problem write key/value to the store
+     */
+    public void put(final int partition, final long key, final D dataItem) throws IOException {
+        final long dataLocation = fileCollection.storeDataItem(partition, dataItem);
         // store data location in index
         index.put(key, dataLocation);
     }
@@ -309,6 +457,32 @@ public class MemoryIndexDiskKeyValueStore<D> implements AutoCloseable, Snapshota
         return dataFileReader;
     }
 
+    /**
+     * End a session of writing started with {@link #startWriting(long, long, int)}. All written
+     * files are marked as completed together.
+     *
+     * @return Data file readers for the files written, one per partition
+     * @throws IOException If there was a problem closing the writing session
+     */
+    public List<DataFileReader<D>> endWritingPartitions() throws IOException {
+        final long currentMinValidKey = minValidKey.get();
+        final long currentMaxValidKey = maxValidKey.get();
+        final List<DataFileReader<D>> dataFileReaders =
+                fileCollection.endWritingPartitions(currentMinValidKey, currentMaxValidKey);
+        for (final DataFileReader<D> dataFileReader : dataFileReaders) {
+            dataFileReader.setFileCompleted();
+        }
+        logger.info(
+                MERKLE_DB.getMarker(),
+                "{} Ended writing, newFiles={}, numOfFiles={}, minimumValidKey={}, maximumValidKey={}",
+                storeName,
+                dataFileReaders,
+                fileCollection.getNumOfFiles(),
+                currentMinValidKey,
+                currentMaxValidKey);
+        return dataFileReaders;
+    }
+
     /**
      * Get a value by reading it from disk.
      *
@@ -357,6 +531,16 @@ public class MemoryIndexDiskKeyValueStore<D> implements AutoCloseable, Snapshota
         return fileCollection.getAllCompletedFilesSizeStatistics();
     }
 
+    /**
+     * Get the cache for values read from disk.
+     *
+     * @return the data item cache, or null if caching is disabled for this store
+     */
+    @Nullable
+    public DataItemCache getDataItemCache() {
+        return fileCollection.getDataItemCache();
+    }
+
     // =================================================================================================================
     // Debugging Tools, these can be enabled with the ENABLE_DEEP_VALIDATION flag above
 
@@ -0,0 +1,63 @@
+/*
+ * Copyright (C) 2023 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.merkledb.files;
+
+import java.util.List;
+
+/**
+ * Size-tiered compaction strategy. Files of similar sizes (the same size class) are compacted
+ * together, once there are enough of them. Every compaction produces a file in the same or the
+ * next size class, so every data item is rewritten about once per size class.
+ */
+public final class SizeTieredCompactionStrategy extends AbstractSizeBasedCompactionStrategy {
+
+    /** Min number of files of the same size class to compact */
+    private final int minFiles;
+
+    /**
+     * Creates a new size-tiered compaction strategy.
+     *
+     * @param baseSizeBytes max file size in the smallest tier, in bytes
+     * @param sizeRatio size ratio between adjacent tiers
+     * @param minFiles min number of files in a tier to compact
+     * @param maxFiles max number of files to compact at once
+     * @param garbageRatioThreshold min garbage ratio to compact files in a tier, even if there are
+     *     fewer than {@code minFiles} files
+     * @throws IllegalArgumentException if any of the arguments is out of range
+     */
+    public SizeTieredCompactionStrategy(
+            final long baseSizeBytes,
+            final int sizeRatio,
+            final int minFiles,
+            final int maxFiles,
+            final double garbageRatioThreshold) {
+        super(baseSizeBytes, sizeRatio, maxFiles, garbageRatioThreshold);
+        if ((minFiles < 2) || (minFiles > maxFiles)) {
+            throw new IllegalArgumentException("Min number of files must be between 2 and " + maxFiles);
+        }
+        this.minFiles = minFiles;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected <D> boolean isCompactionNeeded(
+            final int sizeClass, final List<DataFileReader<D>> run, final long runLiveBytes) {
+        return run.size() >= minFiles;
+    }
+}
@@ -31,6 +31,7 @@ import java.io.UncheckedIOException;
 import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -236,6 +237,20 @@ public final class Bucket<K extends VirtualKey> implements Closeable {
         }
     }
 
+    /**
+     * Calls the given action for the key hash code of every entry in this bucket.
+     *
+     * @param action the action to call for every key hash code
+     */
+    public void forEachKeyHashCode(final IntConsumer action) {
+        final int entryCount = getBucketEntryCount();
+        int entryOffset = BUCKET_HEADER_SIZE;
+        for (int i = 0; i < entryCount; i++) {
+            action.accept(bucketBuffer.getInt(entryOffset));
+            entryOffset += KEY_HASHCODE_SIZE + VALUE_SIZE + getKeySize(entryOffset);
+        }
+    }
+
     /**
      * Put a key/value entry into this bucket.
      *
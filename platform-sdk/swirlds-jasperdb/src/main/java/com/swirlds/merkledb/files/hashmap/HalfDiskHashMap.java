@@ -25,6 +25,8 @@ import static com.swirlds.merkledb.files.DataFileCommon.getSizeOfFiles;
 import static com.swirlds.merkledb.files.DataFileCommon.getSizeOfFilesByPath;
 import static com.swirlds.merkledb.files.DataFileCommon.logMergeStats;
 
+import com.swirlds.common.bloom.BloomFilter;
+import com.swirlds.common.bloom.hasher.IntBloomHasher;
 import com.swirlds.common.config.singleton.ConfigurationHolder;
 import com.swirlds.common.threading.framework.config.ThreadConfiguration;
 import com.swirlds.common.units.UnitConstants;
@@ -35,6 +37,7 @@ import com.swirlds.merkledb.collections.LongListOffHeap;
 import com.swirlds.merkledb.config.MerkleDbConfig;
 import com.swirlds.merkledb.files.DataFileCollection;
 import com.swirlds.merkledb.files.DataFileCollection.LoadedDataCallback;
+import com.swirlds.merkledb.files.DataFileReadListener;
 import com.swirlds.merkledb.files.DataFileReader;
 import com.swirlds.merkledb.serialize.KeySerializer;
 import com.swirlds.virtualmap.VirtualKey;
@@ -54,6 +57,7 @@ import java.util.concurrent.Executors;
 import java.util.function.DoubleConsumer;
 import java.util.function.Function;
 import java.util.function.LongConsumer;
+import java.util.function.ToLongFunction;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.eclipse.collections.api.tuple.primitive.IntObjectPair;
@@ -128,6 +132,24 @@ public class HalfDiskHashMap<K extends VirtualKey> implements AutoCloseable, Sna
     private final BucketSerializer<K> bucketSerializer;
     /** Store for session data during a writing transaction */
     private IntObjectHashMap<BucketMutation<K>> oneTransactionsData = null;
+    /**
+     * Bloom filter of hash codes of all keys in this map, or null if the filter is disabled. It's
+     * used in {@link #get(VirtualKey, long)} to skip bucket reads for keys that are definitely not
+     * in the map. Keys are added to the filter in {@link #put(VirtualKey, long)}, but never removed,
+     * so deleted keys are only cleared from the filter when it's rebuilt as the map is loaded from
+     * disk. The filter is only ever updated from the writing thread, its updates are made visible to
+     * reading threads through {@link #publishedKeyHashCodeFilter}
+     */
+    private final BloomFilter<Integer> keyHashCodeFilter;
+    /**
+     * The same filter as {@link #keyHashCodeFilter}, as seen by reading threads. The filter's bits are
+     * plain ints, so without a happens-before edge a reading thread could see a stale filter, and skip
+     * a key that is already in the map. The writing thread writes this volatile field after it has
+     * added all keys of a writing session to the filter, and before any bucket of the session is
+     * stored. Reading threads read the filter from this field, so they see all keys added before the
+     * last write
+     */
+    private volatile BloomFilter<Integer> publishedKeyHashCodeFilter;
     /**
      * The thread that called startWriting. We use it to check that other writing calls are done on
      * same thread
@@ -173,6 +195,76 @@ public class HalfDiskHashMap<K extends VirtualKey> implements AutoCloseable, Sna
             final String legacyStoreName,
             final boolean preferDiskBasedIndex)
             throws IOException {
+        this(mapSize, keySerializer, storeDir, storeName, legacyStoreName, preferDiskBasedIndex, false);
+    }
+
+    /**
+     * Construct a new HalfDiskHashMap
+     *
+     * @param mapSize The maximum map number of entries. This should be more than big enough to
+     *     avoid too many key collisions.
+     * @param keySerializer Serializer for converting raw data to/from keys
+     * @param storeDir The directory to use for storing data files.
+     * @param storeName The name for the data store, this allows more than one data store in a
+     *     single directory.
+     * @param legacyStoreName Base name for the data store. If not null, the store will process
+     *     files with this prefix at startup. New files in the store will be prefixed with {@code
+     *     storeName}
+     * @param preferDiskBasedIndex When true we will use disk based index rather than ram where
+     *     possible. This will come with a significant performance cost, especially for writing. It
+     *     is possible to load a data source that was written with memory index with disk based
+     *     index and vice versa.
+     * @param memoryMappedReads Whether completed bucket files should be read through memory mapped
+     *     buffers rather than file channels
+     * @throws IOException If there was a problem creating or opening a set of data files.
+     */
+    public HalfDiskHashMap(
+            final long mapSize,
+            final KeySerializer<K> keySerializer,
+            final Path storeDir,
+            final String storeName,
+            final String legacyStoreName,
+            final boolean preferDiskBasedIndex,
+            final boolean memoryMappedReads)
+            throws IOException {
+        this(mapSize, keySerializer, storeDir, storeName, legacyStoreName, preferDiskBasedIndex, memoryMappedReads, 0);
+    }
+
+    /**
+     * Construct a new HalfDiskHashMap
+     *
+     * @param mapSize The maximum map number of entries. This should be more than big enough to
+     *     avoid too many key collisions.
+     * @param keySerializer Serializer for converting raw data to/from keys
+     * @param storeDir The directory to use for storing data files.
+     * @param storeName The name for the data store, this allows more than one data store in a
+     *     single directory.
+     * @param legacyStoreName Base name for the data store. If not null, the store will process
+     *     files with this prefix at startup. New files in the store will be prefixed with {@code
+     *     storeName}
+     * @param preferDiskBasedIndex When true we will use disk based index rather than ram where
+     *     possible. This will come with a significant performance cost, especially for writing. It
+     *     is possible to load a data source that was written with memory index with disk based
+     *     index and vice versa.
+     * @param memoryMappedReads Whether completed bucket files should be read through memory mapped
+     *     buffers rather than file channels
+     * @param bloomFilterBitsPerKey Size of the in-memory bloom filter of keys, in bits per map
+     *     entry. The filter is sized for {@code mapSize} entries. If zero, the filter is disabled
+     * @throws IOException If there was a problem creating or opening a set of data files.
+     */
+    public HalfDiskHashMap(
+            final long mapSize,
+            final KeySerializer<K> keySerializer,
+            final Path storeDir,
+            final String storeName,
+            final String legacyStoreName,
+            final boolean preferDiskBasedIndex,
+            final boolean memoryMappedReads,
+            final int bloomFilterBitsPerKey)
+            throws IOException {
+        if (bloomFilterBitsPerKey < 0) {
+            throw new IllegalArgumentException("Bloom filter bits per key must not be negative");
+        }
         this.mapSize = mapSize;
         this.storeName = storeName;
         Path indexFile = storeDir.resolve(storeName + BUCKET_INDEX_FILENAME_SUFFIX);
@@ -247,8 +339,46 @@ public class HalfDiskHashMap<K extends VirtualKey> implements AutoCloseable, Sna
                     numOfBuckets);
         }
         // create file collection
-        fileCollection =
-                new DataFileCollection<>(storeDir, storeName, legacyStoreName, bucketSerializer, loadedDataCallback);
+        fileCollection = new DataFileCollection<>(
+                storeDir, storeName, legacyStoreName, bucketSerializer, loadedDataCallback, null, memoryMappedReads);
+        // create key filter and fill it with all keys loaded from disk, if any
+        if (bloomFilterBitsPerKey > 0) {
+            keyHashCodeFilter = new BloomFilter<>(
+                    config.keyToPathBloomFilterHashCount(),
+                    new IntBloomHasher(),
+                    Math.max(mapSize, 1) * bloomFilterBitsPerKey);
+            if (fileCollection.getNumOfFiles() > 0) {
+                rebuildKeyHashCodeFilter();
+            }
+            publishKeyHashCodeFilter();
+        } else {
+            keyHashCodeFilter = null;
+        }
+    }
+
+    /**
+     * Adds hash codes of all keys in all buckets to the key filter.
+     *
+     * @throws IOException If there was a problem reading buckets from disk
+     */
+    private void rebuildKeyHashCodeFilter() throws IOException {
+        final long start = System.currentTimeMillis();
+        long keyCount = 0;
+        for (int bucketIndex = 0; bucketIndex < numOfBuckets; bucketIndex++) {
+            try (final Bucket<K> bucket =
+                    fileCollection.readDataItemUsingIndex(bucketIndexToBucketLocation, bucketIndex)) {
+                if (bucket != null) {
+                    bucket.forEachKeyHashCode(keyHashCodeFilter::add);
+                    keyCount += bucket.getBucketEntryCount();
+                }
+            }
+        }
+        logger.info(
+                MERKLE_DB.getMarker(),
+                "HalfDiskHashMap [{}] rebuilt key bloom filter with {} keys in {} ms",
+                storeName,
+                keyCount,
+                System.currentTimeMillis() - start);
     }
 
     /**
@@ -277,6 +407,34 @@ public class HalfDiskHashMap<K extends VirtualKey> implements AutoCloseable, Sna
             @Nullable final LongConsumer reportDurationMetricFunction,
             @Nullable final DoubleConsumer reportSavedSpaceMetricFunction)
             throws IOException, InterruptedException {
+        merge(
+                filterForFilesToMerge,
+                minNumberOfFilesToMerge,
+                reportDurationMetricFunction,
+                reportSavedSpaceMetricFunction,
+                null);
+    }
+
+    /**
+     * Merge all read only files that match provided filter. Important the set of files must be
+     * contiguous in time otherwise the merged data will be invalid.
+     *
+     * @param filterForFilesToMerge filter to choose which subset of files to merge
+     * @param minNumberOfFilesToMerge the minimum number of files to consider for a merge
+     * @param reportDurationMetricFunction function to report how long compaction took, in ms
+     * @param reportSavedSpaceMetricFunction function to report how much space was compacted, in Mb
+     * @param reportWrittenSpaceMetricFunction function to report how much data was written to new
+     *     compacted files, in Mb
+     * @throws IOException if there was a problem merging
+     * @throws InterruptedException If the merge thread was interupted
+     */
+    public void merge(
+            final Function<List<DataFileReader<Bucket<K>>>, List<DataFileReader<Bucket<K>>>> filterForFilesToMerge,
+            final int minNumberOfFilesToMerge,
+            @Nullable final LongConsumer reportDurationMetricFunction,
+            @Nullable final DoubleConsumer reportSavedSpaceMetricFunction,
+            @Nullable final DoubleConsumer reportWrittenSpaceMetricFunction)
+            throws IOException, InterruptedException {
         final List<DataFileReader<Bucket<K>>> allFilesBefore = fileCollection.getAllCompletedFiles();
         final List<DataFileReader<Bucket<K>>> filesToMerge = filterForFilesToMerge.apply(allFilesBefore);
         if (filesToMerge == null) {
@@ -316,6 +474,9 @@ public class HalfDiskHashMap<K extends VirtualKey> implements AutoCloseable, Sna
             reportSavedSpaceMetricFunction.accept(
                     (filesToMergeSize - mergedFilesSize) * UnitConstants.BYTES_TO_MEBIBYTES);
         }
+        if (reportWrittenSpaceMetricFunction != null) {
+            reportWrittenSpaceMetricFunction.accept(mergedFilesSize * UnitConstants.BYTES_TO_MEBIBYTES);
+        }
 
         logMergeStats(storeName, tookMillis, filesToMerge, filesToMergeSize, newFilesCreated, fileCollection);
         logger.debug(
@@ -327,6 +488,36 @@ public class HalfDiskHashMap<K extends VirtualKey> implements AutoCloseable, Sna
                 tookMillis);
     }
 
+    /**
+     * Estimates the number of live bytes in every completed bucket file. See {@link
+     * DataFileCollection#estimateLiveBytes(com.swirlds.merkledb.collections.CASableLongIndex)} for
+     * details.
+     *
+     * @return function to estimate the number of live bytes in a bucket file
+     * @throws InterruptedException if the thread is interrupted while iterating over the index
+     */
+    public ToLongFunction<DataFileReader<Bucket<K>>> estimateLiveBytes() throws InterruptedException {
+        return fileCollection.estimateLiveBytes(bucketIndexToBucketLocation);
+    }
+
+    /**
+     * Sets the max rate of bytes copied by compactions in this map.
+     *
+     * @param bytesPerSecond max number of bytes copied per second, zero means no rate limit
+     */
+    public void setCompactionRateLimit(final long bytesPerSecond) {
+        fileCollection.setCompactionRateLimit(bytesPerSecond);
+    }
+
+    /**
+     * Sets a listener to notify about data item reads from files in this map.
+     *
+     * @param readListener the listener, or null to stop notifications
+     */
+    public void setReadListener(final DataFileReadListener readListener) {
+        fileCollection.setReadListener(readListener);
+    }
+
     /**
      * Puts this store compaction on hold, if in progress, until {@link #resumeMerging()} is called.
      * If compaction is not in progress, calling this method will prevent new compactions from
@@ -425,6 +616,10 @@ public class HalfDiskHashMap<K extends VirtualKey> implements AutoCloseable, Sna
         if (Thread.currentThread() != writingThread) {
             throw new IllegalStateException("Tried to write with different thread to startWriting()");
         }
+        // add the key to the filter before it can be read from disk
+        if ((keyHashCodeFilter != null) && (value != SPECIAL_DELETE_ME_VALUE)) {
+            keyHashCodeFilter.add(key.hashCode());
+        }
         // store key and value in transaction cache
         final int bucketIndex = computeBucketIndex(key.hashCode());
         final BucketMutation<K> bucketMap =
@@ -454,6 +649,8 @@ public class HalfDiskHashMap<K extends VirtualKey> implements AutoCloseable, Sna
             throw new IllegalStateException("Tried calling endWriting with different thread to startWriting()");
         }
         writingThread = null;
+        // make keys added in this session visible to readers before their buckets can be read
+        publishKeyHashCodeFilter();
         final int size = oneTransactionsData.size();
         logger.info(
                 MERKLE_DB.getMarker(),
@@ -566,6 +763,9 @@ public class HalfDiskHashMap<K extends VirtualKey> implements AutoCloseable, Sna
             throw new IllegalArgumentException("Can not get a null key");
         }
         final int keyHash = key.hashCode();
+        if (!mayContainKeyHashCode(keyHash)) {
+            return notFoundValue;
+        }
         final int bucketIndex = computeBucketIndex(keyHash);
         try (final Bucket<K> bucket = fileCollection.readDataItemUsingIndex(bucketIndexToBucketLocation, bucketIndex)) {
             if (bucket != null) {
@@ -575,6 +775,27 @@ public class HalfDiskHashMap<K extends VirtualKey> implements AutoCloseable, Sna
         return notFoundValue;
     }
 
+    /**
+     * Check the key filter for a key hash code. Can be called from any thread.
+     *
+     * @param keyHash the key hash code
+     * @return false if no key with the hash code is in the map, true if there may be one or the
+     *     filter is disabled
+     */
+    private boolean mayContainKeyHashCode(final int keyHash) {
+        final BloomFilter<Integer> filter = publishedKeyHashCodeFilter;
+        // hashes are computed into a new array, as the filter's own buffer is not thread safe
+        return (filter == null) || filter.contains(filter.hash(keyHash));
+    }
+
+    /**
+     * Make all keys added to the key filter so far visible to reading threads. Only called from
+     * the writing thread, or during construction.
+     */
+    private void publishKeyHashCodeFilter() {
+        publishedKeyHashCodeFilter = keyHashCodeFilter;
+    }
+
     // =================================================================================================================
     // Debugging Print API
 
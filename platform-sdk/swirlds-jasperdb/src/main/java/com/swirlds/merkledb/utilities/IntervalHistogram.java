@@ -0,0 +1,222 @@
+/*
+ * Copyright (C) 2023 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.merkledb.utilities;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * A lock-free histogram of non-negative long values, for example latencies, which reports percentiles
+ * and max over a recent time window.
+ * <p>
+ * Values are counted in log-linear buckets. Values below {@link #SUB_BUCKETS} have a bucket each, all
+ * larger values share {@link #SUB_BUCKETS} buckets per power of two, so the relative error of reported
+ * percentiles is below 1 / {@link #SUB_BUCKETS}. Recording a value is a single atomic increment, no
+ * objects are allocated.
+ * <p>
+ * Recorded values are collected into the current interval. When the histogram is queried and the
+ * current interval is older than the configured interval length, the current interval becomes the
+ * previous one, and a new interval is started. Queries cover both the previous and the current
+ * intervals, so results are never empty right after an interval is rotated, and values recorded
+ * long ago eventually fall out of the window.
+ */
+public final class IntervalHistogram {
+
+    /** Number of bits used to select a bucket within a power of two */
+    private static final int SUB_BUCKET_BITS = 3;
+
+    /** Number of buckets per power of two */
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /** Total number of buckets, enough to cover all non-negative long values */
+    static final int BUCKET_COUNT = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    /** Interval length, in nanoseconds */
+    private final long intervalNanos;
+
+    /** Source of time, in nanoseconds */
+    private final LongSupplier nanoClock;
+
+    /** Bucket counts for the current interval */
+    private final AtomicLongArray current = new AtomicLongArray(BUCKET_COUNT);
+
+    /** Bucket counts for the previous interval. Only updated when intervals are rotated */
+    private final AtomicLongArray previous = new AtomicLongArray(BUCKET_COUNT);
+
+    /** Max value recorded in the current interval */
+    private final AtomicLong currentMax = new AtomicLong();
+
+    /** Max value recorded in the previous interval */
+    private volatile long previousMax;
+
+    /** Start time of the current interval, in nanoseconds */
+    private volatile long intervalStart;
+
+    /**
+     * Creates a new histogram.
+     *
+     * @param intervalNanos
+     * 		interval length, in nanoseconds. Must be positive
+     */
+    public IntervalHistogram(final long intervalNanos) {
+        this(intervalNanos, System::nanoTime);
+    }
+
+    /**
+     * Creates a new histogram with the given clock. Used in tests.
+     *
+     * @param intervalNanos
+     * 		interval length, in nanoseconds. Must be positive
+     * @param nanoClock
+     * 		source of time, in nanoseconds
+     */
+    IntervalHistogram(final long intervalNanos, final LongSupplier nanoClock) {
+        if (intervalNanos <= 0) {
+            throw new IllegalArgumentException("Interval must be positive");
+        }
+        this.intervalNanos = intervalNanos;
+        this.nanoClock = nanoClock;
+        this.intervalStart = nanoClock.getAsLong();
+    }
+
+    /**
+     * Records a value. Negative values are recorded as zeros.
+     *
+     * @param value
+     * 		the value to record
+     */
+    public void record(final long value) {
+        final long v = Math.max(0, value);
+        current.incrementAndGet(bucketIndex(v));
+        long max = currentMax.get();
+        while ((v > max) && !currentMax.compareAndSet(max, v)) {
+            max = currentMax.get();
+        }
+    }
+
+    /**
+     * Returns the number of values recorded in the previous and the current intervals.
+     *
+     * @return the number of values in the window
+     */
+    public long getCount() {
+        rotateIfNeeded();
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            count += previous.get(i) + current.get(i);
+        }
+        return count;
+    }
+
+    /**
+     * Returns the max value recorded in the previous and the current intervals, or zero if no values
+     * were recorded.
+     *
+     * @return the max value in the window
+     */
+    public long getMax() {
+        rotateIfNeeded();
+        return Math.max(previousMax, currentMax.get());
+    }
+
+    /**
+     * Returns an estimate of the given percentile of the values recorded in the previous and the
+     * current intervals, or zero if no values were recorded. The estimate is the upper bound of the
+     * bucket the percentile falls into, but it never exceeds the max recorded value.
+     *
+     * @param percentile
+     * 		the percentile, from 0 to 100
+     * @return the percentile estimate
+     */
+    public long getPercentile(final double percentile) {
+        if ((percentile < 0) || (percentile > 100)) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100");
+        }
+        rotateIfNeeded();
+        final long[] counts = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = previous.get(i) + current.get(i);
+            total += counts[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        final long rank = Math.max(1, (long) Math.ceil(total * percentile / 100));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(bucketUpperBound(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * Starts a new interval, if the current one is over. Values recorded concurrently with rotation
+     * are never lost, they end up in either the previous or the current interval.
+     */
+    private void rotateIfNeeded() {
+        final long now = nanoClock.getAsLong();
+        if (now - intervalStart < intervalNanos) {
+            return;
+        }
+        synchronized (this) {
+            if (now - intervalStart < intervalNanos) {
+                return;
+            }
+            // If more than two intervals have passed, the current interval is too old to be reported
+            final boolean stale = now - intervalStart >= 2 * intervalNanos;
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                final long count = current.getAndSet(i, 0);
+                previous.set(i, stale ? 0 : count);
+            }
+            final long max = currentMax.getAndSet(0);
+            previousMax = stale ? 0 : max;
+            intervalStart = now;
+        }
+    }
+
+    /**
+     * Returns the index of the bucket for the given non-negative value.
+     */
+    static int bucketIndex(final long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        final int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        final int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return ((exponent - SUB_BUCKET_BITS + 1) << SUB_BUCKET_BITS) + subBucket;
+    }
+
+    /**
+     * Returns the max value that falls into the bucket with the given index.
+     */
+    static long bucketUpperBound(final int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        final int exponent = (index >>> SUB_BUCKET_BITS) + SUB_BUCKET_BITS - 1;
+        final int subBucket = index & (SUB_BUCKETS - 1);
+        final long width = 1L << (exponent - SUB_BUCKET_BITS);
+        final long lowerBound = (1L << exponent) + subBucket * width;
+        // The last bucket's upper bound is Long.MAX_VALUE, don't overflow
+        return lowerBound + (width - 1);
+    }
+}
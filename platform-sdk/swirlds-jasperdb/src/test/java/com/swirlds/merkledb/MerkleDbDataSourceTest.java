@@ -25,6 +25,7 @@ import static com.swirlds.merkledb.MerkleDbTestUtils.shuffle;
 import static com.swirlds.virtualmap.datasource.VirtualDataSource.INVALID_PATH;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
@@ -43,8 +44,11 @@ import java.nio.file.Path;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.List;
 import java.util.Random;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
@@ -241,6 +245,64 @@ class MerkleDbDataSourceTest {
         dataSource.closeAndDelete();
     }
 
+    @ParameterizedTest
+    @EnumSource(TestType.class)
+    void warmLeafRecords(final TestType testType) throws Exception {
+        final int count = 10_000;
+        final MerkleDbDataSource<VirtualLongKey, ExampleByteArrayVirtualValue> dataSource =
+                createDataSource(testDirectory, "test12", testType, count);
+        dataSource.saveRecords(
+                count,
+                count * 2,
+                IntStream.range(count, count * 2).mapToObj(MerkleDbDataSourceTest::createVirtualInternalRecord),
+                IntStream.range(count, count * 2)
+                        .mapToObj(i -> testType.dataType().createVirtualLeafRecord(i)),
+                Stream.empty());
+        // warm existing keys in random order, along with some keys that don't exist
+        final List<VirtualLongKey> keys = new ArrayList<>();
+        IntStream.range(count / 2, count * 3)
+                .forEach(i -> keys.add(testType.dataType().createVirtualLongKey(i)));
+        Collections.shuffle(keys, RANDOM);
+        dataSource.warmLeafRecords(keys).get();
+        // warmed records must be the same as read directly
+        IntStream.range(count, count * 2).forEach(i -> assertLeaf(testType, dataSource, i, i));
+        assertNull(
+                dataSource.loadLeafRecord(testType.dataType().createVirtualLongKey(count / 2)),
+                "Warming must not create leaf records for unknown keys");
+        assertTrue(dataSource.warmLeafRecords(List.of()).isDone(), "Warming no keys should complete immediately");
+        dataSource.closeAndDelete();
+    }
+
+    @ParameterizedTest
+    @EnumSource(TestType.class)
+    void warmLeafRecordsDoesNotOverwriteFlushedRecords(final TestType testType) throws Exception {
+        final int count = 10_000;
+        final MerkleDbDataSource<VirtualLongKey, ExampleByteArrayVirtualValue> dataSource =
+                createDataSource(testDirectory, "test12b", testType, count);
+        dataSource.saveRecords(
+                count,
+                count * 2,
+                IntStream.range(count, count * 2).mapToObj(MerkleDbDataSourceTest::createVirtualInternalRecord),
+                IntStream.range(count, count * 2)
+                        .mapToObj(i -> testType.dataType().createVirtualLeafRecord(i)),
+                Stream.empty());
+        final List<VirtualLongKey> keys = new ArrayList<>();
+        IntStream.range(count, count * 2).forEach(i -> keys.add(testType.dataType().createVirtualLongKey(i)));
+        // update all leaves while they are being warmed in background
+        final CompletableFuture<Void> warmed = dataSource.warmLeafRecords(keys);
+        dataSource.saveRecords(
+                count,
+                count * 2,
+                Stream.empty(),
+                IntStream.range(count, count * 2)
+                        .mapToObj(i -> testType.dataType().createVirtualLeafRecord(i, i, i + 10_000)),
+                Stream.empty());
+        warmed.get();
+        // records read by warming before the update must not replace the updated records
+        IntStream.range(count, count * 2).forEach(i -> assertLeaf(testType, dataSource, i, i, i + 10_000));
+        dataSource.closeAndDelete();
+    }
+
     @ParameterizedTest
     @Tag(TestQualifierTags.TIME_CONSUMING)
     @EnumSource(TestType.class)
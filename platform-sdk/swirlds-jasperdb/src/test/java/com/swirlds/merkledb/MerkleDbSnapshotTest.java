@@ -35,6 +35,8 @@ import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.util.Random;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicReference;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
@@ -137,6 +139,123 @@ class MerkleDbSnapshotTest {
         restoredStateRoot.release();
     }
 
+    @Test
+    void snapshotMultipleTablesTestParallel() throws Exception {
+        final MerkleInternal initialRoot = new TestInternalNode();
+        final MerkleDbTableConfig<ExampleLongKeyFixedSize, ExampleFixedSizeVirtualValue> tableConfig = fixedConfig();
+        final MerkleDbDataSourceBuilder<ExampleLongKeyFixedSize, ExampleFixedSizeVirtualValue> dsBuilder =
+                new MerkleDbDataSourceBuilder<>(tableConfig);
+        for (int i = 0; i < MAPS_COUNT; i++) {
+            final VirtualMap<ExampleLongKeyFixedSize, ExampleFixedSizeVirtualValue> vm =
+                    new VirtualMap<>("vm" + i, dsBuilder);
+            initialRoot.setChild(i, vm);
+        }
+
+        long keyId = 0;
+        for (int i = 0; i < MAPS_COUNT; i++) {
+            final VirtualMap<ExampleLongKeyFixedSize, ExampleFixedSizeVirtualValue> vm = initialRoot.getChild(i);
+            for (int k = 0; k < ROUND_CHANGES; k++) {
+                vm.put(new ExampleLongKeyFixedSize(keyId++), new ExampleFixedSizeVirtualValue(RANDOM.nextInt()));
+            }
+        }
+        // only immutable copies can be written to disk
+        final MerkleInternal stateRoot = initialRoot.copy();
+        MerkleCryptoFactory.getInstance().digestTreeSync(initialRoot);
+
+        final Path sequentialDir = TemporaryFileBuilder.buildTemporaryDirectory("snapshotSequential");
+        final Path sequentialFile = sequentialDir.resolve("state.swh");
+        try (final MerkleDataOutputStream out = new MerkleDataOutputStream(
+                Files.newOutputStream(sequentialFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE))) {
+            out.writeMerkleTree(sequentialDir, initialRoot);
+        }
+
+        final Path parallelDir = TemporaryFileBuilder.buildTemporaryDirectory("snapshotParallel");
+        final Path parallelFile = parallelDir.resolve("state.swh");
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try (final MerkleDataOutputStream out = new MerkleDataOutputStream(
+                Files.newOutputStream(parallelFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE))) {
+            out.writeMerkleTree(parallelDir, initialRoot, executor);
+        } finally {
+            executor.shutdown();
+        }
+
+        Assertions.assertArrayEquals(
+                Files.readAllBytes(sequentialFile),
+                Files.readAllBytes(parallelFile),
+                "the state file should be the same when subtrees are written in parallel");
+
+        MerkleDb.setDefaultPath(null);
+        final MerkleDataInputStream in =
+                new MerkleDataInputStream(Files.newInputStream(parallelFile, StandardOpenOption.READ));
+        final ExecutorService loader = Executors.newFixedThreadPool(4);
+        final MerkleInternal restoredStateRoot;
+        try {
+            restoredStateRoot = in.readMerkleTree(parallelDir, Integer.MAX_VALUE, loader);
+        } finally {
+            loader.shutdown();
+        }
+        for (int i = 0; i < MAPS_COUNT; i++) {
+            final VirtualMap<ExampleLongKeyFixedSize, ExampleFixedSizeVirtualValue> vm = restoredStateRoot.getChild(i);
+            Assertions.assertEquals("vm" + i, vm.getLabel(), "subtrees loaded in parallel should keep their position");
+        }
+
+        verify(restoredStateRoot);
+
+        initialRoot.release();
+        stateRoot.release();
+        restoredStateRoot.release();
+    }
+
+    @Test
+    void restoreMultipleTablesWithParallelLoaders() throws Exception {
+        final MerkleInternal initialRoot = new TestInternalNode();
+        final MerkleDbTableConfig<ExampleLongKeyFixedSize, ExampleFixedSizeVirtualValue> tableConfig = fixedConfig();
+        final MerkleDbDataSourceBuilder<ExampleLongKeyFixedSize, ExampleFixedSizeVirtualValue> dsBuilder =
+                new MerkleDbDataSourceBuilder<>(tableConfig);
+        long keyId = 0;
+        for (int i = 0; i < MAPS_COUNT; i++) {
+            final VirtualMap<ExampleLongKeyFixedSize, ExampleFixedSizeVirtualValue> vm =
+                    new VirtualMap<>("vm" + i, dsBuilder);
+            for (int k = 0; k < ROUND_CHANGES; k++) {
+                vm.put(new ExampleLongKeyFixedSize(keyId++), new ExampleFixedSizeVirtualValue(RANDOM.nextInt()));
+            }
+            initialRoot.setChild(i, vm);
+        }
+        // only immutable copies can be written to disk
+        final MerkleInternal stateRoot = initialRoot.copy();
+        MerkleCryptoFactory.getInstance().digestTreeSync(initialRoot);
+
+        final Path snapshotDir = TemporaryFileBuilder.buildTemporaryDirectory("snapshotParallelLoad");
+        final Path snapshotFile = snapshotDir.resolve("state.swh");
+        try (final MerkleDataOutputStream out = new MerkleDataOutputStream(
+                Files.newOutputStream(snapshotFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE))) {
+            out.writeMerkleTree(snapshotDir, initialRoot);
+        }
+
+        // every load restores into a new default database, so all loaders race to restore the same snapshot
+        for (int j = 0; j < 5; j++) {
+            MerkleDb.setDefaultPath(TemporaryFileBuilder.buildTemporaryDirectory("restoreParallelLoad"));
+            final ExecutorService loader = Executors.newFixedThreadPool(MAPS_COUNT);
+            final MerkleInternal restoredStateRoot;
+            try (final MerkleDataInputStream in =
+                    new MerkleDataInputStream(Files.newInputStream(snapshotFile, StandardOpenOption.READ))) {
+                restoredStateRoot = in.readMerkleTree(snapshotDir, Integer.MAX_VALUE, loader);
+            } finally {
+                loader.shutdown();
+            }
+            for (int i = 0; i < MAPS_COUNT; i++) {
+                final VirtualMap<ExampleLongKeyFixedSize, ExampleFixedSizeVirtualValue> vm =
+                        restoredStateRoot.getChild(i);
+                Assertions.assertEquals(ROUND_CHANGES, vm.size(), "every map should be fully restored in parallel");
+            }
+            verify(restoredStateRoot);
+            restoredStateRoot.release();
+        }
+
+        initialRoot.release();
+        stateRoot.release();
+    }
+
     @Test
     void snapshotMultipleTablesTestAsync() throws Exception {
         final MerkleInternal initialRoot = new TestInternalNode();
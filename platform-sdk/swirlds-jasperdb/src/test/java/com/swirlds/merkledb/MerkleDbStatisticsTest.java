@@ -19,6 +19,7 @@ package com.swirlds.merkledb;
 import static com.swirlds.common.metrics.Metric.ValueType.VALUE;
 import static com.swirlds.merkledb.MerkleDbStatistics.STAT_CATEGORY;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
@@ -100,6 +101,19 @@ class MerkleDbStatisticsTest {
         assertDoesNotThrow(() -> statistics.setOffHeapObjectKeyBucketsIndexMb(42));
         assertDoesNotThrow(() -> statistics.setOffHeapHashesListMb(42));
         assertDoesNotThrow(() -> statistics.setOffHeapDataSourceMb(42));
+        assertDoesNotThrow(() -> statistics.countHashesStoreCacheStats(3, 1, 4));
+        assertDoesNotThrow(() -> statistics.countLeavesStoreCacheStats(3, 1, 4));
+        assertDoesNotThrow(() -> statistics.setHashesStoreCompactionWrittenMb(Math.PI));
+        assertDoesNotThrow(() -> statistics.setLeavesStoreCompactionWrittenMb(Math.PI));
+        assertDoesNotThrow(() -> statistics.setLeafKeysStoreCompactionWrittenMb(Math.PI));
+        assertDoesNotThrow(() -> statistics.recordHashReadTimeUs(42));
+        assertDoesNotThrow(() -> statistics.recordLeafReadTimeUs(42));
+        assertDoesNotThrow(() -> statistics.recordLeafKeyReadTimeUs(42));
+        assertDoesNotThrow(() -> statistics.recordFlushTimeMs(42));
+        assertDoesNotThrow(() -> statistics.recordSnapshotTimeMs(42));
+        assertDoesNotThrow(() -> statistics.recordSnapshotStepTimeMs(42));
+        assertDoesNotThrow(() -> statistics.dataItemRead(42));
+        assertDoesNotThrow(() -> statistics.fileChannelLeased(42));
     }
 
     @Test
@@ -128,6 +142,44 @@ class MerkleDbStatisticsTest {
         assertNotEquals(0.0, metric.get(VALUE));
     }
 
+    @Test
+    void testLeavesStoreCacheStats() {
+        // given
+        final Metric hits = getMetric("cache_", "leavesHits_" + LABEL);
+        final Metric misses = getMetric("cache_", "leavesMisses_" + LABEL);
+        final Metric evictions = getMetric("cache_", "leavesEvictions_" + LABEL);
+        // when
+        statistics.countLeavesStoreCacheStats(3, 1, 4);
+        // then
+        assertValueSet(hits);
+        assertValueSet(misses);
+        assertValueSet(evictions);
+    }
+
+    @Test
+    void testHashesStoreCacheHitRatio() {
+        // given
+        final Metric hitRatio = getMetric("cache_", "hashesHitRatio_" + LABEL);
+        // when
+        statistics.countHashesStoreCacheStats(3, 1, 4);
+        // then
+        assertEquals(0.75, hitRatio.get(VALUE));
+    }
+
+    @Test
+    void testHashReadTimeHistogram() {
+        // given
+        final Metric p50 = getMetric("reads_", "hashesTimeUsP50_" + LABEL);
+        final Metric max = getMetric("reads_", "hashesTimeUsMax_" + LABEL);
+        // when
+        statistics.recordHashReadTimeUs(5);
+        statistics.recordHashReadTimeUs(7);
+        statistics.recordHashReadTimeUs(42);
+        // then
+        assertEquals(7L, p50.get(VALUE));
+        assertEquals(42L, max.get(VALUE));
+    }
+
     @Test
     void testCycleInternalNodeReadsPerSecond() {
         // given
@@ -308,6 +360,20 @@ class MerkleDbStatisticsTest {
         assertValueSet(metric);
     }
 
+    @Test
+    void testLeavesStoreWriteAmplification() {
+        // given
+        final Metric written = getMetric("compactions_", "leavesWrittenMb_" + LABEL);
+        final Metric writeAmplification = getMetric("compactions_", "leavesWriteAmplification_" + LABEL);
+        // when
+        statistics.setFlushLeavesStoreFileSizeMb(10);
+        statistics.setFlushLeavesStoreFileSizeMb(30);
+        statistics.setLeavesStoreCompactionWrittenMb(60);
+        // then
+        assertValueSet(written);
+        assertEquals(2.5, (double) writeAmplification.get(VALUE), 1e-9);
+    }
+
     @Test
     void testOffHeapHashesIndex() {
         // given
@@ -20,6 +20,7 @@ import static com.swirlds.common.threading.manager.AdHocThreadManager.getStaticT
 import static com.swirlds.merkledb.VirtualMapSerializationTests.constructBuilder;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.swirlds.base.utility.Pair;
@@ -32,6 +33,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Tag;
@@ -140,4 +143,92 @@ class MigrationTest {
                 32);
         assertEquals(checkSum, checkSum2.get());
     }
+
+    @Test
+    @DisplayName("Extract VirtualMap Data In Ranges")
+    void extractDataInRangesTest() throws IOException {
+
+        final int size = 100_000;
+
+        // Build a virtual map.
+        VirtualMap<ExampleLongKeyFixedSize, ExampleFixedSizeVirtualValue> map =
+                new VirtualMap<>("extractDataInRangesTest", constructBuilder());
+        for (int i = 0; i < size; i++) {
+            if ((i + 1) % (size / 10) == 0) {
+                // Make a copy of the map in order to allow things to be flushed to disk
+                VirtualMap<ExampleLongKeyFixedSize, ExampleFixedSizeVirtualValue> copy = map.copy();
+                map.release();
+                map = copy;
+            }
+
+            map.put(new ExampleLongKeyFixedSize(i), new ExampleFixedSizeVirtualValue(i * 2));
+        }
+
+        final List<List<Long>> ranges = VirtualMapMigration.extractVirtualMapDataInRanges(
+                ForkJoinPool.commonPool(),
+                map,
+                ArrayList::new,
+                (final List<Long> range, final Pair<ExampleLongKeyFixedSize, ExampleFixedSizeVirtualValue> pair) -> {
+                    assertEquals(pair.key().getValue() * 2, pair.value().getId(), "key and value do not match");
+                    range.add(pair.key().getValue());
+                },
+                7);
+
+        assertEquals(7, ranges.size(), "unexpected number of ranges");
+        final Set<Long> visited = new HashSet<>();
+        for (final List<Long> range : ranges) {
+            for (final Long key : range) {
+                assertTrue(visited.add(key), "value should not have been already visited");
+            }
+        }
+        assertEquals(size, visited.size(), "every leaf should be visited");
+
+        map.release();
+    }
+
+    @Test
+    @DisplayName("Extract VirtualMap Data In Ranges Waits For All Ranges On Failure")
+    void extractDataInRangesFailureTest() {
+
+        final int size = 10_000;
+
+        final VirtualMap<ExampleLongKeyFixedSize, ExampleFixedSizeVirtualValue> map =
+                new VirtualMap<>("extractDataInRangesFailureTest", constructBuilder());
+        for (int i = 0; i < size; i++) {
+            map.put(new ExampleLongKeyFixedSize(i), new ExampleFixedSizeVirtualValue(i * 2));
+        }
+
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger handled = new AtomicInteger();
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            final IllegalStateException e = assertThrows(
+                    IllegalStateException.class,
+                    () -> VirtualMapMigration.extractVirtualMapDataInRanges(
+                            pool,
+                            map,
+                            () -> null,
+                            (final Object range,
+                                    final Pair<ExampleLongKeyFixedSize, ExampleFixedSizeVirtualValue> pair) -> {
+                                running.incrementAndGet();
+                                try {
+                                    if (handled.incrementAndGet() == size / 10) {
+                                        throw new IllegalStateException("intentional failure");
+                                    }
+                                } finally {
+                                    running.decrementAndGet();
+                                }
+                            },
+                            8),
+                    "a failed range should fail the extraction");
+            assertEquals("intentional failure", e.getMessage(), "the failure of the range should be rethrown");
+            assertEquals(0, running.get(), "no range should still be running once the extraction fails");
+            final int handledOnFailure = handled.get();
+            assertTrue(handledOnFailure < size, "the other ranges should stop early");
+            assertEquals(handledOnFailure, handled.get(), "no leaves should be handled after the extraction fails");
+        } finally {
+            pool.shutdown();
+            map.release();
+        }
+    }
 }
@@ -0,0 +1,171 @@
+/*
+ * Copyright (C) 2023 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.merkledb.collections;
+
+import static com.swirlds.common.units.UnitConstants.MEBIBYTES_TO_BYTES;
+import static com.swirlds.merkledb.collections.AbstractLongList.DEFAULT_MAX_LONGS_TO_STORE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class LongListTieredTest extends AbstractLongListTest<LongListTiered> {
+
+    private static final int MAX_HOT_CHUNKS = 2;
+    private static final int SAMPLE_SIZE = 10_000;
+    private static final int NUM_LONGS_PER_CHUNK = 100;
+
+    @TempDir
+    Path testDirectory;
+
+    @Override
+    protected LongListTiered createLongList() {
+        return new LongListTiered(0, MAX_HOT_CHUNKS);
+    }
+
+    @Override
+    protected LongListTiered createLongListWithChunkSizeInMb(final int chunkSizeInMb) {
+        final int impliedLongsPerChunk = Math.toIntExact((((long) chunkSizeInMb * MEBIBYTES_TO_BYTES) / Long.BYTES));
+        return new LongListTiered(impliedLongsPerChunk, DEFAULT_MAX_LONGS_TO_STORE, 0, MAX_HOT_CHUNKS);
+    }
+
+    @Override
+    protected LongListTiered createFullyParameterizedLongListWith(final int numLongsPerChunk, final long maxLongs) {
+        return new LongListTiered(numLongsPerChunk, maxLongs, 0, MAX_HOT_CHUNKS);
+    }
+
+    @Override
+    protected LongListTiered createLongListFromFile(final Path file) throws IOException {
+        return new LongListTiered(file, 0, MAX_HOT_CHUNKS);
+    }
+
+    @Test
+    void hotChunksAreBounded() throws IOException {
+        try (final LongListTiered list = new LongListTiered(NUM_LONGS_PER_CHUNK, SAMPLE_SIZE, 0, 4)) {
+            populateList(list);
+            assertTrue(list.getHotChunkCount() <= 4, "Too many chunks in memory: " + list.getHotChunkCount());
+            assertTrue(list.getCurrentFileChannel().size() > 0, "Cold chunks should be paged to disk");
+            // read everything twice, every chunk is loaded back from disk at least once
+            checkData(list, 0, SAMPLE_SIZE);
+            checkData(list, 0, SAMPLE_SIZE);
+            assertTrue(list.getHotChunkCount() <= 4, "Too many chunks in memory: " + list.getHotChunkCount());
+            // memory of evicted chunks is reused, it's at most one chunk over the limit
+            assertTrue(list.getOffHeapConsumption() <= 5L * NUM_LONGS_PER_CHUNK * Long.BYTES);
+
+            // updates to cold chunks must not be lost
+            assertTrue(list.putIfEqual(10, 110, 123), "Unexpected value from putIfEqual()");
+            assertFalse(list.putIfEqual(10, 110, 345), "Unexpected value from putIfEqual() #2");
+            checkData(list, NUM_LONGS_PER_CHUNK, SAMPLE_SIZE);
+            assertEquals(123, list.get(10));
+        }
+    }
+
+    @Test
+    void invalidMaxHotChunks() {
+        assertThrows(IllegalArgumentException.class, () -> new LongListTiered(0, 0));
+        assertThrows(IllegalArgumentException.class, () -> new LongListTiered(NUM_LONGS_PER_CHUNK, SAMPLE_SIZE, 0, -1));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 50, 99, 100})
+    void writeToFileAndReadBackWithNonZeroMinValidIndex(final int chunkOffset) throws IOException {
+        try (final LongListTiered list = new LongListTiered(NUM_LONGS_PER_CHUNK, SAMPLE_SIZE, 0, MAX_HOT_CHUNKS)) {
+            populateList(list);
+            final int minValidIndex = SAMPLE_SIZE / 2 + chunkOffset;
+            list.updateValidRange(minValidIndex, SAMPLE_SIZE - 1);
+
+            final Path file = testDirectory.resolve("LongListTieredHalfEmpty_" + chunkOffset + ".ll");
+            list.writeToFile(file);
+
+            try (final LongListTiered listFromFile = new LongListTiered(file, 0, MAX_HOT_CHUNKS)) {
+                assertEquals(list.size(), listFromFile.size(), "Unexpected value for listFromFile.size()");
+                assertEquals(0, listFromFile.getHotChunkCount(), "Chunks should be loaded on first access");
+                for (int i = 0; i < minValidIndex; i++) {
+                    assertEquals(0, listFromFile.get(i), "Unexpected value for index " + i);
+                }
+                checkData(listFromFile, minValidIndex, SAMPLE_SIZE);
+                // the loaded list is still writable
+                listFromFile.updateValidRange(0, SAMPLE_SIZE - 1);
+                for (int i = 0; i < minValidIndex; i++) {
+                    listFromFile.put(i, i + 100);
+                }
+                checkData(listFromFile, 0, SAMPLE_SIZE);
+            }
+        }
+    }
+
+    @Test
+    void concurrentReadsAndWrites() {
+        try (final LongListTiered list = new LongListTiered(NUM_LONGS_PER_CHUNK, SAMPLE_SIZE, 0, MAX_HOT_CHUNKS)) {
+            populateList(list);
+            // every index is updated by a single thread, while other threads read and evict other chunks
+            IntStream.range(0, SAMPLE_SIZE).parallel().forEach(i -> {
+                assertEquals(i + 100, list.get(i), "Unexpected value for index " + i);
+                list.put(i, i + 200);
+                final int other = (i * 31) % SAMPLE_SIZE;
+                final long otherValue = list.get(other);
+                assertTrue(
+                        (otherValue == other + 100) || (otherValue == other + 200),
+                        "Unexpected value for index " + other);
+            });
+            for (int i = 0; i < SAMPLE_SIZE; i++) {
+                assertEquals(i + 200, list.get(i), "Unexpected value for index " + i);
+            }
+        }
+    }
+
+    @Test
+    void concurrentReadsWithEvictions() {
+        try (final LongListTiered list = new LongListTiered(NUM_LONGS_PER_CHUNK, SAMPLE_SIZE, 0, 1)) {
+            populateList(list);
+            // with a single hot chunk, almost every read evicts the chunk another thread is reading, and
+            // its buffer is immediately reused for another chunk
+            IntStream.range(0, 16).parallel().forEach(t -> {
+                final Random random = new Random(t);
+                for (int j = 0; j < 20_000; j++) {
+                    final int i = random.nextInt(SAMPLE_SIZE);
+                    assertEquals(i + 100, list.get(i), "Unexpected value for index " + i);
+                }
+            });
+            assertTrue(list.getHotChunkCount() <= 1, "Too many chunks in memory: " + list.getHotChunkCount());
+        }
+    }
+
+    private static void populateList(final LongList longList) {
+        for (int i = 0; i < SAMPLE_SIZE; i++) {
+            longList.put(i, i + 100);
+        }
+    }
+
+    private static void checkData(final LongList longList, final int startIndex, final int endIndex) {
+        for (int i = startIndex; i < endIndex; i++) {
+            assertEquals(i + 100, longList.get(i, -1), "Unexpected value from longList.get(" + i + ")");
+        }
+    }
+}
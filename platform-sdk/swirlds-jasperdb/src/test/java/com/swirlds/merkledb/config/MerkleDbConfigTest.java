@@ -21,6 +21,8 @@ import com.swirlds.config.api.ConfigurationBuilder;
 import com.swirlds.config.api.validation.ConfigViolationException;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 
 class MerkleDbConfigTest {
 
@@ -67,4 +69,22 @@ class MerkleDbConfigTest {
         // then
         Assertions.assertEquals(1, configViolationException.getViolations().size());
     }
+
+    @ParameterizedTest
+    @ValueSource(doubles = {0.0, -0.5, 1.5})
+    public void testCompactionGarbageRatioViolation(final double compactionGarbageRatio) {
+        // given
+        final ConfigurationBuilder configurationBuilder = ConfigurationBuilder.create()
+                .withConfigDataTypes(MerkleDbConfig.class)
+                .withSources(new SimpleConfigSource("merkleDb.compactionGarbageRatio", compactionGarbageRatio));
+
+        // when
+        final ConfigViolationException configViolationException = Assertions.assertThrows(
+                ConfigViolationException.class,
+                () -> configurationBuilder.build(),
+                "A violation should cancel the initialization");
+
+        // then
+        Assertions.assertEquals(1, configViolationException.getViolations().size());
+    }
 }
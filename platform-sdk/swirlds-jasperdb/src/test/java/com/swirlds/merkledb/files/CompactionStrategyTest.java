@@ -0,0 +1,173 @@
+/*
+ * Copyright (C) 2023 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.merkledb.files;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.swirlds.common.io.utility.TemporaryFileBuilder;
+import com.swirlds.merkledb.CompactionType;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.ToLongFunction;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CompactionStrategyTest {
+
+    private static final int SMALL_FILE_ITEMS = 10;
+    private static final int LARGE_FILE_ITEMS = 1000;
+
+    private DataFileCollection<long[]> collection;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        collection = new DataFileCollection<>(
+                TemporaryFileBuilder.buildTemporaryFile("compactionStrategyTest"),
+                "strategy",
+                null,
+                FilesTestType.fixed.dataItemSerializer,
+                null,
+                null,
+                false);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        collection.close();
+    }
+
+    private DataFileReader<long[]> createFile(final int count) throws IOException {
+        collection.startWriting();
+        for (int i = 0; i < count; i++) {
+            collection.storeDataItem(new long[] {i, i});
+        }
+        final DataFileReader<long[]> reader = collection.endWriting(0, count - 1);
+        reader.setFileCompleted();
+        return reader;
+    }
+
+    private static <D> ToLongFunction<DataFileReader<D>> allLive() {
+        return DataFileReader::getSize;
+    }
+
+    private static <D> ToLongFunction<DataFileReader<D>> noneLiveIn(final Set<DataFileReader<D>> garbageFiles) {
+        return file -> garbageFiles.contains(file) ? 0 : file.getSize();
+    }
+
+    @Test
+    void sizeTieredCompactsEnoughSmallFiles() throws IOException {
+        final DataFileReader<long[]> large = createFile(LARGE_FILE_ITEMS);
+        final List<DataFileReader<long[]>> small = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            small.add(createFile(SMALL_FILE_ITEMS));
+        }
+        final long baseSize = small.get(0).getSize() * 2;
+        final List<DataFileReader<long[]>> files = collection.getAllCompletedFiles();
+
+        final CompactionStrategy enoughFiles = new SizeTieredCompactionStrategy(baseSize, 4, 3, 10, 0.5);
+        assertEquals(
+                small,
+                enoughFiles.selectFilesToCompact(CompactionType.SMALL, files, allLive()),
+                "All small files should be compacted");
+
+        final CompactionStrategy notEnoughFiles = new SizeTieredCompactionStrategy(baseSize, 4, 5, 10, 0.5);
+        assertTrue(
+                notEnoughFiles
+                        .selectFilesToCompact(CompactionType.FULL, files, allLive())
+                        .isEmpty(),
+                "Too few files in every tier to compact");
+        assertEquals(
+                small,
+                notEnoughFiles.selectFilesToCompact(CompactionType.SMALL, files, noneLiveIn(Set.copyOf(small))),
+                "Small files with no live data should be compacted regardless of their number");
+        assertTrue(
+                notEnoughFiles
+                        .selectFilesToCompact(CompactionType.FULL, files, noneLiveIn(Set.of(large)))
+                        .isEmpty(),
+                "A single file can't be compacted");
+    }
+
+    @Test
+    void leveledCompactsWhenLevelIsFull() throws IOException {
+        final List<DataFileReader<long[]>> small = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            small.add(createFile(SMALL_FILE_ITEMS));
+        }
+        final long smallSize = small.get(0).getSize();
+        final List<DataFileReader<long[]>> files = collection.getAllCompletedFiles();
+
+        final CompactionStrategy levelFull = new LeveledCompactionStrategy(smallSize * 2, 4, 10, 0.5);
+        assertEquals(
+                small,
+                levelFull.selectFilesToCompact(CompactionType.SMALL, files, allLive()),
+                "Level 0 has enough live data to be promoted");
+
+        final CompactionStrategy levelNotFull = new LeveledCompactionStrategy(smallSize * 4, 4, 10, 0.5);
+        assertTrue(
+                levelNotFull
+                        .selectFilesToCompact(CompactionType.SMALL, files, allLive())
+                        .isEmpty(),
+                "Level 0 doesn't have enough live data to be promoted");
+        assertEquals(
+                small.subList(1, 3),
+                new LeveledCompactionStrategy(smallSize * 4, 4, 2, 0.5)
+                        .selectFilesToCompact(CompactionType.SMALL, files, allLive()),
+                "Only the newest files should be compacted, if there are too many files in a level");
+    }
+
+    @Test
+    void selectedFilesAreContiguous() throws IOException {
+        final DataFileReader<long[]> small1 = createFile(SMALL_FILE_ITEMS);
+        final DataFileReader<long[]> small2 = createFile(SMALL_FILE_ITEMS);
+        createFile(LARGE_FILE_ITEMS);
+        final DataFileReader<long[]> small3 = createFile(SMALL_FILE_ITEMS);
+        final DataFileReader<long[]> small4 = createFile(SMALL_FILE_ITEMS);
+        final long baseSize = small1.getSize() * 2;
+        final List<DataFileReader<long[]>> files = collection.getAllCompletedFiles();
+
+        final CompactionStrategy strategy = new SizeTieredCompactionStrategy(baseSize, 4, 4, 10, 0.5);
+        // Four small files in total, but they are not contiguous
+        assertTrue(
+                strategy.selectFilesToCompact(CompactionType.FULL, files, allLive())
+                        .isEmpty(),
+                "Small files separated by a large file must not be compacted together");
+        assertEquals(
+                List.of(small3, small4),
+                strategy.selectFilesToCompact(CompactionType.FULL, files, noneLiveIn(Set.of(small3, small4))),
+                "The run with the most garbage should be compacted");
+        assertEquals(
+                List.of(small1, small2),
+                strategy.selectFilesToCompact(CompactionType.FULL, files, noneLiveIn(Set.of(small1, small2))),
+                "The run with the most garbage should be compacted");
+    }
+
+    @Test
+    void invalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new LeveledCompactionStrategy(0, 4, 10, 0.5));
+        assertThrows(IllegalArgumentException.class, () -> new LeveledCompactionStrategy(1024, 1, 10, 0.5));
+        assertThrows(IllegalArgumentException.class, () -> new LeveledCompactionStrategy(1024, 4, 1, 0.5));
+        assertThrows(IllegalArgumentException.class, () -> new LeveledCompactionStrategy(1024, 4, 10, 1.5));
+        assertThrows(IllegalArgumentException.class, () -> new LeveledCompactionStrategy(1024, 4, 10, 0.0));
+        assertThrows(IllegalArgumentException.class, () -> new SizeTieredCompactionStrategy(1024, 4, 1, 10, 0.5));
+        assertThrows(IllegalArgumentException.class, () -> new SizeTieredCompactionStrategy(1024, 4, 11, 10, 0.5));
+    }
+}
@@ -374,6 +374,8 @@ class DataFileCollectionTest {
                             null,
                             testType.dataItemSerializer,
                             testCallback,
+                            null,
+                            false,
                             SlowImmutableIndexedObjectListUsingArray::new);
                     fileCollectionMap.put(testType, reopenedFileCollection);
                 },
@@ -0,0 +1,186 @@
+/*
+ * Copyright (C) 2023 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.merkledb.files;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.swirlds.common.io.utility.TemporaryFileBuilder;
+import com.swirlds.merkledb.collections.LongList;
+import com.swirlds.merkledb.collections.LongListOffHeap;
+import com.swirlds.merkledb.config.DataFileCompression;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+class DataFileCompressionTest {
+
+    private static final int BLOCK_SIZE = 4096;
+
+    private static long[] dataItem(final FilesTestType testType, final int i) {
+        return testType.dataItemSerializer.isVariableSize()
+                ? new long[] {i, i * 10L, i * 100L}
+                : new long[] {i, i * 10L};
+    }
+
+    @Test
+    void codecRoundTrip() throws IOException {
+        final Random random = new Random(1234);
+        final Lz4BlockCodec codec = new Lz4BlockCodec();
+        for (final int size : new int[] {0, 1, 12, 13, 100, BLOCK_SIZE, DataFileCommon.MAX_BLOCK_SIZE}) {
+            for (int kind = 0; kind < 3; kind++) {
+                final byte[] src = new byte[size];
+                for (int i = 0; i < size; i++) {
+                    src[i] = switch (kind) {
+                        case 0 -> (byte) random.nextInt();
+                        case 1 -> (byte) (i % 7);
+                        default -> (byte) random.nextInt(3);
+                    };
+                }
+                final byte[] compressed = new byte[Lz4BlockCodec.maxCompressedLength(size)];
+                final int compressedSize = codec.compress(src, size, compressed);
+                final byte[] restored = new byte[size];
+                Lz4BlockCodec.decompress(ByteBuffer.wrap(compressed), 0, compressedSize, restored, size);
+                assertArrayEquals(src, restored, "Decompressed data must match the original");
+                if ((kind == 1) && (size >= BLOCK_SIZE)) {
+                    assertTrue(compressedSize < size / 10, "Repeated data should compress well");
+                }
+            }
+        }
+    }
+
+    @Test
+    void malformedBlockIsRejected() {
+        final byte[] src = new byte[BLOCK_SIZE];
+        final byte[] compressed = new byte[Lz4BlockCodec.maxCompressedLength(src.length)];
+        final int compressedSize = new Lz4BlockCodec().compress(src, src.length, compressed);
+        assertThrows(
+                IOException.class,
+                () -> Lz4BlockCodec.decompress(
+                        ByteBuffer.wrap(compressed), 0, compressedSize - 1, new byte[src.length], src.length),
+                "Truncated block must be rejected");
+        assertThrows(
+                IOException.class,
+                () -> Lz4BlockCodec.decompress(
+                        ByteBuffer.wrap(compressed), 0, compressedSize, new byte[src.length], src.length + 1),
+                "Wrong uncompressed size must be rejected");
+    }
+
+    @ParameterizedTest
+    @EnumSource(FilesTestType.class)
+    void readWriteCompressedFiles(final FilesTestType testType) throws IOException {
+        final Path dir = TemporaryFileBuilder.buildTemporaryFile("compressedFilesTest");
+        final int count = 10_000;
+        final LongList index = new LongListOffHeap();
+        final DataFileCollection<long[]> collection =
+                new DataFileCollection<>(dir, "compressed", null, testType.dataItemSerializer, null, null, true);
+        collection.setCompression(DataFileCompression.LZ4, BLOCK_SIZE);
+        final Path filePath;
+        try {
+            collection.startWriting();
+            for (int i = 0; i < count; i++) {
+                index.put(i, collection.storeDataItem(dataItem(testType, i)));
+                // Data items must be readable while the file is being written, including the ones
+                // in the block, which isn't written to the file yet
+                if (i % 1000 == 0) {
+                    assertArrayEquals(
+                            dataItem(testType, i), collection.readDataItemUsingIndex(index, i), "Wrong pending item");
+                    assertArrayEquals(
+                            dataItem(testType, i / 2),
+                            collection.readDataItemUsingIndex(index, i / 2),
+                            "Wrong written item");
+                }
+            }
+            final DataFileReader<long[]> reader = collection.endWriting(0, count - 1);
+            reader.setFileCompleted();
+            filePath = reader.getPath();
+            final DataFileMetadata metadata = reader.getMetadata();
+            assertTrue(metadata.isCompressed(), "File should be compressed");
+            assertEquals(DataFileCommon.COMPRESSED_FILE_FORMAT_VERSION, metadata.getFileFormatVersion());
+            assertTrue(metadata.getBlockCount() > 1, "Expected multiple blocks");
+            for (int i = count - 1; i >= 0; i--) {
+                assertArrayEquals(
+                        dataItem(testType, i), collection.readDataItemUsingIndex(index, i), "Wrong data item read");
+            }
+            // Iteration should return the same data locations as writes
+            try (final DataFileIterator iterator = reader.createIterator()) {
+                int i = 0;
+                while (iterator.next()) {
+                    assertEquals(index.get(i), iterator.getDataItemsDataLocation(), "Wrong data location");
+                    assertArrayEquals(
+                            dataItem(testType, i),
+                            testType.dataItemSerializer.deserialize(
+                                    iterator.getDataItemData(), metadata.getSerializationVersion()),
+                            "Wrong iterated data item");
+                    i++;
+                }
+                assertEquals(count, i, "Wrong number of iterated data items");
+            }
+        } finally {
+            collection.close();
+        }
+
+        final DataFileMetadata loadedMetadata = new DataFileMetadata(filePath);
+        assertEquals(DataFileCompression.LZ4, loadedMetadata.getCompression(), "Compression should be loaded");
+
+        // Reopen the collection without compression, existing files are still read as compressed
+        final DataFileCollection<long[]> reopened =
+                new DataFileCollection<>(dir, "compressed", null, testType.dataItemSerializer, null, null, false);
+        try {
+            for (int i = 0; i < count; i++) {
+                assertArrayEquals(
+                        dataItem(testType, i), reopened.readDataItemUsingIndex(index, i), "Wrong data item read");
+            }
+        } finally {
+            reopened.close();
+            index.close();
+        }
+    }
+
+    @Test
+    void compressedFilesAreSmaller() throws IOException {
+        final Path dir = TemporaryFileBuilder.buildTemporaryFile("compressedFileSizeTest");
+        final FilesTestType testType = FilesTestType.variable;
+        final long plainSize = writeFile(dir.resolve("plain"), testType, DataFileCompression.NONE);
+        final long compressedSize = writeFile(dir.resolve("lz4"), testType, DataFileCompression.LZ4);
+        assertTrue(compressedSize < plainSize, "Compressed file should be smaller than uncompressed");
+    }
+
+    private static long writeFile(final Path dir, final FilesTestType testType, final DataFileCompression compression)
+            throws IOException {
+        final DataFileCollection<long[]> collection =
+                new DataFileCollection<>(dir, "size", null, testType.dataItemSerializer, null, null, false);
+        try {
+            collection.setCompression(compression, BLOCK_SIZE);
+            collection.startWriting();
+            for (int i = 0; i < 100_000; i++) {
+                collection.storeDataItem(dataItem(testType, i));
+            }
+            final DataFileReader<long[]> reader = collection.endWriting(0, 99_999);
+            reader.setFileCompleted();
+            return reader.getSize();
+        } finally {
+            collection.close();
+        }
+    }
+}
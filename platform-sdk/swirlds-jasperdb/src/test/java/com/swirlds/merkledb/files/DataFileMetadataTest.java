@@ -18,7 +18,9 @@ package com.swirlds.merkledb.files;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import com.swirlds.merkledb.config.DataFileCompression;
 import java.time.Instant;
 import org.junit.jupiter.api.Test;
 
@@ -64,4 +66,19 @@ class DataFileMetadataTest {
         assertNotEquals(base, differentSerVersion, "Different serialization versions are unequal");
         assertNotEquals(base, new Object(), "Radically different objects are unequal");
     }
+
+    @Test
+    void compressionRequiresCompressedFormatVersion() {
+        final Instant creationDate = Instant.ofEpochSecond(1_234_567L);
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> new DataFileMetadata(
+                        DataFileCommon.FILE_FORMAT_VERSION, 2, 3, 4, creationDate, 7, DataFileCompression.LZ4),
+                "Old format versions can't be compressed");
+        final DataFileMetadata compressed = new DataFileMetadata(
+                DataFileCommon.COMPRESSED_FILE_FORMAT_VERSION, 2, 3, 4, creationDate, 7, DataFileCompression.LZ4);
+        final DataFileMetadata uncompressed = new DataFileMetadata(
+                DataFileCommon.COMPRESSED_FILE_FORMAT_VERSION, 2, 3, 4, creationDate, 7, DataFileCompression.NONE);
+        assertNotEquals(compressed, uncompressed, "Different compression codecs are unequal");
+    }
 }
@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2023 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.merkledb.files;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.swirlds.common.io.utility.TemporaryFileBuilder;
+import com.swirlds.merkledb.collections.LongList;
+import com.swirlds.merkledb.collections.LongListOffHeap;
+import java.io.IOException;
+import java.nio.file.Path;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+class DataFileReaderMemoryMappedTest {
+
+    private static long[] dataItem(final FilesTestType testType, final int i) {
+        return testType.dataItemSerializer.isVariableSize()
+                ? new long[] {i, i * 10L, i * 100L}
+                : new long[] {i, i * 10L};
+    }
+
+    @ParameterizedTest
+    @EnumSource(FilesTestType.class)
+    void readMemoryMappedFiles(final FilesTestType testType) throws IOException {
+        final Path dir = TemporaryFileBuilder.buildTemporaryFile("memoryMappedReadsTest");
+        final int count = 1000;
+        final LongList index = new LongListOffHeap();
+        final DataFileCollection<long[]> collection =
+                new DataFileCollection<>(dir, "mapped", null, testType.dataItemSerializer, null, null, true);
+        try {
+            collection.startWriting();
+            for (int i = 0; i < count; i++) {
+                index.put(i, collection.storeDataItem(dataItem(testType, i)));
+            }
+            final DataFileReader<long[]> reader = collection.endWriting(0, count - 1);
+            assertFalse(reader.isMemoryMapped(), "Files must not be mapped until completed");
+            reader.setFileCompleted();
+            assertTrue(reader.isMemoryMapped(), "Completed file should be memory mapped");
+            for (int i = 0; i < count; i++) {
+                assertArrayEquals(
+                        dataItem(testType, i), collection.readDataItemUsingIndex(index, i), "Wrong data item read");
+            }
+        } finally {
+            collection.close();
+        }
+
+        // Reopen the collection, existing files are mapped right away
+        final DataFileCollection<long[]> reopened =
+                new DataFileCollection<>(dir, "mapped", null, testType.dataItemSerializer, null, null, true);
+        try {
+            assertEquals(1, reopened.getAllCompletedFiles().size(), "Expected a single completed file");
+            assertTrue(reopened.getAllCompletedFiles().get(0).isMemoryMapped(), "Loaded file should be mapped");
+            for (int i = 0; i < count; i++) {
+                assertArrayEquals(
+                        dataItem(testType, i), reopened.readDataItemUsingIndex(index, i), "Wrong data item read");
+            }
+        } finally {
+            reopened.close();
+            index.close();
+        }
+    }
+}
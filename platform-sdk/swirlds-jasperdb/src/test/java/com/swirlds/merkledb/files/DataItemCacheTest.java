@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2023 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.merkledb.files;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.swirlds.common.io.utility.TemporaryFileBuilder;
+import com.swirlds.merkledb.collections.LongList;
+import com.swirlds.merkledb.collections.LongListOffHeap;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class DataItemCacheTest {
+
+    private static ByteBuffer bytes(final long value) {
+        return ByteBuffer.allocate(Long.BYTES).putLong(0, value);
+    }
+
+    @Test
+    void invalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new DataItemCache(1024, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new DataItemCache(1024, 16, 0));
+        assertThrows(IllegalArgumentException.class, () -> new DataItemCache(1024, 16, 128));
+    }
+
+    @Test
+    void putAndGet() {
+        try (final DataItemCache cache = new DataItemCache(1024, Long.BYTES, 4)) {
+            assertNull(cache.get(1), "Nothing should be cached yet");
+            final ByteBuffer data = bytes(42);
+            cache.put(1, data);
+            assertEquals(0, data.position(), "Put should not change buffer position");
+            final ByteBuffer cached = cache.get(1);
+            assertNotNull(cached, "Data item should be cached");
+            assertEquals(Long.BYTES, cached.remaining(), "Cached data item size mismatch");
+            assertEquals(42, cached.getLong(), "Cached data item mismatch");
+            assertNull(cache.get(2), "Data item should not be cached");
+        }
+    }
+
+    @Test
+    void largeItemsNotCached() {
+        try (final DataItemCache cache = new DataItemCache(1024, Long.BYTES, 4)) {
+            cache.put(1, ByteBuffer.allocate(Long.BYTES + 1));
+            assertNull(cache.get(1), "Data items larger than a slot should not be cached");
+        }
+    }
+
+    @Test
+    void clockEviction() {
+        // Single segment with two slots
+        try (final DataItemCache cache = new DataItemCache(2 * Long.BYTES, Long.BYTES, 1)) {
+            cache.put(1, bytes(1));
+            cache.put(2, bytes(2));
+            // Reference item 1, so it gets a second chance
+            assertNotNull(cache.get(1), "Data item 1 should be cached");
+            cache.put(3, bytes(3));
+            assertNotNull(cache.get(1), "Referenced data item should not be evicted");
+            assertNull(cache.get(2), "Unreferenced data item should be evicted");
+            assertNotNull(cache.get(3), "New data item should be cached");
+
+            final AtomicLong hits = new AtomicLong();
+            final AtomicLong misses = new AtomicLong();
+            final AtomicLong evictions = new AtomicLong();
+            cache.getAndResetStats((h, m, e) -> {
+                hits.set(h);
+                misses.set(m);
+                evictions.set(e);
+            });
+            assertEquals(3, hits.get(), "Wrong number of cache hits");
+            assertEquals(1, misses.get(), "Wrong number of cache misses");
+            assertEquals(1, evictions.get(), "Wrong number of cache evictions");
+            cache.getAndResetStats((h, m, e) -> assertEquals(0, h + m + e, "Stats should be reset"));
+        }
+    }
+
+    @Test
+    void closedCacheIsEmpty() {
+        final DataItemCache cache = new DataItemCache(1024, Long.BYTES, 4);
+        cache.put(1, bytes(1));
+        cache.close();
+        assertNull(cache.get(1), "Closed cache should not return data");
+    }
+
+    @Test
+    void readThroughFileCollection() throws IOException {
+        final Path dir = TemporaryFileBuilder.buildTemporaryFile("dataItemCacheTest");
+        final DataItemCache cache = new DataItemCache(16 * 1024, 2 * Long.BYTES, 4);
+        final DataFileCollection<long[]> collection =
+                new DataFileCollection<>(dir, "cached", null, new ExampleFixedSizeDataSerializer(), null, cache, false);
+        try {
+            final int count = 100;
+            final LongList index = new LongListOffHeap();
+            collection.startWriting();
+            for (int i = 0; i < count; i++) {
+                index.put(i, collection.storeDataItem(new long[] {i, i * 10L}));
+            }
+            collection.endWriting(0, count - 1).setFileCompleted();
+            // Read everything twice, the second round must be served from the cache
+            for (int round = 0; round < 2; round++) {
+                for (int i = 0; i < count; i++) {
+                    assertArrayEquals(
+                            new long[] {i, i * 10L},
+                            collection.readDataItemUsingIndex(index, i),
+                            "Wrong data item read");
+                }
+            }
+            final AtomicLong hits = new AtomicLong();
+            cache.getAndResetStats((h, m, e) -> hits.set(h));
+            assertEquals(count, hits.get(), "Second round of reads should be cache hits");
+            index.close();
+        } finally {
+            collection.close();
+        }
+    }
+}
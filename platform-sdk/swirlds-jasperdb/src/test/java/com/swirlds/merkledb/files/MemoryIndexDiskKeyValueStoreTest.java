@@ -30,9 +30,11 @@ import com.swirlds.merkledb.collections.LongListHeap;
 import com.swirlds.merkledb.collections.LongListOffHeap;
 import com.swirlds.test.framework.TestQualifierTags;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
@@ -327,4 +329,41 @@ class MemoryIndexDiskKeyValueStoreTest {
         store3.close();
         index3.close();
     }
+
+    @ParameterizedTest
+    @EnumSource(FilesTestType.class)
+    void partitionedWrites(final FilesTestType testType) throws Exception {
+        final Path tempDir = testDirectory.resolve("partitionedWritesTest");
+        final int partitions = 4;
+        final int count = 1000;
+        final LongListOffHeap index = new LongListOffHeap();
+        final MemoryIndexDiskKeyValueStore<long[]> store = new MemoryIndexDiskKeyValueStore<>(
+                tempDir, "partitioned", null, testType.dataItemSerializer, null, index);
+        // write every partition from its own thread
+        store.startWriting(0, count - 1, partitions);
+        IntStream.range(0, partitions).parallel().forEach(partition -> {
+            for (int i = partition * count / partitions; i < (partition + 1) * count / partitions; i++) {
+                final long[] dataValue = (testType == FilesTestType.variable)
+                        ? getVariableSizeDataForI(i, 1234)
+                        : new long[] {i, i + 1234};
+                try {
+                    store.put(partition, i, dataValue);
+                } catch (final IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        });
+        final List<DataFileReader<long[]>> newFiles = store.endWritingPartitions();
+        assertEquals(partitions, newFiles.size(), "Expected a file per partition");
+        for (final DataFileReader<long[]> file : newFiles) {
+            assertTrue(file.isFileCompleted(), "All partition files should be completed");
+        }
+        checkRange(testType, store, 0, count, 1234);
+        // all partition files can be compacted together
+        store.merge(dataFileReaders -> dataFileReaders, 2, null, null);
+        assertEquals(1, Files.list(tempDir).count(), "unexpected # of files after merge");
+        checkRange(testType, store, 0, count, 1234);
+        store.close();
+        index.close();
+    }
 }
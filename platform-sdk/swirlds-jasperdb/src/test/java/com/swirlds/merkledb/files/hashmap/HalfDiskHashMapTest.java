@@ -136,6 +136,53 @@ class HalfDiskHashMapTest {
                 -1, map.get(testType.createVirtualLongKey(5), -1), "Expect not found result as just closed the map!");
     }
 
+    @ParameterizedTest
+    @EnumSource(FilesTestType.class)
+    void createDataAndCheckWithBloomFilter(FilesTestType testType) throws Exception {
+        final Path tempDir = tempDirPath.resolve("BloomFilter_" + testType.name());
+        final Path tempSnapshotDir = tempDirPath.resolve("BloomFilterSnapshot_" + testType.name());
+        final int count = 10_000;
+        final HalfDiskHashMap<VirtualLongKey> map = new HalfDiskHashMap<>(
+                count,
+                (KeySerializer<VirtualLongKey>) testType.keySerializer,
+                tempDir,
+                "HalfDiskHashMapTest",
+                null,
+                false,
+                false,
+                10);
+        createSomeData(testType, map, 1, count, 1);
+        checkData(testType, map, 1, count, 1);
+        // keys never put to the map are not found
+        for (int i = count + 1; i < count * 2; i++) {
+            assertEquals(-1, map.get(testType.createVirtualLongKey(i), -1), "Expect not to exist");
+        }
+        // deleted keys are not found, even if they are still in the filter
+        map.startWriting();
+        map.delete(testType.createVirtualLongKey(5));
+        map.endWriting();
+        assertEquals(-1, map.get(testType.createVirtualLongKey(5), -1), "Expect not to exist");
+        // the filter is rebuilt when the map is loaded
+        map.snapshot(tempSnapshotDir);
+        map.close();
+        final HalfDiskHashMap<VirtualLongKey> mapFromSnapshot = new HalfDiskHashMap<>(
+                count,
+                (KeySerializer<VirtualLongKey>) testType.keySerializer,
+                tempSnapshotDir,
+                "HalfDiskHashMapTest",
+                null,
+                false,
+                false,
+                10);
+        checkData(testType, mapFromSnapshot, 1, 4, 1);
+        checkData(testType, mapFromSnapshot, 6, count - 5, 1);
+        assertEquals(-1, mapFromSnapshot.get(testType.createVirtualLongKey(5), -1), "Expect not to exist");
+        for (int i = count + 1; i < count * 2; i++) {
+            assertEquals(-1, mapFromSnapshot.get(testType.createVirtualLongKey(i), -1), "Expect not to exist");
+        }
+        mapFromSnapshot.close();
+    }
+
     @ParameterizedTest
     @EnumSource(FilesTestType.class)
     void multipleWriteBatchesAndMerge(FilesTestType testType) throws Exception {
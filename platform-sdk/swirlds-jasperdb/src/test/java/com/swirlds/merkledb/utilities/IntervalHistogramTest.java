@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2023 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.merkledb.utilities;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class IntervalHistogramTest {
+
+    private static final long INTERVAL = 1000;
+
+    @Test
+    void bucketsCoverAllValues() {
+        int lastIndex = -1;
+        for (long value = 0; value < 100_000; value++) {
+            final int index = IntervalHistogram.bucketIndex(value);
+            assertTrue(index == lastIndex || index == lastIndex + 1, "Buckets must be contiguous");
+            assertTrue(value <= IntervalHistogram.bucketUpperBound(index), "Value above bucket bound");
+            lastIndex = index;
+        }
+        assertEquals(IntervalHistogram.BUCKET_COUNT - 1, IntervalHistogram.bucketIndex(Long.MAX_VALUE));
+        assertEquals(Long.MAX_VALUE, IntervalHistogram.bucketUpperBound(IntervalHistogram.BUCKET_COUNT - 1));
+    }
+
+    @Test
+    void emptyHistogram() {
+        final IntervalHistogram histogram = new IntervalHistogram(INTERVAL, () -> 0);
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, histogram.getPercentile(50));
+    }
+
+    @Test
+    void percentiles() {
+        final IntervalHistogram histogram = new IntervalHistogram(INTERVAL, () -> 0);
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i);
+        }
+        assertEquals(1000, histogram.getCount());
+        assertEquals(1000, histogram.getMax());
+        assertWithinError(500, histogram.getPercentile(50));
+        assertWithinError(990, histogram.getPercentile(99));
+        assertEquals(1000, histogram.getPercentile(100));
+        assertEquals(1, histogram.getPercentile(0));
+        assertThrows(IllegalArgumentException.class, () -> histogram.getPercentile(101));
+    }
+
+    @Test
+    void negativeValuesAreZeros() {
+        final IntervalHistogram histogram = new IntervalHistogram(INTERVAL, () -> 0);
+        histogram.record(-5);
+        assertEquals(1, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+    }
+
+    @Test
+    void oldValuesExpire() {
+        final AtomicLong clock = new AtomicLong();
+        final IntervalHistogram histogram = new IntervalHistogram(INTERVAL, clock::get);
+        histogram.record(100);
+        // The first interval is still reported as the previous one
+        clock.set(INTERVAL);
+        assertEquals(1, histogram.getCount());
+        histogram.record(10);
+        assertEquals(2, histogram.getCount());
+        assertEquals(100, histogram.getMax());
+        // The first interval is gone
+        clock.set(2 * INTERVAL);
+        assertEquals(1, histogram.getCount());
+        assertEquals(10, histogram.getMax());
+        // Nothing was recorded for more than two intervals
+        clock.set(5 * INTERVAL);
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+    }
+
+    @Test
+    void concurrentRecords() {
+        final IntervalHistogram histogram = new IntervalHistogram(Long.MAX_VALUE);
+        IntStream.range(0, 100_000).parallel().forEach(histogram::record);
+        assertEquals(100_000, histogram.getCount());
+        assertEquals(99_999, histogram.getMax());
+    }
+
+    @Test
+    void invalidInterval() {
+        assertThrows(IllegalArgumentException.class, () -> new IntervalHistogram(0));
+    }
+
+    private static void assertWithinError(final long expected, final long actual) {
+        assertTrue(
+                Math.abs(expected - actual) <= expected / IntervalHistogram.SUB_BUCKETS,
+                "Expected about " + expected + ", but was " + actual);
+    }
+}
@@ -184,6 +184,9 @@ public class ConsensusImpl implements Consensus {
     /** stores all round information */
     private final ConsensusRounds rounds;
 
+    /** memoized results of lastSee and stronglySeeP for all non-expired events */
+    private final ConsensusMemo memo;
+
     /**
      * Number of events that have reached consensus order. This is used for setting consensus order numbers
      * in events, so it must be part of the signed state.
@@ -239,6 +242,7 @@ public class ConsensusImpl implements Consensus {
         this.addressBook = addressBook;
 
         this.rounds = new ConsensusRounds(config, addressBook);
+        this.memo = new ConsensusMemo(addressBook.getSize());
     }
 
     /**
@@ -334,6 +338,7 @@ public class ConsensusImpl implements Consensus {
         hashRoundJudges = new ArrayList<>();
 
         this.rounds = new ConsensusRounds(config, addressBook);
+        this.memo = new ConsensusMemo(addressBook.getSize());
     }
 
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
@@ -1028,6 +1033,11 @@ public class ConsensusImpl implements Consensus {
                 hashRoundJudges = null;
             }
         }
+
+        if (newMinRound > curMinRound) {
+            // forget memoized results of expired events, and reuse their memory
+            memo.expire(rounds.getMinRoundGeneration());
+        }
     }
 
     /**
@@ -1148,34 +1158,34 @@ public class ConsensusImpl implements Consensus {
         if (x == null) {
             return null;
         }
-        if (x.sizeLastSee() != 0) { // return memoized answer, if available
-            return x.getLastSee(m);
+        if (memo.hasLastSee(x)) { // return memoized answer, if available
+            return memo.getLastSee(x, m);
         }
         // memoize answers for all choices of m, then return answer for just this m
         numMembers = getAddressBook().getSize();
-        x.initLastSee(numMembers);
+        memo.initLastSee(x);
 
         op = x.getOtherParent();
         sp = x.getSelfParent();
 
         for (int mm = 0; mm < numMembers; mm++) {
             if (eventCreatorIndexMatches(x, mm)) {
-                x.setLastSee(mm, x);
+                memo.setLastSee(x, mm, x);
             } else if (sp == null && op == null) {
-                x.setLastSee(mm, null);
+                memo.setLastSee(x, mm, null);
             } else {
                 EventImpl lsop = lastSee(op, mm);
                 EventImpl lssp = lastSee(sp, mm);
                 long lsopGen = lsop == null ? 0 : lsop.getGeneration();
                 long lsspGen = lssp == null ? 0 : lssp.getGeneration();
                 if ((round(lsop) > round(lssp)) || ((lsopGen > lsspGen) && (firstSee(op, mm) == firstSee(sp, mm)))) {
-                    x.setLastSee(mm, lsop);
+                    memo.setLastSee(x, mm, lsop);
                 } else {
-                    x.setLastSee(mm, lssp);
+                    memo.setLastSee(x, mm, lssp);
                 }
             }
         }
-        return x.getLastSee(m);
+        return memo.getLastSee(x, m);
     }
 
     /**
@@ -1221,8 +1231,8 @@ public class ConsensusImpl implements Consensus {
 
         if (x == null) { // if there is no event, then it can't see anything
             result = null;
-        } else if (x.sizeStronglySeeP() != 0) { // return memoized answer, if available
-            result = x.getStronglySeeP(m);
+        } else if (memo.hasStronglySeeP(x)) { // return memoized answer, if available
+            result = memo.getStronglySeeP(x, m);
         } else { // calculate the answer, and remember it for next time
             // find and memoize answers for all choices of m, then return answer for just this m
             int numMembers = getAddressBook().getSize(); // number of members
@@ -1233,17 +1243,17 @@ public class ConsensusImpl implements Consensus {
             long prsp = parentRound(sp); // parent round of self parent of x
             long prop = parentRound(op); // parent round of other parent of x
 
-            x.initStronglySeeP(numMembers);
+            memo.initStronglySeeP(x);
             for (int mm = 0; mm < numMembers; mm++) {
                 if (stronglySeeP(sp, mm) != null && prx == prsp) {
-                    x.setStronglySeeP(mm, stronglySeeP(sp, mm));
+                    memo.setStronglySeeP(x, mm, stronglySeeP(sp, mm));
                 } else if (stronglySeeP(op, mm) != null && prx == prop) {
-                    x.setStronglySeeP(mm, stronglySeeP(op, mm));
+                    memo.setStronglySeeP(x, mm, stronglySeeP(op, mm));
                 } else {
                     EventImpl st =
                             seeThru(x, mm, mm); // the canonical witness by mm that is seen by x thru someone else
                     if (round(st) != prx) { // ignore if the canonical is in the wrong round, or doesn't exist
-                        x.setStronglySeeP(mm, null);
+                        memo.setStronglySeeP(x, mm, null);
                     } else {
                         long weight = 0;
                         for (int m3 = 0; m3 < numMembers; m3++) {
@@ -1254,14 +1264,14 @@ public class ConsensusImpl implements Consensus {
                         }
                         if (SUPER_MAJORITY.isSatisfiedBy(weight, totalWeight)) { // strongly see supermajority of
                             // intermediates
-                            x.setStronglySeeP(mm, st);
+                            memo.setStronglySeeP(x, mm, st);
                         } else {
-                            x.setStronglySeeP(mm, null);
+                            memo.setStronglySeeP(x, mm, null);
                         }
                     }
                 }
             }
-            result = x.getStronglySeeP(m);
+            result = memo.getStronglySeeP(x, m);
         }
         t = System.nanoTime() - t; // nanoseconds spent doing the dot product
         consensusMetrics.dotProductTime(t);
@@ -0,0 +1,302 @@
+/*
+ * Copyright (C) 2023 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.platform;
+
+import com.swirlds.platform.internal.EventImpl;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.util.Arrays;
+
+/**
+ * Memo tables for the lastSee and stronglySeeP functions from SWIRLDS-TR-2020-01, used by {@link ConsensusImpl}.
+ *
+ * Previously, every event held two arrays of events, of address book size each. Here, every event used by consensus
+ * is assigned a dense integer slot, and the memoized results for all events are stored in two int tables, with one
+ * row of address book size per slot. A memoized result is the slot of the resulting event, or {@link #NONE}. This
+ * creates no garbage per event, and the tables are reused as old events expire.
+ *
+ * An event's slot is stored in the event itself, see {@link EventImpl#getMemoSlot()}. When an event is cleared, its
+ * slot is reset, so the event gets a new slot and its results are calculated again, the same way as if the memo
+ * arrays were erased.
+ *
+ * Slots are released in {@link #expire(long)}, which is called when old rounds are deleted. Results of expired events
+ * are forgotten. The slot of an expired event is only reused, once no results of non-expired events refer to it, so
+ * a result never changes to a different event.
+ *
+ * This class is not thread safe. It's only used by the consensus thread.
+ */
+final class ConsensusMemo {
+
+    /** A memoized result, which is no event (null) */
+    private static final int NONE = -1;
+
+    /** Stored in {@link EventImpl#getMemoSlot()} if the event has no slot */
+    private static final int NO_SLOT = -1;
+
+    /** A flag for a slot, which has lastSee results for all members memoized */
+    private static final byte LAST_SEE_FLAG = 1;
+
+    /** A flag for a slot, which has stronglySeeP results for all members memoized */
+    private static final byte STRONGLY_SEE_P_FLAG = 2;
+
+    /** Initial number of slots */
+    private static final int INITIAL_CAPACITY = 1024;
+
+    /** Number of members in the address book, this is the size of every row */
+    private final int numMembers;
+
+    /** The event for every slot, or null if the slot is free */
+    private EventImpl[] events;
+
+    /** Which results are memoized for every slot, a combination of the flags above */
+    private byte[] flags;
+
+    /** lastSee results, numMembers entries per slot */
+    private int[] lastSee;
+
+    /** stronglySeeP results, numMembers entries per slot */
+    private int[] stronglySeeP;
+
+    /** Marks of slots referenced from results of non-expired events, used in {@link #expire(long)} */
+    private boolean[] referenced;
+
+    /** Number of slots ever used. All slots below are either used or free */
+    private int slotCount = 0;
+
+    /** Free slots, available for reuse */
+    private int[] freeSlots = new int[INITIAL_CAPACITY];
+
+    /** Number of free slots */
+    private int freeCount = 0;
+
+    /**
+     * Creates new empty memo tables.
+     *
+     * @param numMembers
+     * 		the number of members in the address book
+     */
+    ConsensusMemo(final int numMembers) {
+        this.numMembers = numMembers;
+        events = new EventImpl[INITIAL_CAPACITY];
+        flags = new byte[INITIAL_CAPACITY];
+        lastSee = new int[INITIAL_CAPACITY * numMembers];
+        stronglySeeP = new int[INITIAL_CAPACITY * numMembers];
+        referenced = new boolean[INITIAL_CAPACITY];
+    }
+
+    /**
+     * @param x
+     * 		the event
+     * @return true if lastSee results for x are memoized for all members
+     */
+    boolean hasLastSee(@NonNull final EventImpl x) {
+        final int slot = x.getMemoSlot();
+        return isOwnSlot(x, slot) && ((flags[slot] & LAST_SEE_FLAG) != 0);
+    }
+
+    /**
+     * Start memoizing lastSee results for x. Until results are set, they are all null.
+     *
+     * @param x
+     * 		the event
+     */
+    void initLastSee(@NonNull final EventImpl x) {
+        final int slot = slotOf(x);
+        flags[slot] |= LAST_SEE_FLAG;
+        Arrays.fill(lastSee, slot * numMembers, (slot + 1) * numMembers, NONE);
+    }
+
+    /**
+     * @param x
+     * 		the event, which has lastSee results memoized
+     * @param m
+     * 		the index of the member
+     * @return the memoized lastSee result
+     */
+    @Nullable
+    EventImpl getLastSee(@NonNull final EventImpl x, final int m) {
+        return eventAt(lastSee[x.getMemoSlot() * numMembers + m]);
+    }
+
+    /**
+     * @param x
+     * 		the event, which has lastSee results memoized
+     * @param m
+     * 		the index of the member
+     * @param result
+     * 		the lastSee result to memoize
+     */
+    void setLastSee(@NonNull final EventImpl x, final int m, @Nullable final EventImpl result) {
+        // the result must get its slot first, as it may grow the tables
+        final int value = (result == null) ? NONE : slotOf(result);
+        lastSee[x.getMemoSlot() * numMembers + m] = value;
+    }
+
+    /**
+     * @param x
+     * 		the event
+     * @return true if stronglySeeP results for x are memoized for all members
+     */
+    boolean hasStronglySeeP(@NonNull final EventImpl x) {
+        final int slot = x.getMemoSlot();
+        return isOwnSlot(x, slot) && ((flags[slot] & STRONGLY_SEE_P_FLAG) != 0);
+    }
+
+    /**
+     * Start memoizing stronglySeeP results for x. Until results are set, they are all null.
+     *
+     * @param x
+     * 		the event
+     */
+    void initStronglySeeP(@NonNull final EventImpl x) {
+        final int slot = slotOf(x);
+        flags[slot] |= STRONGLY_SEE_P_FLAG;
+        Arrays.fill(stronglySeeP, slot * numMembers, (slot + 1) * numMembers, NONE);
+    }
+
+    /**
+     * @param x
+     * 		the event, which has stronglySeeP results memoized
+     * @param m
+     * 		the index of the member
+     * @return the memoized stronglySeeP result
+     */
+    @Nullable
+    EventImpl getStronglySeeP(@NonNull final EventImpl x, final int m) {
+        return eventAt(stronglySeeP[x.getMemoSlot() * numMembers + m]);
+    }
+
+    /**
+     * @param x
+     * 		the event, which has stronglySeeP results memoized
+     * @param m
+     * 		the index of the member
+     * @param result
+     * 		the stronglySeeP result to memoize
+     */
+    void setStronglySeeP(@NonNull final EventImpl x, final int m, @Nullable final EventImpl result) {
+        // the result must get its slot first, as it may grow the tables
+        final int value = (result == null) ? NONE : slotOf(result);
+        stronglySeeP[x.getMemoSlot() * numMembers + m] = value;
+    }
+
+    /**
+     * Forget results of all events with generations below the given one, and release their slots for reuse. A slot is
+     * not released while results of non-expired events refer to it. Such slots are checked again on the next call.
+     *
+     * @param minGenerationNonExpired
+     * 		the minimum generation of non-expired events
+     */
+    void expire(final long minGenerationNonExpired) {
+        // forget results of expired events, the remaining results are the roots of all slot references
+        for (int slot = 0; slot < slotCount; slot++) {
+            final EventImpl event = events[slot];
+            if ((event != null) && (event.getGeneration() < minGenerationNonExpired)) {
+                flags[slot] = 0;
+            }
+        }
+        Arrays.fill(referenced, 0, slotCount, false);
+        for (int slot = 0; slot < slotCount; slot++) {
+            if ((flags[slot] & LAST_SEE_FLAG) != 0) {
+                markReferenced(lastSee, slot);
+            }
+            if ((flags[slot] & STRONGLY_SEE_P_FLAG) != 0) {
+                markReferenced(stronglySeeP, slot);
+            }
+        }
+        for (int slot = 0; slot < slotCount; slot++) {
+            final EventImpl event = events[slot];
+            if ((event != null) && (event.getGeneration() < minGenerationNonExpired) && !referenced[slot]) {
+                events[slot] = null;
+                if (event.getMemoSlot() == slot) {
+                    event.setMemoSlot(NO_SLOT);
+                }
+                if (freeCount == freeSlots.length) {
+                    freeSlots = Arrays.copyOf(freeSlots, freeSlots.length * 2);
+                }
+                freeSlots[freeCount++] = slot;
+            }
+        }
+    }
+
+    /**
+     * @return the number of slots currently used by events
+     */
+    int size() {
+        return slotCount - freeCount;
+    }
+
+    /**
+     * Get the slot of an event, or assign it a new one, if it has no slot yet.
+     */
+    private int slotOf(@NonNull final EventImpl event) {
+        final int existing = event.getMemoSlot();
+        if (isOwnSlot(event, existing)) {
+            return existing;
+        }
+        final int slot;
+        if (freeCount > 0) {
+            slot = freeSlots[--freeCount];
+        } else {
+            if (slotCount == events.length) {
+                grow();
+            }
+            slot = slotCount++;
+        }
+        events[slot] = event;
+        flags[slot] = 0;
+        event.setMemoSlot(slot);
+        return slot;
+    }
+
+    /**
+     * Check if the given slot belongs to the event. The event may have no slot, or its slot may be from different memo
+     * tables, if the event was used by a different consensus instance.
+     */
+    private boolean isOwnSlot(@NonNull final EventImpl event, final int slot) {
+        return (slot >= 0) && (slot < slotCount) && (events[slot] == event);
+    }
+
+    /**
+     * @return the event in the given slot, or null for {@link #NONE}
+     */
+    @Nullable
+    private EventImpl eventAt(final int slot) {
+        return (slot == NONE) ? null : events[slot];
+    }
+
+    /** Mark all slots referenced from the given slot's row in the given table */
+    private void markReferenced(@NonNull final int[] table, final int slot) {
+        final int end = (slot + 1) * numMembers;
+        for (int i = slot * numMembers; i < end; i++) {
+            final int value = table[i];
+            if (value != NONE) {
+                referenced[value] = true;
+            }
+        }
+    }
+
+    /** Double the number of slots */
+    private void grow() {
+        final int capacity = events.length * 2;
+        events = Arrays.copyOf(events, capacity);
+        flags = Arrays.copyOf(flags, capacity);
+        lastSee = Arrays.copyOf(lastSee, capacity * numMembers);
+        stronglySeeP = Arrays.copyOf(stronglySeeP, capacity * numMembers);
+        referenced = Arrays.copyOf(referenced, capacity);
+    }
+}
@@ -17,6 +17,7 @@
 package com.swirlds.platform;
 
 import static com.swirlds.common.merkle.utility.MerkleUtils.rehashTree;
+import static com.swirlds.common.units.UnitConstants.NANOSECONDS_TO_MILLISECONDS;
 import static com.swirlds.logging.LogMarker.EXCEPTION;
 import static com.swirlds.logging.LogMarker.STARTUP;
 import static com.swirlds.platform.state.signed.ReservedSignedState.createNullReservation;
@@ -291,8 +292,13 @@ public class SavedStateLoader {
 
         // When loading from disk, we should hash the state every time so that the first fast copy will
         // only hash the difference
+        final long start = System.nanoTime();
         final Hash newHash =
                 rehashTree(deserializedSignedState.reservedSignedState().get().getState());
+        logger.info(
+                STARTUP.getMarker(),
+                "Rehashed signed state loaded from disk in {} ms",
+                Math.round((System.nanoTime() - start) * NANOSECONDS_TO_MILLISECONDS));
         return new SignedStateWithHashes(deserializedSignedState.reservedSignedState(), oldHash, newHash);
     }
 
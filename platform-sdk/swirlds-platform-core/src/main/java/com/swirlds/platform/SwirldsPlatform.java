@@ -85,6 +85,7 @@ import com.swirlds.platform.components.transaction.system.ConsensusSystemTransac
 import com.swirlds.platform.components.transaction.system.PreconsensusSystemTransactionManager;
 import com.swirlds.platform.components.wiring.ManualWiring;
 import com.swirlds.platform.config.ThreadConfig;
+import com.swirlds.platform.crypto.CachingSignatureVerifier;
 import com.swirlds.platform.crypto.CryptoStatic;
 import com.swirlds.platform.dispatch.DispatchBuilder;
 import com.swirlds.platform.dispatch.DispatchConfiguration;
@@ -109,6 +110,7 @@ import com.swirlds.platform.event.preconsensus.SyncPreconsensusEventWriter;
 import com.swirlds.platform.event.tipset.AsyncTipsetEventCreationManager;
 import com.swirlds.platform.event.validation.AncientValidator;
 import com.swirlds.platform.event.validation.EventDeduplication;
+import com.swirlds.platform.event.validation.BatchSignatureValidator;
 import com.swirlds.platform.event.validation.EventValidator;
 import com.swirlds.platform.event.validation.GossipEventValidator;
 import com.swirlds.platform.event.validation.GossipEventValidators;
@@ -212,6 +214,8 @@ public class SwirldsPlatform implements Platform, Startable {
     private final StateManagementComponent stateManagementComponent;
     private final EventTaskDispatcher eventTaskDispatcher;
     private final QueueThread<EventIntakeTask> intakeQueue;
+    /** Verifies signatures of events from the intake queue in parallel batches, null if batch verification is off */
+    private final BatchSignatureValidator batchSignatureValidator;
     private final QueueThread<ReservedSignedState> stateHashSignQueue;
     private final EventLinker eventLinker;
     /** Stores and processes consensus events including sending them to {@link SwirldStateManager} for handling */
@@ -534,7 +538,8 @@ public class SwirldsPlatform implements Platform, Startable {
         final List<GossipEventValidator> validators = new ArrayList<>();
         // it is very important to discard ancient events, otherwise the deduplication will not work, since it
         // doesn't track ancient events
-        validators.add(new AncientValidator(consensusRef::get));
+        final AncientValidator ancientValidator = new AncientValidator(consensusRef::get);
+        validators.add(ancientValidator);
         validators.add(new EventDeduplication(isDuplicateChecks, eventIntakeMetrics));
         validators.add(StaticValidators.buildParentValidator(currentAddressBook.getSize()));
         validators.add(new TransactionSizeValidator(transactionConfig.maxTransactionBytesPerEvent()));
@@ -543,8 +548,25 @@ public class SwirldsPlatform implements Platform, Startable {
         final List<AddressBook> validationAddressBooks = Stream.of(currentAddressBook, previousAddressBook)
                 .filter(Objects::nonNull)
                 .toList();
-        if (basicConfig.verifyEventSigs()) {
-            validators.add(new SignatureValidator(validationAddressBooks, CryptoStatic::verifySignature));
+        if (basicConfig.verifyEventSigs() && eventConfig.batchSignatureVerification()) {
+            // signatures are verified in parallel batches, before tasks are handled by the intake thread
+            batchSignatureValidator = new BatchSignatureValidator(
+                    platformContext,
+                    threadManager,
+                    time,
+                    validationAddressBooks,
+                    new CachingSignatureVerifier(),
+                    // ancient and duplicate events are discarded by intake, there's no need to verify them
+                    event -> !ancientValidator.isEventValid(event)
+                            || isDuplicateChecks.stream().anyMatch(check -> check.test(event.getDescriptor())),
+                    // the lambda sidesteps the circular dependency between the intake queue and gossip
+                    e -> getGossip().getEventIntakeLambda().accept(e));
+            validators.add(components.add(batchSignatureValidator));
+        } else {
+            batchSignatureValidator = null;
+            if (basicConfig.verifyEventSigs()) {
+                validators.add(new SignatureValidator(validationAddressBooks, CryptoStatic::verifySignature));
+            }
         }
         final GossipEventValidators eventValidators = new GossipEventValidators(validators);
 
@@ -559,20 +581,28 @@ public class SwirldsPlatform implements Platform, Startable {
                 eventIntakeMetrics,
                 intakeCycleStats);
 
-        intakeQueue = components.add(new QueueThreadConfiguration<EventIntakeTask>(threadManager)
-                .setNodeId(selfId)
-                .setComponent(PLATFORM_THREAD_POOL_NAME)
-                .setThreadName("event-intake")
-                // There is a circular dependency between the intake queue and gossip,
-                // which the handler lambda sidesteps (since the lambda is not invoked
-                // until after all things have been constructed).
-                .setHandler(e -> getGossip().getEventIntakeLambda().accept(e))
-                .setCapacity(eventConfig.eventIntakeQueueSize())
-                .setLogAfterPauseDuration(threadConfig.logStackTracePauseDuration())
-                .setMetricsConfiguration(new QueueThreadMetricsConfiguration(metrics)
-                        .enableMaxSizeMetric()
-                        .enableBusyTimeMetric())
-                .build());
+        final QueueThreadConfiguration<EventIntakeTask> intakeQueueConfiguration =
+                new QueueThreadConfiguration<EventIntakeTask>(threadManager)
+                        .setNodeId(selfId)
+                        .setComponent(PLATFORM_THREAD_POOL_NAME)
+                        .setThreadName("event-intake")
+                        .setCapacity(eventConfig.eventIntakeQueueSize())
+                        .setLogAfterPauseDuration(threadConfig.logStackTracePauseDuration())
+                        .setMetricsConfiguration(new QueueThreadMetricsConfiguration(metrics)
+                                .enableMaxSizeMetric()
+                                .enableBusyTimeMetric());
+        if (batchSignatureValidator != null) {
+            // every batch drained from the queue is verified before it's handled
+            intakeQueueConfiguration
+                    .setHandler(batchSignatureValidator::submit)
+                    .setBatchHandledCallback(batchSignatureValidator::flush);
+        } else {
+            // There is a circular dependency between the intake queue and gossip,
+            // which the handler lambda sidesteps (since the lambda is not invoked
+            // until after all things have been constructed).
+            intakeQueueConfiguration.setHandler(e -> getGossip().getEventIntakeLambda().accept(e));
+        }
+        intakeQueue = components.add(intakeQueueConfiguration.build());
 
         tipsetEventCreator = buildTipsetEventCreationManager(
                 platformContext,
@@ -958,6 +988,9 @@ public class SwirldsPlatform implements Platform, Startable {
         logger.error(EXCEPTION.getMarker(), "System halt requested. Reason: {}", reason);
         freezeManager.freezeEventCreation();
         gossip.stop();
+        if (batchSignatureValidator != null) {
+            batchSignatureValidator.stop();
+        }
     }
 
     /**
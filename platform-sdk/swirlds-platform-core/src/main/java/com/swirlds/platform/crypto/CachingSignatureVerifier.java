@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2023 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.platform.crypto;
+
+import static com.swirlds.logging.LogMarker.EXCEPTION;
+
+import com.swirlds.common.crypto.CryptographyException;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.security.InvalidKeyException;
+import java.security.NoSuchAlgorithmException;
+import java.security.NoSuchProviderException;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.SignatureException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * A {@link SignatureVerifier} that verifies signatures the same way as {@link CryptoStatic#verifySignature(byte[],
+ * byte[], PublicKey)}, but doesn't create and initialize a new {@link Signature} for every call. Instead, every thread
+ * keeps a verification context per public key, which is reused for all signatures verified with that key.
+ * <p>
+ * This is thread safe. The number of cached contexts is the number of threads multiplied by the number of keys, so
+ * this should be used with a bounded set of keys, e.g. keys from an address book.
+ */
+public class CachingSignatureVerifier implements SignatureVerifier {
+
+    private static final Logger logger = LogManager.getLogger(CachingSignatureVerifier.class);
+
+    /** Verification contexts of the current thread, by public key */
+    private final ThreadLocal<Map<PublicKey, Signature>> contexts = ThreadLocal.withInitial(HashMap::new);
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean verifySignature(
+            @NonNull final byte[] data, @NonNull final byte[] signature, @NonNull final PublicKey publicKey) {
+        Objects.requireNonNull(data);
+        Objects.requireNonNull(signature);
+        Objects.requireNonNull(publicKey);
+        final Map<PublicKey, Signature> threadContexts = contexts.get();
+        try {
+            Signature sig = threadContexts.get(publicKey);
+            if (sig == null) {
+                sig = Signature.getInstance(CryptoConstants.SIG_TYPE2, CryptoConstants.SIG_PROVIDER);
+                sig.initVerify(publicKey);
+                threadContexts.put(publicKey, sig);
+            }
+            // verify() resets the context to its initialized state, so it's ready for the next signature
+            sig.update(data);
+            return sig.verify(signature);
+        } catch (final NoSuchAlgorithmException | NoSuchProviderException e) {
+            // should never happen
+            throw new CryptographyException(e);
+        } catch (final InvalidKeyException | SignatureException e) {
+            // the context may be left in an unknown state, so it's not reused
+            threadContexts.remove(publicKey);
+            logger.error(EXCEPTION.getMarker(), "", e);
+            return false;
+        }
+    }
+}
@@ -17,7 +17,6 @@
 package com.swirlds.platform.event;
 
 import static com.swirlds.platform.event.EventUtils.toShortString;
-import static com.swirlds.platform.event.EventUtils.toShortStrings;
 
 import com.swirlds.base.utility.ToStringBuilder;
 import com.swirlds.platform.RoundInfo;
@@ -56,10 +55,11 @@ public class InternalEventData {
     private RoundInfo.ElectionRound firstElection;
     /** does this event contains user transactions (not just system transactions) */
     private boolean hasUserTransactions = false;
-    /** lastSee[m] is the last ancestor created by m (memoizes function from Swirlds-TR-2020-01) */
-    private EventImpl[] lastSee;
-    /** stronglySeeP[m] is strongly-seen witness in parent round by m (memoizes function from Swirlds-TR-2020-01) */
-    private EventImpl[] stronglySeeP;
+    /**
+     * the slot of this event in the consensus memo tables, which memoize lastSee and stronglySeeP functions from
+     * Swirlds-TR-2020-01, or -1 if this event has no slot
+     */
+    private int memoSlot = -1;
     /** The first witness that's a self-ancestor in the self round (memoizes function from Swirlds-TR-2020-01) */
     private EventImpl firstSelfWitnessS;
     /** the first witness that's an ancestor in the the self round (memoizes function from Swirlds-TR-2020-01) */
@@ -97,8 +97,7 @@ public class InternalEventData {
                 .append("reachedConsTimestamp", reachedConsTimestamp)
                 .append("firstElection", firstElection)
                 .append("hasUserTransactions", hasUserTransactions)
-                .append("lastSee", toShortStrings(lastSee))
-                .append("stronglySeeP", toShortStrings(stronglySeeP))
+                .append("memoSlot", memoSlot)
                 .append("firstSelfWitnessS", toShortString(firstSelfWitnessS))
                 .append("firstWitnessS", toShortString(firstWitnessS))
                 .append("mark", mark)
@@ -117,8 +116,7 @@ public class InternalEventData {
         EventCounter.eventCleared();
         selfParent = null;
         otherParent = null;
-        initLastSee(0);
-        initStronglySeeP(0);
+        memoSlot = -1;
         firstSelfWitnessS = null;
         firstWitnessS = null;
     }
@@ -310,82 +308,18 @@ public class InternalEventData {
     }
 
     /**
-     * @param m
-     * 		the index of the member ID
-     * @return last ancestor created by the member at index m (memoizes lastSee function from Swirlds-TR-2020-01)
-     */
-    public EventImpl getLastSee(int m) {
-        return lastSee[m];
-    }
-
-    /**
-     * remember event, the last ancestor created by m (memoizes lastSee function from Swirlds-TR-2020-01)
-     *
-     * @param m
-     * 		the index of the member ID
-     * @param event
-     * 		the last seen {@link EventImpl} object created by the member at index m
-     */
-    public void setLastSee(int m, EventImpl event) {
-        lastSee[m] = event;
-    }
-
-    /**
-     * Initialize the lastSee array to hold n elements (for n &ge; 0) (memoizes lastSee function from
-     * Swirlds-TR-2020-01)
-     *
-     * @param n
-     * 		number of members in the initial address book
-     */
-    public void initLastSee(int n) {
-        lastSee = n == 0 ? null : new EventImpl[n];
-    }
-
-    /**
-     * @return the number of elements lastSee holds (memoizes lastSee function from Swirlds-TR-2020-01)
-     */
-    public int sizeLastSee() {
-        return lastSee == null ? 0 : lastSee.length;
-    }
-
-    /**
-     * @param m
-     * 		the index of the member ID
-     * @return strongly-seen witness in parent round by the member at index m (memoizes stronglySeeP function from Swirlds-TR-2020-01)
-     */
-    public EventImpl getStronglySeeP(int m) {
-        return stronglySeeP[m];
-    }
-
-    /**
-     * remember event, the strongly-seen witness in parent round by m (memoizes stronglySeeP function from
-     * Swirlds-TR-2020-01)
-     *
-     * @param m
-     * 		the index of the member ID
-     * @param event
-     * 		the strongly-seen witness in parent round created by the member at index m
-     */
-    public void setStronglySeeP(int m, EventImpl event) {
-        stronglySeeP[m] = event;
-    }
-
-    /**
-     * Initialize the stronglySeeP array to hold n elements (for n &ge; 0) (memoizes stronglySeeP function from
-     * Swirlds-TR-2020-01)
-     *
-     * @param n
-     * 		number of members in AddressBook
+     * @return the slot of this event in the consensus memo tables, or -1 if this event has no slot
      */
-    public void initStronglySeeP(int n) {
-        stronglySeeP = n == 0 ? null : new EventImpl[n];
+    public int getMemoSlot() {
+        return memoSlot;
     }
 
     /**
-     * @return the number of elements stronglySeeP holds (memoizes stronglySeeP function from Swirlds-TR-2020-01)
+     * @param memoSlot
+     * 		the slot of this event in the consensus memo tables, or -1 if this event has no slot
      */
-    public int sizeStronglySeeP() {
-        return stronglySeeP == null ? 0 : stronglySeeP.length;
+    public void setMemoSlot(int memoSlot) {
+        this.memoSlot = memoSlot;
     }
 
     /**
@@ -18,6 +18,7 @@ package com.swirlds.platform.event.preconsensus;
 
 import static com.swirlds.logging.LogMarker.EXCEPTION;
 
+import com.swirlds.base.time.Time;
 import com.swirlds.common.context.PlatformContext;
 import com.swirlds.common.threading.framework.BlockingQueueInserter;
 import com.swirlds.common.threading.framework.MultiQueueThread;
@@ -105,6 +106,30 @@ public class AsyncPreconsensusEventWriter implements PreconsensusEventWriter {
      */
     private final BlockingQueueInserter<MinimumGenerationToStore> minimumGenerationToStoreInserter;
 
+    /**
+     * If not zero, flush requests received within this window of time are coalesced into a single flush of the wrapped
+     * writer.
+     */
+    private final Duration groupCommitWindow;
+
+    /**
+     * The number of flush requests that have not yet been passed to the wrapped writer. Only accessed on the handle
+     * thread.
+     */
+    private int pendingFlushRequests = 0;
+
+    /**
+     * The time when the oldest pending flush request was received, in nanoseconds. Only accessed on the handle thread.
+     */
+    private long oldestPendingFlushRequestNanos;
+
+    /**
+     * Provides the time used to decide when pending flush requests are passed to the wrapped writer.
+     */
+    private final Time time = Time.getCurrent();
+
+    private final PreconsensusEventMetrics metrics;
+
     /**
      * Create a new AsyncPreConsensusEventWriter.
      *
@@ -124,7 +149,10 @@ public class AsyncPreconsensusEventWriter implements PreconsensusEventWriter {
         final PreconsensusEventStreamConfig config =
                 platformContext.getConfiguration().getConfigData(PreconsensusEventStreamConfig.class);
 
-        handleThread = new MultiQueueThreadConfiguration(threadManager)
+        groupCommitWindow = config.groupCommitWindow();
+        metrics = new PreconsensusEventMetrics(platformContext.getMetrics());
+
+        final MultiQueueThreadConfiguration handleThreadConfiguration = new MultiQueueThreadConfiguration(threadManager)
                 .setComponent("preconsensus")
                 .setThreadName("event-writer")
                 .setCapacity(config.writeQueueCapacity())
@@ -135,8 +163,17 @@ public class AsyncPreconsensusEventWriter implements PreconsensusEventWriter {
                 .addHandler(Discontinuity.class, this::discontinuityHandler)
                 .addHandler(MinimumGenerationToStore.class, this::minimumGenerationToStoreHandler)
                 .setMetricsConfiguration(
-                        new QueueThreadMetricsConfiguration(platformContext.getMetrics()).enableBusyTimeMetric())
-                .build();
+                        new QueueThreadMetricsConfiguration(platformContext.getMetrics()).enableBusyTimeMetric());
+
+        if (!groupCommitWindow.isZero()) {
+            // Pending flush requests are checked after each batch of work, and periodically while the queue is empty
+            handleThreadConfiguration
+                    .setWaitForWorkDuration(groupCommitWindow)
+                    .setBatchHandledCallback(this::flushIfGroupCommitWindowElapsed)
+                    .setIdleCallback(this::flushIfGroupCommitWindowElapsed);
+        }
+
+        handleThread = handleThreadConfiguration.build();
 
         minimumGenerationNonAncientInserter = handleThread.getInserter(Long.class);
         eventInserter = handleThread.getInserter(EventImpl.class);
@@ -292,7 +329,15 @@ public class AsyncPreconsensusEventWriter implements PreconsensusEventWriter {
      */
     private void flushRequestedHandler(@NonNull final FlushRequested flushRequested) {
         try {
-            writer.requestFlush();
+            if (groupCommitWindow.isZero()) {
+                writer.requestFlush();
+                return;
+            }
+            if (pendingFlushRequests == 0) {
+                oldestPendingFlushRequestNanos = time.nanoTime();
+            }
+            pendingFlushRequests++;
+            flushIfGroupCommitWindowElapsed();
         } catch (final InterruptedException e) {
             // Unless we do something silly like wrapping an asynchronous writer inside another asynchronous writer,
             // this should never throw an InterruptedException.
@@ -301,6 +346,20 @@ public class AsyncPreconsensusEventWriter implements PreconsensusEventWriter {
         }
     }
 
+    /**
+     * If the oldest pending flush request was received at least one group commit window ago, flush the wrapped writer
+     * once for all pending flush requests.
+     */
+    private void flushIfGroupCommitWindowElapsed() throws InterruptedException {
+        if (pendingFlushRequests == 0
+                || time.nanoTime() - oldestPendingFlushRequestNanos < groupCommitWindow.toNanos()) {
+            return;
+        }
+        metrics.getPreconsensusEventFlushGroupSize().update(pendingFlushRequests);
+        pendingFlushRequests = 0;
+        writer.requestFlush();
+    }
+
     /**
      * Notify the wrapped writer that there is a discontinuity.
      */
@@ -65,6 +65,12 @@ public final class PreconsensusEventFile implements Comparable<PreconsensusEvent
      */
     public static final String EVENT_FILE_DISCONTINUITY_EXTENSION = ".pcesD";
 
+    /**
+     * The extension appended to the name of an event file to get the name of its generation index. Index files are not
+     * event files, they are written and deleted together with the event file they describe.
+     */
+    public static final String INDEX_FILE_EXTENSION = ".idx";
+
     /**
      * The character used to separate fields in the file name.
      */
@@ -298,6 +304,14 @@ public final class PreconsensusEventFile implements Comparable<PreconsensusEvent
         return path;
     }
 
+    /**
+     * @return the path to the generation index of this file, the index may not exist
+     */
+    @NonNull
+    public Path getIndexPath() {
+        return path.resolveSibling(path.getFileName() + INDEX_FILE_EXTENSION);
+    }
+
     /**
      * @return true if this file is a placeholder signaling a discontinuity
      */
@@ -335,6 +349,9 @@ public final class PreconsensusEventFile implements Comparable<PreconsensusEvent
      */
     public void deleteFile(@NonNull final Path rootDirectory, @Nullable final RecycleBin recycleBin)
             throws IOException {
+        // The index is derived from the event file, there is no need to recycle it
+        Files.deleteIfExists(getIndexPath());
+
         if (!Files.exists(path)) {
             // Nothing to delete.
             return;
@@ -0,0 +1,193 @@
+/*
+ * Copyright (C) 2023 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.platform.event.preconsensus;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * <p>
+ * A sparse index that maps generations to byte offsets within a preconsensus event file. The index is written next to
+ * the event file when the file is closed, and it allows a reader to skip over the part of the file that only contains
+ * events with a generation lower than the generation it is interested in.
+ * </p>
+ *
+ * <p>
+ * Events in a file are not sorted by generation, so each entry records the highest generation of all events that come
+ * before an offset. An entry is added each time this value increases, so the entries are sorted by both generation and
+ * offset.
+ * </p>
+ *
+ * <p>
+ * The index is only an optimization. If it is missing or does not match the event file (e.g. if the node crashed
+ * before the index was written, or if the event file was truncated), readers scan the entire file.
+ * </p>
+ */
+final class PreconsensusEventFileIndex {
+
+    /**
+     * The version of the index format.
+     */
+    private static final int INDEX_VERSION = 1;
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * For each entry, the highest generation of all events that come before the offset of the entry.
+     */
+    private long[] generations;
+
+    /**
+     * For each entry, the offset of an event in the file.
+     */
+    private long[] offsets;
+
+    /**
+     * The number of entries in the index.
+     */
+    private int size;
+
+    /**
+     * Create a new empty index.
+     */
+    PreconsensusEventFileIndex() {
+        this(new long[INITIAL_CAPACITY], new long[INITIAL_CAPACITY], 0);
+    }
+
+    private PreconsensusEventFileIndex(
+            @NonNull final long[] generations, @NonNull final long[] offsets, final int size) {
+        this.generations = generations;
+        this.offsets = offsets;
+        this.size = size;
+    }
+
+    /**
+     * Add an entry to the index. Entries must be added in increasing order of generation and offset.
+     *
+     * @param highestGenerationBefore the highest generation of all events written before the offset
+     * @param offset                  the offset of the next event in the file
+     */
+    void add(final long highestGenerationBefore, final long offset) {
+        if (size > 0 && (highestGenerationBefore <= generations[size - 1] || offset <= offsets[size - 1])) {
+            throw new IllegalArgumentException("index entries must be added in increasing order");
+        }
+        if (size == generations.length) {
+            generations = Arrays.copyOf(generations, size * 2);
+            offsets = Arrays.copyOf(offsets, size * 2);
+        }
+        generations[size] = highestGenerationBefore;
+        offsets[size] = offset;
+        size++;
+    }
+
+    /**
+     * Find the offset where a reader can start reading if it is only interested in events with a generation equal to
+     * or greater than the minimum generation. All events in the file before the returned offset have a lower
+     * generation.
+     *
+     * @param minimumGeneration the minimum generation the reader is interested in
+     * @param defaultOffset     the offset of the first event in the file, returned if the reader can't skip any events
+     * @return the offset to start reading at
+     */
+    long findOffset(final long minimumGeneration, final long defaultOffset) {
+        // find the last entry with a generation lower than the minimum generation
+        int low = 0;
+        int high = size - 1;
+        int found = -1;
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            if (generations[mid] < minimumGeneration) {
+                found = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return found == -1 ? defaultOffset : offsets[found];
+    }
+
+    /**
+     * Get the number of entries in the index.
+     *
+     * @return the number of entries
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Write the index to disk.
+     *
+     * @param path       the path of the index file
+     * @param fileLength the length of the event file this index describes, used to detect a stale index
+     */
+    void write(@NonNull final Path path, final long fileLength) throws IOException {
+        try (final DataOutputStream out =
+                new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            out.writeInt(INDEX_VERSION);
+            out.writeLong(fileLength);
+            out.writeInt(size);
+            for (int i = 0; i < size; i++) {
+                out.writeLong(generations[i]);
+                out.writeLong(offsets[i]);
+            }
+        }
+    }
+
+    /**
+     * Read an index from disk.
+     *
+     * @param path       the path of the index file
+     * @param fileLength the current length of the event file
+     * @return the index, or null if the index doesn't exist or doesn't match the event file
+     */
+    static @Nullable PreconsensusEventFileIndex read(@NonNull final Path path, final long fileLength) {
+        if (!Files.exists(path)) {
+            return null;
+        }
+        try (final DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != INDEX_VERSION || in.readLong() != fileLength) {
+                return null;
+            }
+            final int size = in.readInt();
+            if (size < 0) {
+                return null;
+            }
+            final long[] generations = new long[Math.max(size, 1)];
+            final long[] offsets = new long[Math.max(size, 1)];
+            for (int i = 0; i < size; i++) {
+                generations[i] = in.readLong();
+                offsets[i] = in.readLong();
+                if (offsets[i] >= fileLength || (i > 0 && offsets[i] <= offsets[i - 1])) {
+                    return null;
+                }
+            }
+            return new PreconsensusEventFileIndex(generations, offsets, size);
+        } catch (final IOException e) {
+            // A partially written or unreadable index is ignored, the event file is scanned instead
+            return null;
+        }
+    }
+}
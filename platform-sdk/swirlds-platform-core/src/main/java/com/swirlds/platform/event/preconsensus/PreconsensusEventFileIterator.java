@@ -21,17 +21,30 @@ import com.swirlds.common.io.extendable.ExtendableInputStream;
 import com.swirlds.common.io.extendable.extensions.CountingStreamExtension;
 import com.swirlds.common.io.streams.SerializableDataInputStream;
 import com.swirlds.platform.event.GossipEvent;
+import edu.umd.cs.findbugs.annotations.NonNull;
 import java.io.BufferedInputStream;
 import java.io.EOFException;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 import java.util.NoSuchElementException;
 
 /**
- * Iterates over the events in a single preconsensus event file.
+ * Iterates over the events in a single preconsensus event file. The file is memory mapped, and if the file has a
+ * generation index, the iterator skips directly to the first part of the file that may contain events with the
+ * minimum generation.
  */
 public class PreconsensusEventFileIterator implements IOIterator<GossipEvent> {
 
+    /**
+     * Files larger than this can't be memory mapped into a single buffer, and are read with a regular stream.
+     */
+    private static final long MAX_MAPPED_FILE_SIZE = Integer.MAX_VALUE;
+
     private final long minimumGeneration;
     private final SerializableDataInputStream stream;
     private boolean hasPartialEvent = false;
@@ -53,10 +66,20 @@ public class PreconsensusEventFileIterator implements IOIterator<GossipEvent> {
 
         this.minimumGeneration = minimumGeneration;
         counter = new CountingStreamExtension();
-        stream = new SerializableDataInputStream(new ExtendableInputStream(
-                new BufferedInputStream(
-                        new FileInputStream(fileDescriptor.getPath().toFile())),
-                counter));
+
+        final long fileSize;
+        final InputStream fileStream;
+        try (final FileChannel channel = FileChannel.open(fileDescriptor.getPath(), StandardOpenOption.READ)) {
+            fileSize = channel.size();
+            if (fileSize <= MAX_MAPPED_FILE_SIZE) {
+                // The mapping remains valid after the channel is closed
+                fileStream = new MappedInputStream(channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize));
+            } else {
+                fileStream = new BufferedInputStream(
+                        new FileInputStream(fileDescriptor.getPath().toFile()));
+            }
+        }
+        stream = new SerializableDataInputStream(new ExtendableInputStream(fileStream, counter));
 
         try {
             final int fileVersion = stream.readInt();
@@ -67,6 +90,14 @@ public class PreconsensusEventFileIterator implements IOIterator<GossipEvent> {
             // Empty file. Possible if the node crashed right after it created this file.
             stream.close();
             streamClosed = true;
+            return;
+        }
+
+        final PreconsensusEventFileIndex index =
+                PreconsensusEventFileIndex.read(fileDescriptor.getIndexPath(), fileSize);
+        if (index != null) {
+            final long offset = index.findOffset(minimumGeneration, Integer.BYTES);
+            stream.skipNBytes(offset - Integer.BYTES);
         }
     }
 
@@ -126,4 +157,70 @@ public class PreconsensusEventFileIterator implements IOIterator<GossipEvent> {
             next = null;
         }
     }
+
+    /**
+     * An input stream that reads from a memory mapped file.
+     */
+    private static final class MappedInputStream extends InputStream {
+
+        private ByteBuffer buffer;
+
+        private MappedInputStream(@NonNull final MappedByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int read() {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            return buffer.get() & 0xFF;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int read(@NonNull final byte[] bytes, final int offset, final int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            final int count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+            return count;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public long skip(final long n) {
+            final int count = (int) Math.max(0, Math.min(n, buffer.remaining()));
+            buffer.position(buffer.position() + count);
+            return count;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void close() {
+            // Drop the reference so that the mapping can be released as soon as possible
+            buffer = ByteBuffer.allocate(0);
+        }
+    }
 }
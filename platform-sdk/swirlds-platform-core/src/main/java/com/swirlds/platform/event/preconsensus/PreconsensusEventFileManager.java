@@ -144,6 +144,7 @@ public class PreconsensusEventFileManager {
         try (final Stream<Path> fileStream = Files.walk(databaseDirectory)) {
             fileStream
                     .filter(f -> !Files.isDirectory(f))
+                    .filter(f -> !f.toString().endsWith(PreconsensusEventFile.INDEX_FILE_EXTENSION))
                     .map(PreconsensusEventFileManager::parseFile)
                     .filter(Objects::nonNull)
                     .sorted()
@@ -86,6 +86,20 @@ public class PreconsensusEventMetrics {
             .withDescription("The age of the oldest preconsensus event file, in seconds.");
     private final LongGauge preconsensusEventFileOldestSeconds;
 
+    private static final RunningAverageMetric.Config PRECONSENSUS_EVENT_FLUSH_GROUP_SIZE_CONFIG =
+            new RunningAverageMetric.Config(CATEGORY, "preconsensusEventFlushGroupSize")
+                    .withUnit("count")
+                    .withDescription("The average number of flush requests that are coalesced into a single flush "
+                            + "of the preconsensus event stream. Only updated if group commit is enabled.");
+    private final RunningAverageMetric preconsensusEventFlushGroupSize;
+
+    private static final RunningAverageMetric.Config PRECONSENSUS_EVENT_FORCE_LATENCY_CONFIG =
+            new RunningAverageMetric.Config(CATEGORY, "preconsensusEventForceLatency")
+                    .withUnit("microseconds")
+                    .withDescription("The average time it takes to force preconsensus event data to the storage "
+                            + "device, in microseconds. Only updated if forcing on flush is enabled.");
+    private final RunningAverageMetric preconsensusEventForceLatency;
+
     /**
      * Construct preconsensus event metrics.
      *
@@ -103,6 +117,8 @@ public class PreconsensusEventMetrics {
         preconsensusEventFileYoungestGeneration =
                 metrics.getOrCreate(PRECONSENSUS_EVENT_FILE_YOUNGEST_GENERATION_CONFIG);
         preconsensusEventFileOldestSeconds = metrics.getOrCreate(PRECONSENSUS_EVENT_FILE_OLDEST_SECONDS_CONFIG);
+        preconsensusEventFlushGroupSize = metrics.getOrCreate(PRECONSENSUS_EVENT_FLUSH_GROUP_SIZE_CONFIG);
+        preconsensusEventForceLatency = metrics.getOrCreate(PRECONSENSUS_EVENT_FORCE_LATENCY_CONFIG);
     }
 
     /**
@@ -167,4 +183,18 @@ public class PreconsensusEventMetrics {
     public LongGauge getPreconsensusEventFileOldestSeconds() {
         return preconsensusEventFileOldestSeconds;
     }
+
+    /**
+     * Get the metric tracking the number of flush requests that are coalesced into a single flush.
+     */
+    public RunningAverageMetric getPreconsensusEventFlushGroupSize() {
+        return preconsensusEventFlushGroupSize;
+    }
+
+    /**
+     * Get the metric tracking the time it takes to force preconsensus event data to the storage device.
+     */
+    public RunningAverageMetric getPreconsensusEventForceLatency() {
+        return preconsensusEventForceLatency;
+    }
 }
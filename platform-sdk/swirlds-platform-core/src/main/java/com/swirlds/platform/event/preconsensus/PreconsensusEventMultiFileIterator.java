@@ -20,9 +20,17 @@ import com.swirlds.common.io.IOIterator;
 import com.swirlds.platform.event.GossipEvent;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.Iterator;
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 /**
  * Iterates over events from a sequence of preconsensus event files.
@@ -35,6 +43,34 @@ public class PreconsensusEventMultiFileIterator implements IOIterator<GossipEven
     private GossipEvent next;
     private int truncatedFileCount = 0;
 
+    /**
+     * The events of a file that was read ahead.
+     *
+     * @param events          the events in the file with a generation greater or equal to the minimum generation
+     * @param hasPartialEvent true if the file ended with a partial event
+     */
+    private record FileContents(@NonNull List<GossipEvent> events, boolean hasPartialEvent) {}
+
+    /**
+     * If not null, files are read and deserialized on this pool ahead of the events being returned.
+     */
+    private ExecutorService readAheadPool;
+
+    /**
+     * The maximum number of files that are read ahead at any time.
+     */
+    private int readAheadFileCount;
+
+    /**
+     * Files that are being read ahead, in order.
+     */
+    private final Deque<Future<FileContents>> filesBeingRead = new ArrayDeque<>();
+
+    /**
+     * The remaining events of the file that was read ahead and is currently being iterated over.
+     */
+    private Iterator<GossipEvent> currentFileEvents;
+
     /**
      * Create an iterator that walks over events in a series of event files.
      *
@@ -51,10 +87,32 @@ public class PreconsensusEventMultiFileIterator implements IOIterator<GossipEven
         this.minimumGeneration = minimumGeneration;
     }
 
+    /**
+     * Read and deserialize files on a thread pool ahead of the events being returned by this iterator, so that reading
+     * the next files overlaps with the processing of the current file. Events are returned in the same order as
+     * without read ahead. Must be called before the first event is requested. The caller is responsible for shutting
+     * down the pool.
+     *
+     * @param readAheadPool      the pool to read files on
+     * @param readAheadFileCount the maximum number of files that are read ahead at any time, each of these files is
+     *                           held in memory until its events are returned
+     */
+    public void enableReadAhead(@NonNull final ExecutorService readAheadPool, final int readAheadFileCount) {
+        if (readAheadFileCount < 1) {
+            throw new IllegalArgumentException("read ahead file count must be at least 1");
+        }
+        this.readAheadPool = Objects.requireNonNull(readAheadPool);
+        this.readAheadFileCount = readAheadFileCount;
+    }
+
     /**
      * Find the next event that should be returned.
      */
     private void findNext() throws IOException {
+        if (readAheadPool != null) {
+            findNextReadAhead();
+            return;
+        }
         while (next == null) {
             if (currentIterator == null || !currentIterator.hasNext()) {
                 if (currentIterator != null && currentIterator.hasPartialEvent()) {
@@ -72,6 +130,71 @@ public class PreconsensusEventMultiFileIterator implements IOIterator<GossipEven
         }
     }
 
+    /**
+     * Find the next event that should be returned, from files that are read ahead.
+     */
+    private void findNextReadAhead() throws IOException {
+        while (next == null) {
+            if (currentFileEvents != null && currentFileEvents.hasNext()) {
+                next = currentFileEvents.next();
+            } else {
+                final FileContents contents = nextFileReadAhead();
+                if (contents == null) {
+                    break;
+                }
+                if (contents.hasPartialEvent()) {
+                    truncatedFileCount++;
+                }
+                currentFileEvents = contents.events().iterator();
+            }
+        }
+    }
+
+    /**
+     * Get the contents of the next file, and schedule more files to be read ahead.
+     *
+     * @return the contents of the next file, or null if there are no more files
+     */
+    private FileContents nextFileReadAhead() throws IOException {
+        while (filesBeingRead.size() < readAheadFileCount && fileIterator.hasNext()) {
+            final PreconsensusEventFile file = fileIterator.next();
+            filesBeingRead.addLast(readAheadPool.submit(() -> readFile(file)));
+        }
+        final Future<FileContents> future = filesBeingRead.pollFirst();
+        if (future == null) {
+            return null;
+        }
+        try {
+            return future.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted while reading preconsensus event files", e);
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof final IOException ioException) {
+                throw ioException;
+            }
+            if (e.getCause() instanceof final UncheckedIOException uncheckedIOException) {
+                throw uncheckedIOException.getCause();
+            }
+            throw new IOException("unable to read preconsensus event file", e.getCause());
+        }
+    }
+
+    /**
+     * Read all events in a file with a generation greater or equal to the minimum generation.
+     *
+     * @param file the file to read
+     * @return the contents of the file
+     */
+    private @NonNull FileContents readFile(@NonNull final PreconsensusEventFile file) throws IOException {
+        final PreconsensusEventFileIterator iterator = new PreconsensusEventFileIterator(file, minimumGeneration);
+        final List<GossipEvent> events = new ArrayList<>();
+        while (iterator.hasNext()) {
+            events.add(iterator.next());
+        }
+        return new FileContents(events, iterator.hasPartialEvent());
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -50,11 +50,26 @@ public class PreconsensusEventMutableFile {
      */
     private long highestGenerationInFile;
 
+    /**
+     * Maps generations to offsets in the file, written next to the file when it is closed.
+     */
+    private final PreconsensusEventFileIndex index = new PreconsensusEventFileIndex();
+
+    /**
+     * The highest generation that has been added to the index.
+     */
+    private long highestIndexedGeneration;
+
     /**
      * The output stream to write to.
      */
     private final SerializableDataOutputStream out;
 
+    /**
+     * The stream that writes to the file, used to force the file contents to the storage device.
+     */
+    private final FileOutputStream fileOutputStream;
+
     /**
      * Create a new preconsensus event file that can be written to.
      *
@@ -69,12 +84,12 @@ public class PreconsensusEventMutableFile {
 
         this.descriptor = descriptor;
         counter = new CountingStreamExtension(false);
-        out = new SerializableDataOutputStream(new ExtendableOutputStream(
-                new BufferedOutputStream(
-                        new FileOutputStream(descriptor.getPath().toFile())),
-                counter));
+        fileOutputStream = new FileOutputStream(descriptor.getPath().toFile());
+        out = new SerializableDataOutputStream(
+                new ExtendableOutputStream(new BufferedOutputStream(fileOutputStream), counter));
         out.writeInt(FILE_VERSION);
         highestGenerationInFile = descriptor.getMinimumGeneration();
+        highestIndexedGeneration = highestGenerationInFile;
     }
 
     /**
@@ -98,6 +113,11 @@ public class PreconsensusEventMutableFile {
                     "Cannot write event " + event.getHashedData().getHash() + " with generation "
                             + event.getGeneration() + " to file " + descriptor);
         }
+        if (highestGenerationInFile > highestIndexedGeneration) {
+            // All events before this offset have a generation of at most highestGenerationInFile
+            index.add(highestGenerationInFile, counter.getCount());
+            highestIndexedGeneration = highestGenerationInFile;
+        }
         out.writeSerializable(event, false);
         highestGenerationInFile = Math.max(highestGenerationInFile, event.getGeneration());
     }
@@ -121,6 +141,9 @@ public class PreconsensusEventMutableFile {
 
         try {
             Files.move(descriptor.getPath(), newDescriptor.getPath(), StandardCopyOption.ATOMIC_MOVE);
+            if (Files.exists(descriptor.getIndexPath())) {
+                Files.move(descriptor.getIndexPath(), newDescriptor.getIndexPath(), StandardCopyOption.ATOMIC_MOVE);
+            }
         } catch (final IOException e) {
             throw new UncheckedIOException(e);
         }
@@ -136,10 +159,20 @@ public class PreconsensusEventMutableFile {
     }
 
     /**
-     * Close the file.
+     * Flush the file, and force its contents to the storage device. When this method returns, all events written to
+     * the file will survive an operating system crash or a power failure.
+     */
+    public void sync() throws IOException {
+        out.flush();
+        fileOutputStream.getChannel().force(false);
+    }
+
+    /**
+     * Close the file, and write the generation index of the file next to it.
      */
     public void close() throws IOException {
         out.close();
+        index.write(descriptor.getIndexPath(), counter.getCount());
     }
 
     /**
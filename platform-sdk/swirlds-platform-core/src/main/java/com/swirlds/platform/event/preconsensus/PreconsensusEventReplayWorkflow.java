@@ -24,19 +24,20 @@ import static com.swirlds.logging.LogMarker.STARTUP;
 import com.swirlds.base.time.Time;
 import com.swirlds.common.context.PlatformContext;
 import com.swirlds.common.formatting.UnitFormatter;
-import com.swirlds.common.io.IOIterator;
 import com.swirlds.common.threading.framework.QueueThread;
+import com.swirlds.common.threading.framework.config.ThreadConfiguration;
 import com.swirlds.common.threading.manager.ThreadManager;
 import com.swirlds.platform.components.EventTaskDispatcher;
 import com.swirlds.platform.components.state.StateManagementComponent;
 import com.swirlds.platform.event.EventIntakeTask;
-import com.swirlds.platform.event.GossipEvent;
 import com.swirlds.platform.eventhandling.ConsensusRoundHandler;
 import com.swirlds.platform.state.signed.ReservedSignedState;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -95,12 +96,34 @@ public final class PreconsensusEventReplayWorkflow {
         try {
             final Instant start = time.now();
 
-            final IOIterator<GossipEvent> iterator =
+            final PreconsensusEventMultiFileIterator iterator =
                     preconsensusEventFileManager.getEventIterator(initialMinimumGenerationNonAncient, true);
 
+            final int readAheadFileCount = platformContext
+                    .getConfiguration()
+                    .getConfigData(PreconsensusEventStreamConfig.class)
+                    .replayReadAheadFileCount();
+            final ExecutorService readAheadPool;
+            if (readAheadFileCount > 0) {
+                readAheadPool = Executors.newFixedThreadPool(
+                        readAheadFileCount,
+                        new ThreadConfiguration(threadManager)
+                                .setThreadName("EventReplayPipeline-ReadAhead")
+                                .buildFactory());
+                iterator.enableReadAhead(readAheadPool, readAheadFileCount);
+            } else {
+                readAheadPool = null;
+            }
+
             final PreconsensusEventReplayPipeline eventReplayPipeline = new PreconsensusEventReplayPipeline(
                     platformContext, threadManager, iterator, eventTaskDispatcher::dispatchTask);
-            eventReplayPipeline.replayEvents();
+            try {
+                eventReplayPipeline.replayEvents();
+            } finally {
+                if (readAheadPool != null) {
+                    readAheadPool.shutdownNow();
+                }
+            }
 
             waitForReplayToComplete(intakeQueue, consensusRoundHandler, stateHashSignQueue);
 
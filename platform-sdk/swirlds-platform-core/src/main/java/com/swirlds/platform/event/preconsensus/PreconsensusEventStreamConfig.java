@@ -90,8 +90,19 @@ import java.time.Duration;
  * @param replayQueueSize                                 the size of the queue used for holding preconsensus events
  *                                                        that are waiting to be replayed
  * @param replayHashPoolSize                              the number of threads used for hashing events during replay
+ * @param replayReadAheadFileCount                        the number of preconsensus event files that are read and
+ *                                                        deserialized in parallel ahead of the events being replayed.
+ *                                                        If 0, files are read one at a time by the replay thread.
  * @param clearOnSoftwareUpgrade                          if true, then delete all preconsensus event files when a
  *                                                        software upgrade is taking place.
+ * @param forceOnFlush                                    if true, then each flush of the preconsensus event stream
+ *                                                        also forces the written data to the storage device, so that
+ *                                                        events reported as durable survive an operating system crash
+ *                                                        or a power failure.
+ * @param groupCommitWindow                               if not zero, flush requests received within this window of
+ *                                                        time of each other are coalesced into a single flush. This
+ *                                                        reduces the number of flushes (and forces, if enabled) at the
+ *                                                        cost of delaying durability by up to this amount of time.
  */
 @ConfigData("event.preconsensus")
 public record PreconsensusEventStreamConfig(
@@ -109,4 +120,7 @@ public record PreconsensusEventStreamConfig(
         @ConfigProperty(defaultValue = "true") boolean enableReplay,
         @ConfigProperty(defaultValue = "1024") int replayQueueSize,
         @ConfigProperty(defaultValue = "8") int replayHashPoolSize,
-        @ConfigProperty(defaultValue = "true") boolean clearOnSoftwareUpgrade) {}
+        @ConfigProperty(defaultValue = "4") int replayReadAheadFileCount,
+        @ConfigProperty(defaultValue = "true") boolean clearOnSoftwareUpgrade,
+        @ConfigProperty(defaultValue = "false") boolean forceOnFlush,
+        @ConfigProperty(defaultValue = "0ms") Duration groupCommitWindow) {}
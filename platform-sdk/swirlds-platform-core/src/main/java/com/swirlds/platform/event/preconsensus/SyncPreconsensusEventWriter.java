@@ -18,11 +18,13 @@ package com.swirlds.platform.event.preconsensus;
 
 import static com.swirlds.common.units.DataUnit.UNIT_BYTES;
 import static com.swirlds.common.units.DataUnit.UNIT_MEGABYTES;
+import static com.swirlds.common.units.UnitConstants.NANOSECONDS_TO_MICROSECONDS;
 import static com.swirlds.logging.LogMarker.EXCEPTION;
 import static com.swirlds.logging.LogMarker.STARTUP;
 
 import com.swirlds.base.state.Startable;
 import com.swirlds.base.state.Stoppable;
+import com.swirlds.base.time.Time;
 import com.swirlds.common.context.PlatformContext;
 import com.swirlds.common.threading.CountUpLatch;
 import com.swirlds.common.utility.LongRunningAverage;
@@ -130,6 +132,18 @@ public class SyncPreconsensusEventWriter implements PreconsensusEventWriter, Sta
      */
     private boolean streamingNewEvents = false;
 
+    /**
+     * If true then flushing the stream also forces the written data to the storage device.
+     */
+    private final boolean forceOnFlush;
+
+    /**
+     * Provides the time used to measure the latency of forcing data to the storage device.
+     */
+    private final Time time = Time.getCurrent();
+
+    private final PreconsensusEventMetrics metrics;
+
     /**
      * Create a new PreConsensusEventWriter.
      *
@@ -153,6 +167,8 @@ public class SyncPreconsensusEventWriter implements PreconsensusEventWriter, Sta
         bootstrapGenerationalSpanOverlapFactor = config.bootstrapGenerationalSpanOverlapFactor();
         generationalSpanOverlapFactor = config.generationalSpanOverlapFactor();
         minimumGenerationalCapacity = config.minimumGenerationalCapacity();
+        forceOnFlush = config.forceOnFlush();
+        metrics = new PreconsensusEventMetrics(platformContext.getMetrics());
 
         this.fileManager = fileManager;
     }
@@ -331,13 +347,26 @@ public class SyncPreconsensusEventWriter implements PreconsensusEventWriter, Sta
         }
 
         try {
-            currentMutableFile.flush();
+            flushFile();
             markEventsAsFlushed();
         } catch (final IOException e) {
             throw new UncheckedIOException("unable to flush", e);
         }
     }
 
+    /**
+     * Flush the current file. If configured to do so, also force the written data to the storage device.
+     */
+    private void flushFile() throws IOException {
+        if (!forceOnFlush) {
+            currentMutableFile.flush();
+            return;
+        }
+        final long start = time.nanoTime();
+        currentMutableFile.sync();
+        metrics.getPreconsensusEventForceLatency().update((time.nanoTime() - start) * NANOSECONDS_TO_MICROSECONDS);
+    }
+
     /**
      * Close the output file.
      */
@@ -347,6 +376,10 @@ public class SyncPreconsensusEventWriter implements PreconsensusEventWriter, Sta
             if (!bootstrapMode) {
                 averageGenerationalSpanUtilization.add(previousGenerationalSpan);
             }
+            if (forceOnFlush) {
+                // Events are marked as durable once the file is closed
+                flushFile();
+            }
             currentMutableFile.close();
 
             fileManager.finishedWritingFile(currentMutableFile);
@@ -425,6 +458,9 @@ public class SyncPreconsensusEventWriter implements PreconsensusEventWriter, Sta
     public synchronized void stop() {
         if (currentMutableFile != null) {
             try {
+                if (forceOnFlush) {
+                    flushFile();
+                }
                 currentMutableFile.close();
                 markEventsAsFlushed();
             } catch (final IOException e) {
@@ -0,0 +1,372 @@
+/*
+ * Copyright (C) 2023 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.platform.event.validation;
+
+import static com.swirlds.common.metrics.FloatFormats.FORMAT_10_2;
+import static com.swirlds.common.metrics.Metrics.INTERNAL_CATEGORY;
+import static com.swirlds.common.units.UnitConstants.NANOSECONDS_TO_MICROSECONDS;
+import static com.swirlds.logging.LogMarker.EXCEPTION;
+
+import com.swirlds.base.state.Startable;
+import com.swirlds.base.state.Stoppable;
+import com.swirlds.base.time.Time;
+import com.swirlds.common.config.EventConfig;
+import com.swirlds.common.context.PlatformContext;
+import com.swirlds.common.crypto.Hash;
+import com.swirlds.common.crypto.Cryptography;
+import com.swirlds.common.metrics.RunningAverageMetric;
+import com.swirlds.common.system.address.AddressBook;
+import com.swirlds.common.threading.interrupt.InterruptableConsumer;
+import com.swirlds.common.threading.manager.ThreadManager;
+import com.swirlds.platform.crypto.SignatureVerifier;
+import com.swirlds.platform.event.EventIntakeTask;
+import com.swirlds.platform.event.GossipEvent;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntConsumer;
+import java.util.function.Predicate;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * A {@link GossipEventValidator} which validates event signatures in parallel batches.
+ * <p>
+ * This sits in front of the intake handler. Tasks taken from the intake queue are passed to
+ * {@link #submit(EventIntakeTask)}, which collects them into a batch. When the intake queue thread finishes a batch of
+ * work, or the batch reaches its max size, {@link #flush()} hashes and verifies the signatures of all gossip events in
+ * the batch in a thread pool, and then passes all tasks, in their original order, to the intake handler. The intake
+ * handler calls {@link #isEventValid(GossipEvent)} as part of the regular validation, which returns the result that was
+ * computed in the batch.
+ * <p>
+ * Events that intake is going to discard anyway, i.e. ancient events, events that are already known, and copies of
+ * the same event received from multiple peers within a batch, are hashed, but their signatures are not verified.
+ * <p>
+ * The intake queue thread drains all queued tasks at once, so batches grow with the load, and no time is spent waiting
+ * for a batch to fill up. While a batch is verified, the intake queue is not drained, so a full intake queue applies
+ * backpressure to gossip the same way as before.
+ * <p>
+ * Events that were not verified in a batch, e.g. if they didn't come through the intake queue, or if this validator
+ * has been stopped, are verified on the calling thread. All methods of this class, except {@link #start()} and
+ * {@link #stop()}, must be called on the intake queue thread.
+ */
+public class BatchSignatureValidator implements GossipEventValidator, Startable, Stoppable {
+    private static final Logger logger = LogManager.getLogger(BatchSignatureValidator.class);
+
+    /** How long to wait for verification threads to finish their work when stopped */
+    private static final long STOP_TIMEOUT_SECONDS = 10;
+
+    private static final RunningAverageMetric.Config BATCH_SIZE_CONFIG = new RunningAverageMetric.Config(
+                    INTERNAL_CATEGORY, "sigVerifyBatchSize")
+            .withDescription("average number of events whose signatures are verified in a single batch")
+            .withFormat(FORMAT_10_2);
+    private final RunningAverageMetric batchSize;
+
+    private static final RunningAverageMetric.Config BATCH_TIME_CONFIG = new RunningAverageMetric.Config(
+                    INTERNAL_CATEGORY, "sigVerifyBatchMicros")
+            .withDescription("average time it takes to verify the signatures of a batch of events, in microseconds")
+            .withFormat(FORMAT_10_2);
+    private final RunningAverageMetric batchTime;
+
+    /** Validates the signature of a single event, used by the verification threads */
+    private final SignatureValidator signatureValidator;
+    /** Hashes events which are not hashed yet */
+    private final Cryptography cryptography;
+    /** Verifies signatures */
+    private final ExecutorService verificationPool;
+    /** Number of threads in {@link #verificationPool} */
+    private final int poolSize;
+    /** The max number of tasks in a batch */
+    private final int maxBatchSize;
+    /** Returns true for hashed events which are discarded by intake, so their signatures don't need to be verified */
+    private final Predicate<GossipEvent> isObsolete;
+    /** Handles tasks after the batch they are in is verified */
+    private final InterruptableConsumer<EventIntakeTask> intakeHandler;
+    private final Time time;
+
+    /** Tasks in the current batch, in the order they were submitted */
+    private final List<EventIntakeTask> batch = new ArrayList<>();
+    /** Results of the signature verification of events in the batch, until they are validated by intake */
+    private final Map<GossipEvent, Boolean> verified = new IdentityHashMap<>();
+
+    /**
+     * Constructor
+     *
+     * @param platformContext
+     * 		the platform context
+     * @param threadManager
+     * 		responsible for creating and managing threads
+     * @param time
+     * 		provides the wall clock time
+     * @param addressBooks
+     * 		the address books with the keys of all event creators
+     * @param signatureVerifier
+     * 		verifies signatures, must be thread safe
+     * @param isObsolete
+     * 		returns true for hashed events that intake is going to discard, e.g. ancient or duplicate events. Called on
+     * 		the intake queue thread
+     * @param intakeHandler
+     * 		handles tasks after their batch is verified
+     */
+    public BatchSignatureValidator(
+            @NonNull final PlatformContext platformContext,
+            @NonNull final ThreadManager threadManager,
+            @NonNull final Time time,
+            @NonNull final List<AddressBook> addressBooks,
+            @NonNull final SignatureVerifier signatureVerifier,
+            @NonNull final Predicate<GossipEvent> isObsolete,
+            @NonNull final InterruptableConsumer<EventIntakeTask> intakeHandler) {
+        Objects.requireNonNull(platformContext);
+        Objects.requireNonNull(threadManager);
+        this.time = Objects.requireNonNull(time);
+        this.isObsolete = Objects.requireNonNull(isObsolete);
+        this.intakeHandler = Objects.requireNonNull(intakeHandler);
+        this.signatureValidator = new SignatureValidator(addressBooks, signatureVerifier);
+        this.cryptography = platformContext.getCryptography();
+
+        final EventConfig eventConfig = platformContext.getConfiguration().getConfigData(EventConfig.class);
+        this.poolSize = eventConfig.signatureVerificationPoolSize();
+        this.maxBatchSize = eventConfig.signatureVerificationBatchSize();
+        this.verificationPool =
+                Executors.newFixedThreadPool(poolSize, threadManager.createThreadFactory("platform", "sig-verify"));
+
+        batchSize = platformContext.getMetrics().getOrCreate(BATCH_SIZE_CONFIG);
+        batchTime = platformContext.getMetrics().getOrCreate(BATCH_TIME_CONFIG);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Verification threads are started on demand, so there is nothing to do here.
+     */
+    @Override
+    public void start() {
+        // no-op
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Stops the verification threads. Batches that are flushed after this is called are not verified in parallel,
+     * signatures of their events are verified on the intake queue thread instead.
+     */
+    @Override
+    public void stop() {
+        verificationPool.shutdown();
+        try {
+            if (!verificationPool.awaitTermination(STOP_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                verificationPool.shutdownNow();
+            }
+        } catch (final InterruptedException e) {
+            verificationPool.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Add a task taken from the intake queue to the current batch. If the batch is full, it is flushed.
+     *
+     * @param task
+     * 		the task
+     * @throws InterruptedException
+     * 		if interrupted while flushing the batch
+     */
+    public void submit(@NonNull final EventIntakeTask task) throws InterruptedException {
+        batch.add(task);
+        if (batch.size() >= maxBatchSize) {
+            flush();
+        }
+    }
+
+    /**
+     * Verify the signatures of all events in the current batch, and pass all tasks in the batch to the intake handler.
+     * If the handler fails to handle a task, the error is logged, and the remaining tasks are still handled.
+     *
+     * @throws InterruptedException
+     * 		if interrupted while waiting for the verification, or while handling a task
+     */
+    public void flush() throws InterruptedException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        int handled = 0;
+        try {
+            verifyBatch();
+            for (final EventIntakeTask task : batch) {
+                try {
+                    intakeHandler.accept(task);
+                } catch (final RuntimeException e) {
+                    logger.error(EXCEPTION.getMarker(), "Error while handling an event intake task", e);
+                }
+                handled++;
+            }
+        } finally {
+            if (handled < batch.size()) {
+                logger.error(
+                        EXCEPTION.getMarker(),
+                        "{} of {} event intake tasks in a batch were not handled",
+                        batch.size() - handled,
+                        batch.size());
+            }
+            batch.clear();
+            verified.clear();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isEventValid(final GossipEvent event) {
+        final Boolean valid = verified.remove(event);
+        if (valid != null) {
+            return valid;
+        }
+        return signatureValidator.isEventValid(event);
+    }
+
+    /**
+     * Hash all gossip events in the current batch, and verify signatures of the events that are not obsolete. Both are
+     * done in parallel, events are split into one chunk per verification thread.
+     */
+    private void verifyBatch() throws InterruptedException {
+        final List<GossipEvent> events = new ArrayList<>(batch.size());
+        for (final EventIntakeTask task : batch) {
+            if (task instanceof final GossipEvent event) {
+                events.add(event);
+            }
+        }
+        if (events.isEmpty()) {
+            return;
+        }
+
+        final long start = time.nanoTime();
+        if (!runInParallel(events, i -> hash(events.get(i)))) {
+            return;
+        }
+
+        // the same event is often received from several peers, it only needs to be verified once
+        final List<GossipEvent> toVerify = new ArrayList<>(events.size());
+        final Set<Hash> hashes = new HashSet<>();
+        for (final GossipEvent event : events) {
+            if (!isObsolete.test(event) && hashes.add(event.getHashedData().getHash())) {
+                toVerify.add(event);
+            }
+        }
+        if (toVerify.isEmpty()) {
+            return;
+        }
+
+        final boolean[] results = new boolean[toVerify.size()];
+        if (!runInParallel(toVerify, i -> results[i] = signatureValidator.isEventValid(toVerify.get(i)))) {
+            return;
+        }
+        for (int i = 0; i < results.length; i++) {
+            verified.put(toVerify.get(i), results[i]);
+        }
+
+        batchSize.update(toVerify.size());
+        batchTime.update((time.nanoTime() - start) * NANOSECONDS_TO_MICROSECONDS);
+    }
+
+    /**
+     * Run an action for every event in the list, in the verification pool. A single event is processed on the current
+     * thread, since there is nothing to parallelize. If this method doesn't complete normally, it doesn't return
+     * before all chunks that already started have stopped, so the caller can safely process the same events again.
+     *
+     * @param events
+     * 		the events
+     * @param action
+     * 		the action to run for the event at the given index
+     * @return true if the action completed for all events, false if it failed or the pool has been stopped
+     * @throws InterruptedException
+     * 		if interrupted while waiting for the pool
+     */
+    private boolean runInParallel(@NonNull final List<GossipEvent> events, @NonNull final IntConsumer action)
+            throws InterruptedException {
+        if (events.size() == 1) {
+            action.accept(0);
+            return true;
+        }
+        final int chunkSize = (events.size() + poolSize - 1) / poolSize;
+        final List<Future<?>> futures = new ArrayList<>();
+        // chunks run under the read lock, the write lock is taken to wait for running chunks when aborting
+        final ReadWriteLock chunkLock = new ReentrantReadWriteLock();
+        final AtomicBoolean aborted = new AtomicBoolean();
+        boolean completed = false;
+        try {
+            for (int from = 0; from < events.size(); from += chunkSize) {
+                final int chunkStart = from;
+                final int chunkEnd = Math.min(from + chunkSize, events.size());
+                futures.add(verificationPool.submit(() -> {
+                    chunkLock.readLock().lock();
+                    try {
+                        for (int i = chunkStart; i < chunkEnd && !aborted.get(); i++) {
+                            action.accept(i);
+                        }
+                    } finally {
+                        chunkLock.readLock().unlock();
+                    }
+                }));
+            }
+            for (final Future<?> future : futures) {
+                future.get();
+            }
+            completed = true;
+            return true;
+        } catch (final RejectedExecutionException e) {
+            // the validator has been stopped, events are verified on the intake thread
+            return false;
+        } catch (final ExecutionException e) {
+            // events without a result are verified again on the intake thread
+            logger.error(EXCEPTION.getMarker(), "Error while verifying a batch of event signatures", e);
+            return false;
+        } finally {
+            if (!completed) {
+                aborted.set(true);
+                futures.forEach(f -> f.cancel(false));
+                chunkLock.writeLock().lock();
+                chunkLock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Hash the event if it hasn't been hashed already
+     */
+    private void hash(@NonNull final GossipEvent event) {
+        if (event.getHashedData().getHash() == null) {
+            cryptography.digestSync(event.getHashedData());
+            // the descriptor is built once the hash is known, the same way as by the event validator
+            event.buildDescriptor();
+        }
+    }
+}
@@ -26,33 +26,56 @@ import com.swirlds.common.system.transaction.internal.StateSignatureTransaction;
 import com.swirlds.platform.components.transaction.TransactionSupplier;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BooleanSupplier;
 
 /**
  * Store a list of transactions created by self, both system and non-system, for wrapping in the next event to be
  * created.
+ * <p>
+ * Transactions wait in one of three lanes: priority transactions, other system transactions, and other app
+ * transactions. Events are filled from the lanes in that order. Transactions are submitted without locking, so threads
+ * submitting transactions never wait for each other or for the event creator.
  */
 public class TransactionPool implements TransactionSupplier, EventCreationRule {
 
     /**
-     * A list of transactions created by this node waiting to be put into a self-event.
+     * High-priority transactions created by this node waiting to be put into a self-event. Transactions in this lane
+     * are always inserted into an event before transactions waiting in the other lanes.
      */
-    private final Queue<ConsensusTransactionImpl> bufferedTransactions = new LinkedList<>();
+    private final Lane priorityLane = new Lane();
 
     /**
-     * A list of high-priority transactions created by this node waiting to be put into a self-event. Transactions in
-     * this queue are always inserted into an event before transactions waiting in {@link #bufferedTransactions}.
+     * System transactions created by this node waiting to be put into a self-event. Transactions in this lane are
+     * inserted into an event before transactions waiting in {@link #appLane}.
      */
-    private final Queue<ConsensusTransactionImpl> priorityBufferedTransactions = new LinkedList<>();
+    private final Lane systemLane = new Lane();
+
+    /**
+     * App transactions created by this node waiting to be put into a self-event.
+     */
+    private final Lane appLane = new Lane();
+
+    /**
+     * The number of buffered transactions in all lanes.
+     */
+    private final AtomicInteger bufferedTransactionCount = new AtomicInteger();
+
+    /**
+     * The number of bytes of buffered transactions in all lanes.
+     */
+    private final AtomicLong bufferedTransactionBytes = new AtomicLong();
 
     /**
      * The number of buffered signature transactions waiting to be put into events.
      */
-    private int bufferedSignatureTransactionCount = 0;
+    private final AtomicInteger bufferedSignatureTransactionCount = new AtomicInteger();
 
     /**
      * Indicates if the system is currently in a freeze.
@@ -70,6 +93,12 @@ public class TransactionPool implements TransactionSupplier, EventCreationRule {
      */
     private final int throttleTransactionQueueSize;
 
+    /**
+     * The maximum desired number of bytes in the transaction queue. If the queue has more bytes than this, then new
+     * app transactions are rejected.
+     */
+    private final long throttleTransactionQueueBytes;
+
     /**
      * Metrics for the transaction pool.
      */
@@ -90,9 +119,14 @@ public class TransactionPool implements TransactionSupplier, EventCreationRule {
                 platformContext.getConfiguration().getConfigData(TransactionConfig.class);
         maxTransactionBytesPerEvent = transactionConfig.maxTransactionBytesPerEvent();
         throttleTransactionQueueSize = transactionConfig.throttleTransactionQueueSize();
+        throttleTransactionQueueBytes = transactionConfig.throttleTransactionQueueBytes();
 
         transactionPoolMetrics = new TransactionPoolMetrics(
-                platformContext, this::getBufferedTransactionCount, this::getPriorityBufferedTransactionCount);
+                platformContext,
+                this::getBufferedTransactionCount,
+                this::getPriorityBufferedTransactionCount,
+                this::getSystemBufferedTransactionCount,
+                bufferedTransactionBytes::get);
     }
 
     /**
@@ -102,17 +136,25 @@ public class TransactionPool implements TransactionSupplier, EventCreationRule {
      * @return the next transaction, or null if no transaction is available
      */
     @Nullable
-    @SuppressWarnings("ConstantConditions")
     private ConsensusTransactionImpl getNextTransaction(final int currentEventSize) {
         final int maxSize = maxTransactionBytesPerEvent - currentEventSize;
 
-        if (!priorityBufferedTransactions.isEmpty()
-                && priorityBufferedTransactions.peek().getSerializedLength() <= maxSize) {
-            return priorityBufferedTransactions.poll();
+        final BufferedTransaction priorityTransaction = priorityLane.pollIfFits(maxSize);
+        if (priorityTransaction != null) {
+            transactionPoolMetrics.recordPriorityTransactionWait(priorityTransaction.getWaitTime());
+            return priorityTransaction.transaction();
+        }
+
+        final BufferedTransaction systemTransaction = systemLane.pollIfFits(maxSize);
+        if (systemTransaction != null) {
+            transactionPoolMetrics.recordSystemTransactionWait(systemTransaction.getWaitTime());
+            return systemTransaction.transaction();
         }
 
-        if (!bufferedTransactions.isEmpty() && bufferedTransactions.peek().getSerializedLength() <= maxSize) {
-            return bufferedTransactions.poll();
+        final BufferedTransaction appTransaction = appLane.pollIfFits(maxSize);
+        if (appTransaction != null) {
+            transactionPoolMetrics.recordAppTransactionWait(appTransaction.getWaitTime());
+            return appTransaction.transaction();
         }
 
         return null;
@@ -122,16 +164,19 @@ public class TransactionPool implements TransactionSupplier, EventCreationRule {
      * Removes as many transactions from the list waiting to be in an event that can fit (FIFO ordering), and returns
      * them as an array, along with a boolean indicating if the array of transactions returned contains a freeze state
      * signature transaction.
+     * <p>
+     * This is synchronized so that only one thread at a time removes transactions from the lanes, threads submitting
+     * transactions never wait for this lock.
      */
     @NonNull
     @Override
     public synchronized ConsensusTransactionImpl[] getTransactions() {
         // Early return due to no transactions waiting
-        if (bufferedTransactions.isEmpty() && priorityBufferedTransactions.isEmpty()) {
+        if (bufferedTransactionCount.get() == 0) {
             return new ConsensusTransactionImpl[0];
         }
 
-        final List<ConsensusTransactionImpl> selectedTrans = new LinkedList<>();
+        final List<ConsensusTransactionImpl> selectedTrans = new ArrayList<>();
         int currEventSize = 0;
 
         while (true) {
@@ -144,10 +189,6 @@ public class TransactionPool implements TransactionSupplier, EventCreationRule {
 
             currEventSize += transaction.getSerializedLength();
             selectedTrans.add(transaction);
-
-            if (transaction.isSystem() && isSignatureTransaction(transaction)) {
-                bufferedSignatureTransactionCount--;
-            }
         }
 
         return selectedTrans.toArray(new ConsensusTransactionImpl[0]);
@@ -169,8 +210,8 @@ public class TransactionPool implements TransactionSupplier, EventCreationRule {
      *
      * @return true if there are any buffered signature transactions
      */
-    public synchronized boolean hasBufferedSignatureTransactions() {
-        return bufferedSignatureTransactionCount > 0;
+    public boolean hasBufferedSignatureTransactions() {
+        return bufferedSignatureTransactionCount.get() > 0;
     }
 
     /**
@@ -179,7 +220,7 @@ public class TransactionPool implements TransactionSupplier, EventCreationRule {
     @SuppressWarnings("ConstantConditions")
     @NonNull
     @Override
-    public synchronized EventCreationRuleResponse shouldCreateEvent() {
+    public EventCreationRuleResponse shouldCreateEvent() {
         if (hasBufferedSignatureTransactions() && inFreeze.getAsBoolean()) {
             return EventCreationRuleResponse.CREATE;
         } else {
@@ -190,6 +231,9 @@ public class TransactionPool implements TransactionSupplier, EventCreationRule {
     /**
      * Add the given transaction to the list of transactions to be submitted to the network. If the queue is full, it
      * does nothing and returns false immediately.
+     * <p>
+     * This does not lock, so it may be called by many threads at the same time. The queue limits are checked before the
+     * transaction is added, so threads submitting at the same time may exceed them by a few transactions.
      *
      * @param transaction The transaction. It must have been created by self.
      * @param priority    if true, then this transaction will be submitted before other waiting transactions that are
@@ -198,23 +242,23 @@ public class TransactionPool implements TransactionSupplier, EventCreationRule {
      *                    functionalities.
      * @return true if successful
      */
-    @SuppressWarnings("ConstantConditions")
-    public synchronized boolean submitTransaction(
-            @NonNull final ConsensusTransactionImpl transaction, final boolean priority) {
+    public boolean submitTransaction(@NonNull final ConsensusTransactionImpl transaction, final boolean priority) {
 
         Objects.requireNonNull(transaction);
 
         // Always submit system transactions. If it's not a system transaction, then only submit it if we
-        // don't violate queue size capacity restrictions.
+        // don't violate queue capacity restrictions.
         if (!transaction.isSystem()
-                && (bufferedTransactions.size() + priorityBufferedTransactions.size()) > throttleTransactionQueueSize) {
+                && (bufferedTransactionCount.get() > throttleTransactionQueueSize
+                        || bufferedTransactionBytes.get() > throttleTransactionQueueBytes)) {
             transactionPoolMetrics.recordRejectedAppTransaction();
             return false;
         }
 
         if (transaction.isSystem()) {
             if (isSignatureTransaction(transaction)) {
-                bufferedSignatureTransactionCount++;
+                // counted before the transaction is added, so it is never uncounted before it was counted
+                bufferedSignatureTransactionCount.incrementAndGet();
             }
             transactionPoolMetrics.recordSubmittedPlatformTransaction();
         } else {
@@ -222,9 +266,11 @@ public class TransactionPool implements TransactionSupplier, EventCreationRule {
         }
 
         if (priority) {
-            priorityBufferedTransactions.add(transaction);
+            priorityLane.add(transaction);
+        } else if (transaction.isSystem()) {
+            systemLane.add(transaction);
         } else {
-            bufferedTransactions.add(transaction);
+            appLane.add(transaction);
         }
 
         return true;
@@ -235,8 +281,8 @@ public class TransactionPool implements TransactionSupplier, EventCreationRule {
      *
      * @return the number of transactions
      */
-    private synchronized int getBufferedTransactionCount() {
-        return bufferedTransactions.size();
+    private int getBufferedTransactionCount() {
+        return systemLane.size() + appLane.size();
     }
 
     /**
@@ -244,16 +290,96 @@ public class TransactionPool implements TransactionSupplier, EventCreationRule {
      *
      * @return the number of transactions
      */
-    private synchronized int getPriorityBufferedTransactionCount() {
-        return priorityBufferedTransactions.size();
+    private int getPriorityBufferedTransactionCount() {
+        return priorityLane.size();
+    }
+
+    /**
+     * get the number of buffered system transactions that are not priority transactions
+     *
+     * @return the number of transactions
+     */
+    private int getSystemBufferedTransactionCount() {
+        return systemLane.size();
     }
 
     /**
      * Clear all the transactions
      */
     public synchronized void clear() {
-        bufferedTransactions.clear();
-        priorityBufferedTransactions.clear();
-        bufferedSignatureTransactionCount = 0;
+        priorityLane.clear();
+        systemLane.clear();
+        appLane.clear();
+    }
+
+    /**
+     * A transaction waiting in a lane.
+     *
+     * @param transaction   the transaction
+     * @param size          the serialized size of the transaction
+     * @param submittedTime the time the transaction was submitted, as returned by {@link System#nanoTime()}
+     */
+    private record BufferedTransaction(@NonNull ConsensusTransactionImpl transaction, int size, long submittedTime) {
+
+        /**
+         * @return the time since the transaction was submitted, in nanoseconds
+         */
+        long getWaitTime() {
+            return System.nanoTime() - submittedTime;
+        }
+    }
+
+    /**
+     * A FIFO queue of transactions that can be added to by many threads at once. Transactions are only removed by one
+     * thread at a time.
+     */
+    private final class Lane {
+        private final Queue<BufferedTransaction> queue = new ConcurrentLinkedQueue<>();
+        /** the number of transactions in the queue, since the size of the queue is expensive to compute */
+        private final AtomicInteger size = new AtomicInteger();
+
+        void add(@NonNull final ConsensusTransactionImpl transaction) {
+            final int transactionSize = transaction.getSerializedLength();
+            bufferedTransactionCount.incrementAndGet();
+            bufferedTransactionBytes.addAndGet(transactionSize);
+            size.incrementAndGet();
+            queue.add(new BufferedTransaction(transaction, transactionSize, System.nanoTime()));
+        }
+
+        /**
+         * Remove the transaction at the head of the lane if it's not larger than the max size. Must only be called by
+         * one thread at a time.
+         */
+        @Nullable
+        BufferedTransaction pollIfFits(final int maxSize) {
+            final BufferedTransaction head = queue.peek();
+            if (head == null || head.size() > maxSize) {
+                return null;
+            }
+            // other threads only add to the tail, so the head is still the same transaction
+            queue.poll();
+            removed(head);
+            return head;
+        }
+
+        void clear() {
+            BufferedTransaction transaction;
+            while ((transaction = queue.poll()) != null) {
+                removed(transaction);
+            }
+        }
+
+        int size() {
+            return size.get();
+        }
+
+        private void removed(@NonNull final BufferedTransaction transaction) {
+            size.decrementAndGet();
+            bufferedTransactionCount.decrementAndGet();
+            bufferedTransactionBytes.addAndGet(-transaction.size());
+            if (transaction.transaction().isSystem() && isSignatureTransaction(transaction.transaction())) {
+                bufferedSignatureTransactionCount.decrementAndGet();
+            }
+        }
     }
 }
@@ -16,11 +16,15 @@
 
 package com.swirlds.platform.eventhandling;
 
+import static com.swirlds.common.metrics.FloatFormats.FORMAT_10_3;
 import static com.swirlds.common.metrics.Metrics.PLATFORM_CATEGORY;
+import static com.swirlds.common.units.UnitConstants.NANOSECONDS_TO_MILLISECONDS;
 
 import com.swirlds.common.context.PlatformContext;
 import com.swirlds.common.metrics.FunctionGauge;
+import com.swirlds.common.metrics.LongAccumulator;
 import com.swirlds.common.metrics.Metrics;
+import com.swirlds.common.metrics.RunningAverageMetric;
 import com.swirlds.common.metrics.SpeedometerMetric;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import java.util.function.Supplier;
@@ -46,17 +50,29 @@ public class TransactionPoolMetrics {
                     "Cycled when a platform transaction is submitted (platform transactions are always accepted).");
     private final SpeedometerMetric submittedPlatformTransactions;
 
+    private final RunningAverageMetric priorityTransactionWaitTime;
+    private final LongAccumulator priorityTransactionMaxWaitTime;
+    private final RunningAverageMetric systemTransactionWaitTime;
+    private final LongAccumulator systemTransactionMaxWaitTime;
+    private final RunningAverageMetric appTransactionWaitTime;
+    private final LongAccumulator appTransactionMaxWaitTime;
+
     /**
      * Create metrics for the transaction pool.
      *
      * @param platformContext                     the platform context
      * @param getBufferedTransactionCount         a supplier for the number of buffered transactions
      * @param getPriorityBufferedTransactionCount a supplier for the number of priority buffered transactions
+     * @param getSystemBufferedTransactionCount   a supplier for the number of non-priority buffered system
+     *                                            transactions
+     * @param getBufferedTransactionBytes         a supplier for the number of bytes of all buffered transactions
      */
     public TransactionPoolMetrics(
             @NonNull final PlatformContext platformContext,
             @NonNull final Supplier<Integer> getBufferedTransactionCount,
-            @NonNull final Supplier<Integer> getPriorityBufferedTransactionCount) {
+            @NonNull final Supplier<Integer> getPriorityBufferedTransactionCount,
+            @NonNull final Supplier<Integer> getSystemBufferedTransactionCount,
+            @NonNull final Supplier<Long> getBufferedTransactionBytes) {
 
         final Metrics metrics = platformContext.getMetrics();
 
@@ -75,6 +91,46 @@ public class TransactionPoolMetrics {
                         getPriorityBufferedTransactionCount)
                 .withDescription("The number of priority transactions waiting to be inserted into an event.")
                 .withUnit("count"));
+        metrics.getOrCreate(new FunctionGauge.Config<>(
+                        PLATFORM_CATEGORY,
+                        "bufferedSystemTransactions",
+                        Integer.class,
+                        getSystemBufferedTransactionCount)
+                .withDescription("The number of non-priority system transactions waiting to be inserted into an event.")
+                .withUnit("count"));
+        metrics.getOrCreate(new FunctionGauge.Config<>(
+                        PLATFORM_CATEGORY, "bufferedTransactionBytes", Long.class, getBufferedTransactionBytes)
+                .withDescription("The number of bytes of all transactions waiting to be inserted into an event.")
+                .withUnit("bytes"));
+
+        priorityTransactionWaitTime = metrics.getOrCreate(waitTimeConfig("priority"));
+        priorityTransactionMaxWaitTime = metrics.getOrCreate(maxWaitTimeConfig("priority"));
+        systemTransactionWaitTime = metrics.getOrCreate(waitTimeConfig("system"));
+        systemTransactionMaxWaitTime = metrics.getOrCreate(maxWaitTimeConfig("system"));
+        appTransactionWaitTime = metrics.getOrCreate(waitTimeConfig("app"));
+        appTransactionMaxWaitTime = metrics.getOrCreate(maxWaitTimeConfig("app"));
+    }
+
+    /**
+     * The metric config for the average time transactions of a lane wait before being inserted into an event
+     */
+    @NonNull
+    private static RunningAverageMetric.Config waitTimeConfig(@NonNull final String lane) {
+        return new RunningAverageMetric.Config(PLATFORM_CATEGORY, lane + "TransactionWaitTime")
+                .withDescription("The average time " + lane + " transactions wait before being inserted into an event.")
+                .withUnit("milliseconds")
+                .withFormat(FORMAT_10_3);
+    }
+
+    /**
+     * The metric config for the max time transactions of a lane wait before being inserted into an event
+     */
+    @NonNull
+    private static LongAccumulator.Config maxWaitTimeConfig(@NonNull final String lane) {
+        return new LongAccumulator.Config(PLATFORM_CATEGORY, lane + "TransactionMaxWaitTime")
+                .withDescription("The max time " + lane + " transactions wait before being inserted into an event.")
+                .withUnit("milliseconds")
+                .withInitialValue(0);
     }
 
     /**
@@ -97,4 +153,34 @@ public class TransactionPoolMetrics {
     public void recordSubmittedPlatformTransaction() {
         submittedPlatformTransactions.cycle();
     }
+
+    /**
+     * Record the time a priority transaction waited before being inserted into an event.
+     *
+     * @param nanos the wait time in nanoseconds
+     */
+    public void recordPriorityTransactionWait(final long nanos) {
+        priorityTransactionWaitTime.update(nanos * NANOSECONDS_TO_MILLISECONDS);
+        priorityTransactionMaxWaitTime.update((long) (nanos * NANOSECONDS_TO_MILLISECONDS));
+    }
+
+    /**
+     * Record the time a non-priority system transaction waited before being inserted into an event.
+     *
+     * @param nanos the wait time in nanoseconds
+     */
+    public void recordSystemTransactionWait(final long nanos) {
+        systemTransactionWaitTime.update(nanos * NANOSECONDS_TO_MILLISECONDS);
+        systemTransactionMaxWaitTime.update((long) (nanos * NANOSECONDS_TO_MILLISECONDS));
+    }
+
+    /**
+     * Record the time a non-priority app transaction waited before being inserted into an event.
+     *
+     * @param nanos the wait time in nanoseconds
+     */
+    public void recordAppTransactionWait(final long nanos) {
+        appTransactionWaitTime.update(nanos * NANOSECONDS_TO_MILLISECONDS);
+        appTransactionMaxWaitTime.update((long) (nanos * NANOSECONDS_TO_MILLISECONDS));
+    }
 }
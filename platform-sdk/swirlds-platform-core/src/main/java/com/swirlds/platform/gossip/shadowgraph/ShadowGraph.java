@@ -31,7 +31,6 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Deque;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
@@ -39,6 +38,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import org.apache.logging.log4j.LogManager;
@@ -56,7 +56,18 @@ import org.apache.logging.log4j.Logger;
  * <li>reservation of a generation of events to prevent event expiration</li>
  * </ul>
  *
- * <p>The shadow graph is thread safe.</p>
+ * <p>The shadow graph is thread safe. It has a single writer, event intake, and many readers, sync sessions with all
+ * peers in parallel. Methods that modify the graph are synchronized, while queries ({@link #getTips()},
+ * {@link #findByGeneration(long, long, Predicate)}, {@link #shadows(List)} and other lookups by hash) don't take
+ * any locks, so readers don't contend with each other or with intake:</p>
+ * <ul>
+ * <li>events are indexed in concurrent maps, which are safe to read while events are inserted</li>
+ * <li>tips are published as an immutable list, which is replaced on every change to the tip set</li>
+ * </ul>
+ *
+ * <p>A query may or may not observe an event that is concurrently inserted, the same as if it was executed a moment
+ * before or after the insertion. Events are only expired in generations that are not reserved, so a sync session
+ * that holds a {@link GenerationReservation} never observes a partially expired generation it uses.</p>
  */
 public class ShadowGraph implements Clearable {
 
@@ -73,7 +84,7 @@ public class ShadowGraph implements Clearable {
     /**
      * The shadow graph represented in a map from has to shadow event.
      */
-    private final HashMap<Hash, ShadowEvent> hashToShadowEvent;
+    private final Map<Hash, ShadowEvent> hashToShadowEvent;
 
     /**
      * Map from generation to all shadow events in that generation.
@@ -81,19 +92,27 @@ public class ShadowGraph implements Clearable {
     private final Map<Long, Set<ShadowEvent>> generationToShadowEvent;
 
     /**
-     * The set of all tips for the shadow graph. A tip is an event with no self child (could have other children)
+     * The set of all tips for the shadow graph. A tip is an event with no self child (could have other children).
+     * Only accessed while holding the lock on this object.
      */
     private final HashSet<ShadowEvent> tips;
 
+    /**
+     * An immutable copy of {@link #tips}, replaced every time the tip set changes, so tips can be read without
+     * locking. Writing this field also publishes all shadow events inserted before the write to readers.
+     */
+    private volatile List<ShadowEvent> tipsSnapshot = List.of();
+
     /**
      * The generation for which all older generations should be expired, when possible
      */
     private long expireBelow;
 
     /**
-     * The oldest generation that has not yet been expired
+     * The oldest generation that has not yet been expired. Volatile, since it's read without locking to check if
+     * events are expired
      */
-    private long oldestGeneration;
+    private volatile long oldestGeneration;
 
     /**
      * The list of all currently reserved generations and their number of reservations
@@ -121,8 +140,8 @@ public class ShadowGraph implements Clearable {
         expireBelow = FIRST_GENERATION;
         oldestGeneration = FIRST_GENERATION;
         tips = new HashSet<>();
-        hashToShadowEvent = new HashMap<>();
-        generationToShadowEvent = new HashMap<>();
+        hashToShadowEvent = new ConcurrentHashMap<>();
+        generationToShadowEvent = new ConcurrentHashMap<>();
         reservationList = new LinkedList<>();
     }
 
@@ -165,7 +184,7 @@ public class ShadowGraph implements Clearable {
         // if we are missing some generation, we will create empty ones to match Consensus
         while (expireBelow > minGeneration) {
             expireBelow--;
-            generationToShadowEvent.put(expireBelow, new HashSet<>());
+            generationToShadowEvent.put(expireBelow, ConcurrentHashMap.newKeySet());
         }
 
         // Now that events are added, update (decrease) the oldest generation to match the expireBelow value in case it
@@ -187,6 +206,7 @@ public class ShadowGraph implements Clearable {
         oldestGeneration = FIRST_GENERATION;
         disconnectShadowEvents();
         tips.clear();
+        tipsSnapshot = List.of();
         hashToShadowEvent.clear();
         generationToShadowEvent.clear();
         reservationList.clear();
@@ -228,7 +248,7 @@ public class ShadowGraph implements Clearable {
      * 		the hash to look for
      * @return true if the hash matches the hash of a shadow event in the shadow graph, false otherwise
      */
-    public synchronized boolean isHashInGraph(final Hash hash) {
+    public boolean isHashInGraph(final Hash hash) {
         return hashToShadowEvent.containsKey(hash);
     }
 
@@ -243,9 +263,9 @@ public class ShadowGraph implements Clearable {
      *     <li>adding events to the the graph does not affect ancestors</li>
      *     <li>checks for expired parent events are atomic</li>
      * </ol>
-     * <p>Note: This method is always accessed after a call to a synchronized {@link ShadowGraph} method, like
-     * {@link #getTips()}, which acts as a memory gate and causes the calling thread to read the latest values for all
-     * variables from memory, including {@link ShadowEvent} links.</p>
+     * <p>Note: This method is always accessed after a call to {@link #getTips()}, which reads a volatile field. This
+     * acts as a memory gate and causes the calling thread to read the latest values for all variables from memory,
+     * including {@link ShadowEvent} links.</p>
      *
      * @param events
      * 		the event to find ancestors of
@@ -327,7 +347,7 @@ public class ShadowGraph implements Clearable {
      * 		the predicate to filter out events
      * @return a collection of events found
      */
-    public synchronized Collection<EventImpl> findByGeneration(
+    public Collection<EventImpl> findByGeneration(
             final long startGen, final long endGen, final Predicate<EventImpl> predicate) {
         final List<EventImpl> result = new ArrayList<>();
         if (startGen >= endGen) {
@@ -401,6 +421,7 @@ public class ShadowGraph implements Clearable {
             }
             oldestGeneration++;
         }
+        tipsSnapshot = List.copyOf(tips);
     }
 
     /**
@@ -460,7 +481,7 @@ public class ShadowGraph implements Clearable {
      * 		The event.
      * @return the shadow event that references an event, or null is {@code e} is null
      */
-    public synchronized ShadowEvent shadow(final PlatformEvent e) {
+    public ShadowEvent shadow(final PlatformEvent e) {
         if (e == null) {
             return null;
         }
@@ -476,7 +497,7 @@ public class ShadowGraph implements Clearable {
      * 		The event hashes to get shadow events for
      * @return the shadow events that reference the events with the given hashes
      */
-    public synchronized List<ShadowEvent> shadows(final List<Hash> hashes) {
+    public List<ShadowEvent> shadows(final List<Hash> hashes) {
         Objects.requireNonNull(hashes);
         List<ShadowEvent> shadows = new ArrayList<>(hashes.size());
         for (Hash hash : hashes) {
@@ -492,7 +513,7 @@ public class ShadowGraph implements Clearable {
      * 		the hash
      * @return the hashgraph event, if there is one in {@code this} shadow graph, else `null`
      */
-    public synchronized EventImpl hashgraphEvent(final Hash h) {
+    public EventImpl hashgraphEvent(final Hash h) {
         final ShadowEvent shadow = shadow(h);
         if (shadow == null) {
             return null;
@@ -503,12 +524,13 @@ public class ShadowGraph implements Clearable {
 
     /**
      * Returns a copy of the tips at the time of invocation. The returned list is not affected by changes
-     * made to the tip set.
+     * made to the tip set. The copy is shared by all callers until the tip set changes, so this method
+     * doesn't allocate.
      *
      * @return an unmodifiable copy of the tips
      */
-    public synchronized List<ShadowEvent> getTips() {
-        return new ArrayList<>(tips);
+    public List<ShadowEvent> getTips() {
+        return tipsSnapshot;
     }
 
     /**
@@ -528,6 +550,7 @@ public class ShadowGraph implements Clearable {
             final ShadowEvent s = insert(e);
             tips.add(s);
             tips.remove(s.getSelfParent());
+            tipsSnapshot = List.copyOf(tips);
 
             if (numberOfNodes > 0 && tips.size() > numberOfNodes && tips.size() > tipsBefore) {
                 // It is possible that we have more tips than nodes even if there is no fork.
@@ -585,7 +608,7 @@ public class ShadowGraph implements Clearable {
      * 		the hash of the event
      * @return the event that has the hash provided, or null if none exists
      */
-    public synchronized EventImpl getEvent(final Hash h) {
+    public EventImpl getEvent(final Hash h) {
         final ShadowEvent shadowEvent = hashToShadowEvent.get(h);
         return shadowEvent == null ? null : shadowEvent.getEvent();
     }
@@ -604,13 +627,11 @@ public class ShadowGraph implements Clearable {
 
         ShadowEvent se = new ShadowEvent(e, sp, op);
 
+        generationToShadowEvent
+                .computeIfAbsent(e.getGeneration(), g -> ConcurrentHashMap.newKeySet())
+                .add(se);
         hashToShadowEvent.put(se.getEventBaseHash(), se);
 
-        if (!generationToShadowEvent.containsKey(e.getGeneration())) {
-            generationToShadowEvent.put(e.getGeneration(), new HashSet<>());
-        }
-        generationToShadowEvent.get(e.getGeneration()).add(se);
-
         return se;
     }
 
@@ -712,12 +733,7 @@ public class ShadowGraph implements Clearable {
     /**
      * @return all events stored in the shadowgraph
      */
-    @SuppressWarnings("unchecked")
     public EventImpl[] getAllEvents() {
-        final HashMap<Hash, ShadowEvent> clone;
-        synchronized (this) {
-            clone = (HashMap<Hash, ShadowEvent>) hashToShadowEvent.clone();
-        }
-        return clone.values().stream().map(ShadowEvent::getEvent).toArray(EventImpl[]::new);
+        return hashToShadowEvent.values().stream().map(ShadowEvent::getEvent).toArray(EventImpl[]::new);
     }
 }
@@ -134,7 +134,7 @@ public final class SyncComms {
      */
     public static Callable<Void> phase2Write(final Connection conn, final List<Boolean> booleans) {
         return () -> {
-            conn.getDos().writeBooleanList(booleans);
+            conn.getDos().writeTipBooleans(booleans);
             conn.getDos().flush();
             logger.info(
                     SYNC_INFO.getMarker(),
@@ -150,7 +150,7 @@ public final class SyncComms {
      */
     public static Callable<List<Boolean>> phase2Read(final Connection conn, final int numberOfTips) {
         return () -> {
-            final List<Boolean> booleans = conn.getDis().readBooleanList(numberOfTips);
+            final List<Boolean> booleans = conn.getDis().readTipBooleans(numberOfTips);
             if (booleans == null) {
                 throw new SyncException(conn, "peer sent null booleans");
             }
@@ -194,14 +194,16 @@ public final class SyncComms {
                     // if we encounter an event from a signed state, we should not send that event because it will have
                     // had its transactions removed. the receiver would get the wrong hash and the signature check
                     // would fail
-                    conn.getDos().writeByte(ByteConstants.COMM_EVENT_ABORT);
                     writeAborted.set(true);
                     break;
                 }
-                conn.getDos().writeByte(ByteConstants.COMM_EVENT_NEXT);
-                conn.getDos().writeEventData(event);
+                conn.getDos().writeEvent(event);
             }
-            if (!writeAborted.get()) {
+            // with the compressed sync format, events that were not written yet are written as a block
+            conn.getDos().writeEventBlock();
+            if (writeAborted.get()) {
+                conn.getDos().writeByte(ByteConstants.COMM_EVENT_ABORT);
+            } else {
                 conn.getDos().writeByte(ByteConstants.COMM_EVENT_DONE);
             }
             conn.getDos().flush();
@@ -272,6 +274,12 @@ public final class SyncComms {
                             eventHandler.accept(gossipEvent);
                             eventsRead++;
                         }
+                        case ByteConstants.COMM_EVENT_BLOCK -> {
+                            for (final GossipEvent gossipEvent : conn.getDis().readEventBlock()) {
+                                eventHandler.accept(gossipEvent);
+                                eventsRead++;
+                            }
+                        }
                         case ByteConstants.COMM_EVENT_ABORT -> {
                             logger.info(SYNC_INFO.getMarker(), "{} reading events aborted", conn.getDescription());
                             // event reading was aborted, tell the writer thread to send a COMM_SYNC_DONE
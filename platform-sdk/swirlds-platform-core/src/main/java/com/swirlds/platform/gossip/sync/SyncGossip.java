@@ -67,7 +67,9 @@ import com.swirlds.platform.metrics.SyncMetrics;
 import com.swirlds.platform.network.communication.NegotiationProtocols;
 import com.swirlds.platform.network.communication.NegotiatorThread;
 import com.swirlds.platform.network.communication.handshake.HashCompareHandshake;
+import com.swirlds.platform.network.communication.handshake.SyncCompressionHandshake;
 import com.swirlds.platform.network.communication.handshake.VersionCompareHandshake;
+import com.swirlds.platform.network.protocol.ProtocolRunnable;
 import com.swirlds.platform.observers.EventObserverDispatcher;
 import com.swirlds.platform.reconnect.DefaultSignedStateValidator;
 import com.swirlds.platform.reconnect.ReconnectController;
@@ -241,6 +243,16 @@ public class SyncGossip extends AbstractGossip {
         final ReconnectConfig reconnectConfig =
                 platformContext.getConfiguration().getConfigData(ReconnectConfig.class);
 
+        final List<ProtocolRunnable> handshakes = new ArrayList<>(List.of(
+                new VersionCompareHandshake(appVersion, !protocolConfig.tolerateMismatchedVersion()),
+                new VersionCompareHandshake(
+                        PlatformVersion.locateOrDefault(), !protocolConfig.tolerateMismatchedVersion()),
+                new HashCompareHandshake(epochHash, !protocolConfig.tolerateMismatchedEpochHash())));
+        if (syncConfig.compressSyncData()) {
+            // peers without this handshake would misread it, so it is only run once enabled on all nodes
+            handshakes.add(new SyncCompressionHandshake(true));
+        }
+
         for (final NodeId otherId : topology.getNeighbors()) {
             syncProtocolThreads.add(new StoppableThreadConfiguration<>(threadManager)
                     .setPriority(Thread.NORM_PRIORITY)
@@ -252,13 +264,7 @@ public class SyncGossip extends AbstractGossip {
                     .setWork(new NegotiatorThread(
                             connectionManagers.getManager(otherId, topology.shouldConnectTo(otherId)),
                             syncConfig.syncSleepAfterFailedNegotiation(),
-                            List.of(
-                                    new VersionCompareHandshake(
-                                            appVersion, !protocolConfig.tolerateMismatchedVersion()),
-                                    new VersionCompareHandshake(
-                                            PlatformVersion.locateOrDefault(),
-                                            !protocolConfig.tolerateMismatchedVersion()),
-                                    new HashCompareHandshake(epochHash, !protocolConfig.tolerateMismatchedEpochHash())),
+                            handshakes,
                             new NegotiationProtocols(List.of(
                                     new HeartbeatProtocol(
                                             otherId,
@@ -20,6 +20,7 @@ import static com.swirlds.common.io.extendable.ExtendableInputStream.extendInput
 
 import com.swirlds.common.crypto.DigestType;
 import com.swirlds.common.crypto.Hash;
+import com.swirlds.common.io.exceptions.BadIOException;
 import com.swirlds.common.io.extendable.extensions.CountingStreamExtension;
 import com.swirlds.common.io.extendable.extensions.HashingStreamExtension;
 import com.swirlds.common.io.streams.SerializableDataInputStream;
@@ -27,19 +28,36 @@ import com.swirlds.platform.event.GossipEvent;
 import com.swirlds.platform.gossip.SyncException;
 import com.swirlds.platform.gossip.shadowgraph.Generations;
 import com.swirlds.platform.network.ByteConstants;
+import com.swirlds.platform.network.communication.handshake.SyncCompressionHandshake;
 import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
 
 public class SyncInputStream extends SerializableDataInputStream {
 
     /** The maximum number of tips allowed per node. */
     private static final int MAX_TIPS_PER_NODE = 1000;
+    /** The maximum number of uncompressed bytes in a block of events. */
+    private static final int MAX_EVENT_BLOCK_BYTES = 64 * 1024 * 1024;
 
     private final CountingStreamExtension syncByteCounter;
     private final HashingStreamExtension hasher;
 
+    /** true if the compressed sync format was negotiated by the {@link SyncCompressionHandshake} */
+    private boolean compressed = false;
+    /**
+     * decompresses event blocks, its dictionary is kept for the lifetime of the connection. Guarded by {@code this},
+     * since the stream may be closed by a thread disconnecting the connection while a sync is reading.
+     */
+    private Inflater inflater;
+    /** true once the stream has been closed and the {@link #inflater} released, guarded by {@code this} */
+    private boolean closed = false;
+
     private SyncInputStream(InputStream in, CountingStreamExtension syncByteCounter, HashingStreamExtension hasher) {
         super(in);
         this.syncByteCounter = syncByteCounter;
@@ -63,6 +81,44 @@ public class SyncInputStream extends SerializableDataInputStream {
         return hasher;
     }
 
+    /**
+     * Closes the stream and releases the native memory held by the {@link #inflater}
+     *
+     * @throws IOException
+     * 		if the underlying stream throws
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            super.close();
+        } finally {
+            synchronized (this) {
+                closed = true;
+                if (inflater != null) {
+                    inflater.end();
+                    inflater = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Set the sync format to use, this must be the same as the format used by the peer's output stream
+     *
+     * @param compressed
+     * 		true if the compressed sync format should be used
+     */
+    public void setCompressed(final boolean compressed) {
+        this.compressed = compressed;
+    }
+
+    /**
+     * @return true if the compressed sync format is used
+     */
+    public boolean isCompressed() {
+        return compressed;
+    }
+
     /**
      * Reads a sync request response from the stream
      *
@@ -92,7 +148,17 @@ public class SyncInputStream extends SerializableDataInputStream {
      * 		if a stream exception occurs
      */
     public Generations readGenerations() throws IOException {
-        return readSerializable(false, Generations::new);
+        if (!compressed) {
+            return readSerializable(false, Generations::new);
+        }
+        final long minRoundGeneration = readVarLong();
+        final long minGenNonAncient = Math.addExact(minRoundGeneration, readVarLong());
+        final long maxRoundGeneration = Math.addExact(minGenNonAncient, readVarLong());
+        try {
+            return new Generations(minRoundGeneration, minGenNonAncient, maxRoundGeneration);
+        } catch (final IllegalArgumentException e) {
+            throw new IOException("invalid generations received", e);
+        }
     }
 
     /**
@@ -102,10 +168,138 @@ public class SyncInputStream extends SerializableDataInputStream {
      * 		is a stream exception occurs
      */
     public List<Hash> readTipHashes(final int numberOfNodes) throws IOException {
-        return readSerializableList(numberOfNodes * MAX_TIPS_PER_NODE, false, Hash::new);
+        if (!compressed) {
+            return readSerializableList(numberOfNodes * MAX_TIPS_PER_NODE, false, Hash::new);
+        }
+        final int size = readLength(numberOfNodes * MAX_TIPS_PER_NODE);
+        final List<Hash> hashes = new ArrayList<>(size);
+        if (size == 0) {
+            return hashes;
+        }
+        final DigestType digestType = DigestType.valueOf(readInt());
+        if (digestType == null) {
+            throw new BadIOException("Invalid DigestType identifier read from the stream");
+        }
+        for (int i = 0; i < size; i++) {
+            final byte[] value = new byte[digestType.digestLength()];
+            readFully(value);
+            hashes.add(new Hash(value, digestType));
+        }
+        return hashes;
+    }
+
+    /**
+     * Read whether the peer has each of this node's tips
+     *
+     * @param numberOfTips
+     * 		the number of tips this node sent to the peer
+     * @return one boolean per tip, or null if the peer sent null
+     * @throws IOException
+     * 		is a stream exception occurs
+     */
+    public List<Boolean> readTipBooleans(final int numberOfTips) throws IOException {
+        if (!compressed) {
+            return readBooleanList(numberOfTips);
+        }
+        final int size = readLength(numberOfTips);
+        final byte[] bits = new byte[(size + Byte.SIZE - 1) / Byte.SIZE];
+        readFully(bits);
+        final List<Boolean> booleans = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            booleans.add((bits[i / Byte.SIZE] & (1 << (i % Byte.SIZE))) != 0);
+        }
+        return booleans;
     }
 
     public GossipEvent readEventData() throws IOException {
         return readSerializable(false, GossipEvent::new);
     }
+
+    /**
+     * Read a block of events written by {@link SyncOutputStream#writeEventBlock()}, after its
+     * {@link ByteConstants#COMM_EVENT_BLOCK} has been read
+     *
+     * @return the events in the block, in the order they were written
+     * @throws IOException
+     * 		is a stream exception occurs, or if the block is not valid
+     */
+    public List<GossipEvent> readEventBlock() throws IOException {
+        if (!compressed) {
+            throw new BadIOException("received a block of events, but the compressed sync format is not used");
+        }
+        final int numberOfEvents = readLength(MAX_EVENT_BLOCK_BYTES);
+        final int uncompressedSize = readLength(MAX_EVENT_BLOCK_BYTES);
+        final int compressedSize = readLength(MAX_EVENT_BLOCK_BYTES);
+        final byte[] compressedBlock = new byte[compressedSize];
+        readFully(compressedBlock);
+
+        final byte[] block = new byte[uncompressedSize];
+        synchronized (this) {
+            if (closed) {
+                throw new IOException("the stream is closed");
+            }
+            if (inflater == null) {
+                inflater = new Inflater();
+            }
+            // the deflater's sync flush ends with an empty block, so input may remain once all data is inflated
+            final byte[] overflow = new byte[1];
+            inflater.setInput(compressedBlock);
+            int inflated = 0;
+            try {
+                while (!inflater.needsInput() && inflated <= uncompressedSize) {
+                    final int length = inflated < uncompressedSize
+                            ? inflater.inflate(block, inflated, uncompressedSize - inflated)
+                            : inflater.inflate(overflow);
+                    if (length == 0 && (inflater.finished() || inflater.needsDictionary())) {
+                        break;
+                    }
+                    inflated += length;
+                }
+            } catch (final DataFormatException e) {
+                throw new IOException("a block of events could not be decompressed", e);
+            }
+            if (inflated != uncompressedSize || !inflater.needsInput()) {
+                throw new BadIOException("the size of a block of events does not match its header");
+            }
+        }
+
+        final SerializableDataInputStream blockIn = new SerializableDataInputStream(new ByteArrayInputStream(block));
+        final List<GossipEvent> events = new ArrayList<>(Math.min(numberOfEvents, uncompressedSize));
+        for (int i = 0; i < numberOfEvents; i++) {
+            events.add(blockIn.readSerializable(false, GossipEvent::new));
+        }
+        if (blockIn.available() != 0) {
+            throw new BadIOException("a block of events has more data than its events");
+        }
+        return events;
+    }
+
+    /**
+     * Read a non-negative long written with 7 bits per byte, the high bit of each byte is set if more bytes follow
+     */
+    private long readVarLong() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            final byte b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                if (value < 0) {
+                    throw new BadIOException("negative value read from the stream");
+                }
+                return value;
+            }
+        }
+        throw new BadIOException("value read from the stream does not fit in a long");
+    }
+
+    /**
+     * Read a length written as a var long, and check that it doesn't exceed the maximum
+     */
+    private int readLength(final int maxLength) throws IOException {
+        final long length = readVarLong();
+        if (length > maxLength) {
+            throw new BadIOException("length " + length + " exceeds the maximum of " + maxLength);
+        }
+        return (int) length;
+    }
 }
@@ -21,21 +21,52 @@ import static com.swirlds.common.io.extendable.ExtendableOutputStream.extendOutp
 import com.swirlds.common.crypto.Hash;
 import com.swirlds.common.io.extendable.extensions.CountingStreamExtension;
 import com.swirlds.common.io.streams.SerializableDataOutputStream;
+import com.swirlds.common.io.utility.IOConsumer;
 import com.swirlds.platform.gossip.shadowgraph.Generations;
 import com.swirlds.platform.internal.EventImpl;
 import com.swirlds.platform.network.ByteConstants;
+import com.swirlds.platform.network.communication.handshake.SyncCompressionHandshake;
 import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.time.Instant;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.Deflater;
 
 public class SyncOutputStream extends SerializableDataOutputStream {
+    /** events are buffered until a block has at least this many bytes, then the block is compressed and written */
+    static final int EVENT_BLOCK_SIZE = 64 * 1024;
+
     private final CountingStreamExtension syncByteCounter;
     private final CountingStreamExtension connectionByteCounter;
     private final AtomicReference<Instant> requestSent;
 
+    /** true if the compressed sync format was negotiated by the {@link SyncCompressionHandshake} */
+    private boolean compressed = false;
+    /**
+     * compresses event blocks, its dictionary is kept for the lifetime of the connection. Guarded by {@code this},
+     * since the stream may be closed by a thread disconnecting the connection while a sync is writing.
+     */
+    private Deflater deflater;
+    /** true once the stream has been closed and the {@link #deflater} released, guarded by {@code this} */
+    private boolean closed = false;
+    /** the serialized events of the current block */
+    private final ByteArrayOutputStream eventBlock = new ByteArrayOutputStream();
+    /** serializes events into {@link #eventBlock} */
+    private final SerializableDataOutputStream eventBlockOut = new SerializableDataOutputStream(eventBlock);
+    /** the number of events in the current block */
+    private int eventsInBlock = 0;
+    /** the compressed data of the current block */
+    private final ByteArrayOutputStream compressedBlock = new ByteArrayOutputStream();
+    /** used to copy compressed data from the {@link #deflater} */
+    private final byte[] deflateBuffer = new byte[8 * 1024];
+    /** the number of bytes the compressed format saved compared to the uncompressed format, since the last reset */
+    private final AtomicLong bytesSaved = new AtomicLong();
+
     protected SyncOutputStream(
             OutputStream out, CountingStreamExtension syncByteCounter, CountingStreamExtension connectionByteCounter) {
         super(out);
@@ -63,6 +94,53 @@ public class SyncOutputStream extends SerializableDataOutputStream {
         return connectionByteCounter;
     }
 
+    /**
+     * Closes the stream and releases the native memory held by the {@link #deflater}
+     *
+     * @throws IOException
+     * 		if the underlying stream throws
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            super.close();
+        } finally {
+            synchronized (this) {
+                closed = true;
+                if (deflater != null) {
+                    deflater.end();
+                    deflater = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Set the sync format to use, this must be the same as the format used by the peer's input stream
+     *
+     * @param compressed
+     * 		true if the compressed sync format should be used
+     */
+    public void setCompressed(final boolean compressed) {
+        this.compressed = compressed;
+    }
+
+    /**
+     * @return true if the compressed sync format is used
+     */
+    public boolean isCompressed() {
+        return compressed;
+    }
+
+    /**
+     * Get the number of bytes that were saved by writing sync data in the compressed format, and reset the count
+     *
+     * @return the number of bytes saved since the last reset, may be negative if the data did not compress
+     */
+    public long getAndResetBytesSaved() {
+        return bytesSaved.getAndSet(0);
+    }
+
     /**
      * @return the time the last sync request was sent
      */
@@ -108,7 +186,19 @@ public class SyncOutputStream extends SerializableDataOutputStream {
      * 		if a stream exception occurs
      */
     public void writeGenerations(final Generations generations) throws IOException {
-        writeSerializable(generations, false);
+        if (!compressed) {
+            writeSerializable(generations, false);
+            return;
+        }
+        // generations are ordered, so the 2nd and 3rd are written as the difference to the previous one
+        writeCompact(
+                out -> {
+                    writeVarLong(out, generations.getMinRoundGeneration());
+                    writeVarLong(out, generations.getMinGenerationNonAncient() - generations.getMinRoundGeneration());
+                    writeVarLong(
+                            out, generations.getMaxRoundGeneration() - generations.getMinGenerationNonAncient());
+                },
+                out -> out.writeSerializable(generations, false));
     }
 
     /**
@@ -118,7 +208,125 @@ public class SyncOutputStream extends SerializableDataOutputStream {
      * 		iff the {@link SyncOutputStream} throws
      */
     public void writeTipHashes(final List<Hash> tipHashes) throws IOException {
-        writeSerializableList(tipHashes, false, true);
+        if (!compressed) {
+            writeSerializableList(tipHashes, false, true);
+            return;
+        }
+        // the digest type is written once, followed by the raw value of each hash
+        writeCompact(
+                out -> {
+                    writeVarLong(out, tipHashes.size());
+                    if (tipHashes.isEmpty()) {
+                        return;
+                    }
+                    final int digestType = tipHashes.get(0).getDigestType().id();
+                    out.writeInt(digestType);
+                    for (final Hash hash : tipHashes) {
+                        if (Objects.requireNonNull(hash).getDigestType().id() != digestType) {
+                            throw new IllegalArgumentException("all tip hashes must have the same digest type");
+                        }
+                        out.write(hash.getValue());
+                    }
+                },
+                out -> out.writeSerializableList(tipHashes, false, true));
+    }
+
+    /**
+     * Write to the {@link SyncOutputStream} whether this node has each of the peer's tips
+     *
+     * @param booleans
+     * 		one boolean per tip of the peer
+     * @throws IOException
+     * 		iff the {@link SyncOutputStream} throws
+     */
+    public void writeTipBooleans(final List<Boolean> booleans) throws IOException {
+        if (!compressed) {
+            writeBooleanList(booleans);
+            return;
+        }
+        // the booleans are written as a bit set
+        writeCompact(
+                out -> {
+                    writeVarLong(out, booleans.size());
+                    final byte[] bits = new byte[(booleans.size() + Byte.SIZE - 1) / Byte.SIZE];
+                    for (int i = 0; i < booleans.size(); i++) {
+                        if (booleans.get(i)) {
+                            bits[i / Byte.SIZE] |= (byte) (1 << (i % Byte.SIZE));
+                        }
+                    }
+                    out.write(bits);
+                },
+                out -> out.writeBooleanList(booleans));
+    }
+
+    /**
+     * Write an event in phase 3 of a sync. With the uncompressed sync format, a {@link ByteConstants#COMM_EVENT_NEXT}
+     * is written followed by the event data. With the compressed format, the event is added to a block of events,
+     * which is written once it reaches {@link #EVENT_BLOCK_SIZE} bytes, or when {@link #writeEventBlock()} is called.
+     *
+     * @param event
+     * 		the event to write
+     * @throws IOException
+     * 		iff the {@link SyncOutputStream} throws
+     */
+    public void writeEvent(final EventImpl event) throws IOException {
+        if (!compressed) {
+            writeByte(ByteConstants.COMM_EVENT_NEXT);
+            writeEventData(event);
+            return;
+        }
+        eventBlockOut.writeSerializable(event.getBaseEvent(), false);
+        eventsInBlock++;
+        if (eventBlock.size() >= EVENT_BLOCK_SIZE) {
+            writeEventBlock();
+        }
+    }
+
+    /**
+     * Write all events added by {@link #writeEvent(EventImpl)} that have not been written yet, as a
+     * {@link ByteConstants#COMM_EVENT_BLOCK}. This must be called after the last event of a sync is written. Does
+     * nothing if there are no such events.
+     * <p>
+     * The block is compressed with a deflater that is kept for the lifetime of the connection, so data that repeats
+     * across events and syncs, such as creator IDs, parent hashes and generations, is encoded as a reference to earlier
+     * data.
+     *
+     * @throws IOException
+     * 		iff the {@link SyncOutputStream} throws
+     */
+    public void writeEventBlock() throws IOException {
+        if (eventsInBlock == 0) {
+            return;
+        }
+        eventBlockOut.flush();
+        synchronized (this) {
+            if (closed) {
+                throw new IOException("the stream is closed");
+            }
+            if (deflater == null) {
+                deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+            }
+            deflater.setInput(eventBlock.toByteArray());
+            compressedBlock.reset();
+            int length;
+            do {
+                // a sync flush writes all pending output, without resetting the dictionary
+                length = deflater.deflate(deflateBuffer, 0, deflateBuffer.length, Deflater.SYNC_FLUSH);
+                compressedBlock.write(deflateBuffer, 0, length);
+            } while (length == deflateBuffer.length);
+        }
+
+        writeByte(ByteConstants.COMM_EVENT_BLOCK);
+        final int headerSize = 1
+                + writeVarLong(this, eventsInBlock)
+                + writeVarLong(this, eventBlock.size())
+                + writeVarLong(this, compressedBlock.size());
+        compressedBlock.writeTo(this);
+
+        // in the uncompressed format, each event is preceded by a COMM_EVENT_NEXT
+        bytesSaved.addAndGet(eventBlock.size() + eventsInBlock - headerSize - compressedBlock.size());
+        eventBlock.reset();
+        eventsInBlock = 0;
     }
 
     /**
@@ -132,4 +340,49 @@ public class SyncOutputStream extends SerializableDataOutputStream {
     public void writeEventData(final EventImpl event) throws IOException {
         writeSerializable(event.getBaseEvent(), false);
     }
+
+    /**
+     * Write data in the compressed format, and record the number of bytes saved compared to the uncompressed format
+     *
+     * @param compact
+     * 		writes the data in the compressed format
+     * @param uncompressed
+     * 		writes the same data in the uncompressed format, used to count the bytes saved
+     */
+    private void writeCompact(
+            final IOConsumer<SerializableDataOutputStream> compact,
+            final IOConsumer<SerializableDataOutputStream> uncompressed)
+            throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        compact.accept(new SerializableDataOutputStream(bytes));
+        bytes.writeTo(this);
+
+        final SerializableDataOutputStream counter = new SerializableDataOutputStream(OutputStream.nullOutputStream());
+        uncompressed.accept(counter);
+        bytesSaved.addAndGet(counter.size() - bytes.size());
+    }
+
+    /**
+     * Write a non-negative long using 7 bits per byte, the high bit of each byte is set if more bytes follow
+     *
+     * @param out
+     * 		the stream to write to
+     * @param value
+     * 		the value to write
+     * @return the number of bytes written
+     */
+    private static int writeVarLong(final OutputStream out, final long value) throws IOException {
+        if (value < 0) {
+            throw new IllegalArgumentException("value must not be negative: " + value);
+        }
+        long remaining = value;
+        int written = 1;
+        while ((remaining & ~0x7FL) != 0) {
+            out.write((int) ((remaining & 0x7F) | 0x80));
+            remaining >>>= 7;
+            written++;
+        }
+        out.write((int) remaining);
+        return written;
+    }
 }
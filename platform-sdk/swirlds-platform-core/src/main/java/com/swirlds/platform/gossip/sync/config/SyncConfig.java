@@ -29,10 +29,16 @@ import com.swirlds.config.api.ConfigProperty;
  *                                        algorithm is active (milliseconds)
  * @param hashOnGossipThreads             if true, hash events on gossip threads. If false, events are hashed on the
  *                                        event intake thread.
+ * @param compressSyncData                if true, a handshake negotiating the compressed sync format is run on each
+ *                                        connection, and syncs use the compressed format with peers that also have it
+ *                                        enabled. Nodes without this setting do not expect the handshake, so it must be
+ *                                        enabled on all nodes of the network together, for example at an upgrade
+ *                                        boundary. It is disabled by default.
  */
 @ConfigData("sync")
 public record SyncConfig(
         @ConfigProperty(defaultValue = "25") int syncSleepAfterFailedNegotiation,
         @ConfigProperty(defaultValue = "17") int syncProtocolPermitCount,
         @ConfigProperty(defaultValue = "1000") int syncProtocolHeartbeatPeriod,
-        @ConfigProperty(defaultValue = "true") boolean hashOnGossipThreads) {}
+        @ConfigProperty(defaultValue = "true") boolean hashOnGossipThreads,
+        @ConfigProperty(defaultValue = "false") boolean compressSyncData) {}
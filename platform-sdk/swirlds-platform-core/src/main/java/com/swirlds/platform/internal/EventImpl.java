@@ -813,75 +813,19 @@ public class EventImpl extends AbstractSerializableHashable
     }
 
     /**
-     * @param m the index of the member ID
-     * @return last ancestor created by the member at index m (memoizes lastSee function from Swirlds-TR-2020-01)
+     * @return the slot of this event in the consensus memo tables, which memoize lastSee and stronglySeeP functions
+     * 		from Swirlds-TR-2020-01, or -1 if this event has no slot
      */
-    public EventImpl getLastSee(final int m) {
-        return internalEventData.getLastSee(m);
+    public int getMemoSlot() {
+        return internalEventData.getMemoSlot();
     }
 
     /**
-     * remember event, the last ancestor created by the member at index m (memoizes lastSee function from Swirlds-TR-2020-01)
-     *
-     * @param m     the index of the member ID of the creator
-     * @param event the last seen {@link EventImpl} object created by member at index m
-     */
-    public void setLastSee(final int m, final EventImpl event) {
-        internalEventData.setLastSee(m, event);
-    }
-
-    /**
-     * Initialize the lastSee array to hold n elements (for n &ge; 0) (memoizes lastSee function from
-     * Swirlds-TR-2020-01)
-     *
-     * @param n number of members in AddressBook
-     */
-    public void initLastSee(final int n) {
-        internalEventData.initLastSee(n);
-    }
-
-    /**
-     * @return the number of elements lastSee holds (memoizes lastSee function from Swirlds-TR-2020-01)
-     */
-    public int sizeLastSee() {
-        return internalEventData.sizeLastSee();
-    }
-
-    /**
-     * @param m the index of the member ID
-     * @return strongly-seen witness in parent round by the member at index m (memoizes stronglySeeP function from Swirlds-TR-2020-01)
-     */
-    public EventImpl getStronglySeeP(final int m) {
-        return internalEventData.getStronglySeeP(m);
-    }
-
-    /**
-     * remember event, the strongly-seen witness in parent round by the member at index m (memoizes stronglySeeP function from
-     * Swirlds-TR-2020-01)
-     *
-     * @param m     the index of the member ID of the creator
-     * @param event the strongly-seen witness in parent round created by the member at index m
-     */
-    public void setStronglySeeP(final int m, final EventImpl event) {
-        internalEventData.setStronglySeeP(m, event);
-    }
-
-    /**
-     * Initialize the stronglySeeP array to hold n elements (for n &ge; 0) (memoizes stronglySeeP function from
-     * Swirlds-TR-2020-01)
-     *
-     * @param n
-     * 		number of members in AddressBook
-     */
-    public void initStronglySeeP(final int n) {
-        internalEventData.initStronglySeeP(n);
-    }
-
-    /**
-     * @return the number of elements stronglySeeP holds (memoizes stronglySeeP function from Swirlds-TR-2020-01)
+     * @param memoSlot
+     * 		the slot of this event in the consensus memo tables, or -1 if this event has no slot
      */
-    public int sizeStronglySeeP() {
-        return internalEventData.sizeStronglySeeP();
+    public void setMemoSlot(final int memoSlot) {
+        internalEventData.setMemoSlot(memoSlot);
     }
 
     /**
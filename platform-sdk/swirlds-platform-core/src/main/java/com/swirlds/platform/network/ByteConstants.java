@@ -39,6 +39,8 @@ public final class ByteConstants {
     public static final byte COMM_EVENT_ABORT = 0x49 /* 73 */;
     /** sent after all events have been sent for this sync */
     public static final byte COMM_EVENT_DONE = 0x4a /* 74 */;
+    /** sent before a compressed block of events, only used by the compressed sync format */
+    public static final byte COMM_EVENT_BLOCK = 0x4b /* 75 */;
     /** sent if a node wants to get the latest signed state */
     public static final byte COMM_STATE_REQUEST = 0x4c /* 76 */;
     /** sent as a reply to COMM_STATE_REQUEST when accepting to transfer the latest state */
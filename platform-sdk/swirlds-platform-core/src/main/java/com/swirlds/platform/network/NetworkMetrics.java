@@ -56,6 +56,10 @@ public class NetworkMetrics {
                     INTERNAL_CATEGORY, "bytes/sec_sent")
             .withDescription("number of bytes sent per second over the network (total for this member)")
             .withFormat(FORMAT_16_2);
+    private static final SpeedometerMetric.Config SYNC_BYTES_SAVED_PER_SECOND_CONFIG = new SpeedometerMetric.Config(
+                    INTERNAL_CATEGORY, "bytes/sec_syncSaved")
+            .withDescription("number of bytes per second saved by sending sync data in the compressed format")
+            .withFormat(FORMAT_16_2);
     private static final RunningAverageMetric.Config AVG_CONNS_CREATED_CONFIG = new RunningAverageMetric.Config(
                     PLATFORM_CATEGORY, "conns")
             .withDescription("number of times a TLS connections was created")
@@ -77,6 +81,8 @@ public class NetworkMetrics {
     private final RunningAverageMetric avgPing;
     /** the total bytes per second to all nodes */
     private final SpeedometerMetric bytesPerSecondSent;
+    /** the total bytes per second saved by the compressed sync format */
+    private final SpeedometerMetric syncBytesSavedPerSecond;
     /** the average number of connections created per second */
     private final RunningAverageMetric avgConnsCreated;
     /**
@@ -100,6 +106,7 @@ public class NetworkMetrics {
 
         avgPing = metrics.getOrCreate(AVG_PING_CONFIG);
         bytesPerSecondSent = metrics.getOrCreate(BYTES_PER_SECOND_SENT_CONFIG);
+        syncBytesSavedPerSecond = metrics.getOrCreate(SYNC_BYTES_SAVED_PER_SECOND_CONFIG);
         avgConnsCreated = metrics.getOrCreate(AVG_CONNS_CREATED_CONFIG);
 
         for (final Address address : addressBook) {
@@ -174,11 +181,13 @@ public class NetworkMetrics {
         avgPing.update(pingValue);
 
         long totalBytesSent = 0;
+        long totalSyncBytesSaved = 0;
         for (final Iterator<Connection> iterator = connections.iterator(); iterator.hasNext(); ) {
             final Connection conn = iterator.next();
             if (conn != null) {
                 final long bytesSent = conn.getDos().getConnectionByteCounter().getAndResetCount();
                 totalBytesSent += bytesSent;
+                totalSyncBytesSaved += conn.getDos().getAndResetBytesSaved();
                 final NodeId otherId = conn.getOtherId();
                 if (avgBytePerSecSent.get(otherId) != null) {
                     avgBytePerSecSent.get(otherId).update(bytesSent);
@@ -189,6 +198,7 @@ public class NetworkMetrics {
             }
         }
         bytesPerSecondSent.update(totalBytesSent);
+        syncBytesSavedPerSecond.update(totalSyncBytesSaved);
         avgConnsCreated.update(connsCreated.sum());
     }
 
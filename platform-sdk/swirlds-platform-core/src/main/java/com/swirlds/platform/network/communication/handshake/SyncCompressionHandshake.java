@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2023 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.platform.network.communication.handshake;
+
+import com.swirlds.platform.network.Connection;
+import com.swirlds.platform.network.NetworkProtocolException;
+import com.swirlds.platform.network.protocol.ProtocolRunnable;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.io.IOException;
+
+/**
+ * Exchanges the highest sync format version supported with the peer. Both nodes then use the lower of the two versions
+ * for all syncs over the connection, so the compressed sync format is only used if both nodes have it enabled.
+ * <p>
+ * This handshake is only run if {@code sync.compressSyncData} is enabled. A peer that does not run it would read the
+ * version sent as the start of the next message, so the setting must be enabled on all nodes of the network together.
+ */
+public class SyncCompressionHandshake implements ProtocolRunnable {
+    /** The original sync format */
+    public static final int UNCOMPRESSED_SYNC_VERSION = 1;
+    /** The sync format with compact phase 1 and 2 data, and compressed blocks of events */
+    public static final int COMPRESSED_SYNC_VERSION = 2;
+
+    /**
+     * The highest sync format version supported by this node
+     */
+    private final int supportedVersion;
+
+    /**
+     * Constructor
+     *
+     * @param compressionEnabled true if this node should use the compressed sync format if the peer supports it
+     */
+    public SyncCompressionHandshake(final boolean compressionEnabled) {
+        this.supportedVersion = compressionEnabled ? COMPRESSED_SYNC_VERSION : UNCOMPRESSED_SYNC_VERSION;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void runProtocol(@NonNull final Connection connection)
+            throws NetworkProtocolException, IOException, InterruptedException {
+
+        connection.getDos().writeInt(supportedVersion);
+        connection.getDos().flush();
+
+        final int peerVersion = connection.getDis().readInt();
+        if (peerVersion < UNCOMPRESSED_SYNC_VERSION) {
+            throw new HandshakeException("Invalid sync version received from peer: " + peerVersion);
+        }
+
+        final boolean compressed = Math.min(supportedVersion, peerVersion) >= COMPRESSED_SYNC_VERSION;
+        connection.getDos().setCompressed(compressed);
+        connection.getDis().setCompressed(compressed);
+    }
+}
@@ -290,7 +290,7 @@ public class SignedStateFileManager implements Startable {
                 if (outOfBand) {
                     // states requested to be written out-of-band are always written to disk
                     SignedStateFileWriter.writeSignedStateToDisk(
-                            selfId, directory, reservedSignedState.get(), reason, configuration);
+                            selfId, directory, reservedSignedState.get(), reason, configuration, metrics);
 
                     success = true;
                 } else {
@@ -305,7 +305,7 @@ public class SignedStateFileManager implements Startable {
                         }
 
                         SignedStateFileWriter.writeSignedStateToDisk(
-                                selfId, directory, reservedSignedState.get(), reason, configuration);
+                                selfId, directory, reservedSignedState.get(), reason, configuration, metrics);
                         stateWrittenToDiskInBand(reservedSignedState.get(), directory, start);
 
                         success = true;
@@ -17,6 +17,9 @@
 package com.swirlds.platform.state.signed;
 
 import static com.swirlds.common.io.streams.StreamDebugUtils.deserializeAndDebugOnFailure;
+import static com.swirlds.common.threading.manager.AdHocThreadManager.getStaticThreadManager;
+import static com.swirlds.common.units.UnitConstants.NANOSECONDS_TO_MILLISECONDS;
+import static com.swirlds.logging.LogMarker.STARTUP;
 import static com.swirlds.platform.state.signed.SignedStateFileUtils.MAX_MERKLE_NODES_IN_STATE;
 import static com.swirlds.platform.state.signed.SignedStateFileUtils.SIGNED_STATE_FILE_NAME;
 import static com.swirlds.platform.state.signed.SignedStateFileUtils.VERSIONED_FILE_BYTE;
@@ -25,6 +28,7 @@ import static java.nio.file.Files.exists;
 import static java.nio.file.Files.isDirectory;
 
 import com.swirlds.base.utility.Triple;
+import com.swirlds.common.config.StateConfig;
 import com.swirlds.common.context.PlatformContext;
 import com.swirlds.common.crypto.Hash;
 import com.swirlds.common.io.streams.MerkleDataInputStream;
@@ -41,6 +45,8 @@ import java.nio.file.Path;
 import java.util.List;
 import java.util.Objects;
 import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -107,7 +113,8 @@ public final class SignedStateFileReader {
     }
 
     /**
-     * Reads a SignedState from disk
+     * Reads a SignedState from disk. If {@link StateConfig#stateLoaderThreads()} is greater than 1, subtrees of the
+     * state that are stored in their own files (e.g. virtual maps) are loaded in parallel.
      *
      * @param platformContext the platform context
      * @param stateFile
@@ -131,26 +138,46 @@ public final class SignedStateFileReader {
 
         final DeserializedSignedState returnState;
 
-        final Triple<State, Hash, SigSet> data = deserializeAndDebugOnFailure(
-                () -> new BufferedInputStream(new FileInputStream(stateFile.toFile())),
-                (final MerkleDataInputStream in) -> {
-                    final byte versionByte = in.readByte();
-                    if (versionByte != VERSIONED_FILE_BYTE) {
-                        throw new IOException(
-                                "File is not versioned -- data corrupted or is an unsupported legacy state");
-                    }
-
-                    in.readInt(); // file version
-                    in.readProtocolVersion();
-
-                    final Path directory = stateFile.getParent();
-
-                    final State state = in.readMerkleTree(directory, MAX_MERKLE_NODES_IN_STATE);
-                    final Hash hash = in.readSerializable();
-                    final SigSet sigSet = in.readSerializable();
+        final StateConfig stateConfig = platformContext.getConfiguration().getConfigData(StateConfig.class);
+        final ExecutorService executor = stateConfig.stateLoaderThreads() > 1
+                ? Executors.newFixedThreadPool(
+                        stateConfig.stateLoaderThreads(),
+                        getStaticThreadManager().createThreadFactory("platform", "state-loader"))
+                : null;
 
-                    return Triple.of(state, hash, sigSet);
-                });
+        final long start = System.nanoTime();
+        final Triple<State, Hash, SigSet> data;
+        try {
+            data = deserializeAndDebugOnFailure(
+                    () -> new BufferedInputStream(new FileInputStream(stateFile.toFile())),
+                    (final MerkleDataInputStream in) -> {
+                        final byte versionByte = in.readByte();
+                        if (versionByte != VERSIONED_FILE_BYTE) {
+                            throw new IOException(
+                                    "File is not versioned -- data corrupted or is an unsupported legacy state");
+                        }
+
+                        in.readInt(); // file version
+                        in.readProtocolVersion();
+
+                        final Path directory = stateFile.getParent();
+
+                        final State state = in.readMerkleTree(directory, MAX_MERKLE_NODES_IN_STATE, executor);
+                        final Hash hash = in.readSerializable();
+                        final SigSet sigSet = in.readSerializable();
+
+                        return Triple.of(state, hash, sigSet);
+                    });
+        } finally {
+            if (executor != null) {
+                executor.shutdown();
+            }
+        }
+        logger.info(
+                STARTUP.getMarker(),
+                "Read state file {} in {} ms",
+                stateFile,
+                Math.round((System.nanoTime() - start) * NANOSECONDS_TO_MILLISECONDS));
 
         final SignedState newSignedState =
                 new SignedState(platformContext, data.left(), "SignedStateFileReader.readStateFile()");
@@ -18,6 +18,10 @@ package com.swirlds.platform.state.signed;
 
 import static com.swirlds.common.io.utility.FileUtils.executeAndRename;
 import static com.swirlds.common.io.utility.FileUtils.writeAndFlush;
+import static com.swirlds.common.threading.manager.AdHocThreadManager.getStaticThreadManager;
+import static com.swirlds.common.units.UnitConstants.BYTES_TO_MEBIBYTES;
+import static com.swirlds.common.units.UnitConstants.NANOSECONDS_TO_MILLISECONDS;
+import static com.swirlds.common.units.UnitConstants.NANOSECONDS_TO_SECONDS;
 import static com.swirlds.logging.LogMarker.EXCEPTION;
 import static com.swirlds.logging.LogMarker.STATE_TO_DISK;
 import static com.swirlds.platform.config.internal.PlatformConfigUtils.writeSettingsUsed;
@@ -42,9 +46,15 @@ import edu.umd.cs.findbugs.annotations.Nullable;
 import java.io.BufferedWriter;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Instant;
 import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -55,6 +65,9 @@ public final class SignedStateFileWriter {
 
     private static final Logger logger = LogManager.getLogger(SignedStateFileWriter.class);
 
+    /** How long to wait for state writer threads to finish after a state is written */
+    private static final long EXECUTOR_TERMINATION_TIMEOUT_SECONDS = 60;
+
     private SignedStateFileWriter() {}
 
     /**
@@ -122,11 +135,15 @@ public final class SignedStateFileWriter {
      * @param signedState the signed state to write
      */
     private static void writeStateFileToStream(
-            final MerkleDataOutputStream out, final Path directory, final SignedState signedState) throws IOException {
+            final MerkleDataOutputStream out,
+            final Path directory,
+            final SignedState signedState,
+            @Nullable final ExecutorService executor)
+            throws IOException {
         out.write(VERSIONED_FILE_BYTE);
         out.writeInt(FILE_VERSION);
         out.writeProtocolVersion();
-        out.writeMerkleTree(directory, signedState.getState());
+        out.writeMerkleTree(directory, signedState.getState(), executor);
         out.writeSerializable(signedState.getState().getHash(), true);
         out.writeSerializable(signedState.getSigSet(), true);
     }
@@ -139,7 +156,29 @@ public final class SignedStateFileWriter {
      */
     public static void writeStateFile(final Path directory, final SignedState signedState) throws IOException {
         writeAndFlush(
-                directory.resolve(SIGNED_STATE_FILE_NAME), out -> writeStateFileToStream(out, directory, signedState));
+                directory.resolve(SIGNED_STATE_FILE_NAME),
+                out -> writeStateFileToStream(out, directory, signedState, null));
+    }
+
+    /**
+     * Write the signed state file through a buffer of the given size. If an executor is provided, subtrees that are
+     * written to their own files are serialized in parallel. The signed state file is the same either way.
+     *
+     * @param directory   the directory to write to
+     * @param signedState the signed state to write
+     * @param executor    the executor used to serialize subtrees in parallel, or null to write on the calling thread
+     * @param bufferSize  the size of the write buffer, in bytes
+     */
+    private static void writeStateFile(
+            final Path directory,
+            final SignedState signedState,
+            @Nullable final ExecutorService executor,
+            final int bufferSize)
+            throws IOException {
+        writeAndFlush(
+                directory.resolve(SIGNED_STATE_FILE_NAME),
+                bufferSize,
+                out -> writeStateFileToStream(out, directory, signedState, executor));
     }
 
     /**
@@ -156,16 +195,135 @@ public final class SignedStateFileWriter {
             @NonNull final SignedState signedState,
             @NonNull final Configuration configuration)
             throws IOException {
+        writeSignedStateFilesToDirectory(selfId, directory, signedState, configuration, null);
+    }
+
+    /**
+     * Write all files that belong in the signed state directory into a directory.
+     * <p>
+     * If {@link StateConfig#stateWriterThreads()} is greater than 1, subtrees of the state that are written to their
+     * own files are serialized in parallel, and the metadata, emergency recovery, address book and settings files are
+     * written while the state file is being written. The hash info file is always written after the state file, since
+     * rendering it traverses the same tree.
+     *
+     * @param selfId        the id of the platform
+     * @param directory     the directory where all files should be placed
+     * @param signedState   the signed state being written to disk
+     * @param configuration the configuration used
+     * @param metrics       the metrics to update with the duration of each phase, or null
+     */
+    public static void writeSignedStateFilesToDirectory(
+            @Nullable NodeId selfId,
+            @NonNull final Path directory,
+            @NonNull final SignedState signedState,
+            @NonNull final Configuration configuration,
+            @Nullable final SignedStateMetrics metrics)
+            throws IOException {
         Objects.requireNonNull(directory, "directory must not be null");
         Objects.requireNonNull(signedState, "signedState must not be null");
         Objects.requireNonNull(configuration, "configuration must not be null");
 
-        writeStateFile(directory, signedState);
-        writeHashInfoFile(directory, signedState.getState());
+        final StateConfig stateConfig = configuration.getConfigData(StateConfig.class);
+        final ExecutorService executor = stateConfig.stateWriterThreads() > 1
+                ? Executors.newFixedThreadPool(
+                        stateConfig.stateWriterThreads(),
+                        getStaticThreadManager().createThreadFactory("platform", "state-writer"))
+                : null;
+
+        Future<Long> auxFiles = null;
+        try {
+            final long start = System.nanoTime();
+            auxFiles = executor == null
+                    ? null
+                    : executor.submit(() -> writeAuxiliaryFiles(selfId, directory, signedState, configuration));
+
+            writeStateFile(directory, signedState, executor, stateConfig.stateFileWriteBufferSize());
+            final long stateFileEnd = System.nanoTime();
+
+            writeHashInfoFile(directory, signedState.getState());
+            final long hashInfoEnd = System.nanoTime();
+
+            final long auxFilesTime = auxFiles == null
+                    ? writeAuxiliaryFiles(selfId, directory, signedState, configuration)
+                    : getAuxiliaryFilesTime(auxFiles);
+
+            if (metrics != null) {
+                // Only the state file is counted, subtree data files, e.g. MerkleDB snapshots, are mostly hard links.
+                // The time includes writing them though, so this is a size per time, not the disk write throughput
+                final long stateFileBytes = Files.size(directory.resolve(SIGNED_STATE_FILE_NAME));
+                metrics.getWriteStateFileTimeMetric().update((stateFileEnd - start) * NANOSECONDS_TO_MILLISECONDS);
+                metrics.getWriteStateHashInfoTimeMetric()
+                        .update((hashInfoEnd - stateFileEnd) * NANOSECONDS_TO_MILLISECONDS);
+                metrics.getWriteStateAuxFilesTimeMetric().update(auxFilesTime * NANOSECONDS_TO_MILLISECONDS);
+                metrics.getWriteStateFileSizeRateMetric()
+                        .update(stateFileBytes
+                                * BYTES_TO_MEBIBYTES
+                                / Math.max((stateFileEnd - start) * NANOSECONDS_TO_SECONDS, Double.MIN_VALUE));
+            }
+        } catch (final IOException | RuntimeException e) {
+            if (auxFiles != null) {
+                auxFiles.cancel(true);
+            }
+            throw e;
+        } finally {
+            if (executor != null) {
+                shutdownAndAwait(executor);
+            }
+        }
+    }
+
+    /**
+     * Shut down the executor used to write a signed state, and wait for its threads to finish.
+     */
+    private static void shutdownAndAwait(@NonNull final ExecutorService executor) {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(EXECUTOR_TERMINATION_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+                logger.error(EXCEPTION.getMarker(), "State writer threads did not terminate in time");
+            }
+        } catch (final InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Write the small files that describe a signed state, i.e. everything except the state file and the hash info file.
+     *
+     * @return the time it took to write the files, in nanoseconds
+     */
+    private static long writeAuxiliaryFiles(
+            @Nullable final NodeId selfId,
+            @NonNull final Path directory,
+            @NonNull final SignedState signedState,
+            @NonNull final Configuration configuration)
+            throws IOException {
+        final long start = System.nanoTime();
         writeMetadataFile(selfId, directory, signedState);
         writeEmergencyRecoveryFile(directory, signedState);
         writeStateAddressBookFile(directory, signedState.getAddressBook());
         writeSettingsUsed(directory, configuration);
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Wait for the auxiliary files to be written on another thread.
+     *
+     * @return the time it took to write the files, in nanoseconds
+     */
+    private static long getAuxiliaryFilesTime(@NonNull final Future<Long> auxFiles) throws IOException {
+        try {
+            return auxFiles.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted while writing the signed state files", e);
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof final IOException ioException) {
+                throw ioException;
+            }
+            throw new IOException("unable to write the signed state files", e.getCause());
+        }
     }
 
     /**
@@ -200,6 +358,28 @@ public final class SignedStateFileWriter {
             @Nullable final StateToDiskReason stateToDiskReason,
             @NonNull final Configuration configuration)
             throws IOException {
+        writeSignedStateToDisk(selfId, savedStateDirectory, signedState, stateToDiskReason, configuration, null);
+    }
+
+    /**
+     * Writes a SignedState to a file. Also writes auxiliary files such as "settingsUsed.txt". This is the top level
+     * method called by the platform when it is ready to write a state.
+     *
+     * @param selfId              the id of the platform
+     * @param savedStateDirectory the directory where the state will be stored
+     * @param signedState         the object to be written
+     * @param stateToDiskReason   the reason the state is being written to disk
+     * @param configuration       the configuration for the platform
+     * @param metrics             the metrics to update with the duration of each phase and the write rate, or null
+     */
+    public static void writeSignedStateToDisk(
+            @Nullable final NodeId selfId,
+            @NonNull final Path savedStateDirectory,
+            @NonNull final SignedState signedState,
+            @Nullable final StateToDiskReason stateToDiskReason,
+            @NonNull final Configuration configuration,
+            @Nullable final SignedStateMetrics metrics)
+            throws IOException {
 
         Objects.requireNonNull(savedStateDirectory);
         Objects.requireNonNull(signedState);
@@ -215,7 +395,8 @@ public final class SignedStateFileWriter {
 
             executeAndRename(
                     savedStateDirectory,
-                    directory -> writeSignedStateFilesToDirectory(selfId, directory, signedState, configuration));
+                    directory -> writeSignedStateFilesToDirectory(
+                            selfId, directory, signedState, configuration, metrics));
 
             logger.info(STATE_TO_DISK.getMarker(), () -> new StateSavedToDiskPayload(
                             signedState.getRound(),
@@ -137,6 +137,40 @@ public class SignedStateMetrics {
             .withFormat(FORMAT_10_3);
     private final RunningAverageMetric stateToDiskTime;
 
+    private static final RunningAverageMetric.Config WRITE_STATE_FILE_TIME_CONFIG = new RunningAverageMetric.Config(
+                    CATEGORY, "writeStateFile")
+            .withDescription("average time it takes to write the merkle tree of a SignedState to disk, including the "
+                    + "files of subtrees that are written separately (in milliseconds)")
+            .withUnit(MILLISECONDS)
+            .withFormat(FORMAT_10_3);
+    private final RunningAverageMetric writeStateFileTime;
+
+    private static final RunningAverageMetric.Config WRITE_STATE_HASH_INFO_TIME_CONFIG =
+            new RunningAverageMetric.Config(CATEGORY, "writeStateHashInfo")
+                    .withDescription("average time it takes to write the hash info file of a SignedState to disk "
+                            + "(in milliseconds)")
+                    .withUnit(MILLISECONDS)
+                    .withFormat(FORMAT_10_3);
+    private final RunningAverageMetric writeStateHashInfoTime;
+
+    private static final RunningAverageMetric.Config WRITE_STATE_AUX_FILES_TIME_CONFIG =
+            new RunningAverageMetric.Config(CATEGORY, "writeStateAuxFiles")
+                    .withDescription("average time it takes to write the metadata, address book, emergency recovery "
+                            + "and settings files of a SignedState to disk (in milliseconds)")
+                    .withUnit(MILLISECONDS)
+                    .withFormat(FORMAT_10_3);
+    private final RunningAverageMetric writeStateAuxFilesTime;
+
+    private static final RunningAverageMetric.Config WRITE_STATE_FILE_SIZE_RATE_CONFIG =
+            new RunningAverageMetric.Config(CATEGORY, "writeStateFileSizePerSec")
+                    .withDescription("average size of the signed state file divided by the writeStateFile time (in "
+                            + "megabytes per second). The time includes writing the files of subtrees that are written "
+                            + "separately, e.g. MerkleDB snapshots, but their size is not included, so this is not the "
+                            + "disk write throughput")
+                    .withUnit("MB/sec")
+                    .withFormat(FORMAT_10_3);
+    private final RunningAverageMetric writeStateFileSizeRate;
+
     /**
      * Get a metric tracking unsigned states.
      */
@@ -229,6 +263,36 @@ public class SignedStateMetrics {
         return stateToDiskTime;
     }
 
+    /**
+     * Get a metric tracking the average time required to write the signed state file, including the files of subtrees
+     * that are written separately.
+     */
+    public RunningAverageMetric getWriteStateFileTimeMetric() {
+        return writeStateFileTime;
+    }
+
+    /**
+     * Get a metric tracking the average time required to write the hash info file of a state.
+     */
+    public RunningAverageMetric getWriteStateHashInfoTimeMetric() {
+        return writeStateHashInfoTime;
+    }
+
+    /**
+     * Get a metric tracking the average time required to write the small auxiliary files of a state.
+     */
+    public RunningAverageMetric getWriteStateAuxFilesTimeMetric() {
+        return writeStateAuxFilesTime;
+    }
+
+    /**
+     * Get a metric tracking the average size of the signed state file, in megabytes, divided by the time in seconds it
+     * took to write the merkle tree, including the files of subtrees that are written separately.
+     */
+    public RunningAverageMetric getWriteStateFileSizeRateMetric() {
+        return writeStateFileSizeRate;
+    }
+
     /**
      * Get a metric tracking the average difference in round number between signature transactions and
      * the most recent immutable state.
@@ -256,6 +320,10 @@ public class SignedStateMetrics {
         stateHashingTime = metrics.getOrCreate(STATE_HASHING_TIME_CONFIG);
         stateToDiskTime = metrics.getOrCreate(STATE_TO_DISK_TIME_CONFIG);
         writeStateToDiskTime = metrics.getOrCreate(WRITE_STATE_TO_DISK_TIME_CONFIG);
+        writeStateFileTime = metrics.getOrCreate(WRITE_STATE_FILE_TIME_CONFIG);
+        writeStateHashInfoTime = metrics.getOrCreate(WRITE_STATE_HASH_INFO_TIME_CONFIG);
+        writeStateAuxFilesTime = metrics.getOrCreate(WRITE_STATE_AUX_FILES_TIME_CONFIG);
+        writeStateFileSizeRate = metrics.getOrCreate(WRITE_STATE_FILE_SIZE_RATE_CONFIG);
         stateSignatureAge = metrics.getOrCreate(STATE_SIGNATURE_AGE_CONFIG);
         signedStates = metrics.getOrCreate(SIGNED_STATES_CONFIG);
     }
@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) 2023 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.platform;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.swirlds.common.system.BasicSoftwareVersion;
+import com.swirlds.common.system.NodeId;
+import com.swirlds.common.system.events.BaseEventHashedData;
+import com.swirlds.common.system.events.BaseEventUnhashedData;
+import com.swirlds.common.system.transaction.internal.SwirldTransaction;
+import com.swirlds.platform.internal.EventImpl;
+import java.time.Instant;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ConsensusMemoTest {
+
+    private static final int NUM_MEMBERS = 4;
+
+    @Test
+    @DisplayName("Memoized results are stored per event and member")
+    void memoizeResults() {
+        final ConsensusMemo memo = new ConsensusMemo(NUM_MEMBERS);
+        final EventImpl x = createEvent(10);
+        final EventImpl y = createEvent(9);
+
+        assertFalse(memo.hasLastSee(x), "nothing should be memoized yet");
+        memo.initLastSee(x);
+        assertTrue(memo.hasLastSee(x), "lastSee should be memoized after init");
+        assertFalse(memo.hasStronglySeeP(x), "stronglySeeP should not be memoized");
+        memo.setLastSee(x, 1, y);
+        memo.setLastSee(x, 2, x);
+
+        assertNull(memo.getLastSee(x, 0), "results which are not set should be null");
+        assertSame(y, memo.getLastSee(x, 1), "wrong memoized result");
+        assertSame(x, memo.getLastSee(x, 2), "wrong memoized result");
+        assertFalse(memo.hasLastSee(y), "events used as results should not have results memoized");
+        assertEquals(2, memo.size(), "both events should have slots");
+    }
+
+    @Test
+    @DisplayName("Results are recalculated after an event is cleared")
+    void clearedEvent() {
+        final ConsensusMemo memo = new ConsensusMemo(NUM_MEMBERS);
+        final EventImpl x = createEvent(10);
+        memo.initStronglySeeP(x);
+        assertTrue(memo.hasStronglySeeP(x), "stronglySeeP should be memoized after init");
+
+        x.clear();
+        assertFalse(memo.hasStronglySeeP(x), "results of a cleared event should be forgotten");
+    }
+
+    @Test
+    @DisplayName("Slots of expired events are reused once nothing refers to them")
+    void expireAndReuse() {
+        final ConsensusMemo memo = new ConsensusMemo(NUM_MEMBERS);
+        final EventImpl live = createEvent(20);
+        final EventImpl expiredReferenced = createEvent(5);
+        final EventImpl expired = createEvent(6);
+
+        memo.initLastSee(live);
+        memo.setLastSee(live, 0, expiredReferenced);
+        memo.initLastSee(expired);
+        memo.setLastSee(expired, 0, expired);
+        final int expiredSlot = expired.getMemoSlot();
+        assertEquals(3, memo.size(), "all events should have slots");
+
+        memo.expire(10);
+        assertEquals(2, memo.size(), "only the unreferenced expired event should be released");
+        assertFalse(memo.hasLastSee(expired), "results of expired events should be forgotten");
+        assertSame(expiredReferenced, memo.getLastSee(live, 0), "a referenced event must keep its slot");
+        assertTrue(memo.hasLastSee(live), "results of live events should be kept");
+
+        final EventImpl newEvent = createEvent(30);
+        memo.initLastSee(newEvent);
+        assertEquals(expiredSlot, newEvent.getMemoSlot(), "a released slot should be reused");
+        assertNotEquals(expiredSlot, expired.getMemoSlot(), "a released event should not keep its slot");
+    }
+
+    @Test
+    @DisplayName("Tables grow when there are many events")
+    void grow() {
+        final ConsensusMemo memo = new ConsensusMemo(NUM_MEMBERS);
+        final EventImpl[] events = new EventImpl[5_000];
+        for (int i = 0; i < events.length; i++) {
+            events[i] = createEvent(i);
+            memo.initLastSee(events[i]);
+            if (i > 0) {
+                memo.setLastSee(events[i], 0, events[i - 1]);
+            }
+        }
+        for (int i = 1; i < events.length; i++) {
+            assertSame(events[i - 1], memo.getLastSee(events[i], 0), "wrong memoized result after growing");
+        }
+        assertEquals(events.length, memo.size(), "every event should have a slot");
+    }
+
+    private static EventImpl createEvent(final long generation) {
+        return new EventImpl(
+                new BaseEventHashedData(
+                        new BasicSoftwareVersion(1),
+                        new NodeId(0),
+                        generation - 1,
+                        -1,
+                        (byte[]) null,
+                        (byte[]) null,
+                        Instant.EPOCH,
+                        new SwirldTransaction[0]),
+                new BaseEventUnhashedData(null, new byte[0]));
+    }
+}
@@ -113,6 +113,10 @@ class SignedStateFileManagerTests {
     private SignedStateMetrics buildMockMetrics() {
         final SignedStateMetrics metrics = mock(SignedStateMetrics.class);
         when(metrics.getWriteStateToDiskTimeMetric()).thenReturn(mock(RunningAverageMetric.class));
+        when(metrics.getWriteStateFileTimeMetric()).thenReturn(mock(RunningAverageMetric.class));
+        when(metrics.getWriteStateHashInfoTimeMetric()).thenReturn(mock(RunningAverageMetric.class));
+        when(metrics.getWriteStateAuxFilesTimeMetric()).thenReturn(mock(RunningAverageMetric.class));
+        when(metrics.getWriteStateFileSizeRateMetric()).thenReturn(mock(RunningAverageMetric.class));
         when(metrics.getStateToDiskTimeMetric()).thenReturn(mock(RunningAverageMetric.class));
         return metrics;
     }
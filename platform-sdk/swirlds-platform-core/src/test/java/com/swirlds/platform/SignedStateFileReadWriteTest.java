@@ -280,6 +280,10 @@ class SignedStateFileReadWriteTest {
         final SignedStateMetrics signedStateMetrics = mock(SignedStateMetrics.class);
         when(signedStateMetrics.getStateToDiskTimeMetric()).thenReturn(mock(RunningAverageMetric.class));
         when(signedStateMetrics.getWriteStateToDiskTimeMetric()).thenReturn(mock(RunningAverageMetric.class));
+        when(signedStateMetrics.getWriteStateFileTimeMetric()).thenReturn(mock(RunningAverageMetric.class));
+        when(signedStateMetrics.getWriteStateHashInfoTimeMetric()).thenReturn(mock(RunningAverageMetric.class));
+        when(signedStateMetrics.getWriteStateAuxFilesTimeMetric()).thenReturn(mock(RunningAverageMetric.class));
+        when(signedStateMetrics.getWriteStateFileSizeRateMetric()).thenReturn(mock(RunningAverageMetric.class));
 
         final SignedStateFileManager manager = new SignedStateFileManager(
                 context,
@@ -0,0 +1,369 @@
+/*
+ * Copyright (C) 2023 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.platform.event.validation;
+
+import static com.swirlds.common.test.fixtures.AssertionUtils.assertEventuallyEquals;
+import static com.swirlds.common.threading.manager.AdHocThreadManager.getStaticThreadManager;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.swirlds.base.time.Time;
+import com.swirlds.common.context.PlatformContext;
+import com.swirlds.common.crypto.Hash;
+import com.swirlds.common.metrics.noop.NoOpMetrics;
+import com.swirlds.common.system.NodeId;
+import com.swirlds.common.system.address.AddressBook;
+import com.swirlds.common.system.events.BaseEventHashedData;
+import com.swirlds.common.system.events.BaseEventUnhashedData;
+import com.swirlds.common.test.fixtures.RandomAddressBookGenerator;
+import com.swirlds.common.test.fixtures.RandomUtils;
+import com.swirlds.common.threading.framework.QueueThread;
+import com.swirlds.common.threading.framework.StoppableThread.Status;
+import com.swirlds.common.threading.framework.config.QueueThreadConfiguration;
+import com.swirlds.common.threading.framework.config.ThreadConfiguration;
+import com.swirlds.platform.crypto.SignatureVerifier;
+import com.swirlds.platform.event.EventIntakeTask;
+import com.swirlds.platform.event.GossipEvent;
+import com.swirlds.test.framework.config.TestConfigBuilder;
+import com.swirlds.test.framework.context.TestPlatformContextBuilder;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.security.PublicKey;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+class BatchSignatureValidatorTest {
+
+    private static final int BATCH_SIZE = 16;
+
+    @Test
+    void testBatchesAreVerifiedOnceInOrder() throws InterruptedException {
+        final AddressBook addressBook = new RandomAddressBookGenerator(RandomUtils.getRandomPrintSeed())
+                .setSize(4)
+                .build();
+        // events created by the first node have invalid signatures
+        final PublicKey invalidKey = addressBook.getAddress(addressBook.getNodeId(0)).getSigPublicKey();
+        final AtomicInteger verifications = new AtomicInteger();
+        final SignatureVerifier signatureVerifier = (data, signature, publicKey) -> {
+            verifications.incrementAndGet();
+            return publicKey != invalidKey;
+        };
+
+        final List<EventIntakeTask> handled = new ArrayList<>();
+        final List<Boolean> results = new ArrayList<>();
+        final BatchSignatureValidator[] validator = new BatchSignatureValidator[1];
+        validator[0] = new BatchSignatureValidator(
+                buildContext(),
+                getStaticThreadManager(),
+                Time.getCurrent(),
+                List.of(addressBook),
+                signatureVerifier,
+                event -> false,
+                task -> {
+                    handled.add(task);
+                    if (task instanceof final GossipEvent event) {
+                        results.add(validator[0].isEventValid(event));
+                    }
+                });
+
+        final List<EventIntakeTask> submitted = new ArrayList<>();
+        for (int i = 0; i < BATCH_SIZE * 2 + 3; i++) {
+            final EventIntakeTask task = (i % 5 == 4)
+                    ? Mockito.mock(EventIntakeTask.class)
+                    : createEvent(addressBook.getNodeId(i % addressBook.getSize()));
+            submitted.add(task);
+            validator[0].submit(task);
+        }
+        assertEquals(BATCH_SIZE * 2, handled.size(), "full batches should be handled without a flush");
+        validator[0].flush();
+
+        assertEquals(submitted, handled, "all tasks should be handled in the order they were submitted");
+        final List<GossipEvent> events = submitted.stream()
+                .filter(GossipEvent.class::isInstance)
+                .map(GossipEvent.class::cast)
+                .toList();
+        assertEquals(events.size(), verifications.get(), "every signature should be verified exactly once");
+        for (int i = 0; i < events.size(); i++) {
+            final boolean expected = !events.get(i).getHashedData().getCreatorId().equals(addressBook.getNodeId(0));
+            assertEquals(expected, results.get(i), "unexpected verification result");
+        }
+    }
+
+    @Test
+    void testEventsOutsideOfBatchAreVerified() {
+        final AddressBook addressBook = new RandomAddressBookGenerator(RandomUtils.getRandomPrintSeed())
+                .setSize(4)
+                .build();
+        final BatchSignatureValidator validator = new BatchSignatureValidator(
+                buildContext(),
+                getStaticThreadManager(),
+                Time.getCurrent(),
+                List.of(addressBook),
+                (data, signature, publicKey) -> true,
+                event -> false,
+                task -> {});
+
+        assertTrue(
+                validator.isEventValid(createEvent(addressBook.getNodeId(1))),
+                "an event that was not in a batch should be verified directly");
+        assertFalse(
+                validator.isEventValid(createEvent(addressBook.getNextNodeId())),
+                "an event created by an unknown node should not be valid");
+    }
+
+    @Test
+    void testObsoleteAndRepeatedEventsAreNotVerified() throws InterruptedException {
+        final AddressBook addressBook = new RandomAddressBookGenerator(RandomUtils.getRandomPrintSeed())
+                .setSize(4)
+                .build();
+        final AtomicInteger verifications = new AtomicInteger();
+        final Set<GossipEvent> obsolete = new HashSet<>();
+        final List<GossipEvent> handled = new ArrayList<>();
+        final BatchSignatureValidator validator = new BatchSignatureValidator(
+                buildContext(),
+                getStaticThreadManager(),
+                Time.getCurrent(),
+                List.of(addressBook),
+                (data, signature, publicKey) -> {
+                    verifications.incrementAndGet();
+                    return true;
+                },
+                obsolete::contains,
+                task -> handled.add((GossipEvent) task));
+
+        final GossipEvent event = createEvent(addressBook.getNodeId(0));
+        // the same event received from another peer
+        final GossipEvent copy = createEvent(addressBook.getNodeId(0), event.getHashedData().getHash());
+        final GossipEvent ancient = createEvent(addressBook.getNodeId(1));
+        final GossipEvent other = createEvent(addressBook.getNodeId(2));
+        obsolete.add(ancient);
+        for (final GossipEvent e : List.of(event, copy, ancient, other)) {
+            validator.submit(e);
+        }
+        validator.flush();
+
+        assertEquals(List.of(event, copy, ancient, other), handled, "all events should be handled");
+        assertEquals(2, verifications.get(), "only the first copy of events that aren't obsolete should be verified");
+        assertTrue(validator.isEventValid(event), "the result of the batch should be used");
+        assertTrue(validator.isEventValid(other), "the result of the batch should be used");
+        assertEquals(2, verifications.get(), "events verified in the batch should not be verified again");
+    }
+
+    @Test
+    void testHandlerErrorDoesNotDropBatch() throws InterruptedException {
+        final AddressBook addressBook = new RandomAddressBookGenerator(RandomUtils.getRandomPrintSeed())
+                .setSize(4)
+                .build();
+        final List<EventIntakeTask> handled = new ArrayList<>();
+        final BatchSignatureValidator validator = new BatchSignatureValidator(
+                buildContext(),
+                getStaticThreadManager(),
+                Time.getCurrent(),
+                List.of(addressBook),
+                (data, signature, publicKey) -> true,
+                event -> false,
+                task -> {
+                    handled.add(task);
+                    if (handled.size() == 1) {
+                        throw new IllegalStateException("intentional failure");
+                    }
+                });
+
+        final List<EventIntakeTask> submitted = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            final EventIntakeTask task = createEvent(addressBook.getNodeId(i));
+            submitted.add(task);
+            validator.submit(task);
+        }
+        validator.flush();
+
+        assertEquals(submitted, handled, "tasks after a failed task should still be handled");
+    }
+
+    @Test
+    void testEventsAreVerifiedAfterStop() throws InterruptedException {
+        final AddressBook addressBook = new RandomAddressBookGenerator(RandomUtils.getRandomPrintSeed())
+                .setSize(4)
+                .build();
+        final AtomicInteger verifications = new AtomicInteger();
+        final List<Boolean> results = new ArrayList<>();
+        final BatchSignatureValidator[] validator = new BatchSignatureValidator[1];
+        validator[0] = new BatchSignatureValidator(
+                buildContext(),
+                getStaticThreadManager(),
+                Time.getCurrent(),
+                List.of(addressBook),
+                (data, signature, publicKey) -> {
+                    verifications.incrementAndGet();
+                    return true;
+                },
+                event -> false,
+                task -> results.add(validator[0].isEventValid((GossipEvent) task)));
+        validator[0].start();
+        validator[0].stop();
+
+        for (int i = 0; i < 3; i++) {
+            validator[0].submit(createEvent(addressBook.getNodeId(i)));
+        }
+        validator[0].flush();
+
+        assertEquals(List.of(true, true, true), results, "events should be verified on the intake thread");
+        assertEquals(3, verifications.get(), "every signature should be verified exactly once");
+    }
+
+    @Test
+    void testFailedBatchWaitsForVerificationThreads() throws InterruptedException {
+        final AddressBook addressBook = new RandomAddressBookGenerator(RandomUtils.getRandomPrintSeed())
+                .setSize(4)
+                .build();
+        // verifying events created by the first node fails in the pool, other verifications in the pool are slow
+        final PublicKey failingKey = addressBook.getAddress(addressBook.getNodeId(0)).getSigPublicKey();
+        final Thread intakeThread = Thread.currentThread();
+        final AtomicInteger verifyingInPool = new AtomicInteger();
+        final AtomicBoolean overlap = new AtomicBoolean();
+        final SignatureVerifier signatureVerifier = (data, signature, publicKey) -> {
+            if (Thread.currentThread() == intakeThread) {
+                if (verifyingInPool.get() > 0) {
+                    overlap.set(true);
+                }
+                return true;
+            }
+            if (publicKey == failingKey) {
+                throw new IllegalStateException("intentional failure");
+            }
+            verifyingInPool.incrementAndGet();
+            try {
+                Thread.sleep(50);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                verifyingInPool.decrementAndGet();
+            }
+            return true;
+        };
+
+        final List<Boolean> results = new ArrayList<>();
+        final BatchSignatureValidator[] validator = new BatchSignatureValidator[1];
+        validator[0] = new BatchSignatureValidator(
+                buildContext(),
+                getStaticThreadManager(),
+                Time.getCurrent(),
+                List.of(addressBook),
+                signatureVerifier,
+                event -> false,
+                task -> results.add(validator[0].isEventValid((GossipEvent) task)));
+        for (int i = 0; i < 8; i++) {
+            validator[0].submit(createEvent(addressBook.getNodeId(i % addressBook.getSize())));
+        }
+        validator[0].flush();
+        validator[0].stop();
+
+        assertEquals(8, results.size(), "every event should be handled");
+        assertTrue(results.stream().allMatch(r -> r), "events should be verified on the intake thread");
+        assertFalse(overlap.get(), "events should not be verified again while the pool is still verifying them");
+    }
+
+    @Test
+    void testPendingBatchIsHandledWhenQueueThreadStops() throws InterruptedException {
+        final AddressBook addressBook = new RandomAddressBookGenerator(RandomUtils.getRandomPrintSeed())
+                .setSize(4)
+                .build();
+        final List<EventIntakeTask> handled = new ArrayList<>();
+        final CountDownLatch handlerBlocked = new CountDownLatch(1);
+        final CountDownLatch unblockHandler = new CountDownLatch(1);
+        final BatchSignatureValidator validator = new BatchSignatureValidator(
+                buildContext(),
+                getStaticThreadManager(),
+                Time.getCurrent(),
+                List.of(addressBook),
+                (data, signature, publicKey) -> true,
+                event -> false,
+                task -> {
+                    if (handled.isEmpty()) {
+                        handlerBlocked.countDown();
+                        unblockHandler.await();
+                    }
+                    handled.add(task);
+                });
+        // wired the same way as the intake queue
+        final QueueThread<EventIntakeTask> queue = new QueueThreadConfiguration<EventIntakeTask>(
+                        getStaticThreadManager())
+                .setThreadName("test-intake")
+                .setHandler(validator::submit)
+                .setBatchHandledCallback(validator::flush)
+                .build();
+        queue.start();
+
+        final List<EventIntakeTask> submitted = new ArrayList<>();
+        for (int i = 0; i < BATCH_SIZE / 2; i++) {
+            submitted.add(createEvent(addressBook.getNodeId(i % addressBook.getSize())));
+        }
+        queue.put(submitted.get(0));
+        handlerBlocked.await();
+        // a partial batch is left in the queue when the queue thread is stopped
+        for (int i = 1; i < submitted.size(); i++) {
+            queue.put(submitted.get(i));
+        }
+        final Thread stopper = new ThreadConfiguration(getStaticThreadManager())
+                .setRunnable(queue::stop)
+                .build();
+        stopper.start();
+        assertEventuallyEquals(
+                Status.DYING, queue::getStatus, Duration.ofSeconds(1), "the queue thread should be stopping");
+
+        unblockHandler.countDown();
+        stopper.join(1000);
+        assertFalse(stopper.isAlive(), "the queue thread should be stopped");
+        validator.stop();
+
+        assertEquals(submitted, handled, "every task should reach the intake handler");
+    }
+
+    private static @NonNull PlatformContext buildContext() {
+        return TestPlatformContextBuilder.create()
+                .withMetrics(new NoOpMetrics())
+                .withConfiguration(new TestConfigBuilder()
+                        .withValue("event.signatureVerificationPoolSize", 4)
+                        .withValue("event.signatureVerificationBatchSize", BATCH_SIZE)
+                        .getOrCreateConfig())
+                .build();
+    }
+
+    private static @NonNull GossipEvent createEvent(@NonNull final NodeId id) {
+        return createEvent(id, Mockito.mock(Hash.class));
+    }
+
+    private static @NonNull GossipEvent createEvent(@NonNull final NodeId id, @NonNull final Hash hash) {
+        final GossipEvent event = Mockito.mock(GossipEvent.class);
+        final BaseEventHashedData hd = Mockito.mock(BaseEventHashedData.class);
+        final BaseEventUnhashedData ud = Mockito.mock(BaseEventUnhashedData.class);
+        Mockito.when(hd.getCreatorId()).thenReturn(id);
+        Mockito.when(hd.getHash()).thenReturn(hash);
+        Mockito.when(event.getHashedData()).thenReturn(hd);
+        Mockito.when(event.getUnhashedData()).thenReturn(ud);
+
+        return event;
+    }
+}
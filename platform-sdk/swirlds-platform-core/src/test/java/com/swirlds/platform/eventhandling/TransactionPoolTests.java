@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2023 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.platform.eventhandling;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.swirlds.common.context.PlatformContext;
+import com.swirlds.common.metrics.noop.NoOpMetrics;
+import com.swirlds.common.system.transaction.internal.ConsensusTransactionImpl;
+import com.swirlds.common.system.transaction.internal.SwirldTransaction;
+import com.swirlds.test.framework.config.TestConfigBuilder;
+import com.swirlds.test.framework.context.TestPlatformContextBuilder;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TransactionPoolTests {
+
+    private static @NonNull TransactionPool buildPool(final long queueBytes) {
+        final PlatformContext platformContext = TestPlatformContextBuilder.create()
+                .withMetrics(new NoOpMetrics())
+                .withConfiguration(new TestConfigBuilder()
+                        .withValue("transaction.throttleTransactionQueueBytes", queueBytes)
+                        .getOrCreateConfig())
+                .build();
+        return new TransactionPool(platformContext, () -> false);
+    }
+
+    private static @NonNull ConsensusTransactionImpl systemTransaction() {
+        final ConsensusTransactionImpl transaction = mock(ConsensusTransactionImpl.class);
+        when(transaction.isSystem()).thenReturn(true);
+        when(transaction.getSerializedLength()).thenReturn(100);
+        return transaction;
+    }
+
+    @Test
+    @DisplayName("Priority, system and app transactions are put into events in that order")
+    void laneOrder() {
+        final TransactionPool pool = buildPool(Long.MAX_VALUE);
+        final ConsensusTransactionImpl app = new SwirldTransaction(new byte[] {1});
+        final ConsensusTransactionImpl system = systemTransaction();
+        final ConsensusTransactionImpl priorityApp = new SwirldTransaction(new byte[] {2});
+        final ConsensusTransactionImpl prioritySystem = systemTransaction();
+
+        assertTrue(pool.submitTransaction(app, false));
+        assertTrue(pool.submitTransaction(system, false));
+        assertTrue(pool.submitTransaction(priorityApp, true));
+        assertTrue(pool.submitTransaction(prioritySystem, true));
+
+        assertArrayEquals(
+                new ConsensusTransactionImpl[] {priorityApp, prioritySystem, system, app}, pool.getTransactions());
+        assertEquals(0, pool.getTransactions().length, "all transactions should have been removed");
+    }
+
+    @Test
+    @DisplayName("App transactions are rejected once the pool has too many bytes")
+    void byteLimit() {
+        final ConsensusTransactionImpl transaction = new SwirldTransaction(new byte[1000]);
+        final TransactionPool pool = buildPool(transaction.getSerializedLength() * 3L);
+
+        // the limit is checked before a transaction is added, so the pool may exceed it by one transaction
+        for (int i = 0; i < 4; i++) {
+            assertTrue(pool.submitTransaction(new SwirldTransaction(new byte[1000]), false));
+        }
+        assertFalse(pool.submitTransaction(new SwirldTransaction(new byte[1000]), false));
+        assertTrue(pool.submitTransaction(systemTransaction(), false), "system transactions are always accepted");
+
+        // once transactions are removed, app transactions are accepted again
+        assertEquals(5, pool.getTransactions().length);
+        assertTrue(pool.submitTransaction(transaction, false));
+
+        pool.clear();
+        assertEquals(0, pool.getTransactions().length, "all transactions should have been cleared");
+    }
+
+    @Test
+    @DisplayName("Transactions submitted concurrently are all put into events")
+    void concurrentSubmission() throws Exception {
+        final TransactionPool pool = buildPool(Long.MAX_VALUE);
+        final int threads = 8;
+        final int transactionsPerThread = 1000;
+
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                final boolean priority = i % 2 == 0;
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < transactionsPerThread; j++) {
+                        assertTrue(pool.submitTransaction(new SwirldTransaction(new byte[] {(byte) j}), priority));
+                    }
+                }));
+            }
+
+            int received = 0;
+            boolean done = false;
+            while (!done) {
+                done = futures.stream().allMatch(Future::isDone);
+                received += pool.getTransactions().length;
+            }
+            received += pool.getTransactions().length;
+            for (final Future<?> future : futures) {
+                future.get();
+            }
+            assertEquals(threads * transactionsPerThread, received, "every transaction should be received once");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
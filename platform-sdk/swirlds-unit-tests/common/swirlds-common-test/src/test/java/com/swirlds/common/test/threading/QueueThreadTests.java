@@ -47,6 +47,7 @@ import com.swirlds.common.metrics.platform.DefaultMetricsFactory;
 import com.swirlds.common.metrics.platform.MetricKeyRegistry;
 import com.swirlds.common.threading.framework.QueueThread;
 import com.swirlds.common.threading.framework.Stoppable;
+import com.swirlds.common.threading.framework.StoppableThread.Status;
 import com.swirlds.common.threading.framework.ThreadSeed;
 import com.swirlds.common.threading.framework.config.QueueThreadConfiguration;
 import com.swirlds.common.threading.framework.config.QueueThreadMetricsConfiguration;
@@ -1143,4 +1144,52 @@ class QueueThreadTests {
 
         queue.stop();
     }
+
+    @Test
+    void batchCompletedCallbackOnStopTest() throws InterruptedException {
+        final AtomicInteger handled = new AtomicInteger(0);
+        final AtomicInteger handledAtLastCallback = new AtomicInteger(0);
+        final CountDownLatch handlerBlocked = new CountDownLatch(1);
+        final CountDownLatch unblockHandler = new CountDownLatch(1);
+
+        final QueueThread<Integer> queue = new QueueThreadConfiguration<Integer>(getStaticThreadManager())
+                .setThreadName("test")
+                .setBatchHandledCallback(() -> handledAtLastCallback.set(handled.get()))
+                .setHandler(x -> {
+                    if (x == 0) {
+                        handlerBlocked.countDown();
+                        unblockHandler.await();
+                    }
+                    handled.incrementAndGet();
+                })
+                .setCapacity(UNLIMITED_CAPACITY)
+                .setMaxBufferSize(10)
+                .build();
+
+        queue.start();
+        queue.add(0);
+        handlerBlocked.await();
+
+        // These items are still in the queue when the thread is stopped, so they are handled in the final cycle
+        final int itemCount = 26;
+        for (int i = 1; i < itemCount; i++) {
+            queue.add(i);
+        }
+        final Thread stopper = new ThreadConfiguration(getStaticThreadManager())
+                .setRunnable(queue::stop)
+                .build();
+        stopper.start();
+        assertEventuallyEquals(
+                Status.DYING, queue::getStatus, Duration.ofSeconds(1), "Queue thread should be stopping");
+
+        unblockHandler.countDown();
+        stopper.join(1000);
+        assertFalse(stopper.isAlive(), "thread should be dead");
+
+        assertEquals(itemCount, handled.get(), "All items should be handled");
+        assertEquals(
+                itemCount,
+                handledAtLastCallback.get(),
+                "Batch completed callback should be called after the last item handled in the final cycle");
+    }
 }
@@ -70,11 +70,15 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Stream;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
@@ -199,6 +203,24 @@ class AsyncPreconsensusEventWriterTests {
         }
         assertFalse(eventsIterator2.hasNext());
 
+        // Reading files ahead on other threads should yield the same events in the same order
+        final ExecutorService readAheadPool = Executors.newFixedThreadPool(2);
+        try {
+            final PreconsensusEventMultiFileIterator readAheadIterator =
+                    reader.getEventIterator(startingGeneration, fixDiscontinuities);
+            readAheadIterator.enableReadAhead(readAheadPool, 2);
+            for (final EventImpl event : events) {
+                if (event.getGeneration() < startingGeneration) {
+                    continue;
+                }
+                assertTrue(readAheadIterator.hasNext());
+                assertEventsAreEqual(event, readAheadIterator.next());
+            }
+            assertFalse(readAheadIterator.hasNext());
+        } finally {
+            readAheadPool.shutdown();
+        }
+
         // Iterating from a high generation should yield no events
         final IOIterator<GossipEvent> eventsIterator3 = reader.getEventIterator(lastGeneration + 1, fixDiscontinuities);
         assertFalse(eventsIterator3.hasNext());
@@ -442,6 +464,71 @@ class AsyncPreconsensusEventWriterTests {
         assertTrue(foundNonZeroMinimumGeneration);
     }
 
+    /**
+     * In this test, a flush is requested after every event. With group commit enabled, flush requests should be
+     * coalesced, and all events should still become durable.
+     */
+    @Test
+    @DisplayName("Group Commit Test")
+    void groupCommitTest() throws IOException, InterruptedException {
+        final Random random = RandomUtils.getRandomPrintSeed();
+
+        final int numEvents = 1_000;
+
+        final StandardGraphGenerator generator = buildGraphGenerator(random);
+
+        final List<EventImpl> events = new ArrayList<>();
+        for (int i = 0; i < numEvents; i++) {
+            events.add(generator.generateEvent().convertToEventImpl());
+        }
+
+        final Configuration configuration = new TestConfigBuilder()
+                .withValue("event.preconsensus.databaseDirectory", testDirectory)
+                .withValue("event.preconsensus.preferredFileSizeMegabytes", 5)
+                .withValue("event.preconsensus.forceOnFlush", true)
+                .withValue("event.preconsensus.groupCommitWindow", "20ms")
+                .withValue("transaction.maxTransactionBytesPerEvent", Integer.MAX_VALUE)
+                .withValue("transaction.maxTransactionCountPerEvent", Integer.MAX_VALUE)
+                .withValue("transaction.transactionMaxBytes", Integer.MAX_VALUE)
+                .withValue("transaction.maxAddressSizeAllowed", Integer.MAX_VALUE)
+                .getOrCreateConfig();
+        final PlatformContext platformContext =
+                new DefaultPlatformContext(configuration, new NoOpMetrics(), CryptographyHolder.get());
+
+        final PreconsensusEventFileManager fileManager = new PreconsensusEventFileManager(
+                platformContext, Time.getCurrent(), TestRecycleBin.getInstance(), new NodeId(0));
+
+        final AtomicInteger flushCount = new AtomicInteger();
+        final PreconsensusEventStreamSequencer sequencer = new PreconsensusEventStreamSequencer();
+        final SyncPreconsensusEventWriter syncWriter = new SyncPreconsensusEventWriter(platformContext, fileManager) {
+            @Override
+            public void requestFlush() {
+                flushCount.incrementAndGet();
+                super.requestFlush();
+            }
+        };
+        final PreconsensusEventWriter writer =
+                new AsyncPreconsensusEventWriter(platformContext, getStaticThreadManager(), syncWriter);
+
+        writer.start();
+        writer.beginStreamingNewEvents();
+
+        for (final EventImpl event : events) {
+            sequencer.assignStreamSequenceNumber(event);
+            writer.writeEvent(event);
+            writer.requestFlush();
+        }
+
+        for (final EventImpl event : events) {
+            assertTrue(writer.waitUntilDurable(event, Duration.ofSeconds(5)));
+        }
+        assertTrue(flushCount.get() < numEvents, "flush requests should have been coalesced");
+
+        writer.stop();
+
+        verifyStream(events, platformContext, 0, false);
+    }
+
     /**
      * Simulate a node restarting.
      */
@@ -40,6 +40,7 @@ import com.swirlds.platform.test.fixtures.event.source.StandardEventSource;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -436,6 +437,8 @@ class PreconsensusEventReadWriteTests {
         assertNotEquals(file.getMaximumGeneration(), compressedFile.getMaximumGeneration());
         assertTrue(Files.exists(compressedFile.getPath()));
         assertFalse(Files.exists(file.getPath()));
+        assertTrue(Files.exists(compressedFile.getIndexPath()));
+        assertFalse(Files.exists(file.getIndexPath()));
 
         final IOIterator<GossipEvent> iterator = compressedFile.iterator(Long.MIN_VALUE);
         final List<GossipEvent> deserializedEvents = new ArrayList<>();
@@ -446,6 +449,72 @@ class PreconsensusEventReadWriteTests {
         }
     }
 
+    @Test
+    @DisplayName("Indexed Read Test")
+    void indexedReadTest() throws IOException {
+        final Random random = RandomUtils.getRandomPrintSeed();
+
+        final int numEvents = 1000;
+
+        final StandardGraphGenerator generator = new StandardGraphGenerator(
+                random.nextLong(),
+                new StandardEventSource(),
+                new StandardEventSource(),
+                new StandardEventSource(),
+                new StandardEventSource());
+
+        final List<EventImpl> events = new ArrayList<>();
+        for (int i = 0; i < numEvents; i++) {
+            events.add(generator.generateEvent());
+        }
+
+        long maximumGeneration = Long.MIN_VALUE;
+        for (final EventImpl event : events) {
+            maximumGeneration = Math.max(maximumGeneration, event.getGeneration());
+        }
+
+        final PreconsensusEventFile file = PreconsensusEventFile.of(
+                random.nextInt(0, 100), 0, maximumGeneration, RandomUtils.randomInstant(random), testDirectory, false);
+
+        final PreconsensusEventMutableFile mutableFile = file.getMutableFile();
+        for (final EventImpl event : events) {
+            mutableFile.writeEvent(event.getBaseEvent());
+        }
+        mutableFile.close();
+        assertTrue(Files.exists(file.getIndexPath()));
+
+        // Reading with the index should yield exactly the same events as scanning the entire file
+        for (final long minimumGeneration :
+                List.of(Long.MIN_VALUE, 0L, maximumGeneration / 3, maximumGeneration / 2, maximumGeneration)) {
+            final List<GossipEvent> expectedEvents = new ArrayList<>();
+            for (final EventImpl event : events) {
+                if (event.getGeneration() >= minimumGeneration) {
+                    expectedEvents.add(event.getBaseEvent());
+                }
+            }
+
+            final List<GossipEvent> deserializedEvents = new ArrayList<>();
+            file.iterator(minimumGeneration).forEachRemaining(deserializedEvents::add);
+            assertEquals(expectedEvents, deserializedEvents);
+        }
+
+        // An index that doesn't match the file should be ignored
+        Files.write(file.getPath(), new byte[] {1, 2, 3}, StandardOpenOption.APPEND);
+        final PreconsensusEventFileIterator iterator = file.iterator(maximumGeneration / 2);
+        final List<GossipEvent> deserializedEvents = new ArrayList<>();
+        iterator.forEachRemaining(deserializedEvents::add);
+        assertTrue(iterator.hasPartialEvent());
+        for (final EventImpl event : events) {
+            if (event.getGeneration() >= maximumGeneration / 2) {
+                assertEquals(event.getBaseEvent(), deserializedEvents.remove(0));
+            }
+        }
+        assertTrue(deserializedEvents.isEmpty());
+
+        file.deleteFile(testDirectory);
+        assertFalse(Files.exists(file.getIndexPath()));
+    }
+
     @Test
     @DisplayName("Partial Span Compression Test")
     void partialSpanCompressionTest() throws IOException {
@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2023 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.platform.test.network.communication.handshake;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.swirlds.base.utility.Pair;
+import com.swirlds.common.system.NodeId;
+import com.swirlds.platform.network.Connection;
+import com.swirlds.platform.network.communication.handshake.HandshakeException;
+import com.swirlds.platform.network.communication.handshake.SyncCompressionHandshake;
+import com.swirlds.platform.test.sync.ConnectionFactory;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.io.IOException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link SyncCompressionHandshake}
+ */
+class SyncCompressionHandshakeTests {
+    private Connection theirConnection;
+    private Connection myConnection;
+
+    private static void clearWriteFlush(@NonNull final Connection connection, final int version) throws IOException {
+        if (connection.getDis().available() > 0) {
+            connection.getDis().readInt();
+        }
+        connection.getDos().writeInt(version);
+        connection.getDos().flush();
+    }
+
+    private void assertCompressed(final boolean expected) {
+        assertEquals(expected, myConnection.getDos().isCompressed(), "unexpected sync format of the output stream");
+        assertEquals(expected, myConnection.getDis().isCompressed(), "unexpected sync format of the input stream");
+    }
+
+    @BeforeEach
+    void setup() throws IOException {
+        final Pair<Connection, Connection> connections =
+                ConnectionFactory.createLocalConnections(new NodeId(0L), new NodeId(1));
+        myConnection = connections.left();
+        theirConnection = connections.right();
+    }
+
+    @Test
+    @DisplayName("Both nodes have compression enabled")
+    void bothCompressed() throws Exception {
+        clearWriteFlush(theirConnection, SyncCompressionHandshake.COMPRESSED_SYNC_VERSION);
+        new SyncCompressionHandshake(true).runProtocol(myConnection);
+        assertCompressed(true);
+    }
+
+    @Test
+    @DisplayName("Only one of the nodes has compression enabled")
+    void oneCompressed() throws Exception {
+        clearWriteFlush(theirConnection, SyncCompressionHandshake.UNCOMPRESSED_SYNC_VERSION);
+        new SyncCompressionHandshake(true).runProtocol(myConnection);
+        assertCompressed(false);
+
+        clearWriteFlush(theirConnection, SyncCompressionHandshake.COMPRESSED_SYNC_VERSION);
+        new SyncCompressionHandshake(false).runProtocol(myConnection);
+        assertCompressed(false);
+    }
+
+    @Test
+    @DisplayName("The peer supports a newer sync format")
+    void newerPeerVersion() throws Exception {
+        clearWriteFlush(theirConnection, SyncCompressionHandshake.COMPRESSED_SYNC_VERSION + 1);
+        new SyncCompressionHandshake(true).runProtocol(myConnection);
+        assertCompressed(true);
+    }
+
+    @Test
+    @DisplayName("The peer sends an invalid version")
+    void invalidPeerVersion() throws IOException {
+        clearWriteFlush(theirConnection, 0);
+        assertThrows(HandshakeException.class, () -> new SyncCompressionHandshake(true).runProtocol(myConnection));
+    }
+}
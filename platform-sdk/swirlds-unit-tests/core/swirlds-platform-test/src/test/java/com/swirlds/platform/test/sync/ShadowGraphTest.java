@@ -54,6 +54,8 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -610,6 +612,51 @@ class ShadowGraphTest {
         }
     }
 
+    @Test
+    @DisplayName("Queries from many threads observe consistent tips while events are added")
+    void testConcurrentQueriesDuringInsertion() throws InterruptedException {
+        initShadowGraph(RandomUtils.getRandomPrintSeed(), 100, 4);
+
+        final int numReaders = 8;
+        final AtomicBoolean done = new AtomicBoolean(false);
+        final AtomicReference<String> failure = new AtomicReference<>();
+        final List<Thread> readers = new ArrayList<>();
+        for (int i = 0; i < numReaders; i++) {
+            final Thread reader = new Thread(() -> {
+                while (!done.get() && failure.get() == null) {
+                    final List<ShadowEvent> tips = shadowGraph.getTips();
+                    final List<Hash> tipHashes =
+                            tips.stream().map(ShadowEvent::getEventBaseHash).toList();
+                    final List<ShadowEvent> shadows = shadowGraph.shadows(tipHashes);
+                    for (int t = 0; t < tips.size(); t++) {
+                        if (shadows.get(t) != tips.get(t)) {
+                            failure.set("A tip could not be found by its hash");
+                        }
+                    }
+                    final long tipGeneration = tips.get(0).getEvent().getGeneration();
+                    if (!shadowGraph
+                            .findByGeneration(tipGeneration, tipGeneration + 1, e -> true)
+                            .contains(tips.get(0).getEvent())) {
+                        failure.set("A tip could not be found by its generation");
+                    }
+                }
+            });
+            readers.add(reader);
+            reader.start();
+        }
+
+        for (int i = 0; i < 1000; i++) {
+            final IndexedEvent newTip = emitter.emitEvent();
+            assertDoesNotThrow(() -> shadowGraph.addEvent(newTip), "The new tip should be added to the shadow graph.");
+        }
+        done.set(true);
+        for (final Thread reader : readers) {
+            reader.join();
+        }
+
+        assertNull(failure.get(), "Concurrent queries observed an inconsistent shadow graph");
+    }
+
     @Test
     void testHashgraphEventWithNullHash() {
         initShadowGraph(RandomUtils.getRandomPrintSeed(), 100, 4);
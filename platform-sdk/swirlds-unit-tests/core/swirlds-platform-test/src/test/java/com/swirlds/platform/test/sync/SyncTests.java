@@ -26,6 +26,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.Mockito.when;
 
+import com.swirlds.base.utility.Pair;
 import com.swirlds.common.constructable.ConstructableRegistry;
 import com.swirlds.common.constructable.ConstructableRegistryException;
 import com.swirlds.common.system.NodeId;
@@ -38,6 +39,7 @@ import com.swirlds.platform.consensus.GraphGenerations;
 import com.swirlds.platform.event.EventConstants;
 import com.swirlds.platform.gossip.shadowgraph.ShadowEvent;
 import com.swirlds.platform.internal.EventImpl;
+import com.swirlds.platform.network.Connection;
 import com.swirlds.platform.test.event.emitter.EventEmitterFactory;
 import com.swirlds.platform.test.event.emitter.StandardEventEmitter;
 import com.swirlds.platform.test.event.source.EventSourceFactory;
@@ -271,6 +273,34 @@ public class SyncTests {
         SyncValidator.assertStreamsEmpty(executor.getCaller(), executor.getListener());
     }
 
+    /**
+     * Tests syncing with the compressed sync format, including graphs large enough to send multiple blocks of events
+     */
+    @ParameterizedTest
+    @MethodSource({"fourNodeGraphParams", "tenNodeBigGraphParams"})
+    void compressedSync(final SyncTestParams params) throws Exception {
+        final SyncTestExecutor executor = new SyncTestExecutor(params);
+
+        executor.setConnectionFactory((nodeA, nodeB) -> {
+            final Pair<Connection, Connection> connections = ConnectionFactory.createLocalConnections(nodeA, nodeB);
+            for (final Connection connection : List.of(connections.left(), connections.right())) {
+                connection.getDos().setCompressed(true);
+                connection.getDis().setCompressed(true);
+            }
+            return connections;
+        });
+
+        executor.setGraphCustomization((caller, listener) -> {
+            caller.setSaveGeneratedEvents(true);
+            listener.setSaveGeneratedEvents(true);
+        });
+
+        executor.execute();
+
+        SyncValidator.assertOnlyRequiredEventsTransferred(executor.getCaller(), executor.getListener());
+        SyncValidator.assertStreamsEmpty(executor.getCaller(), executor.getListener());
+    }
+
     /**
      * Tests syncing graphs with forking event sources.
      */
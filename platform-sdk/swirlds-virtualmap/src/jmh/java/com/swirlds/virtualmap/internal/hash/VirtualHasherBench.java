@@ -0,0 +1,207 @@
+/*
+ * Copyright (C) 2023 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.virtualmap.internal.hash; // NOSONAR: Needed to benchmark internal classes
+
+import com.swirlds.common.crypto.DigestType;
+import com.swirlds.common.crypto.Hash;
+import com.swirlds.common.io.streams.SerializableDataInputStream;
+import com.swirlds.common.io.streams.SerializableDataOutputStream;
+import com.swirlds.virtualmap.VirtualLongKey;
+import com.swirlds.virtualmap.VirtualValue;
+import com.swirlds.virtualmap.datasource.VirtualLeafRecord;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares hashing of dirty leaves with ranks hashed on a cached thread pool (the default) and on a
+ * fork-join pool. Every invocation hashes a single round with {@link #numDirtyLeaves} random dirty
+ * leaves in a tree of {@link #numLeaves} leaves. Hashes of clean nodes are served from memory, so
+ * the benchmark only measures hashing itself.
+ */
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = {"-Xmx8g"})
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class VirtualHasherBench {
+
+    private static final Hash CLEAN_HASH = new Hash(DigestType.SHA_384);
+
+    @Param({"10000000"})
+    public long numLeaves;
+
+    @Param({"1000000"})
+    public int numDirtyLeaves;
+
+    @Param({"false", "true"})
+    public boolean forkJoinHashing;
+
+    private VirtualHasher<BenchKey, BenchValue> hasher;
+
+    private long firstLeafPath;
+
+    private long lastLeafPath;
+
+    private List<VirtualLeafRecord<BenchKey, BenchValue>> dirtyLeaves;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        hasher = new VirtualHasher<>(forkJoinHashing);
+        firstLeafPath = numLeaves - 1;
+        lastLeafPath = numLeaves * 2 - 2;
+        // Dirty leaves must be in ascending path order
+        final Random random = new Random(1234);
+        final double dirtyRatio = (double) numDirtyLeaves / numLeaves;
+        dirtyLeaves = new ArrayList<>(numDirtyLeaves);
+        for (long path = firstLeafPath; path <= lastLeafPath; path++) {
+            if (random.nextDouble() < dirtyRatio) {
+                dirtyLeaves.add(new VirtualLeafRecord<>(path, new BenchKey(path), new BenchValue(path)));
+            }
+        }
+    }
+
+    @Benchmark
+    public Hash hashRound() {
+        return hasher.hash(path -> CLEAN_HASH, dirtyLeaves.iterator(), firstLeafPath, lastLeafPath);
+    }
+
+    public static final class BenchKey implements VirtualLongKey {
+        private static final long CLASS_ID = 0x3a1c2b6e9d0f4857L;
+
+        private long key;
+
+        public BenchKey() {}
+
+        public BenchKey(final long key) {
+            this.key = key;
+        }
+
+        @Override
+        public long getKeyAsLong() {
+            return key;
+        }
+
+        @Override
+        public long getClassId() {
+            return CLASS_ID;
+        }
+
+        @Override
+        public int getVersion() {
+            return 1;
+        }
+
+        @Override
+        public void serialize(final ByteBuffer buffer) {
+            buffer.putLong(key);
+        }
+
+        @Override
+        public void deserialize(final ByteBuffer buffer, final int version) {
+            key = buffer.getLong();
+        }
+
+        @Override
+        public void serialize(final SerializableDataOutputStream out) throws IOException {
+            out.writeLong(key);
+        }
+
+        @Override
+        public void deserialize(final SerializableDataInputStream in, final int version) throws IOException {
+            key = in.readLong();
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(key);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            return (o instanceof BenchKey other) && (key == other.key);
+        }
+    }
+
+    public static final class BenchValue implements VirtualValue {
+        private static final long CLASS_ID = 0x6e04d1f7a25b93c8L;
+
+        private long value;
+
+        public BenchValue() {}
+
+        public BenchValue(final long value) {
+            this.value = value;
+        }
+
+        @Override
+        public BenchValue copy() {
+            return new BenchValue(value);
+        }
+
+        @Override
+        public BenchValue asReadOnly() {
+            return this;
+        }
+
+        @Override
+        public long getClassId() {
+            return CLASS_ID;
+        }
+
+        @Override
+        public int getVersion() {
+            return 1;
+        }
+
+        @Override
+        public void serialize(final ByteBuffer buffer) {
+            buffer.putLong(value);
+        }
+
+        @Override
+        public void deserialize(final ByteBuffer buffer, final int version) {
+            value = buffer.getLong();
+        }
+
+        @Override
+        public void serialize(final SerializableDataOutputStream out) throws IOException {
+            out.writeLong(value);
+        }
+
+        @Override
+        public void deserialize(final SerializableDataInputStream in, final int version) throws IOException {
+            value = in.readLong();
+        }
+    }
+}
@@ -23,6 +23,7 @@ import com.swirlds.common.io.ExternalSelfSerializable;
 import com.swirlds.common.io.streams.MerkleDataInputStream;
 import com.swirlds.common.io.streams.SerializableDataInputStream;
 import com.swirlds.common.io.streams.SerializableDataOutputStream;
+import com.swirlds.common.io.utility.IORunnable;
 import com.swirlds.common.merkle.MerkleInternal;
 import com.swirlds.common.merkle.MerkleNode;
 import com.swirlds.common.merkle.impl.PartialBinaryMerkleInternal;
@@ -42,8 +43,10 @@ import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * A {@link MerkleInternal} node that virtualizes all of its children, such that the child nodes
@@ -331,6 +334,18 @@ public final class VirtualMap<K extends VirtualKey, V extends VirtualValue> exte
     @Override
     public void deserialize(final SerializableDataInputStream in, final Path inputDirectory, final int version)
             throws IOException {
+        deserializeDeferred(in, inputDirectory, version).run();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Only the name of the .vmap file is stored in the stream. The returned task reads the file and restores the data
+     * source, which is where almost all the time is spent.
+     */
+    @Override
+    public IORunnable deserializeDeferred(
+            final SerializableDataInputStream in, final Path inputDirectory, final int version) throws IOException {
 
         if (version == ClassVersion.ORIGINAL) {
             // Read and discard the hash that is in the stream at this position
@@ -340,10 +355,12 @@ public final class VirtualMap<K extends VirtualKey, V extends VirtualValue> exte
         final int fileNameLengthInBytes = in.readInt();
         final String inputFileName = in.readNormalisedString(fileNameLengthInBytes);
         final Path inputFile = inputDirectory.resolve(inputFileName);
-        loadFromFile(inputFile);
-        if (version < ClassVersion.REHASH_LEAVES) {
-            root.fullLeafRehashIfNecessary();
-        }
+        return () -> {
+            loadFromFile(inputFile);
+            if (version < ClassVersion.REHASH_LEAVES) {
+                root.fullLeafRehashIfNecessary();
+            }
+        };
     }
 
     /**
@@ -508,4 +525,15 @@ public final class VirtualMap<K extends VirtualKey, V extends VirtualValue> exte
     public void warm(final K key) {
         root.warm(key);
     }
+
+    /**
+     * Warms multiple keys at once, see {@link #warm(VirtualKey)}. Unlike warming keys one by one, the keys
+     * are passed to the data source as a single batch, which lets it load leaf records in background
+     * threads and in the order of their locations on disk.
+     *  @param keys keys of the leaves to warm
+     *  @return a future, which is completed when all leaves are warmed
+     */
+    public CompletableFuture<Void> warmAll(final Collection<K> keys) {
+        return root.warmAll(keys);
+    }
 }
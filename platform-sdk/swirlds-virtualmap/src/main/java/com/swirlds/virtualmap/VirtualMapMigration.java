@@ -26,8 +26,13 @@ import com.swirlds.virtualmap.internal.RecordAccessor;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
 
 /**
  * A utility for migrating data within a virtual map from one format to another.
@@ -195,4 +200,81 @@ public final class VirtualMapMigration {
             throw new InterruptedException(throwable.get().toString());
         }
     }
+
+    /**
+     * Split the leaves of a virtual map into contiguous path ranges and pass all key-value pairs of each range to a
+     * result object created for that range. The ranges are processed in parallel by the given pool. Unlike
+     * {@link #extractVirtualMapDataC(ThreadManager, VirtualMap, InterruptableConsumer, int)}, each task reads leaves
+     * with consecutive paths, and the handler doesn't need to be thread safe as long as it only modifies the result
+     * object of its own range.
+     *
+     * @param pool
+     * 		the pool that processes the ranges
+     * @param source
+     * 		a virtual map to read from, will not be modified by this method
+     * @param resultSupplier
+     * 		creates the result object of a range
+     * @param handler
+     * 		adds a key-value pair to the result object of its range
+     * @param rangeCount
+     * 		the number of ranges to split the leaves into, fewer ranges are used if the map has fewer leaves
+     * @param <K>
+     * 		the type of the key
+     * @param <V>
+     * 		the type of the value
+     * @param <R>
+     * 		the type of the result of a range
+     * @return the results of all ranges, in path order
+     * @throws RuntimeException
+     * 		the exception thrown by a failed range, once all other ranges have stopped
+     */
+    public static <K extends VirtualKey, V extends VirtualValue, R> List<R> extractVirtualMapDataInRanges(
+            final ForkJoinPool pool,
+            final VirtualMap<K, V> source,
+            final Supplier<R> resultSupplier,
+            final BiConsumer<R, Pair<K, V>> handler,
+            final int rangeCount) {
+
+        final long firstLeafPath = source.getState().getFirstLeafPath();
+        final long lastLeafPath = source.getState().getLastLeafPath();
+        if (firstLeafPath == Path.INVALID_PATH || lastLeafPath == Path.INVALID_PATH) {
+            return List.of();
+        }
+
+        final RecordAccessor<K, V> recordAccessor = source.getRoot().getRecords();
+
+        final long leafCount = lastLeafPath - firstLeafPath + 1;
+        final int ranges = (int) Math.max(1, Math.min(rangeCount, leafCount));
+        // set when a range fails, so the other ranges stop early instead of reading leaves for results that are dropped
+        final AtomicBoolean failed = new AtomicBoolean(false);
+        final List<ForkJoinTask<R>> tasks = new ArrayList<>(ranges);
+        for (int rangeIndex = 0; rangeIndex < ranges; rangeIndex++) {
+            final long fromPath = firstLeafPath + leafCount * rangeIndex / ranges;
+            final long toPath = firstLeafPath + leafCount * (rangeIndex + 1) / ranges;
+            tasks.add(pool.submit(() -> {
+                try {
+                    final R result = resultSupplier.get();
+                    for (long path = fromPath; path < toPath && !failed.get(); path++) {
+                        final VirtualLeafRecord<K, V> leafRecord = recordAccessor.findLeafRecord(path, false);
+                        handler.accept(result, Pair.of(leafRecord.getKey(), leafRecord.getValue()));
+                    }
+                    return result;
+                } catch (final RuntimeException | Error e) {
+                    failed.set(true);
+                    throw e;
+                }
+            }));
+        }
+
+        // Wait for all ranges before rethrowing a failure, so no task still reads the map once this method returns.
+        // Cancelling the tasks instead would not wait for the ones already running
+        for (final ForkJoinTask<R> task : tasks) {
+            task.quietlyJoin();
+        }
+        final List<R> results = new ArrayList<>(ranges);
+        for (final ForkJoinTask<R> task : tasks) {
+            results.add(task.join());
+        }
+        return results;
+    }
 }
@@ -76,6 +76,18 @@ import java.time.Duration;
  * 		increase the amount of time required to make a fast copy by this amount of time.
  * @param maximumFlushThrottlePeriod
  * 		The maximum amount of time that any virtual map fast copy will be delayed due to a flush backlog.
+ * @param forkJoinHashing
+ * 		If true, virtual map ranks are hashed on a shared fork-join pool, where idle hashing threads steal work
+ * 		from busy ones. Otherwise, every rank is hashed by a fixed set of threads from a cached thread pool.
+ * @param reconnectTeacherWindow
+ * 		The maximum number of node hashes a virtual map teacher sends to the learner before it waits for the
+ * 		learner's responses. When a teacher is about to send a node that the learner has not responded about yet,
+ * 		it also waits up to {@code reconnect.maxAckDelay} for the response, so it doesn't send data the learner
+ * 		already has. If 0, the teacher never waits for responses.
+ * @param reconnectLeafBatchSize
+ * 		How many paths ahead of the leaf being sent a virtual map teacher reads leaves from its data source during
+ * 		reconnect. Only leaves the learner has responded it doesn't have are read ahead, and only if
+ * 		{@code reconnectTeacherWindow} is not 0.
  */
 @ConfigData("virtualMap")
 public record VirtualMapConfig(
@@ -95,7 +107,10 @@ public record VirtualMapConfig(
         @ConfigProperty(defaultValue = "2000000000") long familyThrottleThreshold,
         @ConfigProperty(defaultValue = "10000") int preferredFlushQueueSize,
         @ConfigProperty(defaultValue = "200ms") Duration flushThrottleStepSize,
-        @ConfigProperty(defaultValue = "5s") Duration maximumFlushThrottlePeriod) {
+        @ConfigProperty(defaultValue = "5s") Duration maximumFlushThrottlePeriod,
+        @ConfigProperty(defaultValue = "false") boolean forkJoinHashing,
+        @Min(0) @ConfigProperty(defaultValue = "0") int reconnectTeacherWindow,
+        @Min(1) @ConfigProperty(defaultValue = "64") int reconnectLeafBatchSize) {
     private static final double UNIT_FRACTION_PERCENT = 100.0;
 
     public ConfigViolation virtualMapWarningIntervalValidation(final Configuration configuration) {
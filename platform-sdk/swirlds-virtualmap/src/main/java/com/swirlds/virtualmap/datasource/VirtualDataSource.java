@@ -22,6 +22,8 @@ import com.swirlds.virtualmap.VirtualKey;
 import com.swirlds.virtualmap.VirtualValue;
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Stream;
 
 /**
@@ -108,6 +110,26 @@ public interface VirtualDataSource<K extends VirtualKey, V extends VirtualValue>
      */
     VirtualLeafRecord<K, V> loadLeafRecord(final long path) throws IOException;
 
+    /**
+     * Load leaf records for the given keys, so subsequent {@link #loadLeafRecord(VirtualKey)} calls for
+     * these keys are faster. Implementations may load records asynchronously, in any order, and use any
+     * lower level caches. The default implementation loads records one by one on the calling thread.
+     *
+     * @param keys
+     * 		the keys of leaves to load
+     * @return a future, which is completed when all leaf records are loaded
+     */
+    default CompletableFuture<Void> warmLeafRecords(final Collection<K> keys) {
+        try {
+            for (final K key : keys) {
+                loadLeafRecord(key);
+            }
+            return CompletableFuture.completedFuture(null);
+        } catch (final IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
     /**
      * Find the path of the given key
      * @param key
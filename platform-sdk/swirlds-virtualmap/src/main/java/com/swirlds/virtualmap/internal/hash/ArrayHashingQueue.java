@@ -69,7 +69,11 @@ final class ArrayHashingQueue<K extends VirtualKey, V extends VirtualValue> impl
 
     @Override
     public HashJob<K, V> addHashJob(int index) {
-        size.updateAndGet(s -> s <= index ? (index + 1) : s);
+        // A CAS loop rather than updateAndGet(), which would allocate a lambda per hash job
+        int s = size.get();
+        while (s <= index && !size.compareAndSet(s, index + 1)) {
+            s = size.get();
+        }
         return getForModify(index);
     }
 
@@ -0,0 +1,241 @@
+/*
+ * Copyright (C) 2023 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.virtualmap.internal.hash;
+
+import static com.swirlds.virtualmap.internal.Path.getSiblingPath;
+
+import com.swirlds.common.crypto.Hash;
+import com.swirlds.common.crypto.HashBuilder;
+import com.swirlds.virtualmap.VirtualKey;
+import com.swirlds.virtualmap.VirtualValue;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.LongFunction;
+
+/**
+ * Hashes ranks of virtual sub-trees on a {@link ForkJoinPool}. This is an alternative to hashing every
+ * rank with a fixed set of threads, each of which walks over the whole work queue and picks every N-th
+ * unit (see {@link VirtualHasher}). Here the work queue is scanned once to find unit boundaries, then
+ * units are split into contiguous chunks, which are forked to the pool. Idle workers steal chunks from
+ * busy ones, so a rank is complete as soon as all its work is done, no matter how it was initially
+ * distributed between threads.
+ * <p>
+ * Nothing is allocated per node or per rank in steady state. Unit boundaries are kept in an array,
+ * which is only grown when needed, and fork-join tasks are reinitialized and reused for every rank.
+ * Hash builders are pooled in a thread local, so every worker thread reuses its own builder.
+ * <p>
+ * This class is not thread safe. It hashes one rank at a time, with the same ASSUMPTION as for
+ * {@link VirtualHasher} queues, that only a single copy of a virtual map is being hashed at a time.
+ *
+ * @param <K>
+ * 		The key type
+ * @param <V>
+ * 		The value type
+ */
+final class ForkJoinRankHasher<K extends VirtualKey, V extends VirtualValue> {
+
+    /**
+     * Max number of chunks per pool thread. The more chunks there are, the more opportunities idle
+     * threads have to steal work.
+     */
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    /**
+     * Min number of units in a chunk. Smaller chunks aren't worth the overhead of a fork-join task.
+     */
+    private static final int MIN_UNITS_PER_CHUNK = 32;
+
+    private final ForkJoinPool pool;
+
+    private final ThreadLocal<HashBuilder> hashBuilders;
+
+    private final RankTask rankTask = new RankTask();
+
+    private final List<ChunkTask> chunkTasks = new ArrayList<>();
+
+    /**
+     * Work queue indices of the first hash job of every unit, followed by the work queue size. A unit
+     * spans from its start index (inclusive) to the next unit start index (exclusive).
+     */
+    private int[] unitStarts = new int[0];
+
+    // The rank being hashed. These fields are set before the rank task is invoked, and cleared after
+    private LongFunction<Hash> hashReader;
+    private HashingQueue<K, V> workQueue;
+    private HashingQueue<K, V> pendingQueue;
+    private int pendingQueueOffset;
+    private long firstLeafPath;
+    private long lastLeafPath;
+    private int chunkCount;
+
+    /**
+     * Create a new {@link ForkJoinRankHasher}.
+     *
+     * @param pool
+     * 		The pool to run hashing tasks on. Cannot be null.
+     * @param hashBuilders
+     * 		Per-thread hash builders. Cannot be null.
+     */
+    ForkJoinRankHasher(final ForkJoinPool pool, final ThreadLocal<HashBuilder> hashBuilders) {
+        this.pool = pool;
+        this.hashBuilders = hashBuilders;
+    }
+
+    /**
+     * Hashes all units in the work queue, and adds a hash job for the parent of every unit to the pending
+     * queue. This method returns when the whole rank is hashed.
+     *
+     * @param hashReader
+     * 		Return a {@link Hash} by path. Used to look up hashes of clean siblings.
+     * @param workQueue
+     * 		The work queue with jobs in the rank, in ascending path order. Cannot be null.
+     * @param pendingQueue
+     * 		The pending queue for parent jobs. Cannot be null.
+     * @param pendingQueueOffset
+     * 		The index in the pending queue for the parent job of the first unit
+     * @param firstLeafPath
+     * 		The firstLeafPath.
+     * @param lastLeafPath
+     * 		The lastLeafPath.
+     * @throws RuntimeException
+     * 		If hashing of any unit in the rank failed
+     */
+    void hashRank(
+            final LongFunction<Hash> hashReader,
+            final HashingQueue<K, V> workQueue,
+            final HashingQueue<K, V> pendingQueue,
+            final int pendingQueueOffset,
+            final long firstLeafPath,
+            final long lastLeafPath) {
+        final int unitCount = findUnits(workQueue);
+        if (unitCount == 0) {
+            return;
+        }
+        this.hashReader = hashReader;
+        this.workQueue = workQueue;
+        this.pendingQueue = pendingQueue;
+        this.pendingQueueOffset = pendingQueueOffset;
+        this.firstLeafPath = firstLeafPath;
+        this.lastLeafPath = lastLeafPath;
+        chunkCount = Math.max(1, Math.min(pool.getParallelism() * CHUNKS_PER_THREAD, unitCount / MIN_UNITS_PER_CHUNK));
+        while (chunkTasks.size() < chunkCount) {
+            chunkTasks.add(new ChunkTask());
+        }
+        for (int i = 0; i < chunkCount; i++) {
+            final ChunkTask chunk = chunkTasks.get(i);
+            chunk.reinitialize();
+            chunk.firstUnit = (int) ((long) unitCount * i / chunkCount);
+            chunk.lastUnit = (int) ((long) unitCount * (i + 1) / chunkCount);
+        }
+        rankTask.reinitialize();
+        try {
+            pool.invoke(rankTask);
+        } finally {
+            // Don't hold the hash reader and the queues until the next rank
+            this.hashReader = null;
+            this.workQueue = null;
+            this.pendingQueue = null;
+        }
+    }
+
+    /**
+     * Finds all units in the given queue and stores their start indices to {@link #unitStarts}.
+     *
+     * @param queue
+     * 		The work queue, in ascending path order
+     * @return the number of units in the queue
+     */
+    private int findUnits(final HashingQueue<K, V> queue) {
+        final int size = queue.size();
+        if (unitStarts.length < size + 1) {
+            unitStarts = new int[size + 1];
+        }
+        int unitCount = 0;
+        for (int j = 0; j < size; j++) {
+            unitStarts[unitCount++] = j;
+            // If the next job is for the sibling of this job, they are both in the same unit
+            if ((j < size - 1) && (queue.get(j + 1).getPath() == getSiblingPath(queue.get(j).getPath()))) {
+                j++;
+            }
+        }
+        unitStarts[unitCount] = size;
+        return unitCount;
+    }
+
+    /**
+     * The root task for a rank. It forks all chunk tasks but the first one, runs the first chunk in the
+     * current thread, and then joins all other chunks, unless they have already been stolen and completed
+     * by other threads.
+     */
+    private final class RankTask extends RecursiveAction {
+        @Override
+        protected void compute() {
+            // Fork in reverse order, so this thread picks chunks from the start of the rank, while
+            // other threads steal chunks from the end
+            for (int i = chunkCount - 1; i > 0; i--) {
+                chunkTasks.get(i).fork();
+            }
+            chunkTasks.get(0).quietlyInvoke();
+            for (int i = 1; i < chunkCount; i++) {
+                chunkTasks.get(i).quietlyJoin();
+            }
+            // All chunks must be complete before the exception (if any) is rethrown, otherwise some
+            // chunks could still be running when the tasks are reused for the next rank
+            for (int i = 0; i < chunkCount; i++) {
+                final ChunkTask chunk = chunkTasks.get(i);
+                if (chunk.isCompletedAbnormally()) {
+                    final Throwable exception = chunk.getException();
+                    if (exception instanceof Error error) {
+                        throw error;
+                    }
+                    throw (RuntimeException) exception;
+                }
+            }
+        }
+    }
+
+    /**
+     * Hashes a contiguous range of units in the rank.
+     */
+    private final class ChunkTask extends RecursiveAction {
+        // The first unit in the chunk, inclusive
+        private int firstUnit;
+        // The last unit in the chunk, exclusive
+        private int lastUnit;
+
+        @Override
+        protected void compute() {
+            final HashBuilder hashBuilder = hashBuilders.get();
+            for (int unit = firstUnit; unit < lastUnit; unit++) {
+                final int start = unitStarts[unit];
+                final HashJob<K, V> hashJob = workQueue.get(start);
+                final HashJob<K, V> siblingJob = (unitStarts[unit + 1] - start > 1) ? workQueue.get(start + 1) : null;
+                VirtualHasher.hashUnit(
+                        hashBuilder,
+                        hashReader,
+                        hashJob,
+                        siblingJob,
+                        pendingQueue,
+                        pendingQueueOffset + unit,
+                        firstLeafPath,
+                        lastLeafPath);
+            }
+        }
+    }
+}
@@ -43,6 +43,8 @@ import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.LongFunction;
 import org.apache.logging.log4j.LogManager;
@@ -92,6 +94,22 @@ public final class VirtualHasher<K extends VirtualKey, V extends VirtualValue> {
                             (t, ex) -> logger.error(EXCEPTION.getMarker(), "Uncaught exception during hashing", ex))
                     .buildFactory());
 
+    /**
+     * A fork-join pool for hashing work, used instead of {@link #HASHING_POOL} when fork-join hashing is
+     * enabled (see {@link VirtualMapConfig#forkJoinHashing()}). Like the cached pool, it is shared across
+     * all {@link VirtualMap} instances, but its number of threads is fixed to {@link #HASHING_THREAD_COUNT}.
+     * Worker threads are started on demand.
+     */
+    private static final ForkJoinPool HASHING_FORK_JOIN_POOL = new ForkJoinPool(
+            HASHING_THREAD_COUNT,
+            pool -> {
+                final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                thread.setName("<virtual-map: fork-join-hasher #" + thread.getPoolIndex() + ">");
+                return thread;
+            },
+            (t, ex) -> logger.error(EXCEPTION.getMarker(), "Uncaught exception during hashing", ex),
+            false);
+
     /**
      * This thread-local gets a HashBuilder that can be used for hashing on a per-thread basis.
      */
@@ -150,11 +168,31 @@ public final class VirtualHasher<K extends VirtualKey, V extends VirtualValue> {
      */
     private final AtomicBoolean shutdown = new AtomicBoolean(false);
 
+    /**
+     * Hashes ranks on {@link #HASHING_FORK_JOIN_POOL}. If null, ranks are hashed on {@link #HASHING_POOL}.
+     */
+    private final ForkJoinRankHasher<K, V> rankHasher;
+
     /**
      * Create a new {@link VirtualHasher}. There should be one {@link VirtualHasher} shared across all copies
-     * of a {@link VirtualMap} "family".
+     * of a {@link VirtualMap} "family". Whether ranks are hashed on a fork-join pool is controlled by
+     * {@link VirtualMapConfig#forkJoinHashing()}.
      */
     public VirtualHasher() {
+        this(config.forkJoinHashing());
+    }
+
+    /**
+     * Create a new {@link VirtualHasher}. There should be one {@link VirtualHasher} shared across all copies
+     * of a {@link VirtualMap} "family".
+     *
+     * @param forkJoinHashing
+     * 		If true, ranks are hashed on a shared fork-join pool with work stealing. Otherwise, every rank
+     * 		is hashed by a set of threads from a shared cached thread pool.
+     */
+    public VirtualHasher(final boolean forkJoinHashing) {
+        this.rankHasher =
+                forkJoinHashing ? new ForkJoinRankHasher<>(HASHING_FORK_JOIN_POOL, HASH_BUILDER_THREAD_LOCAL) : null;
         // These queues are used for the "workingQueue" (wq), "pendingQueue" (pq), "stopQueue" (sq),
         // and "lastQueue" (lq). Which queue is which changes during execution.
         this.queue1 = new ArrayHashingQueue<>();
@@ -559,9 +597,6 @@ public final class VirtualHasher<K extends VirtualKey, V extends VirtualValue> {
             return;
         }
 
-        // Used to hold exceptions thrown by the hashing threads.
-        final Queue<Throwable> exceptions = new ConcurrentLinkedDeque<>();
-
         // For each rank, start threads to process the work within those threads. When the threads
         // complete, swap queues and run the next rank. Continue this until we get all the way to the end.
         // The reason we grab and use a bunch of threads for each rank and then let them complete is so that
@@ -574,142 +609,20 @@ public final class VirtualHasher<K extends VirtualKey, V extends VirtualValue> {
             final HashingQueue<K, V> workQueue = wq;
             final HashingQueue<K, V> pendingQueue = rank == stopRank + 1 ? sq : pq;
 
-            // Compute the number of threads to use. For ranks with lots and lots of potential work,
-            // we use HASHING_THREAD_COUNT. For ranks where there are always few potential jobs,
-            // we don't need as many threads, so we might as well leave them available for other
-            // virtual maps to use. Of course, use wq.size() instead if it is smallest.
-            final int threadCount = Math.min(workQueue.size(), Math.min(HASHING_THREAD_COUNT, 1 << (rank - stopRank)));
-
             final boolean hasLastQueue = (lq != null && lq.size() > 0);
             assert workQueue.size() > 0 || hasLastQueue : "Work queue is empty for rank " + rank;
-            assert threadCount > 0 || hasLastQueue
-                    : "Thread count is zero for rank " + rank + ", max hashing threads configured to be "
-                            + HASHING_THREAD_COUNT;
 
-            // This latch is used to cause this thread to wait until all hashing threads complete their work.
-            final CountDownLatch latch = new CountDownLatch(threadCount);
+            // Hash all units in the rank, and place the results into the pending queue. Each unit from the
+            // work queue produces a single job in the pending queue, at the unit index + the offset.
             final int offset = pendingQueue == sq ? sq.size() : 0;
-            final int workQueueSize = workQueue.size();
-            // Spawn each hashing thread
-            for (int i = 0; i < threadCount; i++) {
-                final int threadNum = i;
-                HASHING_POOL.execute(() -> {
-                    final HashBuilder hashBuilder = HASH_BUILDER_THREAD_LOCAL.get();
-                    try {
-                        // Each thread iterates over all "units". A unit is either a single job or two jobs if
-                        // they are siblings.
-                        for (int j = 0, unitIndex = 0; j < workQueueSize; j++, unitIndex++) {
-                            // Get the hash job (which is always part of the unit) and the nextJob which *may* be
-                            // part of the unit.
-                            final HashJob<K, V> hashJob = workQueue.get(j);
-                            final HashJob<K, V> nextJob = j < workQueueSize - 1 ? workQueue.get(j + 1) : null;
-                            final long nodePath = hashJob.getPath();
-
-                            // We never process the root node in background threads.
-                            assert nodePath != ROOT_PATH && getRank(nodePath) != stopRank;
-                            assert nodePath != INVALID_PATH;
-
-                            // Get the sibling path. This path is also never ROOT or INVALID,
-                            // because it is always for rank (stopRank + 1) or greater.
-                            final long siblingPath = getSiblingPath(nodePath);
-                            assert siblingPath != ROOT_PATH && getRank(nodePath) != stopRank;
-                            assert siblingPath != INVALID_PATH;
-
-                            // If both is true, then both are part of the unit. If they are part of the
-                            // same unit, then we will increment "j" so that we skip it on the next
-                            // iteration.
-                            final boolean both = nextJob != null && nextJob.getPath() == siblingPath;
-                            if (both) {
-                                j++;
-                            }
-
-                            // Now see whether this thread should be handling this unit. If not, then we simply
-                            // fall out of this if statement and check the next unit.
-                            if (unitIndex % threadCount == threadNum) {
-                                // Hash the first node
-                                hashJob.hash(hashBuilder);
-
-                                // We now need to figure out who the parent is. If the parent is not
-                                // in the cache or on disk, then it means we've never seen this parent
-                                // before (which can happen, for example, when the tree is expanding).
-                                // In that case, we create a new internal node. When it is hashed,
-                                // it will end up being saved in the cache.
-                                final long parentPath = getParentPath(nodePath);
-
-                                // We place the hash job that we create for the parent into the pending
-                                // queue at this location. Since multiple threads are running concurrently,
-                                // they all need to know where in the pendingQueue to place their results.
-                                // It turns out this is trivial, since we know each unit from the work queue
-                                // is in order, we also know each unit placed into the pendingQueue will be
-                                // in order. So we use the unit index + the offset.
-                                final int pendingQueueIndex = offset + unitIndex;
-
-                                if (both) {
-                                    // If we have both siblings, then we can hash the sibling and place both
-                                    // hashes for both siblings into the HashJob for the internal node and
-                                    // add it to the pendingQueue.
-                                    nextJob.hash(hashBuilder);
-                                    pendingQueue
-                                            .addHashJob(pendingQueueIndex)
-                                            .dirtyInternal(parentPath, hashJob.getHash(), nextJob.getHash());
-                                } else if (nodePath == firstLeafPath && nodePath == lastLeafPath) {
-                                    // There is only one leaf, and hashJob is it! There is no sibling
-                                    pendingQueue
-                                            .addHashJob(pendingQueueIndex)
-                                            .dirtyInternal(parentPath, hashJob.getHash(), null);
-                                } else {
-                                    // I know the hash MUST exist, because either it was dirty in a previous
-                                    // round and is stored in the cache, or it was written to disk. Otherwise, if
-                                    // it were dirty this round, it would have been in the work queue and part
-                                    // of this unit.
-                                    final Hash siblingHash = hashReader.apply(siblingPath);
-                                    if (siblingHash == null) {
-                                        throw new IllegalStateException("Failed to find a hash for " + siblingPath
-                                                + ", which is a sibling of " + nodePath);
-                                    }
-                                    final Hash leftHash = nodePath < siblingPath ? hashJob.getHash() : siblingHash;
-                                    final Hash rightHash = nodePath < siblingPath ? siblingHash : hashJob.getHash();
-                                    pendingQueue
-                                            .addHashJob(pendingQueueIndex)
-                                            .dirtyInternal(parentPath, leftHash, rightHash);
-                                }
-                            }
-                        }
-                    } catch (final Throwable exception) {
-                        exceptions.add(exception);
-                    } finally {
-                        // The thread has finished iterating over the work queue, so we must count down
-                        // at this latch. This is in the "finally" block so that we DO NOT under any
-                        // circumstance fail to do this, otherwise we'll hang the system.
-                        latch.countDown();
-                    }
-                });
-            }
-
-            // This thread must wait for all hashing threads to finish before we swap the pending and work
-            // queues and start hashing the next rank.
-            try {
-                latch.await();
-            } catch (final InterruptedException ex) {
-                if (!shutdown.get()) {
-                    logger.error(EXCEPTION.getMarker(), "Failed to wait for all hashing threads", ex);
-                }
-                Thread.currentThread().interrupt();
-            }
-
-            // If there were exceptions in on any of the threads then we need to rethrow them.
-            if (!exceptions.isEmpty()) {
-                if (shutdown.get()) {
-                    // During a shutdown the rug is pulled out from underneath the hashing threads.
-                    // No need to log/throw anything in this condition.
-                    return;
-                }
-                final RuntimeException exception =
-                        new RuntimeException("exception encountered while hashing virtual tree", exceptions.remove());
-                for (final Throwable t : exceptions) {
-                    exception.addSuppressed(t);
-                }
-                throw exception;
+            final boolean hashed = (rankHasher != null)
+                    ? hashRankWithForkJoin(hashReader, workQueue, pendingQueue, offset, firstLeafPath, lastLeafPath)
+                    : hashRankWithThreads(
+                            hashReader, workQueue, pendingQueue, offset, firstLeafPath, lastLeafPath, rank, stopRank);
+            if (!hashed) {
+                // During a shutdown the rug is pulled out from underneath the hashing threads.
+                // No need to log/throw anything in this condition.
+                return;
             }
 
             final int pendingQueueSize = pendingQueue.size();
@@ -744,6 +657,242 @@ public final class VirtualHasher<K extends VirtualKey, V extends VirtualValue> {
         }
     }
 
+    /**
+     * Hashes all units in a single rank using {@link #HASHING_POOL} threads. Each thread walks over the
+     * whole work queue, and processes every N-th unit, where N is the number of threads.
+     *
+     * @param hashReader
+     * 		Return a {@link Hash} by path. Used when this method needs to look up clean nodes.
+     * @param workQueue
+     * 		The work queue with jobs in the rank. Cannot be null.
+     * @param pendingQueue
+     * 		The pending queue for parent jobs. Cannot be null.
+     * @param offset
+     * 		The index in the pending queue for the parent job of the first unit
+     * @param firstLeafPath
+     * 		The firstLeafPath.
+     * @param lastLeafPath
+     * 		The lastLeafPath.
+     * @param rank
+     * 		The rank to hash
+     * @param stopRank
+     * 		The stopRank.
+     * @return true if the rank is hashed, or false if hashing was aborted because of a shutdown
+     */
+    private boolean hashRankWithThreads(
+            final LongFunction<Hash> hashReader,
+            final HashingQueue<K, V> workQueue,
+            final HashingQueue<K, V> pendingQueue,
+            final int offset,
+            final long firstLeafPath,
+            final long lastLeafPath,
+            final int rank,
+            final int stopRank) {
+        // Compute the number of threads to use. For ranks with lots and lots of potential work,
+        // we use HASHING_THREAD_COUNT. For ranks where there are always few potential jobs,
+        // we don't need as many threads, so we might as well leave them available for other
+        // virtual maps to use. Of course, use wq.size() instead if it is smallest.
+        final int threadCount = Math.min(workQueue.size(), Math.min(HASHING_THREAD_COUNT, 1 << (rank - stopRank)));
+
+        // Used to hold exceptions thrown by the hashing threads.
+        final Queue<Throwable> exceptions = new ConcurrentLinkedDeque<>();
+
+        // This latch is used to cause this thread to wait until all hashing threads complete their work.
+        final CountDownLatch latch = new CountDownLatch(threadCount);
+        final int workQueueSize = workQueue.size();
+        // Spawn each hashing thread
+        for (int i = 0; i < threadCount; i++) {
+            final int threadNum = i;
+            HASHING_POOL.execute(() -> {
+                final HashBuilder hashBuilder = HASH_BUILDER_THREAD_LOCAL.get();
+                try {
+                    // Each thread iterates over all "units". A unit is either a single job or two jobs if
+                    // they are siblings.
+                    for (int j = 0, unitIndex = 0; j < workQueueSize; j++, unitIndex++) {
+                        // Get the hash job (which is always part of the unit) and the nextJob which *may* be
+                        // part of the unit.
+                        final HashJob<K, V> hashJob = workQueue.get(j);
+                        final HashJob<K, V> nextJob = j < workQueueSize - 1 ? workQueue.get(j + 1) : null;
+
+                        // If both is true, then both are part of the unit. If they are part of the
+                        // same unit, then we will increment "j" so that we skip it on the next
+                        // iteration.
+                        final boolean both = nextJob != null && nextJob.getPath() == getSiblingPath(hashJob.getPath());
+                        if (both) {
+                            j++;
+                        }
+
+                        // Now see whether this thread should be handling this unit. If not, then we simply
+                        // fall out of this if statement and check the next unit.
+                        if (unitIndex % threadCount == threadNum) {
+                            hashUnit(
+                                    hashBuilder,
+                                    hashReader,
+                                    hashJob,
+                                    both ? nextJob : null,
+                                    pendingQueue,
+                                    offset + unitIndex,
+                                    firstLeafPath,
+                                    lastLeafPath);
+                        }
+                    }
+                } catch (final Throwable exception) {
+                    exceptions.add(exception);
+                } finally {
+                    // The thread has finished iterating over the work queue, so we must count down
+                    // at this latch. This is in the "finally" block so that we DO NOT under any
+                    // circumstance fail to do this, otherwise we'll hang the system.
+                    latch.countDown();
+                }
+            });
+        }
+
+        // This thread must wait for all hashing threads to finish before we swap the pending and work
+        // queues and start hashing the next rank.
+        try {
+            latch.await();
+        } catch (final InterruptedException ex) {
+            if (!shutdown.get()) {
+                logger.error(EXCEPTION.getMarker(), "Failed to wait for all hashing threads", ex);
+            }
+            Thread.currentThread().interrupt();
+        }
+
+        // If there were exceptions in on any of the threads then we need to rethrow them.
+        if (!exceptions.isEmpty()) {
+            if (shutdown.get()) {
+                return false;
+            }
+            final RuntimeException exception =
+                    new RuntimeException("exception encountered while hashing virtual tree", exceptions.remove());
+            for (final Throwable t : exceptions) {
+                exception.addSuppressed(t);
+            }
+            throw exception;
+        }
+        return true;
+    }
+
+    /**
+     * Hashes all units in a single rank using {@link #HASHING_FORK_JOIN_POOL}, see {@link ForkJoinRankHasher}.
+     *
+     * @param hashReader
+     * 		Return a {@link Hash} by path. Used when this method needs to look up clean nodes.
+     * @param workQueue
+     * 		The work queue with jobs in the rank. Cannot be null.
+     * @param pendingQueue
+     * 		The pending queue for parent jobs. Cannot be null.
+     * @param offset
+     * 		The index in the pending queue for the parent job of the first unit
+     * @param firstLeafPath
+     * 		The firstLeafPath.
+     * @param lastLeafPath
+     * 		The lastLeafPath.
+     * @return true if the rank is hashed, or false if hashing was aborted because of a shutdown
+     */
+    private boolean hashRankWithForkJoin(
+            final LongFunction<Hash> hashReader,
+            final HashingQueue<K, V> workQueue,
+            final HashingQueue<K, V> pendingQueue,
+            final int offset,
+            final long firstLeafPath,
+            final long lastLeafPath) {
+        try {
+            rankHasher.hashRank(hashReader, workQueue, pendingQueue, offset, firstLeafPath, lastLeafPath);
+        } catch (final RuntimeException | Error exception) {
+            if (shutdown.get()) {
+                return false;
+            }
+            throw new RuntimeException("exception encountered while hashing virtual tree", exception);
+        }
+        return true;
+    }
+
+    /**
+     * Hashes a single unit, and places a hash job for the parent of the unit into the pending queue. A unit
+     * is either a dirty node with a clean sibling, or a dirty node and its dirty sibling.
+     *
+     * @param hashBuilder
+     * 		The hash builder to use. Cannot be null.
+     * @param hashReader
+     * 		Return a {@link Hash} by path. Used to look up the hash of a clean sibling.
+     * @param hashJob
+     * 		The first job in the unit. Cannot be null.
+     * @param siblingJob
+     * 		The second job in the unit, if the sibling is dirty, too. Otherwise, null.
+     * @param pendingQueue
+     * 		The pending queue. Cannot be null.
+     * @param pendingQueueIndex
+     * 		The index in the pending queue for the parent job
+     * @param firstLeafPath
+     * 		The firstLeafPath.
+     * @param lastLeafPath
+     * 		The lastLeafPath.
+     */
+    static <K extends VirtualKey, V extends VirtualValue> void hashUnit(
+            final HashBuilder hashBuilder,
+            final LongFunction<Hash> hashReader,
+            final HashJob<K, V> hashJob,
+            final HashJob<K, V> siblingJob,
+            final HashingQueue<K, V> pendingQueue,
+            final int pendingQueueIndex,
+            final long firstLeafPath,
+            final long lastLeafPath) {
+        final long nodePath = hashJob.getPath();
+
+        // We never process the root node in background threads.
+        assert nodePath != ROOT_PATH;
+        assert nodePath != INVALID_PATH;
+
+        // Get the sibling path. This path is also never ROOT or INVALID,
+        // because it is always for rank (stopRank + 1) or greater.
+        final long siblingPath = getSiblingPath(nodePath);
+        assert siblingPath != ROOT_PATH;
+        assert siblingPath != INVALID_PATH;
+
+        // Hash the first node
+        hashJob.hash(hashBuilder);
+
+        // We now need to figure out who the parent is. If the parent is not
+        // in the cache or on disk, then it means we've never seen this parent
+        // before (which can happen, for example, when the tree is expanding).
+        // In that case, we create a new internal node. When it is hashed,
+        // it will end up being saved in the cache.
+        final long parentPath = getParentPath(nodePath);
+
+        // We place the hash job that we create for the parent into the pending
+        // queue at the given location. Since multiple threads are running concurrently,
+        // they all need to know where in the pendingQueue to place their results.
+        // It turns out this is trivial, since we know each unit from the work queue
+        // is in order, we also know each unit placed into the pendingQueue will be
+        // in order. So callers use the unit index + the offset.
+        if (siblingJob != null) {
+            // If we have both siblings, then we can hash the sibling and place both
+            // hashes for both siblings into the HashJob for the internal node and
+            // add it to the pendingQueue.
+            siblingJob.hash(hashBuilder);
+            pendingQueue
+                    .addHashJob(pendingQueueIndex)
+                    .dirtyInternal(parentPath, hashJob.getHash(), siblingJob.getHash());
+        } else if (nodePath == firstLeafPath && nodePath == lastLeafPath) {
+            // There is only one leaf, and hashJob is it! There is no sibling
+            pendingQueue.addHashJob(pendingQueueIndex).dirtyInternal(parentPath, hashJob.getHash(), null);
+        } else {
+            // I know the hash MUST exist, because either it was dirty in a previous
+            // round and is stored in the cache, or it was written to disk. Otherwise, if
+            // it were dirty this round, it would have been in the work queue and part
+            // of this unit.
+            final Hash siblingHash = hashReader.apply(siblingPath);
+            if (siblingHash == null) {
+                throw new IllegalStateException(
+                        "Failed to find a hash for " + siblingPath + ", which is a sibling of " + nodePath);
+            }
+            final Hash leftHash = nodePath < siblingPath ? hashJob.getHash() : siblingHash;
+            final Hash rightHash = nodePath < siblingPath ? siblingHash : hashJob.getHash();
+            pendingQueue.addHashJob(pendingQueueIndex).dirtyInternal(parentPath, leftHash, rightHash);
+        }
+    }
+
     /**
      * Read all leaves from the given iterator that are in the given rank and segment and add them to the given buffer.
      *
@@ -22,6 +22,7 @@ import com.swirlds.common.metrics.IntegerGauge;
 import com.swirlds.common.metrics.LongAccumulator;
 import com.swirlds.common.metrics.LongGauge;
 import com.swirlds.common.metrics.Metrics;
+import com.swirlds.common.metrics.SpeedometerMetric;
 import com.swirlds.common.utility.CommonUtils;
 
 /**
@@ -37,6 +38,8 @@ public class VirtualMapStatistics {
     private static final String QUERIES_PREFIX = "queries_";
     /** Prefix for all lifecycle related metric names */
     private static final String LIFECYCLE_PREFIX = "lifecycle_";
+    /** Prefix for all metrics related to reconnects where this node is the teacher */
+    private static final String RECONNECT_PREFIX = "reconnect_";
 
     /** Virtual Map name */
     private final String label;
@@ -70,6 +73,13 @@ public class VirtualMapStatistics {
     /** The average time to hash virtual map copy, ms */
     private LongAccumulator hashDurationMs;
 
+    /** Reconnect teacher - nodes sent / s */
+    private SpeedometerMetric reconnectNodesSent;
+    /** Reconnect teacher - bytes of leaf data sent / s */
+    private SpeedometerMetric reconnectLeafBytesSent;
+    /** Reconnect teacher - leaves sent that the learner already had */
+    private Counter reconnectRedundantLeaves;
+
     private static LongAccumulator buildLongAccumulator(
             final Metrics metrics, final String name, final String description) {
         return metrics.getOrCreate(new LongAccumulator.Config(STAT_CATEGORY, name)
@@ -162,6 +172,17 @@ public class VirtualMapStatistics {
                 metrics,
                 VMAP_PREFIX + LIFECYCLE_PREFIX + "hashDurationMs_" + label,
                 "Virtual root copy hash duration, " + label + ", ms");
+
+        // Reconnect
+        reconnectNodesSent = metrics.getOrCreate(
+                new SpeedometerMetric.Config(STAT_CATEGORY, VMAP_PREFIX + RECONNECT_PREFIX + "nodesSent_" + label)
+                        .withDescription("Nodes sent to a learner during reconnect, " + label + ", per second"));
+        reconnectLeafBytesSent = metrics.getOrCreate(new SpeedometerMetric.Config(
+                        STAT_CATEGORY, VMAP_PREFIX + RECONNECT_PREFIX + "leafBytesSent_" + label)
+                .withDescription("Leaf data sent to a learner during reconnect, " + label + ", bytes per second"));
+        reconnectRedundantLeaves = metrics.getOrCreate(new Counter.Config(
+                        STAT_CATEGORY, VMAP_PREFIX + RECONNECT_PREFIX + "redundantLeaves_" + label)
+                .withDescription("Leaves sent to a learner during reconnect that the learner already had, " + label));
     }
 
     /**
@@ -290,4 +311,33 @@ public class VirtualMapStatistics {
             this.hashDurationMs.update(hashDurationMs);
         }
     }
+
+    /**
+     * Record a node is sent to a learner during reconnect.
+     */
+    public void recordReconnectNodeSent() {
+        if (reconnectNodesSent != null) {
+            reconnectNodesSent.cycle();
+        }
+    }
+
+    /**
+     * Record a leaf is sent to a learner during reconnect, and its serialized size is as specified.
+     *
+     * @param bytes the serialized size of the leaf
+     */
+    public void recordReconnectLeafSent(final int bytes) {
+        if (reconnectLeafBytesSent != null) {
+            reconnectLeafBytesSent.update(bytes);
+        }
+    }
+
+    /**
+     * Record a leaf sent to a learner during reconnect turned out to be known by the learner.
+     */
+    public void countReconnectRedundantLeaves() {
+        if (reconnectRedundantLeaves != null) {
+            reconnectRedundantLeaves.increment();
+        }
+    }
 }
@@ -50,6 +50,7 @@ import com.swirlds.common.merkle.exceptions.IllegalChildIndexException;
 import com.swirlds.common.merkle.impl.PartialBinaryMerkleInternal;
 import com.swirlds.common.merkle.impl.internal.AbstractMerkleInternal;
 import com.swirlds.common.merkle.route.MerkleRoute;
+import com.swirlds.common.merkle.synchronization.config.ReconnectConfig;
 import com.swirlds.common.merkle.synchronization.utility.MerkleSynchronizationException;
 import com.swirlds.common.merkle.synchronization.views.CustomReconnectRoot;
 import com.swirlds.common.merkle.synchronization.views.LearnerTreeView;
@@ -83,6 +84,9 @@ import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.nio.channels.ClosedByInterruptException;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
@@ -1336,7 +1340,14 @@ public final class VirtualRootNode<K extends VirtualKey, V extends VirtualValue>
      */
     @Override
     public TeacherTreeView<Long> buildTeacherView() {
-        return new VirtualTeacherTreeView<>(getStaticThreadManager(), this, state, pipeline);
+        return new VirtualTeacherTreeView<>(
+                getStaticThreadManager(),
+                this,
+                state,
+                pipeline,
+                statistics,
+                config,
+                ConfigurationHolder.getConfigData(ReconnectConfig.class).maxAckDelay());
     }
 
     /**
@@ -1504,6 +1515,26 @@ public final class VirtualRootNode<K extends VirtualKey, V extends VirtualValue>
         records.findLeafRecord(key, false);
     }
 
+    /**
+     * Loads leaf records for the given keys in background. Keys already present in the node cache are
+     * skipped, all other keys are passed to the data source in a single batch, so it can coalesce disk
+     * reads. Loaded records are not put to the node cache, only lower level caches are populated.
+     * @param keys keys to the leaf nodes
+     * @return a future, which is completed when all leaf records are loaded
+     */
+    public CompletableFuture<Void> warmAll(final Collection<K> keys) {
+        final List<K> keysToLoad = new ArrayList<>(keys.size());
+        for (final K key : keys) {
+            if (cache.lookupLeafByKey(key, false) == null) {
+                keysToLoad.add(key);
+            }
+        }
+        if (keysToLoad.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return dataSource.warmLeafRecords(keysToLoad);
+    }
+
     ////////////////////////
 
     /**
@@ -30,22 +30,37 @@ import com.swirlds.common.threading.framework.config.ThreadConfiguration;
 import com.swirlds.common.threading.manager.ThreadManager;
 import com.swirlds.virtualmap.VirtualKey;
 import com.swirlds.virtualmap.VirtualValue;
+import com.swirlds.virtualmap.config.VirtualMapConfig;
 import com.swirlds.virtualmap.datasource.VirtualLeafRecord;
 import com.swirlds.virtualmap.internal.ConcurrentNodeStatusTracker;
 import com.swirlds.virtualmap.internal.RecordAccessor;
 import com.swirlds.virtualmap.internal.VirtualStateAccessor;
+import com.swirlds.virtualmap.internal.merkle.VirtualMapStatistics;
 import com.swirlds.virtualmap.internal.merkle.VirtualRootNode;
 import com.swirlds.virtualmap.internal.pipeline.VirtualPipeline;
 import java.io.IOException;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.TreeMap;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 /**
  * An implementation of {@link TeacherTreeView} designed for virtual merkle trees.
+ * <p>
+ * Nodes are handled in breadth first order, which for a virtual tree is the same as path order. If
+ * {@link VirtualMapConfig#reconnectTeacherWindow()} is set, the number of node hashes sent to the learner without a
+ * response is limited to that window, and the teacher waits briefly for the learner's response before it sends the
+ * data of a node. This keeps the teacher from sending leaves the learner already has. In this mode, leaves the
+ * learner has responded it doesn't have are also read from the data source ahead of the leaf being sent, up to
+ * {@link VirtualMapConfig#reconnectLeafBatchSize()} paths ahead.
  *
  * @param <K>
  * 		The key
@@ -83,6 +98,51 @@ public final class VirtualTeacherTreeView<K extends VirtualKey, V extends Virtua
      */
     private final CountDownLatch ready = new CountDownLatch(1);
 
+    /**
+     * The maximum number of queries sent to the learner without a response, or 0 if there is no limit.
+     */
+    private final int window;
+
+    /**
+     * The maximum time to wait for the learner's response about a node before sending the node, in nanoseconds.
+     */
+    private final long maxAckDelayNanos;
+
+    /**
+     * The number of leaves read from the data source at a time.
+     */
+    private final int leafBatchSize;
+
+    /**
+     * Reconnect metrics are reported here.
+     */
+    private final VirtualMapStatistics statistics;
+
+    /**
+     * The number of queries sent to the learner, and the number of responses received.
+     */
+    private final AtomicLong queriesSent = new AtomicLong();
+
+    private final AtomicLong responsesReceived = new AtomicLong();
+
+    /**
+     * Used to wait for responses, and to detect leaves that were sent even though the learner had them.
+     */
+    private final Object responseLock = new Object();
+
+    /**
+     * The highest leaf path that was sent before the learner responded about it. Leaves are sent in path order, so if
+     * the learner responds that it has a leaf at or below this path, the leaf was sent redundantly. Guarded by
+     * {@link #responseLock}.
+     */
+    private long lastUnconfirmedLeaf = INVALID_PATH;
+
+    /**
+     * Leaf records that have been read ahead of the leaf being sent, by path. Only accessed by the thread that
+     * serializes lessons.
+     */
+    private final NavigableMap<Long, VirtualLeafRecord<K, V>> leafBatch = new TreeMap<>();
+
     /**
      * Create a new {@link VirtualTeacherTreeView}.
      *
@@ -94,15 +154,28 @@ public final class VirtualTeacherTreeView<K extends VirtualKey, V extends Virtua
      * 		The state of the virtual tree that we are synchronizing.
      * @param pipeline
      * 		The pipeline managing the virtual map.
+     * @param statistics
+     * 		The statistics of the virtual map, reconnect metrics are reported here.
+     * @param config
+     * 		The virtual map configuration.
+     * @param maxAckDelay
+     * 		The maximum time to wait for the learner's response about a node before sending the node.
      */
     public VirtualTeacherTreeView(
             final ThreadManager threadManager,
             final VirtualRootNode<K, V> root,
             final VirtualStateAccessor state,
-            final VirtualPipeline pipeline) {
+            final VirtualPipeline pipeline,
+            final VirtualMapStatistics statistics,
+            final VirtualMapConfig config,
+            final Duration maxAckDelay) {
 
         // There is no distinction between originalState and reconnectState in this implementation
         super(root, state, state);
+        this.statistics = Objects.requireNonNull(statistics);
+        this.window = config.reconnectTeacherWindow();
+        this.leafBatchSize = config.reconnectLeafBatchSize();
+        this.maxAckDelayNanos = maxAckDelay.toNanos();
 
         new ThreadConfiguration(threadManager)
                 .setRunnable(() -> {
@@ -161,11 +234,62 @@ public final class VirtualTeacherTreeView<K extends VirtualKey, V extends Virtua
      */
     @Override
     public Long getChildAndPrepareForQueryResponse(final Long parent, final int childIndex) {
+        if (window > 0 && childIndex == 0) {
+            // Only wait before the first child. All queries in flight at this point were sent in earlier lessons,
+            // so the learner will respond to them without this lesson being sent.
+            awaitWindow();
+        }
         final long child = getChild(parent, childIndex);
+        queriesSent.incrementAndGet();
         expectedResponseQueue.add(child);
         return child;
     }
 
+    /**
+     * Wait until the number of queries without a response is below the window.
+     */
+    private void awaitWindow() {
+        synchronized (responseLock) {
+            while (queriesSent.get() - responsesReceived.get() >= window) {
+                try {
+                    responseLock.wait();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new MerkleSynchronizationException("interrupted while waiting for learner responses");
+                }
+            }
+        }
+    }
+
+    /**
+     * Wait up to the max ack delay for the learner's response about a node, if it hasn't been received yet.
+     */
+    private void awaitResponse(final long node) {
+        if (nodeStatusTracker.getStatus(node) != ConcurrentNodeStatusTracker.Status.UNKNOWN) {
+            return;
+        }
+        final long deadline = System.nanoTime() + maxAckDelayNanos;
+        synchronized (responseLock) {
+            long remaining = deadline - System.nanoTime();
+            while (nodeStatusTracker.getStatus(node) == ConcurrentNodeStatusTracker.Status.UNKNOWN && remaining > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(responseLock, remaining);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new MerkleSynchronizationException("interrupted while waiting for a learner response");
+                }
+                remaining = deadline - System.nanoTime();
+            }
+        }
+    }
+
+    /**
+     * Check if a node is a leaf.
+     */
+    private boolean isLeaf(final long node) {
+        return node != ROOT_PATH && node >= reconnectState.getFirstLeafPath();
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -191,6 +315,17 @@ public final class VirtualTeacherTreeView<K extends VirtualKey, V extends Virtua
                 ? ConcurrentNodeStatusTracker.Status.KNOWN
                 : ConcurrentNodeStatusTracker.Status.NOT_KNOWN;
         nodeStatusTracker.set(node, status);
+        responsesReceived.incrementAndGet();
+
+        final boolean leaf = isLeaf(node);
+        if (window > 0 || (learnerHasNode && leaf)) {
+            synchronized (responseLock) {
+                if (learnerHasNode && leaf && node <= lastUnconfirmedLeaf) {
+                    statistics.countReconnectRedundantLeaves();
+                }
+                responseLock.notifyAll();
+            }
+        }
     }
 
     /**
@@ -198,7 +333,19 @@ public final class VirtualTeacherTreeView<K extends VirtualKey, V extends Virtua
      */
     @Override
     public boolean hasLearnerConfirmedFor(final Long node) {
-        return nodeStatusTracker.getStatus(node) == ConcurrentNodeStatusTracker.Status.KNOWN;
+        if (window > 0) {
+            awaitResponse(node);
+        }
+        if (!isLeaf(node)) {
+            return nodeStatusTracker.getStatus(node) == ConcurrentNodeStatusTracker.Status.KNOWN;
+        }
+        synchronized (responseLock) {
+            if (nodeStatusTracker.getStatus(node) == ConcurrentNodeStatusTracker.Status.KNOWN) {
+                return true;
+            }
+            lastUnconfirmedLeaf = node;
+            return false;
+        }
     }
 
     /**
@@ -207,9 +354,39 @@ public final class VirtualTeacherTreeView<K extends VirtualKey, V extends Virtua
     @Override
     public void serializeLeaf(final SerializableDataOutputStream out, final Long leaf) throws IOException {
         checkValidLeaf(leaf, reconnectState);
-        final VirtualLeafRecord<K, V> leafRecord = records.findLeafRecord(leaf, false);
+        final VirtualLeafRecord<K, V> leafRecord = getLeafRecord(leaf);
         assert leafRecord != null : "Unexpected null leaf record at path=" + leaf;
+        final int start = out.size();
         out.writeSerializable(leafRecord, false);
+        statistics.recordReconnectNodeSent();
+        statistics.recordReconnectLeafSent(out.size() - start);
+    }
+
+    /**
+     * Get the record of a leaf that is about to be sent. Leaves are sent in path order, so if the window is enabled and
+     * a leaf hasn't been read yet, the leaves that follow it are read as well. Only leaves the learner responded it
+     * doesn't have are read ahead, since they are sure to be sent. Leaves without a response are read when sent.
+     */
+    private VirtualLeafRecord<K, V> getLeafRecord(final long leaf) {
+        if (window == 0) {
+            // without the window, responses for the next leaves are rarely in yet, so there is nothing to read ahead
+            return records.findLeafRecord(leaf, false);
+        }
+        // leaves with a lower path will not be sent anymore
+        leafBatch.headMap(leaf).clear();
+        final VirtualLeafRecord<K, V> batched = leafBatch.remove(leaf);
+        if (batched != null) {
+            return batched;
+        }
+
+        final long lastPath = Math.min(leaf + leafBatchSize - 1, reconnectState.getLastLeafPath());
+        for (long path = leaf + 1; path <= lastPath; path++) {
+            if (!leafBatch.containsKey(path)
+                    && nodeStatusTracker.getStatus(path) == ConcurrentNodeStatusTracker.Status.NOT_KNOWN) {
+                leafBatch.put(path, records.findLeafRecord(path, false));
+            }
+        }
+        return records.findLeafRecord(leaf, false);
     }
 
     /**
@@ -224,6 +401,7 @@ public final class VirtualTeacherTreeView<K extends VirtualKey, V extends Virtua
             out.writeLong(reconnectState.getFirstLeafPath());
             out.writeLong(reconnectState.getLastLeafPath());
         }
+        statistics.recordReconnectNodeSent();
     }
 
     /**
@@ -150,6 +150,58 @@ class VirtualHasherTest extends VirtualHasherTestBase {
         assertRecordsInRankAreAscendingPathOrder(listener);
     }
 
+    /**
+     * Same as {@link #hashingPermutations(long, long, List)}, but ranks are hashed on a fork-join pool.
+     *
+     * @param firstLeafPath
+     * 		The first leaf path.
+     * @param lastLeafPath
+     * 		The last leaf path.
+     * @param dirtyPaths
+     * 		The leaf paths that are dirty in this tree.
+     */
+    @ParameterizedTest
+    @MethodSource("hashingPermutations")
+    @Tag(TestTypeTags.FUNCTIONAL)
+    @Tag(TestComponentTags.VMAP)
+    @DisplayName("Test various dirty nodes in a tree with fork-join hashing")
+    void forkJoinHashingPermutations(final long firstLeafPath, final long lastLeafPath, final List<Long> dirtyPaths) {
+        final TestDataSource ds = new TestDataSource(firstLeafPath, lastLeafPath);
+        final HashingListener listener = new HashingListener();
+        final VirtualHasher<TestKey, TestValue> hasher = new VirtualHasher<>(true);
+        final Hash expected = hashTree(ds);
+        final List<VirtualLeafRecord<TestKey, TestValue>> leaves = invalidateNodes(ds, dirtyPaths.stream());
+        final Hash rootHash = hasher.hash(ds::loadHash, leaves.iterator(), firstLeafPath, lastLeafPath, listener);
+        assertEquals(expected, rootHash, "Hash value does not match expected");
+        assertCallsAreBalanced(listener);
+        assertRecordsInRankAreAscendingPathOrder(listener);
+    }
+
+    /**
+     * Ranks in small trees are hashed in a single fork-join chunk. This test uses a tree large enough to
+     * split ranks into many chunks, which are then stolen by different fork-join threads.
+     */
+    @Test
+    @Tag(TestTypeTags.FUNCTIONAL)
+    @Tag(TestComponentTags.VMAP)
+    @DisplayName("Fork-join hashing of a large tree produces the expected hash")
+    void forkJoinHashingLargeTree() {
+        final long firstLeafPath = 49_999L;
+        final long lastLeafPath = 99_998L;
+        final VirtualHasher<TestKey, TestValue> hasher = new VirtualHasher<>(true);
+        for (final Arguments args : randomDirtyLeaves(3, firstLeafPath, lastLeafPath)) {
+            @SuppressWarnings("unchecked")
+            final List<Long> dirtyPaths = (List<Long>) args.get()[2];
+            final TestDataSource ds = new TestDataSource(firstLeafPath, lastLeafPath);
+            final Hash expected = hashTree(ds);
+            final HashingListener listener = new HashingListener();
+            final List<VirtualLeafRecord<TestKey, TestValue>> leaves = invalidateNodes(ds, dirtyPaths.stream());
+            final Hash rootHash = hasher.hash(ds::loadHash, leaves.iterator(), firstLeafPath, lastLeafPath, listener);
+            assertEquals(expected, rootHash, "Hash value does not match expected");
+            assertRecordsInRankAreAscendingPathOrder(listener);
+        }
+    }
+
     /**
      * Generate permutations of trees for testing hashing.
      *
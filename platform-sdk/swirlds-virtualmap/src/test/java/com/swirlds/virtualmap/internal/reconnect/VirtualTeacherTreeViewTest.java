@@ -0,0 +1,201 @@
+/*
+ * Copyright (C) 2023 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.virtualmap.internal.reconnect;
+
+import static com.swirlds.common.threading.manager.AdHocThreadManager.getStaticThreadManager;
+import static com.swirlds.virtualmap.VirtualMapTestUtils.createRoot;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.swirlds.common.config.sources.SimpleConfigSource;
+import com.swirlds.common.io.streams.SerializableDataOutputStream;
+import com.swirlds.config.api.ConfigurationBuilder;
+import com.swirlds.virtualmap.TestKey;
+import com.swirlds.virtualmap.TestValue;
+import com.swirlds.virtualmap.config.VirtualMapConfig;
+import com.swirlds.virtualmap.datasource.VirtualLeafRecord;
+import com.swirlds.virtualmap.internal.RecordAccessor;
+import com.swirlds.virtualmap.internal.merkle.DummyVirtualStateAccessor;
+import com.swirlds.virtualmap.internal.merkle.VirtualMapStatistics;
+import com.swirlds.virtualmap.internal.merkle.VirtualRootNode;
+import com.swirlds.virtualmap.internal.pipeline.VirtualPipeline;
+import java.io.ByteArrayOutputStream;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class VirtualTeacherTreeViewTest {
+
+    private static final long FIRST_LEAF_PATH = 3;
+    private static final long LAST_LEAF_PATH = 6;
+
+    private VirtualRootNode<TestKey, TestValue> root;
+    private RecordAccessor<TestKey, TestValue> records;
+    private VirtualMapStatistics statistics;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        root = createRoot();
+        records = mock(RecordAccessor.class);
+        when(records.findLeafRecord(anyLong(), eq(false)))
+                .thenAnswer(invocation -> leafRecord(invocation.getArgument(0)));
+        statistics = mock(VirtualMapStatistics.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        root.release();
+    }
+
+    private static VirtualLeafRecord<TestKey, TestValue> leafRecord(final long path) {
+        return new VirtualLeafRecord<>(path, new TestKey(path), new TestValue(path));
+    }
+
+    /**
+     * Build a teacher view of a tree with internal nodes 0 to 2 and leaves 3 to 6.
+     */
+    private VirtualTeacherTreeView<TestKey, TestValue> buildView(final int window, final Duration maxAckDelay)
+            throws InterruptedException {
+        final DummyVirtualStateAccessor state = new DummyVirtualStateAccessor();
+        state.setFirstLeafPath(FIRST_LEAF_PATH);
+        state.setLastLeafPath(LAST_LEAF_PATH);
+        final VirtualPipeline pipeline = mock(VirtualPipeline.class);
+        doReturn(records).when(pipeline).detachCopy(root);
+        final VirtualMapConfig config = ConfigurationBuilder.create()
+                .withSources(new SimpleConfigSource("virtualMap.reconnectTeacherWindow", window)
+                        .withValue("virtualMap.reconnectLeafBatchSize", 4))
+                .withConfigDataType(VirtualMapConfig.class)
+                .build()
+                .getConfigData(VirtualMapConfig.class);
+        final VirtualTeacherTreeView<TestKey, TestValue> view = new VirtualTeacherTreeView<>(
+                getStaticThreadManager(), root, state, pipeline, statistics, config, maxAckDelay);
+        view.waitUntilReady();
+        return view;
+    }
+
+    private static void sendLeaf(final VirtualTeacherTreeView<TestKey, TestValue> view, final long leaf)
+            throws Exception {
+        view.serializeLeaf(new SerializableDataOutputStream(new ByteArrayOutputStream()), leaf);
+    }
+
+    @Test
+    @DisplayName("Without a window, only the leaf being sent is read")
+    void noReadAheadWithoutWindow() throws Exception {
+        final VirtualTeacherTreeView<TestKey, TestValue> view = buildView(0, Duration.ofSeconds(10));
+        view.registerResponseForNode(4L, false);
+        view.registerResponseForNode(5L, false);
+
+        sendLeaf(view, 3);
+
+        verify(records).findLeafRecord(3, false);
+        verify(records, never()).findLeafRecord(4, false);
+        verify(records, never()).findLeafRecord(5, false);
+    }
+
+    @Test
+    @DisplayName("With a window, only leaves the learner doesn't have are read ahead")
+    void readAheadSkipsKnownAndUnansweredLeaves() throws Exception {
+        final VirtualTeacherTreeView<TestKey, TestValue> view = buildView(4, Duration.ofSeconds(10));
+        view.registerResponseForNode(3L, false);
+        view.registerResponseForNode(4L, true);
+        view.registerResponseForNode(5L, false);
+
+        sendLeaf(view, 3);
+        verify(records).findLeafRecord(3, false);
+        verify(records, never()).findLeafRecord(4, false);
+        verify(records).findLeafRecord(5, false);
+        verify(records, never()).findLeafRecord(6, false);
+
+        // the read ahead leaf is sent without reading it again, the leaf without a response is read when sent
+        sendLeaf(view, 5);
+        sendLeaf(view, 6);
+        verify(records, times(1)).findLeafRecord(5, false);
+        verify(records, times(1)).findLeafRecord(6, false);
+    }
+
+    @Test
+    @DisplayName("Queries sent without a response are limited by the window")
+    void windowLimitsQueriesInFlight() throws Exception {
+        final VirtualTeacherTreeView<TestKey, TestValue> view = buildView(2, Duration.ofSeconds(10));
+        assertEquals(1L, view.getChildAndPrepareForQueryResponse(0L, 0), "unexpected left child of the root");
+        assertEquals(2L, view.getChildAndPrepareForQueryResponse(0L, 1), "unexpected right child of the root");
+
+        final CompletableFuture<Long> child =
+                CompletableFuture.supplyAsync(() -> view.getChildAndPrepareForQueryResponse(1L, 0));
+        assertThrows(
+                TimeoutException.class,
+                () -> child.get(200, TimeUnit.MILLISECONDS),
+                "a full window should block the next query");
+
+        view.registerResponseForNode(view.getNodeForNextResponse(), false);
+        assertEquals(3L, child.get(10, TimeUnit.SECONDS), "a response should open the window");
+    }
+
+    @Test
+    @DisplayName("The teacher waits for the learner's response before sending a node")
+    void waitForResponseBeforeSending() throws Exception {
+        final VirtualTeacherTreeView<TestKey, TestValue> view = buildView(2, Duration.ofSeconds(10));
+
+        final CompletableFuture<Boolean> confirmed =
+                CompletableFuture.supplyAsync(() -> view.hasLearnerConfirmedFor(3L));
+        assertThrows(
+                TimeoutException.class,
+                () -> confirmed.get(200, TimeUnit.MILLISECONDS),
+                "the teacher should wait for the response");
+
+        view.registerResponseForNode(3L, true);
+        assertTrue(confirmed.get(10, TimeUnit.SECONDS), "the learner has the leaf");
+        verify(statistics, never()).countReconnectRedundantLeaves();
+    }
+
+    @Test
+    @DisplayName("The teacher sends a node if the response doesn't arrive in time")
+    void sendAfterMaxAckDelay() throws Exception {
+        final VirtualTeacherTreeView<TestKey, TestValue> view = buildView(2, Duration.ofMillis(50));
+        assertFalse(view.hasLearnerConfirmedFor(3L), "the leaf should be sent without a response");
+    }
+
+    @Test
+    @DisplayName("Leaves sent before the learner said it had them are counted")
+    void redundantLeavesAreCounted() throws Exception {
+        final VirtualTeacherTreeView<TestKey, TestValue> view = buildView(0, Duration.ofSeconds(10));
+        assertFalse(view.hasLearnerConfirmedFor(3L), "no response has been received for the leaf");
+
+        view.registerResponseForNode(3L, true);
+        verify(statistics, times(1)).countReconnectRedundantLeaves();
+
+        // this leaf hasn't been sent, so the response is not redundant
+        view.registerResponseForNode(4L, true);
+        verify(statistics, times(1)).countReconnectRedundantLeaves();
+    }
+}